@@ -0,0 +1,250 @@
+package mchorse.aperture.camera.core;
+
+/**
+ * Curve math
+ *
+ * Math functions used by camera fixtures and modifiers. These are the
+ * same functions Minecraft's MathHelper provides (sine, cosine and
+ * atan2 use the same tables and approximations, so camera movement
+ * stays bit identical), but this class doesn't depend on the game, so
+ * camera math could be tested and benchmarked without it.
+ */
+public class CurveMath
+{
+    /**
+     * Sine table, the same as the one in Minecraft
+     */
+    private static final float[] SIN_TABLE = new float[65536];
+
+    /**
+     * Arc sine and cosine tables, and the bias, which are used by atan2
+     * approximation (the same as in Minecraft)
+     */
+    private static final double FRAC_BIAS = Double.longBitsToDouble(4805340802404319232L);
+    private static final double[] ASINE_TAB = new double[257];
+    private static final double[] COS_TAB = new double[257];
+
+    static
+    {
+        for (int i = 0; i < SIN_TABLE.length; i++)
+        {
+            SIN_TABLE[i] = (float) Math.sin(i * Math.PI * 2 / 65536);
+        }
+
+        for (int i = 0; i < ASINE_TAB.length; i++)
+        {
+            double asin = Math.asin(i / 256D);
+
+            COS_TAB[i] = Math.cos(asin);
+            ASINE_TAB[i] = asin;
+        }
+    }
+
+    public static float sin(float value)
+    {
+        return SIN_TABLE[(int) (value * 10430.378F) & 65535];
+    }
+
+    public static float cos(float value)
+    {
+        return SIN_TABLE[(int) (value * 10430.378F + 16384.0F) & 65535];
+    }
+
+    public static float sqrt(double value)
+    {
+        return (float) Math.sqrt(value);
+    }
+
+    /**
+     * Table based atan2 approximation, the same as MathHelper.atan2()
+     */
+    public static double atan2(double y, double x)
+    {
+        double squared = x * x + y * y;
+
+        if (Double.isNaN(squared))
+        {
+            return Double.NaN;
+        }
+
+        boolean negativeY = y < 0;
+        boolean negativeX = x < 0;
+
+        if (negativeY)
+        {
+            y = -y;
+        }
+
+        if (negativeX)
+        {
+            x = -x;
+        }
+
+        boolean swapped = y > x;
+
+        if (swapped)
+        {
+            double tmp = x;
+
+            x = y;
+            y = tmp;
+        }
+
+        double inverse = fastInvSqrt(squared);
+
+        x = x * inverse;
+        y = y * inverse;
+
+        double biased = FRAC_BIAS + y;
+        int index = (int) Double.doubleToRawLongBits(biased);
+        double asin = ASINE_TAB[index];
+        double cos = COS_TAB[index];
+        double sin = biased - FRAC_BIAS;
+        double delta = y * cos - x * sin;
+        double correction = (6 + delta * delta) * delta * 0.16666666666666666D;
+        double angle = asin + correction;
+
+        if (swapped)
+        {
+            angle = (Math.PI / 2D) - angle;
+        }
+
+        if (negativeX)
+        {
+            angle = Math.PI - angle;
+        }
+
+        if (negativeY)
+        {
+            angle = -angle;
+        }
+
+        return angle;
+    }
+
+    /**
+     * Fast inverse square root, the same as MathHelper.fastInvSqrt()
+     */
+    public static double fastInvSqrt(double value)
+    {
+        double half = 0.5D * value;
+        long bits = Double.doubleToRawLongBits(value);
+
+        bits = 6910469410427058090L - (bits >> 1);
+        value = Double.longBitsToDouble(bits);
+
+        return value * (1.5D - half * value * value);
+    }
+
+    public static int clamp(int value, int min, int max)
+    {
+        return value < min ? min : (value > max ? max : value);
+    }
+
+    public static float clamp(float value, float min, float max)
+    {
+        return value < min ? min : (value > max ? max : value);
+    }
+
+    public static double clamp(double value, double min, double max)
+    {
+        return value < min ? min : (value > max ? max : value);
+    }
+
+    /**
+     * Wrap given angle (in degrees) into -180..180 range
+     */
+    public static float wrapDegrees(float value)
+    {
+        value = value % 360.0F;
+
+        if (value >= 180.0F)
+        {
+            value -= 360.0F;
+        }
+
+        if (value < -180.0F)
+        {
+            value += 360.0F;
+        }
+
+        return value;
+    }
+
+    public static double wrapDegrees(double value)
+    {
+        value = value % 360.0D;
+
+        if (value >= 180.0D)
+        {
+            value -= 360.0D;
+        }
+
+        if (value < -180.0D)
+        {
+            value += 360.0D;
+        }
+
+        return value;
+    }
+
+    /* Interpolations (the same as mclib's Interpolations, so keyframe 
+     * channels evaluate bit identically) */
+
+    public static float lerp(float a, float b, float x)
+    {
+        return a + (b - a) * x;
+    }
+
+    /**
+     * Cubic bezier curve with given control points
+     */
+    public static float bezier(float x1, float x2, float x3, float x4, float t)
+    {
+        float t1 = lerp(x1, x2, t);
+        float t2 = lerp(x2, x3, t);
+        float t3 = lerp(x3, x4, t);
+        float t4 = lerp(t1, t2, t);
+        float t5 = lerp(t2, t3, t);
+
+        return lerp(t4, t5, t);
+    }
+
+    /**
+     * Find the parameter of bezier curve (from 0 to 1, with given inner 
+     * control points) at which the curve reaches given x
+     */
+    public static float bezierX(float x1, float x2, float t, final float epsilon)
+    {
+        float x = t;
+        float init = bezier(0, x1, x2, 1, t);
+        float factor = Math.copySign(0.1F, t - init);
+
+        while (Math.abs(t - init) > epsilon)
+        {
+            float oldFactor = factor;
+
+            x += factor;
+            init = bezier(0, x1, x2, 1, x);
+
+            if (Math.copySign(factor, t - init) != oldFactor)
+            {
+                factor *= -0.25F;
+            }
+        }
+
+        return x;
+    }
+
+    /**
+     * Cubic hermite spline between y1 and y2 (Catmull-Rom)
+     */
+    public static double cubicHermite(double y0, double y1, double y2, double y3, double x)
+    {
+        double a = -0.5 * y0 + 1.5 * y1 - 1.5 * y2 + 0.5 * y3;
+        double b = y0 - 2.5 * y1 + 2 * y2 - 0.5 * y3;
+        double c = -0.5 * y0 + 0.5 * y2;
+
+        return ((a * x + b) * x + c) * x + y1;
+    }
+}
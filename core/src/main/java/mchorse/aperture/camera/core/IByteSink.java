@@ -0,0 +1,37 @@
+package mchorse.aperture.camera.core;
+
+import mchorse.aperture.camera.core.VarInts.IByteWriter;
+
+/**
+ * Byte sink
+ *
+ * Adapter of a byte buffer or stream which camera data is written to. 
+ * Numbers are written in big-endian order (same as netty's buffers), 
+ * and adapters may override these methods with their own faster ones.
+ */
+public interface IByteSink extends IByteWriter
+{
+    public default void writeInt(int value)
+    {
+        this.writeByte(value >>> 24);
+        this.writeByte(value >>> 16);
+        this.writeByte(value >>> 8);
+        this.writeByte(value);
+    }
+
+    public default void writeLong(long value)
+    {
+        this.writeInt((int) (value >>> 32));
+        this.writeInt((int) value);
+    }
+
+    public default void writeFloat(float value)
+    {
+        this.writeInt(Float.floatToRawIntBits(value));
+    }
+
+    public default void writeDouble(double value)
+    {
+        this.writeLong(Double.doubleToRawLongBits(value));
+    }
+}
@@ -0,0 +1,40 @@
+package mchorse.aperture.camera.core;
+
+import mchorse.aperture.camera.core.VarInts.IByteReader;
+
+/**
+ * Byte source
+ *
+ * Adapter of a byte buffer or stream which camera data is read from. 
+ * Numbers are read in big-endian order (same as netty's buffers), and
+ * adapters may override these methods with their own faster ones.
+ */
+public interface IByteSource extends IByteReader
+{
+    public default int readInt()
+    {
+        int value = 0;
+
+        for (int i = 0; i < 4; i++)
+        {
+            value = (value << 8) | (this.readByte() & 0xFF);
+        }
+
+        return value;
+    }
+
+    public default long readLong()
+    {
+        return ((long) this.readInt() << 32) | (this.readInt() & 0xFFFFFFFFL);
+    }
+
+    public default float readFloat()
+    {
+        return Float.intBitsToFloat(this.readInt());
+    }
+
+    public default double readDouble()
+    {
+        return Double.longBitsToDouble(this.readLong());
+    }
+}
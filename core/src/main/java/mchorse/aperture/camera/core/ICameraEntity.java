@@ -0,0 +1,30 @@
+package mchorse.aperture.camera.core;
+
+/**
+ * Camera entity
+ *
+ * Adapter of an entity (usually the player) which camera positions are
+ * taken from, or applied to.
+ */
+public interface ICameraEntity
+{
+    public double getX();
+
+    public double getY();
+
+    public double getZ();
+
+    public float getYaw();
+
+    public float getPitch();
+
+    /**
+     * Camera's roll and field of view (these aren't entity's properties,
+     * but they're taken along with its rotation)
+     */
+    public float getRoll();
+
+    public float getFov();
+
+    public void setPosition(double x, double y, double z, float yaw, float pitch);
+}
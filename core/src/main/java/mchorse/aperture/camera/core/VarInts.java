@@ -0,0 +1,129 @@
+package mchorse.aperture.camera.core;
+
+/**
+ * Variable length integers
+ *
+ * Variable length encoding of integers (LEB128 style, 7 bits per byte)
+ * and zig-zag encoding for signed values, which are used by the compact
+ * camera profile encoding. Bytes are written and read through small
+ * adapter interfaces, so this codec works with any buffer or stream.
+ */
+public class VarInts
+{
+    /**
+     * Write an unsigned variable length int
+     */
+    public static void writeVarInt(IByteWriter writer, int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            writer.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        writer.writeByte(value);
+    }
+
+    /**
+     * Read an unsigned variable length int
+     */
+    public static int readVarInt(IByteReader reader)
+    {
+        int value = 0;
+        int shift = 0;
+        byte b;
+
+        do
+        {
+            if (shift >= 35)
+            {
+                throw new IllegalStateException("Variable length int is too big!");
+            }
+
+            b = reader.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+
+        return value;
+    }
+
+    /**
+     * Write an unsigned variable length long
+     */
+    public static void writeVarLong(IByteWriter writer, long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            writer.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        writer.writeByte((int) value);
+    }
+
+    /**
+     * Read an unsigned variable length long
+     */
+    public static long readVarLong(IByteReader reader)
+    {
+        long value = 0;
+        int shift = 0;
+        byte b;
+
+        do
+        {
+            if (shift >= 70)
+            {
+                throw new IllegalStateException("Variable length long is too big!");
+            }
+
+            b = reader.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+
+        return value;
+    }
+
+    /**
+     * Zig-zag encode an int, so small negative numbers are also short
+     */
+    public static int encodeZigZag(int value)
+    {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    public static int decodeZigZag(int value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static long encodeZigZag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long decodeZigZag(long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Byte writer adapter
+     */
+    public static interface IByteWriter
+    {
+        public void writeByte(int value);
+    }
+
+    /**
+     * Byte reader adapter
+     */
+    public static interface IByteReader
+    {
+        public byte readByte();
+    }
+}
@@ -1,14 +1,11 @@
 package mchorse.aperture.camera.data;
 
-import com.google.common.base.Objects;
 import com.google.gson.annotations.Expose;
 
-import io.netty.buffer.ByteBuf;
-import mchorse.aperture.Aperture;
-import mchorse.aperture.ClientProxy;
-import net.minecraft.client.Minecraft;
-import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.util.math.MathHelper;
+import mchorse.aperture.camera.core.CurveMath;
+import mchorse.aperture.camera.core.IByteSink;
+import mchorse.aperture.camera.core.IByteSource;
+import mchorse.aperture.camera.core.ICameraEntity;
 
 /**
  * Angle class
@@ -18,6 +15,12 @@ import net.minecraft.util.math.MathHelper;
  */
 public class Angle
 {
+    /**
+     * Whether pitch is clamped between -90 and 90 degrees (the mod sets
+     * it from its config)
+     */
+    public static boolean clampPitch;
+
     @Expose
     public float yaw;
 
@@ -30,9 +33,9 @@ public class Angle
     @Expose
     public float fov = 70.0F;
 
-    public static Angle fromByteBuf(ByteBuf buffer)
+    public static Angle fromBytes(IByteSource source)
     {
-        return new Angle(buffer.readFloat(), buffer.readFloat(), buffer.readFloat(), buffer.readFloat());
+        return new Angle(source.readFloat(), source.readFloat(), source.readFloat(), source.readFloat());
     }
 
     public Angle(float yaw, float pitch, float roll, float fov)
@@ -59,29 +62,27 @@ public class Angle
 
     public void set(float yaw, float pitch)
     {
-        if (Aperture.proxy != null && Aperture.proxy.config.camera_smooth_clamp)
+        if (clampPitch)
         {
             /* Clamp pitch */
-            pitch = MathHelper.clamp_float(pitch, -90, 90);
+            pitch = CurveMath.clamp(pitch, -90, 90);
         }
 
         this.yaw = yaw;
         this.pitch = pitch;
     }
 
-    public void set(EntityPlayer player)
+    public void set(ICameraEntity entity)
     {
-        float fov = Minecraft.getMinecraft().gameSettings.fovSetting;
-
-        this.set(player.rotationYaw, player.rotationPitch, ClientProxy.control.roll, fov);
+        this.set(entity.getYaw(), entity.getPitch(), entity.getRoll(), entity.getFov());
     }
 
-    public void toByteBuf(ByteBuf buffer)
+    public void toBytes(IByteSink sink)
     {
-        buffer.writeFloat(this.yaw);
-        buffer.writeFloat(this.pitch);
-        buffer.writeFloat(this.roll);
-        buffer.writeFloat(this.fov);
+        sink.writeFloat(this.yaw);
+        sink.writeFloat(this.pitch);
+        sink.writeFloat(this.roll);
+        sink.writeFloat(this.fov);
     }
 
     @Override
@@ -93,6 +94,6 @@ public class Angle
     @Override
     public String toString()
     {
-        return Objects.toStringHelper(this).addValue(this.yaw).addValue(this.pitch).addValue(this.roll).addValue(this.fov).toString();
+        return "Angle{" + this.yaw + ", " + this.pitch + ", " + this.roll + ", " + this.fov + "}";
     }
 }
\ No newline at end of file
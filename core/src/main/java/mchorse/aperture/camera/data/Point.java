@@ -1,10 +1,10 @@
 package mchorse.aperture.camera.data;
 
-import com.google.common.base.Objects;
 import com.google.gson.annotations.Expose;
 
-import io.netty.buffer.ByteBuf;
-import net.minecraft.entity.player.EntityPlayer;
+import mchorse.aperture.camera.core.IByteSink;
+import mchorse.aperture.camera.core.IByteSource;
+import mchorse.aperture.camera.core.ICameraEntity;
 
 /**
  * Point class
@@ -24,11 +24,11 @@ public class Point
     public double z;
 
     /**
-     * Read a {@link Point} instance from byte buffer 
+     * Read a {@link Point} instance from byte source 
      */
-    public static Point fromByteBuf(ByteBuf buffer)
+    public static Point fromBytes(IByteSource source)
     {
-        return new Point(buffer.readDouble(), buffer.readDouble(), buffer.readDouble());
+        return new Point(source.readDouble(), source.readDouble(), source.readDouble());
     }
 
     public Point(double x, double y, double z)
@@ -36,9 +36,9 @@ public class Point
         this.set(x, y, z);
     }
 
-    public Point(EntityPlayer player)
+    public Point(ICameraEntity entity)
     {
-        this.set(player);
+        this.set(entity);
     }
 
     public void set(double x, double y, double z)
@@ -53,16 +53,16 @@ public class Point
         this.set(point.x, point.y, point.z);
     }
 
-    public void set(EntityPlayer player)
+    public void set(ICameraEntity entity)
     {
-        this.set(player.posX, player.posY, player.posZ);
+        this.set(entity.getX(), entity.getY(), entity.getZ());
     }
 
-    public void toByteBuf(ByteBuf buffer)
+    public void toBytes(IByteSink sink)
     {
-        buffer.writeDouble(this.x);
-        buffer.writeDouble(this.y);
-        buffer.writeDouble(this.z);
+        sink.writeDouble(this.x);
+        sink.writeDouble(this.y);
+        sink.writeDouble(this.z);
     }
 
     public Point clone()
@@ -73,6 +73,6 @@ public class Point
     @Override
     public String toString()
     {
-        return Objects.toStringHelper(this).addValue(this.x).addValue(this.y).addValue(this.z).toString();
+        return "Point{" + this.x + ", " + this.y + ", " + this.z + "}";
     }
 }
\ No newline at end of file
@@ -1,10 +1,10 @@
 package mchorse.aperture.camera.data;
 
-import com.google.common.base.Objects;
 import com.google.gson.annotations.Expose;
 
-import io.netty.buffer.ByteBuf;
-import net.minecraft.entity.player.EntityPlayer;
+import mchorse.aperture.camera.core.IByteSink;
+import mchorse.aperture.camera.core.IByteSource;
+import mchorse.aperture.camera.core.ICameraEntity;
 
 /**
  * Position class
@@ -24,9 +24,9 @@ public class Position
     @Expose
     public Angle angle = new Angle(0, 0);
 
-    public static Position fromByteBuf(ByteBuf buffer)
+    public static Position fromBytes(IByteSource source)
     {
-        return new Position(Point.fromByteBuf(buffer), Angle.fromByteBuf(buffer));
+        return new Position(Point.fromBytes(source), Angle.fromBytes(source));
     }
 
     public Position()
@@ -50,9 +50,9 @@ public class Position
         this.angle.set(yaw, pitch, roll, fov);
     }
 
-    public Position(EntityPlayer player)
+    public Position(ICameraEntity entity)
     {
-        this.set(player);
+        this.set(entity);
     }
 
     public void set(Position position)
@@ -61,10 +61,10 @@ public class Position
         this.angle.set(position.angle);
     }
 
-    public void set(EntityPlayer player)
+    public void set(ICameraEntity entity)
     {
-        this.point.set(player);
-        this.angle.set(player);
+        this.point.set(entity);
+        this.angle.set(entity);
     }
 
     public void copy(Position position)
@@ -73,18 +73,15 @@ public class Position
         this.angle.set(position.angle.yaw, position.angle.pitch, position.angle.roll, position.angle.fov);
     }
 
-    public void apply(EntityPlayer player)
+    public void apply(ICameraEntity entity)
     {
-        player.setPositionAndRotation(this.point.x, this.point.y, this.point.z, this.angle.yaw, this.angle.pitch);
-        player.setLocationAndAngles(this.point.x, this.point.y, this.point.z, this.angle.yaw, this.angle.pitch);
-        player.motionX = player.motionY = player.motionZ = 0;
-        player.rotationYawHead = player.prevRotationYawHead = this.angle.yaw;
+        entity.setPosition(this.point.x, this.point.y, this.point.z, this.angle.yaw, this.angle.pitch);
     }
 
-    public void toByteBuf(ByteBuf buffer)
+    public void toBytes(IByteSink sink)
     {
-        this.point.toByteBuf(buffer);
-        this.angle.toByteBuf(buffer);
+        this.point.toBytes(sink);
+        this.angle.toBytes(sink);
     }
 
     public Position clone()
@@ -95,6 +92,6 @@ public class Position
     @Override
     public String toString()
     {
-        return Objects.toStringHelper(this).addValue(this.point).addValue(this.angle).toString();
+        return "Position{" + this.point + ", " + this.angle + "}";
     }
 }
\ No newline at end of file
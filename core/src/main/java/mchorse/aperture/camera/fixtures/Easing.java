@@ -0,0 +1,9 @@
+package mchorse.aperture.camera.fixtures;
+
+/**
+ * Easing of keyframe interpolation
+ */
+public enum Easing
+{
+    IN, OUT, INOUT;
+}
@@ -0,0 +1,165 @@
+package mchorse.aperture.camera.fixtures;
+
+import com.google.gson.annotations.Expose;
+
+import mchorse.aperture.camera.core.IByteSink;
+import mchorse.aperture.camera.core.IByteSource;
+
+/**
+ * Keyframe class
+ * 
+ * This class is responsible for storing individual keyframe properties such 
+ * as tick at which its located, value, interpolation, easing type, etc.
+ */
+public class Keyframe
+{
+    /**
+     * Flag bit which indicates that byte encoded keyframe has 
+     * non-default bezier handles 
+     */
+    private static final int HAS_HANDLES = 0x80;
+
+    public Keyframe prev;
+    public Keyframe next;
+
+    @Expose
+    public long tick;
+
+    @Expose
+    public float value;
+
+    @Expose
+    public KeyframeInterpolation interp = KeyframeInterpolation.LINEAR;
+
+    @Expose
+    public Easing easing = Easing.IN;
+
+    @Expose
+    public float rx = 5;
+
+    @Expose
+    public float ry;
+
+    @Expose
+    public float lx = 5;
+
+    @Expose
+    public float ly;
+
+    public Keyframe(long tick, float value)
+    {
+        this.tick = tick;
+        this.value = value;
+
+        this.prev = this;
+        this.next = this;
+    }
+
+    public void setTick(long tick)
+    {
+        this.tick = tick;
+    }
+
+    public void setValue(float value)
+    {
+        this.value = value;
+    }
+
+    public void setInterpolation(KeyframeInterpolation interp)
+    {
+        this.interp = interp;
+    }
+
+    public void setInterpolation(KeyframeInterpolation interp, Easing easing)
+    {
+        this.interp = interp;
+        this.setEasing(easing);
+    }
+
+    public void setEasing(Easing easing)
+    {
+        this.easing = easing;
+    }
+
+    public float interpolate(Keyframe frame, float x)
+    {
+        return this.interp.interpolate(this, frame, x);
+    }
+
+    @Override
+    public Keyframe clone()
+    {
+        Keyframe frame = new Keyframe(this.tick, this.value);
+
+        frame.copy(this);
+
+        return frame;
+    }
+
+    public void copy(Keyframe keyframe)
+    {
+        this.tick = keyframe.tick;
+        this.value = keyframe.value;
+        this.interp = keyframe.interp;
+        this.easing = keyframe.easing;
+        this.lx = keyframe.lx;
+        this.ly = keyframe.ly;
+        this.rx = keyframe.rx;
+        this.ry = keyframe.ry;
+    }
+
+    /**
+     * Read keyframe's value and properties (except tick, which 
+     * is managed by the channel)
+     */
+    public void fromBytes(IByteSource source)
+    {
+        this.value = source.readFloat();
+
+        int flags = source.readByte() & 0xFF;
+
+        this.interp = KeyframeInterpolation.values()[flags & 0x7];
+        this.easing = Easing.values()[(flags >> 3) & 0x3];
+
+        if ((flags & HAS_HANDLES) != 0)
+        {
+            int mask = source.readByte() & 0xFF;
+
+            if ((mask & 0x1) != 0) this.rx = source.readFloat();
+            if ((mask & 0x2) != 0) this.ry = source.readFloat();
+            if ((mask & 0x4) != 0) this.lx = source.readFloat();
+            if ((mask & 0x8) != 0) this.ly = source.readFloat();
+        }
+    }
+
+    /**
+     * Write keyframe's value and properties (except tick, which 
+     * is managed by the channel)
+     * 
+     * Interpolation and easing are packed into one byte, and 
+     * bezier handles are written only when they differ from 
+     * default values (which is the case for most keyframes).
+     */
+    public void toBytes(IByteSink sink)
+    {
+        int mask = 0;
+
+        if (this.rx != 5) mask |= 0x1;
+        if (this.ry != 0) mask |= 0x2;
+        if (this.lx != 5) mask |= 0x4;
+        if (this.ly != 0) mask |= 0x8;
+
+        sink.writeFloat(this.value);
+        sink.writeByte(this.interp.ordinal() | this.easing.ordinal() << 3 | (mask != 0 ? HAS_HANDLES : 0));
+
+        if (mask != 0)
+        {
+            sink.writeByte(mask);
+
+            if ((mask & 0x1) != 0) sink.writeFloat(this.rx);
+            if ((mask & 0x2) != 0) sink.writeFloat(this.ry);
+            if ((mask & 0x4) != 0) sink.writeFloat(this.lx);
+            if ((mask & 0x8) != 0) sink.writeFloat(this.ly);
+        }
+    }
+}
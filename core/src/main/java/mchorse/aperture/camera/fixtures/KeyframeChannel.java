@@ -0,0 +1,269 @@
+package mchorse.aperture.camera.fixtures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.gson.annotations.Expose;
+
+import mchorse.aperture.camera.core.IByteSink;
+import mchorse.aperture.camera.core.IByteSource;
+import mchorse.aperture.camera.core.VarInts;
+
+/**
+ * Keyframe channel
+ * 
+ * This class is responsible for storing individual keyframes and also 
+ * interpolating between them.
+ */
+public class KeyframeChannel
+{
+    @Expose
+    protected final List<Keyframe> keyframes = new ArrayList<Keyframe>();
+
+    protected Keyframe create(long tick, float value)
+    {
+        return new Keyframe(tick, value);
+    }
+
+    public boolean isEmpty()
+    {
+        return this.keyframes.isEmpty();
+    }
+
+    public List<Keyframe> getKeyframes()
+    {
+        return this.keyframes;
+    }
+
+    public boolean has(int index)
+    {
+        return index >= 0 && index < this.keyframes.size();
+    }
+
+    public Keyframe get(int index)
+    {
+        return this.has(index) ? this.keyframes.get(index) : null;
+    }
+
+    public void remove(int index)
+    {
+        if (index < 0 || index > this.keyframes.size() - 1)
+        {
+            return;
+        }
+
+        Keyframe frame = this.keyframes.remove(index);
+
+        frame.prev.next = frame.next;
+        frame.next.prev = frame.prev;
+    }
+
+    /**
+     * Calculate the value at given tick 
+     */
+    public float interpolate(float ticks)
+    {
+        if (this.keyframes.isEmpty())
+        {
+            return 0;
+        }
+
+        int index = this.search(ticks, true);
+
+        if (index == 0)
+        {
+            return this.keyframes.get(0).value;
+        }
+
+        Keyframe prev = this.keyframes.get(index - 1);
+
+        if (index >= this.keyframes.size())
+        {
+            return prev.value;
+        }
+
+        Keyframe frame = this.keyframes.get(index);
+
+        return prev.interpolate(frame, (ticks - prev.tick) / (frame.tick - prev.tick));
+    }
+
+    /**
+     * Find index of the first keyframe which is after given tick (or 
+     * at given tick, if not strictly after). Keyframes are sorted, so 
+     * it's a binary search, and returns keyframes' count if there is 
+     * no such keyframe
+     */
+    protected int search(double tick, boolean after)
+    {
+        int low = 0;
+        int high = this.keyframes.size();
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            long frame = this.keyframes.get(middle).tick;
+
+            if (after ? frame <= tick : frame < tick)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Insert a keyframe at given tick with given value
+     * 
+     * This method is useful as it's not creating keyframes every time you 
+     * need to add some value, but rather inserts in correct order or 
+     * overwrites existing keyframe.
+     * 
+     * Also it returns index at which it was inserted.
+     */
+    public int insert(long tick, float value)
+    {
+        int index = this.search(tick, false);
+
+        if (index < this.keyframes.size() && this.keyframes.get(index).tick == tick)
+        {
+            this.keyframes.get(index).value = value;
+
+            return index;
+        }
+
+        Keyframe frame = this.create(tick, value);
+        this.keyframes.add(index, frame);
+
+        if (this.keyframes.size() > 1)
+        {
+            frame.prev = this.keyframes.get(Math.max(index - 1, 0));
+            frame.next = this.keyframes.get(Math.min(index + 1, this.keyframes.size() - 1));
+        }
+
+        return index;
+    }
+
+    /**
+     * Append a keyframe after the last one. Unlike
+     * {@link #insert(long, float)}, it doesn't search for the place
+     * of the keyframe, so it's used for bulk loading of keyframes
+     * which come in chronological order
+     */
+    public Keyframe append(long tick, float value)
+    {
+        Keyframe frame = this.create(tick, value);
+
+        if (!this.keyframes.isEmpty())
+        {
+            Keyframe last = this.keyframes.get(this.keyframes.size() - 1);
+
+            if (tick <= last.tick)
+            {
+                throw new IllegalArgumentException("Keyframe at tick " + tick + " can't be appended after keyframe at tick " + last.tick + "!");
+            }
+
+            last.next = frame;
+            frame.prev = last;
+        }
+
+        this.keyframes.add(frame);
+
+        return frame;
+    }
+
+    /**
+     * Sorts keyframes based on their ticks. This method should be used 
+     * when you modify individual tick values of keyframes. 
+     * {@link #interpolate(float)} and other methods assume the order of 
+     * the keyframes to be chronologically correct.
+     */
+    public void sort()
+    {
+        Collections.sort(this.keyframes, new Comparator<Keyframe>()
+        {
+            @Override
+            public int compare(Keyframe a, Keyframe b)
+            {
+                return (int) (a.tick - b.tick);
+            }
+        });
+
+        if (!this.keyframes.isEmpty())
+        {
+            Keyframe prev = this.keyframes.get(0);
+
+            for (Keyframe frame : this.keyframes)
+            {
+                frame.prev = prev;
+                prev.next = frame;
+
+                prev = frame;
+            }
+
+            prev.next = prev;
+        }
+    }
+
+    public void copy(KeyframeChannel channel)
+    {
+        this.keyframes.clear();
+
+        for (Keyframe frame : channel.keyframes)
+        {
+            this.keyframes.add(frame.clone());
+        }
+
+        this.sort();
+    }
+
+    /**
+     * Read keyframes from the byte source. Ticks are stored as 
+     * deltas relative to previous keyframe's tick, see 
+     * {@link #toBytes(IByteSink)}
+     */
+    public void fromBytes(IByteSource source)
+    {
+        this.keyframes.clear();
+
+        long tick = 0;
+
+        for (int i = 0, c = VarInts.readVarInt(source); i < c; i++)
+        {
+            tick += VarInts.decodeZigZag(VarInts.readVarLong(source));
+
+            Keyframe frame = new Keyframe(tick, 0);
+
+            frame.fromBytes(source);
+            this.keyframes.add(frame);
+        }
+
+        this.sort();
+    }
+
+    /**
+     * Write keyframes to the byte sink. Since keyframes are 
+     * (mostly) sorted and close to each other, ticks are written 
+     * as variable length deltas, which usually take one byte
+     */
+    public void toBytes(IByteSink sink)
+    {
+        VarInts.writeVarInt(sink, this.keyframes.size());
+
+        long tick = 0;
+
+        for (Keyframe frame : this.keyframes)
+        {
+            VarInts.writeVarLong(sink, VarInts.encodeZigZag(frame.tick - tick));
+            frame.toBytes(sink);
+
+            tick = frame.tick;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package mchorse.aperture.camera.fixtures;
+
+import mchorse.aperture.camera.core.CurveMath;
+
+/**
+ * Keyframe interpolation
+ *
+ * Interpolates the value between two keyframes.
+ */
+public enum KeyframeInterpolation
+{
+    CONST("const")
+    {
+        @Override
+        public float interpolate(Keyframe a, Keyframe b, float x)
+        {
+            return a.value;
+        }
+    },
+    LINEAR("linear")
+    {
+        @Override
+        public float interpolate(Keyframe a, Keyframe b, float x)
+        {
+            return CurveMath.lerp(a.value, b.value, x);
+        }
+    },
+    QUAD("quad")
+    {
+        @Override
+        public float interpolate(Keyframe a, Keyframe b, float x)
+        {
+            if (a.easing == Easing.IN) return a.value + (b.value - a.value) * x * x;
+            if (a.easing == Easing.OUT) return a.value - (b.value - a.value) * x * (x - 2);
+
+            x *= 2;
+
+            if (x < 1F) return a.value + (b.value - a.value) / 2 * x * x;
+
+            x -= 1;
+
+            return a.value - (b.value - a.value) / 2 * (x * (x - 2) - 1);
+        }
+    },
+    CUBIC("cubic")
+    {
+        @Override
+        public float interpolate(Keyframe a, Keyframe b, float x)
+        {
+            if (a.easing == Easing.IN) return a.value + (b.value - a.value) * x * x * x;
+            if (a.easing == Easing.OUT)
+            {
+                x -= 1;
+                return a.value + (b.value - a.value) * (x * x * x + 1);
+            }
+
+            x *= 2;
+
+            if (x < 1F) return a.value + (b.value - a.value) / 2 * x * x * x;
+
+            x -= 2;
+
+            return a.value + (b.value - a.value) / 2 * (x * x * x + 2);
+        }
+    },
+    HERMITE("hermite")
+    {
+        @Override
+        public float interpolate(Keyframe a, Keyframe b, float x)
+        {
+            return (float) CurveMath.cubicHermite(a.prev.value, a.value, b.value, b.next.value, x);
+        }
+    },
+    EXP("exp")
+    {
+        @Override
+        public float interpolate(Keyframe a, Keyframe b, float x)
+        {
+            if (a.easing == Easing.IN) return a.value + (b.value - a.value) * (float) Math.pow(2, 10 * (x - 1));
+            if (a.easing == Easing.OUT) return a.value + (b.value - a.value) * (float) (-Math.pow(2, -10 * x) + 1);
+
+            if (x == 0) return a.value;
+            if (x == 1) return b.value;
+
+            x *= 2;
+
+            if (x < 1F) return a.value + (b.value - a.value) / 2 * (float) Math.pow(2, 10 * (x - 1));
+
+            x -= 1;
+
+            return a.value + (b.value - a.value) / 2 * (float) (-Math.pow(2, -10 * x) + 2);
+        }
+    },
+    BEZIER("bezier")
+    {
+        @Override
+        public float interpolate(Keyframe a, Keyframe b, float x)
+        {
+            if (x <= 0) return a.value;
+            if (x >= 1) return b.value;
+
+            /* Transform input to 0..1 */
+            float w = b.tick - a.tick;
+            float h = b.value - a.value;
+
+            /* In case if there is no slope whatsoever */
+            if (h == 0) h = 0.00001F;
+
+            float x1 = a.rx / w;
+            float y1 = a.ry / h;
+            float x2 = (w - b.lx) / w;
+            float y2 = (h + b.ly) / h;
+            float e = 0.0005F;
+
+            e = h == 0 ? e : Math.max(Math.min(e, 1 / h * e), 0.00001F);
+            x1 = CurveMath.clamp(x1, 0, 1);
+            x2 = CurveMath.clamp(x2, 0, 1);
+
+            return CurveMath.bezier(0, y1, y2, 1, CurveMath.bezierX(x1, x2, x, e)) * h + a.value;
+        }
+    };
+
+    public final String key;
+
+    private KeyframeInterpolation(String key)
+    {
+        this.key = key;
+    }
+
+    public abstract float interpolate(Keyframe a, Keyframe b, float x);
+}
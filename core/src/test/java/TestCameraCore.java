@@ -0,0 +1,270 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import mchorse.aperture.camera.core.CurveMath;
+import mchorse.aperture.camera.core.IByteSink;
+import mchorse.aperture.camera.core.IByteSource;
+import mchorse.aperture.camera.core.ICameraEntity;
+import mchorse.aperture.camera.core.VarInts;
+import mchorse.aperture.camera.data.Angle;
+import mchorse.aperture.camera.data.Point;
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.fixtures.Easing;
+import mchorse.aperture.camera.fixtures.Keyframe;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeInterpolation;
+
+/**
+ * Tests of camera math core, which runs without the game
+ */
+public class TestCameraCore
+{
+    @Test
+    public void testVarInts()
+    {
+        long[] values = {0, 1, 127, 128, 300, -1, -64, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        for (long value : values)
+        {
+            VarInts.writeVarLong(output::write, VarInts.encodeZigZag(value));
+            VarInts.writeVarInt(output::write, VarInts.encodeZigZag((int) value));
+        }
+
+        ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+
+        for (long value : values)
+        {
+            assertEquals(value, VarInts.decodeZigZag(VarInts.readVarLong(() -> (byte) input.read())));
+            assertEquals((int) value, VarInts.decodeZigZag(VarInts.readVarInt(() -> (byte) input.read())));
+        }
+
+        assertEquals(0, input.available());
+    }
+
+    @Test
+    public void testSmallVarIntsTakeOneByte()
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        VarInts.writeVarInt(output::write, VarInts.encodeZigZag(-5));
+        VarInts.writeVarLong(output::write, 100);
+
+        assertEquals(2, output.size());
+    }
+
+    @Test
+    public void testCurveMath()
+    {
+        assertEquals(0, CurveMath.sin(0), 0.0001F);
+        assertEquals(1, CurveMath.cos(0), 0.0001F);
+        assertEquals(1, CurveMath.sin((float) Math.PI / 2), 0.0001F);
+        assertEquals(-170, CurveMath.wrapDegrees(190), 0.0001F);
+        assertEquals(170, CurveMath.wrapDegrees(-550), 0.0001F);
+        assertEquals(5, CurveMath.clamp(10, 0, 5));
+        assertEquals(0F, CurveMath.clamp(-1F, 0F, 1F), 0);
+    }
+
+    @Test
+    public void testAtan2()
+    {
+        /* The approximation is accurate enough in all quadrants */
+        for (int i = 0; i < 360; i++)
+        {
+            double angle = Math.toRadians(i - 180 + 0.5);
+            double y = Math.sin(angle) * 3;
+            double x = Math.cos(angle) * 3;
+
+            assertEquals(Math.atan2(y, x), CurveMath.atan2(y, x), 0.00001);
+        }
+
+        assertEquals(Math.PI / 2, CurveMath.atan2(1, 0), 0.00001);
+        assertEquals(0, CurveMath.atan2(0, 1), 0.00001);
+    }
+
+    @Test
+    public void testPositionBytes()
+    {
+        Position position = new Position(new Point(1.5, -64.25, 1e7), new Angle(-179.5F, 45F, 10F, 90F));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        position.toBytes((IByteSink) output::write);
+
+        /* Same big-endian layout as netty's and NIO's buffers */
+        ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray());
+
+        assertEquals(1.5, buffer.getDouble(), 0);
+        assertEquals(-64.25, buffer.getDouble(), 0);
+        assertEquals(1e7, buffer.getDouble(), 0);
+        assertEquals(-179.5F, buffer.getFloat(), 0);
+
+        ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+        Position read = Position.fromBytes((IByteSource) () -> (byte) input.read());
+
+        assertEquals(position.toString(), read.toString());
+        assertEquals(0, input.available());
+    }
+
+    @Test
+    public void testPitchClamp()
+    {
+        boolean clamp = Angle.clampPitch;
+
+        try
+        {
+            Angle.clampPitch = false;
+            assertEquals(120F, new Angle(0, 120).pitch, 0);
+
+            Angle.clampPitch = true;
+            assertEquals(90F, new Angle(0, 120).pitch, 0);
+            assertEquals(-90F, new Angle(0, -120).pitch, 0);
+        }
+        finally
+        {
+            Angle.clampPitch = clamp;
+        }
+    }
+
+    @Test
+    public void testCameraEntity()
+    {
+        FakeEntity entity = new FakeEntity();
+        Position position = new Position(entity);
+
+        assertEquals("Position{Point{1.0, 2.0, 3.0}, Angle{4.0, 5.0, 6.0, 7.0}}", position.toString());
+
+        position.point.set(10, 20, 30);
+        position.angle.set(40, 50);
+        position.apply(entity);
+
+        assertEquals(10, entity.x, 0);
+        assertEquals(20, entity.y, 0);
+        assertEquals(30, entity.z, 0);
+        assertEquals(40, entity.yaw, 0);
+        assertEquals(50, entity.pitch, 0);
+    }
+
+    @Test
+    public void testKeyframeChannel()
+    {
+        KeyframeChannel channel = new KeyframeChannel();
+
+        channel.insert(20, 10);
+        channel.insert(0, 0);
+        assertEquals(1, channel.insert(20, 20));
+
+        assertEquals(0, channel.interpolate(-5), 0);
+        assertEquals(10, channel.interpolate(10), 0.0001F);
+        assertEquals(20, channel.interpolate(25), 0);
+
+        channel.get(0).setInterpolation(KeyframeInterpolation.CONST);
+        assertEquals(0, channel.interpolate(19), 0);
+
+        channel.get(0).setInterpolation(KeyframeInterpolation.QUAD, Easing.IN);
+        assertEquals(5, channel.interpolate(10), 0.0001F);
+    }
+
+    @Test
+    public void testKeyframeChannelBytes()
+    {
+        KeyframeChannel channel = new KeyframeChannel();
+
+        channel.insert(0, 1.5F);
+        channel.insert(1000, -3);
+        channel.insert(1001, 8);
+        channel.get(1).setInterpolation(KeyframeInterpolation.BEZIER, Easing.INOUT);
+        channel.get(1).ry = 2;
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        channel.toBytes((IByteSink) output::write);
+
+        ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+        KeyframeChannel read = new KeyframeChannel();
+
+        read.fromBytes((IByteSource) () -> (byte) input.read());
+
+        assertEquals(0, input.available());
+        assertEquals(3, read.getKeyframes().size());
+
+        for (int i = 0; i < 3; i++)
+        {
+            Keyframe a = channel.get(i);
+            Keyframe b = read.get(i);
+
+            assertEquals(a.tick, b.tick);
+            assertEquals(a.value, b.value, 0);
+            assertEquals(a.interp, b.interp);
+            assertEquals(a.easing, b.easing);
+            assertEquals(a.ry, b.ry, 0);
+        }
+
+        assertEquals(channel.interpolate(1000.5F), read.interpolate(1000.5F), 0);
+    }
+
+    private static class FakeEntity implements ICameraEntity
+    {
+        public double x = 1;
+        public double y = 2;
+        public double z = 3;
+        public float yaw = 4;
+        public float pitch = 5;
+
+        @Override
+        public double getX()
+        {
+            return this.x;
+        }
+
+        @Override
+        public double getY()
+        {
+            return this.y;
+        }
+
+        @Override
+        public double getZ()
+        {
+            return this.z;
+        }
+
+        @Override
+        public float getYaw()
+        {
+            return this.yaw;
+        }
+
+        @Override
+        public float getPitch()
+        {
+            return this.pitch;
+        }
+
+        @Override
+        public float getRoll()
+        {
+            return 6;
+        }
+
+        @Override
+        public float getFov()
+        {
+            return 7;
+        }
+
+        @Override
+        public void setPosition(double x, double y, double z, float yaw, float pitch)
+        {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.yaw = yaw;
+            this.pitch = pitch;
+        }
+    }
+}
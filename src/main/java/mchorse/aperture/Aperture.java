@@ -2,6 +2,7 @@ package mchorse.aperture;
 
 import org.apache.logging.log4j.Logger;
 
+import mchorse.aperture.camera.CameraUtils;
 import mchorse.aperture.commands.CommandAperture;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.Mod.EventHandler;
@@ -9,6 +10,7 @@ import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppingEvent;
 
 /**
  * Main entry point of Aperture
@@ -61,4 +63,11 @@ public class Aperture
     {
         event.registerServerCommand(new CommandAperture());
     }
+
+    @EventHandler
+    public void serverStop(FMLServerStoppingEvent event)
+    {
+        CameraUtils.closeServerIndex();
+        proxy.chunkLoader.clear();
+    }
 }
@@ -4,6 +4,7 @@ import java.io.File;
 import java.util.HashMap;
 
 import mchorse.aperture.camera.CameraControl;
+import mchorse.aperture.camera.CameraProfiler;
 import mchorse.aperture.camera.CameraRenderer;
 import mchorse.aperture.camera.CameraRunner;
 import mchorse.aperture.camera.FixtureRegistry;
@@ -25,8 +26,11 @@ import mchorse.aperture.camera.modifiers.MathModifier;
 import mchorse.aperture.camera.modifiers.OrbitModifier;
 import mchorse.aperture.camera.modifiers.ShakeModifier;
 import mchorse.aperture.camera.modifiers.TranslateModifier;
+import mchorse.aperture.camera.storage.FileProfileStore;
+import mchorse.aperture.camera.storage.ProfileCache;
 import mchorse.aperture.client.KeyboardHandler;
 import mchorse.aperture.client.MouseRenderer;
+import mchorse.aperture.client.RenderQueue;
 import mchorse.aperture.client.RenderingHandler;
 import mchorse.aperture.client.gui.GuiCameraEditor;
 import mchorse.aperture.client.gui.GuiModifiersManager;
@@ -70,10 +74,17 @@ public class ClientProxy extends CommonProxy
 {
     public static boolean server = false;
 
+    /**
+     * Whether the server accepts camera teleport packets (otherwise 
+     * /tp commands are used)
+     */
+    public static boolean teleport = false;
+
     /* Camera stuff */
     public static CameraRenderer renderer = new CameraRenderer();
     public static CameraControl control = new CameraControl();
     public static CameraRunner runner;
+    public static RenderQueue renderQueue;
 
     public static KeyboardHandler keys;
 
@@ -87,6 +98,18 @@ public class ClientProxy extends CommonProxy
     public static File config;
     public static File cameras;
 
+    /**
+     * Cached client profile store and the key (server address or world 
+     * name) it was created for
+     */
+    private static FileProfileStore clientStore;
+    private static String clientStoreKey;
+
+    /**
+     * Cache of camera profiles received from servers 
+     */
+    public static ProfileCache profileCache;
+
     /**
      * An instance of a camera editor
      */
@@ -113,29 +136,62 @@ public class ClientProxy extends CommonProxy
      * invoked when the game is in the main menu.
      */
     public static File getClientCameras()
+    {
+        FileProfileStore store = getClientStore();
+
+        return store == null ? null : store.getFolder();
+    }
+
+    /**
+     * Get client profile store
+     * 
+     * Profile store is cached per server (or single player world), so 
+     * the folder is resolved and created only once. This method will 
+     * return {@code null} if it was invoked when the game is in the main 
+     * menu.
+     */
+    public static FileProfileStore getClientStore()
     {
         Minecraft mc = Minecraft.getMinecraft();
         ServerData data = mc.getCurrentServerData();
 
-        File file = null;
+        String key = null;
+        String folder = null;
 
         if (data != null)
         {
-            /* Removing port, because this will distort the folder name */
-            file = new File(cameras, data.serverIP.replaceAll(":[\\w]{1,5}$", "").replaceAll("[^\\w\\d_\\- ]", "_"));
+            key = "server:" + data.serverIP;
         }
         else if (mc.isSingleplayer())
         {
-            /* I probably should've used getFolderName() in the beginning ... */
-            file = new File(cameras, mc.getIntegratedServer().getWorldName().replaceAll("[^\\w\\d_\\- ]", "_"));
+            key = "world:" + mc.getIntegratedServer().getWorldName();
         }
 
-        if (file != null)
+        if (key == null)
         {
-            file.mkdirs();
+            return null;
         }
 
-        return file;
+        if (clientStore != null && key.equals(clientStoreKey))
+        {
+            return clientStore;
+        }
+
+        if (data != null)
+        {
+            /* Removing port, because this will distort the folder name */
+            folder = data.serverIP.replaceAll(":[\\w]{1,5}$", "").replaceAll("[^\\w\\d_\\- ]", "_");
+        }
+        else
+        {
+            /* I probably should've used getFolderName() in the beginning ... */
+            folder = mc.getIntegratedServer().getWorldName().replaceAll("[^\\w\\d_\\- ]", "_");
+        }
+
+        clientStore = new FileProfileStore(new File(cameras, folder));
+        clientStoreKey = key;
+
+        return clientStore;
     }
 
     /**
@@ -150,10 +206,12 @@ public class ClientProxy extends CommonProxy
 
         config = new File(event.getModConfigurationDirectory(), "aperture");
         cameras = new File(config, "cameras");
+        profileCache = new ProfileCache(new File(config, "cache"));
 
         super.preLoad(event);
 
         runner = new CameraRunner();
+        renderQueue = new RenderQueue();
     }
 
     /**
@@ -214,6 +272,8 @@ public class ClientProxy extends CommonProxy
     @Override
     public void onConfigChange(ApertureConfig config)
     {
+        super.onConfigChange(config);
+
         String smooth = "smooth";
 
         renderer.roll.friction = config.getFloat("roll_friction", smooth, 0.985F, 0.0F, 0.99999F, "Roll acceleration friction (how fast it slows down)");
@@ -225,6 +285,13 @@ public class ClientProxy extends CommonProxy
         renderer.smooth.enabled = config.getBoolean("smooth_enabled", smooth, false, "Enable smooth camera");
         renderer.smooth.fricX = config.getFloat("mouse_x_friction", smooth, 0.92F, 0.0F, 1.0F, "Smooth mouse X friction");
         renderer.smooth.fricY = config.getFloat("mouse_y_friction", smooth, 0.92F, 0.0F, 1.0F, "Smooth mouse Y friction");
+
+        if (CameraProfiler.enabled != config.camera_profiler)
+        {
+            CameraProfiler.reset();
+        }
+
+        CameraProfiler.enabled = config.camera_profiler;
     }
 
     /**
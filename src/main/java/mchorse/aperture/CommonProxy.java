@@ -2,6 +2,8 @@ package mchorse.aperture;
 
 import java.io.File;
 
+import mchorse.aperture.camera.CameraChunkLoader;
+import mchorse.aperture.camera.CameraProfile;
 import mchorse.aperture.camera.FixtureRegistry;
 import mchorse.aperture.camera.ModifierRegistry;
 import mchorse.aperture.camera.fixtures.CircularFixture;
@@ -17,12 +19,16 @@ import mchorse.aperture.camera.modifiers.MathModifier;
 import mchorse.aperture.camera.modifiers.OrbitModifier;
 import mchorse.aperture.camera.modifiers.ShakeModifier;
 import mchorse.aperture.camera.modifiers.TranslateModifier;
+import mchorse.aperture.camera.storage.ProfileIndexHandler;
 import mchorse.aperture.capabilities.CapabilityHandler;
 import mchorse.aperture.capabilities.camera.Camera;
 import mchorse.aperture.capabilities.camera.CameraStorage;
 import mchorse.aperture.capabilities.camera.ICamera;
 import mchorse.aperture.config.ApertureConfig;
+import mchorse.aperture.events.CameraProfileChangedEvent;
+import mchorse.aperture.metrics.Metrics;
 import mchorse.aperture.network.Dispatcher;
+import net.minecraftforge.common.ForgeChunkManager;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.CapabilityManager;
 import net.minecraftforge.common.config.Configuration;
@@ -47,6 +53,11 @@ public class CommonProxy
      */
     public Configuration forge;
 
+    /**
+     * Loads chunks along the path of server camera profiles
+     */
+    public CameraChunkLoader chunkLoader = new CameraChunkLoader();
+
     /**
      * Registers network messages (and their handlers), items, blocks, director
      * block tile entities and actor entity.
@@ -63,6 +74,9 @@ public class CommonProxy
 
         MinecraftForge.EVENT_BUS.register(this.config);
 
+        /* Camera profile changes get posted as Forge events */
+        CameraProfile.listener = (profile) -> MinecraftForge.EVENT_BUS.post(new CameraProfileChangedEvent(profile));
+
         /* Capabilities */
         CapabilityManager.INSTANCE.register(ICamera.class, new CameraStorage(), Camera.class);
 
@@ -90,13 +104,19 @@ public class CommonProxy
     public void load(FMLInitializationEvent event)
     {
         MinecraftForge.EVENT_BUS.register(new CapabilityHandler());
+        MinecraftForge.EVENT_BUS.register(new ProfileIndexHandler());
+        MinecraftForge.EVENT_BUS.register(this.chunkLoader);
+
+        ForgeChunkManager.setForcedChunkLoadingCallback(Aperture.instance, this.chunkLoader);
     }
 
     /**
      * Triggered when config is changed
      */
     public void onConfigChange(ApertureConfig config)
-    {}
+    {
+        Metrics.setEnabled(config.camera_metrics);
+    }
 
     /**
      * Get language string
@@ -5,14 +5,15 @@ import java.io.FileFilter;
 import java.util.ArrayList;
 import java.util.List;
 
+import mchorse.aperture.Aperture;
 import mchorse.aperture.ClientProxy;
 import mchorse.aperture.camera.destination.AbstractDestination;
 import mchorse.aperture.camera.destination.ServerDestination;
+import mchorse.aperture.camera.storage.ProfileStore;
 import mchorse.aperture.network.Dispatcher;
 import mchorse.aperture.network.common.PacketCameraState;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.util.ResourceLocation;
-import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
@@ -39,6 +40,7 @@ public class CameraAPI
         if (destination instanceof ServerDestination)
         {
             CameraUtils.sendProfileToPlayer(destination.getFilename(), player, true, false);
+            Aperture.proxy.chunkLoader.start(player, destination.getFilename());
         }
         else
         {
@@ -60,27 +62,9 @@ public class CameraAPI
     @SideOnly(Side.CLIENT)
     public static List<String> getClientProfiles()
     {
-        List<String> files = new ArrayList<String>();
-        File folder = ClientProxy.getClientCameras();
-        File[] profiles = null;
+        ProfileStore store = ClientProxy.getClientStore();
 
-        if (folder != null)
-        {
-            profiles = folder.listFiles(new JSONFileFilter());
-        }
-
-        if (profiles != null)
-        {
-            for (File file : profiles)
-            {
-                String filename = file.getName();
-
-                filename = filename.substring(0, filename.lastIndexOf(".json"));
-                files.add(filename);
-            }
-        }
-
-        return files;
+        return store == null ? new ArrayList<String>() : store.list();
     }
 
     /**
@@ -89,19 +73,7 @@ public class CameraAPI
      */
     public static List<String> getServerProfiles()
     {
-        File file = new File(DimensionManager.getCurrentSaveRootDirectory() + "/aperture/cameras");
-        List<String> files = new ArrayList<String>();
-
-        file.mkdirs();
-
-        for (File profile : file.listFiles(new JSONFileFilter()))
-        {
-            String filename = profile.getName();
-
-            files.add(filename.substring(0, filename.lastIndexOf(".json")));
-        }
-
-        return files;
+        return CameraUtils.getServerIndex().names();
     }
 
     /**
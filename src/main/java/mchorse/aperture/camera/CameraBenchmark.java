@@ -0,0 +1,231 @@
+package mchorse.aperture.camera;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.modifiers.AbstractModifier;
+
+/**
+ * Camera benchmark
+ *
+ * Evaluates camera profile across its whole duration (with given
+ * amount of frames per tick) several times, with and without modifiers,
+ * and measures time and memory allocated per frame. Besides that, every
+ * fixture and modifier is measured separately, so the slowest ones
+ * could be found.
+ *
+ * The first pass of every measurement is discarded, so JIT compilation
+ * wouldn't be counted.
+ *
+ * Benchmark evaluates its own copy of the profile, so it can run on a
+ * background thread, and it doesn't touch fixture caches or modifier
+ * state of the profile which is being edited or played. Profiles with
+ * modifiers which read the client's world (see
+ * {@link CameraProfile#isWorldDependent()}) must still be benchmarked
+ * on the client thread.
+ */
+public class CameraBenchmark
+{
+    public final CameraProfile profile;
+    public final int resolution;
+    public final int iterations;
+
+    public Result withoutModifiers;
+    public Result withModifiers;
+
+    public List<Result> fixtures = new ArrayList<Result>();
+    public List<Result> modifiers = new ArrayList<Result>();
+
+    private Position position = new Position(0, 0, 0, 0, 0);
+
+    public CameraBenchmark(CameraProfile profile, int resolution, int iterations)
+    {
+        this.profile = profile.clone();
+        this.resolution = resolution;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Get amount of bytes allocated by current thread so far, or -1 if
+     * the JVM can't tell
+     */
+    public static long getAllocatedBytes()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+
+            if (sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled())
+            {
+                return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Total amount of frames which {@link #run()} is going to evaluate
+     * (including warm-up passes)
+     */
+    public long getTotalFrames()
+    {
+        long duration = this.profile.getDuration();
+        long frames = duration * 3;
+
+        for (AbstractFixture fixture : this.profile.getAll())
+        {
+            for (AbstractModifier modifier : fixture.getModifiers())
+            {
+                frames += modifier.enabled ? fixture.getDuration() : 0;
+            }
+        }
+
+        for (AbstractModifier modifier : this.profile.getModifiers())
+        {
+            frames += modifier.enabled ? duration : 0;
+        }
+
+        return frames * this.resolution * (this.iterations + 1);
+    }
+
+    public CameraBenchmark run()
+    {
+        long duration = this.profile.getDuration();
+
+        this.withoutModifiers = this.measure("profile", duration, (tick, partial) -> this.profile.applyProfile(tick, partial, this.position, false));
+        this.withModifiers = this.measure("profile", duration, (tick, partial) -> this.profile.applyProfile(tick, partial, this.position, true));
+
+        long offset = 0;
+        int index = 0;
+
+        for (AbstractFixture fixture : this.profile.getAll())
+        {
+            String name = "#" + index + " " + FixtureRegistry.NAME_TO_CLASS.inverse().get(fixture.getClass());
+            long start = offset;
+
+            if (!fixture.getName().isEmpty())
+            {
+                name += " \"" + fixture.getName() + "\"";
+            }
+
+            this.fixtures.add(this.measure(name, fixture.getDuration(), (tick, partial) -> fixture.applyFixture(tick, partial, this.profile, this.position)));
+
+            for (AbstractModifier modifier : fixture.getModifiers())
+            {
+                if (modifier.enabled)
+                {
+                    this.modifiers.add(this.measure(name + " > " + getName(modifier), fixture.getDuration(), (tick, partial) -> modifier.modify(start + tick, tick, fixture, partial, partial, this.profile, this.position)));
+                }
+            }
+
+            offset += fixture.getDuration();
+            index++;
+        }
+
+        for (AbstractModifier modifier : this.profile.getModifiers())
+        {
+            if (modifier.enabled)
+            {
+                this.modifiers.add(this.measure("global > " + getName(modifier), duration, (tick, partial) -> modifier.modify(tick, tick, null, partial, partial, this.profile, this.position)));
+            }
+        }
+
+        Collections.sort(this.fixtures, (a, b) -> Double.compare(b.getNanosPerFrame(), a.getNanosPerFrame()));
+        Collections.sort(this.modifiers, (a, b) -> Double.compare(b.getNanosPerFrame(), a.getNanosPerFrame()));
+
+        return this;
+    }
+
+    private static String getName(AbstractModifier modifier)
+    {
+        return ModifierRegistry.NAME_TO_CLASS.inverse().get(modifier.getClass());
+    }
+
+    /**
+     * Evaluate given frame function over given amount of ticks
+     * (iterations + 1 times, first pass is the warm-up)
+     */
+    private Result measure(String name, long duration, IFrame frame)
+    {
+        Result result = new Result(name);
+
+        for (int i = 0; i <= this.iterations; i++)
+        {
+            long bytes = getAllocatedBytes();
+            long time = System.nanoTime();
+            int frames = 0;
+
+            for (long tick = 0; tick < duration; tick++)
+            {
+                for (int j = 0; j < this.resolution; j++)
+                {
+                    frame.apply(tick, (float) j / this.resolution);
+                    frames++;
+                }
+            }
+
+            time = System.nanoTime() - time;
+            bytes = bytes < 0 ? -1 : getAllocatedBytes() - bytes;
+
+            if (i > 0)
+            {
+                result.add(frames, time, bytes);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Frame function
+     */
+    private static interface IFrame
+    {
+        public void apply(long tick, float partial);
+    }
+
+    /**
+     * Measurement result
+     */
+    public static class Result
+    {
+        public final String name;
+
+        public long frames;
+        public long nanos;
+
+        /**
+         * Allocated bytes, or -1 if allocations can't be measured
+         */
+        public long bytes;
+
+        public Result(String name)
+        {
+            this.name = name;
+        }
+
+        public void add(long frames, long nanos, long bytes)
+        {
+            this.frames += frames;
+            this.nanos += nanos;
+            this.bytes = bytes < 0 || this.bytes < 0 ? -1 : this.bytes + bytes;
+        }
+
+        public double getNanosPerFrame()
+        {
+            return this.frames == 0 ? 0 : (double) this.nanos / this.frames;
+        }
+
+        public double getBytesPerFrame()
+        {
+            return this.frames == 0 || this.bytes < 0 ? -1 : (double) this.bytes / this.frames;
+        }
+    }
+}
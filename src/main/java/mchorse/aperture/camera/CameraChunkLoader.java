@@ -0,0 +1,321 @@
+package mchorse.aperture.camera;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.storage.ProfileLoader;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraftforge.common.ForgeChunkManager;
+import net.minecraftforge.common.ForgeChunkManager.Ticket;
+import net.minecraftforge.common.ForgeChunkManager.Type;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerChangedDimensionEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
+
+/**
+ * Camera chunk loader
+ *
+ * When a server camera profile is played for a player, chunk columns
+ * which camera's path passes through are computed, and during playback
+ * the ones which camera is going to visit within configured amount of
+ * ticks are force loaded with player's chunk ticket. Columns which are
+ * behind the camera get released, so only a sliding window of chunks
+ * is kept loaded.
+ *
+ * The server doesn't know where exactly client's playback is, so the
+ * playhead is simply counted in server ticks since the start.
+ */
+public class CameraChunkLoader implements ForgeChunkManager.LoadingCallback
+{
+    private Map<UUID, Session> sessions = new HashMap<UUID, Session>();
+
+    /**
+     * Profile reads which are in progress, only the latest request of
+     * every player may start a session
+     */
+    private Map<UUID, Object> requests = new HashMap<UUID, Object>();
+
+    /**
+     * Start loading chunks along the path of given server profile
+     * (profile is read and its columns are computed in the background,
+     * only the ticket is requested on the server thread)
+     */
+    public void start(EntityPlayerMP player, String filename)
+    {
+        this.stop(player);
+
+        if (Aperture.proxy.config.camera_chunk_tickets <= 0)
+        {
+            return;
+        }
+
+        UUID id = player.getUniqueID();
+        Object request = new Object();
+        int start = player.mcServer.getTickCounter();
+
+        this.requests.put(id, request);
+
+        ProfileLoader.read(CameraUtils.getServerStore(), filename, CameraChunkLoader::getColumns).whenCompleteAsync((columns, error) ->
+        {
+            /* Playback was stopped or another profile was started since */
+            if (this.requests.get(id) != request)
+            {
+                return;
+            }
+
+            this.requests.remove(id);
+
+            if (columns != null && !player.isDead)
+            {
+                /* Playback has been going on while the profile was read */
+                this.start(player, columns, player.mcServer.getTickCounter() - start);
+            }
+        }, player.mcServer::addScheduledTask);
+    }
+
+    /**
+     * Start loading given chunk columns (see {@link #getColumns(CameraProfile)})
+     * from given tick of playback
+     */
+    public void start(EntityPlayerMP player, List<Column> columns, long tick)
+    {
+        this.stop(player);
+
+        if (columns.isEmpty())
+        {
+            return;
+        }
+
+        Ticket ticket = ForgeChunkManager.requestPlayerTicket(Aperture.instance, player.getName(), player.worldObj, Type.NORMAL);
+
+        if (ticket != null)
+        {
+            Session session = new Session(ticket, columns);
+
+            session.tick = tick;
+            this.sessions.put(player.getUniqueID(), session);
+
+            if (!session.update(Aperture.proxy.config.camera_chunk_tickets))
+            {
+                this.stop(player);
+            }
+        }
+    }
+
+    /**
+     * Release all chunks which were loaded for given player
+     */
+    public void stop(EntityPlayer player)
+    {
+        Session session = this.sessions.remove(player.getUniqueID());
+
+        this.requests.remove(player.getUniqueID());
+
+        if (session != null)
+        {
+            ForgeChunkManager.releaseTicket(session.ticket);
+        }
+    }
+
+    /**
+     * Forget all sessions (tickets get discarded along with the worlds)
+     */
+    public void clear()
+    {
+        this.sessions.clear();
+        this.requests.clear();
+    }
+
+    /**
+     * Compute chunk columns which the camera passes through, in the order
+     * of their visits, along with ticks when camera enters and leaves
+     * them. Modifiers aren't applied, since some of them depend on the
+     * client. Evaluates the whole profile, so it's meant to be called
+     * off the server thread on a profile which isn't used anywhere else
+     */
+    public static List<Column> getColumns(CameraProfile profile)
+    {
+        List<Column> columns = new ArrayList<Column>();
+        Position position = new Position(0, 0, 0, 0, 0);
+        Column last = null;
+
+        for (long tick = 0, duration = profile.getDuration(); tick < duration; tick++)
+        {
+            profile.applyProfile(tick, 0, position, false);
+
+            int x = MathHelper.floor_double(position.point.x) >> 4;
+            int z = MathHelper.floor_double(position.point.z) >> 4;
+
+            if (last != null && last.pos.chunkXPos == x && last.pos.chunkZPos == z)
+            {
+                last.leave = tick;
+            }
+            else
+            {
+                last = new Column(new ChunkPos(x, z), tick);
+                columns.add(last);
+            }
+        }
+
+        return columns;
+    }
+
+    @SubscribeEvent
+    public void onServerTick(ServerTickEvent event)
+    {
+        if (event.phase != Phase.END || this.sessions.isEmpty())
+        {
+            return;
+        }
+
+        int ahead = Aperture.proxy.config.camera_chunk_tickets;
+        Iterator<Session> it = this.sessions.values().iterator();
+
+        while (it.hasNext())
+        {
+            Session session = it.next();
+
+            session.tick++;
+
+            if (ahead <= 0 || !session.update(ahead))
+            {
+                ForgeChunkManager.releaseTicket(session.ticket);
+                it.remove();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlayerLogOut(PlayerLoggedOutEvent event)
+    {
+        this.stop(event.player);
+    }
+
+    @SubscribeEvent
+    public void onPlayerChangedDimension(PlayerChangedDimensionEvent event)
+    {
+        this.stop(event.player);
+    }
+
+    /**
+     * Tickets which were left from the previous session aren't needed
+     * anymore, since playback is long gone
+     */
+    @Override
+    public void ticketsLoaded(List<Ticket> tickets, World world)
+    {
+        for (Ticket ticket : tickets)
+        {
+            ForgeChunkManager.releaseTicket(ticket);
+        }
+    }
+
+    /**
+     * Chunk column visited by the camera
+     */
+    public static class Column
+    {
+        public final ChunkPos pos;
+        public final long enter;
+        public long leave;
+
+        public Column(ChunkPos pos, long enter)
+        {
+            this.pos = pos;
+            this.enter = enter;
+            this.leave = enter;
+        }
+    }
+
+    /**
+     * Chunk loading session of a single player
+     */
+    private static class Session
+    {
+        public final Ticket ticket;
+        public final List<Column> columns;
+        public Set<ChunkPos> forced = new LinkedHashSet<ChunkPos>();
+        public long tick;
+
+        /**
+         * Index of the first column which camera didn't leave yet
+         */
+        public int index;
+
+        public Session(Ticket ticket, List<Column> columns)
+        {
+            this.ticket = ticket;
+            this.columns = columns;
+        }
+
+        /**
+         * Force columns which are within given amount of ticks ahead of
+         * the playhead, and release the rest. Returns false once the
+         * camera went past the last column
+         */
+        public boolean update(int ahead)
+        {
+            while (this.index < this.columns.size() && this.columns.get(this.index).leave < this.tick)
+            {
+                this.index++;
+            }
+
+            if (this.index >= this.columns.size())
+            {
+                return false;
+            }
+
+            Set<ChunkPos> window = new LinkedHashSet<ChunkPos>();
+            int depth = this.ticket.getMaxChunkListDepth();
+
+            for (int i = this.index; i < this.columns.size() && window.size() < depth; i++)
+            {
+                Column column = this.columns.get(i);
+
+                if (column.enter > this.tick + ahead)
+                {
+                    break;
+                }
+
+                window.add(column.pos);
+            }
+
+            Iterator<ChunkPos> it = this.forced.iterator();
+
+            while (it.hasNext())
+            {
+                ChunkPos pos = it.next();
+
+                if (!window.contains(pos))
+                {
+                    ForgeChunkManager.unforceChunk(this.ticket, pos);
+                    it.remove();
+                }
+            }
+
+            for (ChunkPos pos : window)
+            {
+                if (this.forced.add(pos))
+                {
+                    ForgeChunkManager.forceChunk(this.ticket, pos);
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package mchorse.aperture.camera;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.google.gson.stream.JsonWriter;
+
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.modifiers.AbstractModifier;
+
+/**
+ * Camera exporter
+ *
+ * Evaluates camera profile at given frame rate (not in real time) and
+ * writes the camera track (x, y, z, yaw, pitch, roll and fov of every
+ * frame) as CSV, JSON or compact binary file, so it could be imported
+ * into compositing or 3D software.
+ *
+ * Frames are evaluated in parallel with fork/join. Frame range is split
+ * into chunks along fixture boundaries, and every chunk is evaluated on
+ * its own copy of the profile, since fixtures aren't thread safe.
+ * Chunks start only on pure fixtures (see {@link PosePipeline#isPure}),
+ * fixtures with stateful modifiers (which depend on previous frames)
+ * are never split, and if there are stateful global modifiers, whole
+ * profile is evaluated as one chunk, so the output is the same as of
+ * sequential playback.
+ *
+ * Profiles with modifiers which read the client's world (look, follow
+ * and orbit) are evaluated sequentially on the caller thread.
+ *
+ * Output is streamed, chunks are written in order as soon as they're
+ * evaluated, and only a few chunks are in flight at once, so long
+ * profiles at high frame rate don't have to fit into memory.
+ */
+public class CameraExporter
+{
+    /**
+     * Values per frame (x, y, z, yaw, pitch, roll and fov)
+     */
+    public static final int STRIDE = 7;
+
+    /**
+     * Binary format's header magic and version
+     */
+    public static final int BINARY_MAGIC = 0x4150544B;
+    public static final byte BINARY_VERSION = 1;
+
+    /**
+     * Minimum amount of frames per chunk, smaller chunks aren't worth
+     * copying the profile for
+     */
+    public static final int MIN_CHUNK = 256;
+
+    public final CameraProfile profile;
+    public final int fps;
+    public boolean modifiers = true;
+
+    /**
+     * Evaluated samples, {@link #STRIDE} values per frame. Filled only
+     * by {@link #evaluate()}, {@link #write(OutputStream, Format)}
+     * streams samples without keeping them
+     */
+    public double[] samples;
+
+    public CameraExporter(CameraProfile profile, int fps)
+    {
+        this.profile = profile;
+        this.fps = fps;
+    }
+
+    /**
+     * Amount of frames in the profile at exporter's frame rate
+     */
+    public int getFrames()
+    {
+        return this.frameAt(this.profile.getDuration());
+    }
+
+    /**
+     * First frame which happens at or after given tick
+     */
+    private int frameAt(long tick)
+    {
+        return (int) ((tick * this.fps + 19) / 20);
+    }
+
+    /**
+     * Whether frames have to be evaluated on the caller thread
+     */
+    public boolean isSequential()
+    {
+        return this.modifiers && this.profile.isWorldDependent();
+    }
+
+    /**
+     * Evaluate all frames of the profile into {@link #samples}
+     */
+    public CameraExporter evaluate()
+    {
+        long frames = (this.profile.getDuration() * this.fps + 19) / 20;
+
+        if (frames * STRIDE > Integer.MAX_VALUE)
+        {
+            throw new IllegalStateException("Camera profile is too long to be exported at " + this.fps + " FPS!");
+        }
+
+        double[] samples = new double[(int) frames * STRIDE];
+
+        try
+        {
+            this.export((from, chunk) -> System.arraycopy(chunk, 0, samples, from * STRIDE, chunk.length));
+        }
+        catch (IOException e)
+        {
+            /* Can't happen, nothing is written */
+            throw new IllegalStateException(e);
+        }
+
+        this.samples = samples;
+
+        return this;
+    }
+
+    /**
+     * Evaluate frames chunk by chunk, and pass every chunk to the sink
+     * in order
+     */
+    private void export(ISink sink) throws IOException
+    {
+        List<int[]> chunks = this.split();
+
+        if (chunks.size() == 1 || this.isSequential())
+        {
+            /* Whole profile on one copy, still written in small pieces */
+            CameraProfile profile = this.profile.clone();
+            int frames = this.getFrames();
+
+            for (int from = 0; from < frames; from += MIN_CHUNK)
+            {
+                sink.accept(from, this.evaluate(profile, from, Math.min(from + MIN_CHUNK, frames)));
+            }
+
+            return;
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        Deque<ChunkTask> tasks = new ArrayDeque<ChunkTask>();
+        int window = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+        int next = 0;
+
+        try
+        {
+            for (int[] chunk : chunks)
+            {
+                /* Profile is copied here, so the source profile is read
+                 * only by the caller thread */
+                while (next < chunks.size() && tasks.size() < window)
+                {
+                    int[] pending = chunks.get(next++);
+                    ChunkTask task = new ChunkTask(this.profile.clone(), pending[0], pending[1]);
+
+                    pool.execute(task);
+                    tasks.add(task);
+                }
+
+                sink.accept(chunk[0], tasks.poll().join());
+            }
+        }
+        finally
+        {
+            for (ChunkTask task : tasks)
+            {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Split frames into chunks (from inclusive, to exclusive) which can
+     * be evaluated independently
+     */
+    private List<int[]> split()
+    {
+        List<int[]> chunks = new ArrayList<int[]>();
+        int frames = this.getFrames();
+        int size = Math.max(MIN_CHUNK, frames / (ForkJoinPool.getCommonPoolParallelism() * 4));
+
+        if (this.modifiers && hasStateful(this.profile.getModifiers()))
+        {
+            chunks.add(new int[] {0, frames});
+
+            return chunks;
+        }
+
+        long tick = 0;
+        int from = 0;
+
+        for (AbstractFixture fixture : this.profile.getAll())
+        {
+            tick += fixture.getDuration();
+
+            int to = this.frameAt(tick);
+            boolean pure = PosePipeline.isPure(fixture);
+            boolean splittable = pure && (!this.modifiers || !hasStateful(fixture.getModifiers()));
+
+            /* Split fixture's range into chunks, small chunks and
+             * fixtures which may keep previous frame's pose (i.e. null
+             * fixture) get merged with the previous chunk */
+            while (from < to)
+            {
+                int end = splittable ? Math.min(from + size, to) : to;
+                int[] last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+
+                if (last != null && (last[1] - last[0] < size || !pure))
+                {
+                    last[1] = end;
+                }
+                else
+                {
+                    chunks.add(new int[] {from, end});
+                }
+
+                from = end;
+            }
+        }
+
+        if (chunks.isEmpty())
+        {
+            chunks.add(new int[] {0, 0});
+        }
+
+        return chunks;
+    }
+
+    private static boolean hasStateful(List<AbstractModifier> modifiers)
+    {
+        for (AbstractModifier modifier : modifiers)
+        {
+            if (modifier.enabled && modifier.isStateful())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Evaluate given range of frames on given profile
+     */
+    private double[] evaluate(CameraProfile profile, int from, int to)
+    {
+        double[] samples = new double[(to - from) * STRIDE];
+        Position position = new Position(0, 0, 0, 0, 0);
+
+        for (int frame = from; frame < to; frame++)
+        {
+            long time = (long) frame * 20;
+            int i = (frame - from) * STRIDE;
+
+            profile.applyProfile(time / this.fps, (float) (time % this.fps) / this.fps, position, this.modifiers);
+
+            samples[i] = position.point.x;
+            samples[i + 1] = position.point.y;
+            samples[i + 2] = position.point.z;
+            samples[i + 3] = position.angle.yaw;
+            samples[i + 4] = position.angle.pitch;
+            samples[i + 5] = position.angle.roll;
+            samples[i + 6] = position.angle.fov;
+        }
+
+        return samples;
+    }
+
+    /**
+     * Evaluate and write samples in given format into the stream (the
+     * stream isn't closed)
+     */
+    public void write(OutputStream stream, Format format) throws IOException
+    {
+        int frames = this.getFrames();
+
+        if (format == Format.BINARY)
+        {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+
+            writeBinaryHeader(output, this.fps, frames);
+            this.export((from, chunk) -> writeBinary(output, chunk));
+            output.flush();
+        }
+        else if (format == Format.CSV)
+        {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+
+            writer.write("frame,time,x,y,z,yaw,pitch,roll,fov\n");
+            this.export((from, chunk) -> this.writeCSV(writer, from, chunk));
+            writer.flush();
+        }
+        else
+        {
+            JsonWriter json = new JsonWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
+
+            json.beginObject();
+            json.name("fps").value(this.fps);
+            json.name("frames").value(frames);
+            json.name("samples").beginArray();
+            this.export((from, chunk) -> writeJSON(json, chunk));
+            json.endArray();
+            json.endObject();
+            json.flush();
+        }
+    }
+
+    private void writeCSV(Writer writer, int from, double[] samples) throws IOException
+    {
+        for (int i = 0; i < samples.length; i += STRIDE)
+        {
+            int frame = from + i / STRIDE;
+
+            writer.write(Integer.toString(frame));
+            writer.write(',');
+            writer.write(Double.toString((double) frame / this.fps));
+
+            for (int j = 0; j < STRIDE; j++)
+            {
+                writer.write(',');
+                writer.write(j < 3 ? Double.toString(samples[i + j]) : Float.toString((float) samples[i + j]));
+            }
+
+            writer.write('\n');
+        }
+    }
+
+    private static void writeJSON(JsonWriter json, double[] samples) throws IOException
+    {
+        for (int i = 0; i < samples.length; i += STRIDE)
+        {
+            json.beginArray();
+
+            for (int j = 0; j < STRIDE; j++)
+            {
+                json.value(j < 3 ? samples[i + j] : (float) samples[i + j]);
+            }
+
+            json.endArray();
+        }
+    }
+
+    /**
+     * Binary format (big endian): magic int, version byte, fps int,
+     * frame count int, and then x, y, z as doubles and yaw, pitch,
+     * roll and fov as floats of every frame
+     */
+    private static void writeBinaryHeader(DataOutputStream output, int fps, int frames) throws IOException
+    {
+        output.writeInt(BINARY_MAGIC);
+        output.writeByte(BINARY_VERSION);
+        output.writeInt(fps);
+        output.writeInt(frames);
+    }
+
+    private static void writeBinary(DataOutputStream output, double[] samples) throws IOException
+    {
+        for (int i = 0; i < samples.length; i += STRIDE)
+        {
+            output.writeDouble(samples[i]);
+            output.writeDouble(samples[i + 1]);
+            output.writeDouble(samples[i + 2]);
+
+            for (int j = 3; j < STRIDE; j++)
+            {
+                output.writeFloat((float) samples[i + j]);
+            }
+        }
+    }
+
+    /**
+     * Receives evaluated chunks in order
+     */
+    private static interface ISink
+    {
+        public void accept(int from, double[] samples) throws IOException;
+    }
+
+    /**
+     * Fork/join task which evaluates a chunk of frames on its own copy
+     * of the profile
+     */
+    private class ChunkTask extends RecursiveTask<double[]>
+    {
+        private final CameraProfile profile;
+        private final int from;
+        private final int to;
+
+        public ChunkTask(CameraProfile profile, int from, int to)
+        {
+            this.profile = profile;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute()
+        {
+            return CameraExporter.this.evaluate(this.profile, this.from, this.to);
+        }
+    }
+
+    /**
+     * Export formats
+     */
+    public static enum Format
+    {
+        CSV("csv"), JSON("json"), BINARY("bin");
+
+        public final String extension;
+
+        private Format(String extension)
+        {
+            this.extension = extension;
+        }
+
+        public static Format fromName(String name)
+        {
+            for (Format format : values())
+            {
+                if (format.name().equalsIgnoreCase(name) || format.extension.equalsIgnoreCase(name))
+                {
+                    return format;
+                }
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package mchorse.aperture.camera;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import mchorse.aperture.camera.CameraExporter.Format;
+import mchorse.aperture.camera.core.CurveMath;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
+import mchorse.aperture.camera.fixtures.KeyframeWriter;
+
+/**
+ * Camera importer
+ *
+ * Streams camera track samples (in CSV or binary format written by
+ * {@link CameraExporter}) into a keyframe fixture. Samples are
+ * resampled to whole ticks (keyframes can only be on whole ticks) and
+ * appended to the channels in one pass, optionally reducing them with
+ * {@link KeyframeWriter}, so tracks with millions of samples take
+ * constant memory besides the resulting keyframes.
+ *
+ * CSV header names the columns: "tick", "time" (in seconds) or "frame"
+ * (at {@link #fps}), and any of "x", "y", "z", "yaw", "pitch", "roll"
+ * and "fov". Channels without a column stay empty. CSV without a
+ * header is read as x, y, z, yaw, pitch, roll and fov columns at
+ * {@link #fps}.
+ *
+ * Samples can be also streamed directly with {@link #begin()},
+ * {@link #add(double, double[])} and {@link #end()} (that's how
+ * {@link CameraRecorder} records camera's motion).
+ */
+public class CameraImporter
+{
+    public static final String[] CHANNELS = {"x", "y", "z", "yaw", "pitch", "roll", "fov"};
+
+    /**
+     * Frame rate of samples which don't have time
+     */
+    public int fps = 30;
+
+    /**
+     * Reduction tolerance of position (in blocks) and angles (in
+     * degrees) channels, 0 disables reduction
+     */
+    public float positionTolerance;
+    public float angleTolerance;
+
+    /* Import state */
+    private KeyframeFixture fixture;
+    private KeyframeWriter[] writers;
+    private boolean[] present = new boolean[CameraExporter.STRIDE];
+    private double[] previous = new double[CameraExporter.STRIDE];
+    private double[] sample = new double[CameraExporter.STRIDE];
+    private double origin;
+    private double previousTime;
+    private long tick;
+    private boolean started;
+
+    /**
+     * Import samples from given stream into a new keyframe fixture
+     */
+    public KeyframeFixture read(InputStream stream, Format format) throws IOException
+    {
+        this.begin();
+
+        if (format == Format.CSV)
+        {
+            this.readCSV(new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+        }
+        else if (format == Format.BINARY)
+        {
+            this.readBinary(new DataInputStream(new BufferedInputStream(stream)));
+        }
+        else
+        {
+            throw new IOException("Camera tracks can't be imported from " + format.extension + " files!");
+        }
+
+        return this.end();
+    }
+
+    /**
+     * Start streaming samples into a new keyframe fixture
+     */
+    public KeyframeFixture begin()
+    {
+        this.fixture = new KeyframeFixture(0);
+        this.writers = new KeyframeWriter[CameraExporter.STRIDE];
+        this.started = false;
+        this.tick = 0;
+
+        Arrays.fill(this.present, true);
+
+        for (int i = 0; i < CameraExporter.STRIDE; i++)
+        {
+            this.writers[i] = new KeyframeWriter(this.fixture.channels[i], i < 3 ? this.positionTolerance : this.angleTolerance);
+        }
+
+        return this.fixture;
+    }
+
+    /**
+     * Add a sample (x, y, z, yaw, pitch, roll and fov) at given time
+     * (in ticks)
+     */
+    public void add(double time, double[] sample) throws IOException
+    {
+        System.arraycopy(sample, 0, this.sample, 0, CameraExporter.STRIDE);
+        this.add(time);
+    }
+
+    /**
+     * Finish streaming samples, and return the keyframe fixture
+     */
+    public KeyframeFixture end() throws IOException
+    {
+        if (!this.started)
+        {
+            throw new IOException("Camera track has no samples!");
+        }
+
+        for (int i = 0; i < CameraExporter.STRIDE; i++)
+        {
+            if (this.present[i])
+            {
+                this.writers[i].flush();
+            }
+        }
+
+        KeyframeFixture fixture = this.fixture;
+
+        fixture.setDuration(Math.max(this.tick - 1, 1));
+        this.fixture = null;
+        this.writers = null;
+
+        return fixture;
+    }
+
+    /**
+     * Get amount of imported samples (per channel, after resampling to
+     * whole ticks, but before reduction)
+     */
+    public long getSamples()
+    {
+        return this.tick;
+    }
+
+    private void readCSV(BufferedReader reader) throws IOException
+    {
+        /* Column of every channel, and of time (-1 if there is none) */
+        int[] columns = new int[CameraExporter.STRIDE];
+        int timeColumn = -1;
+        int timePriority = 0;
+        double timeScale = 1;
+        String line = reader.readLine();
+
+        if (line == null)
+        {
+            return;
+        }
+
+        String[] header = line.split(",");
+        boolean hasHeader = false;
+
+        Arrays.fill(columns, -1);
+
+        for (int i = 0; i < header.length; i++)
+        {
+            String name = header[i].trim().toLowerCase();
+            int channel = Arrays.asList(CHANNELS).indexOf(name);
+
+            if (channel >= 0)
+            {
+                columns[channel] = i;
+                hasHeader = true;
+            }
+            else
+            {
+                /* Ticks are preferred over seconds, and seconds over frames */
+                int priority = name.equals("tick") ? 3 : (name.equals("time") ? 2 : (name.equals("frame") ? 1 : 0));
+
+                if (priority > timePriority)
+                {
+                    timeColumn = i;
+                    timePriority = priority;
+                    timeScale = priority == 3 ? 1 : (priority == 2 ? 20 : 20.0 / this.fps);
+                    hasHeader = true;
+                }
+            }
+        }
+
+        if (!hasHeader)
+        {
+            if (header.length < CameraExporter.STRIDE)
+            {
+                throw new IOException("Camera track without a header must have " + CameraExporter.STRIDE + " columns!");
+            }
+
+            for (int i = 0; i < CameraExporter.STRIDE; i++)
+            {
+                columns[i] = i;
+            }
+        }
+
+        for (int i = 0; i < CameraExporter.STRIDE; i++)
+        {
+            this.present[i] = columns[i] >= 0;
+        }
+
+        double[] values = new double[header.length];
+        long row = 0;
+
+        if (hasHeader)
+        {
+            line = reader.readLine();
+        }
+
+        while (line != null)
+        {
+            if (!line.trim().isEmpty())
+            {
+                if (parseRow(line, values) < header.length)
+                {
+                    throw new IOException("Row " + (row + 1) + " of camera track has less than " + header.length + " columns!");
+                }
+
+                for (int i = 0; i < CameraExporter.STRIDE; i++)
+                {
+                    this.sample[i] = columns[i] >= 0 ? values[columns[i]] : 0;
+                }
+
+                this.add(timeColumn >= 0 ? values[timeColumn] * timeScale : row * 20.0 / this.fps);
+                row++;
+            }
+
+            line = reader.readLine();
+        }
+    }
+
+    /**
+     * Parse comma separated numbers without allocating an array of
+     * strings. Returns amount of parsed values
+     */
+    private static int parseRow(String line, double[] values) throws IOException
+    {
+        int count = 0;
+        int start = 0;
+
+        while (start <= line.length() && count < values.length)
+        {
+            int end = line.indexOf(',', start);
+
+            if (end == -1)
+            {
+                end = line.length();
+            }
+
+            try
+            {
+                values[count++] = Double.parseDouble(line.substring(start, end).trim());
+            }
+            catch (NumberFormatException e)
+            {
+                throw new IOException("Invalid number in camera track: " + line, e);
+            }
+
+            start = end + 1;
+        }
+
+        return count;
+    }
+
+    /**
+     * Read binary file written by {@link CameraExporter}
+     */
+    private void readBinary(DataInputStream input) throws IOException
+    {
+        if (input.readInt() != CameraExporter.BINARY_MAGIC)
+        {
+            throw new IOException("Not a camera track file!");
+        }
+
+        int version = input.readByte();
+
+        if (version != CameraExporter.BINARY_VERSION)
+        {
+            throw new IOException("Unsupported camera track version " + version + "!");
+        }
+
+        int fps = input.readInt();
+        int frames = input.readInt();
+
+        Arrays.fill(this.present, true);
+
+        for (int frame = 0; frame < frames; frame++)
+        {
+            try
+            {
+                for (int i = 0; i < CameraExporter.STRIDE; i++)
+                {
+                    this.sample[i] = i < 3 ? input.readDouble() : input.readFloat();
+                }
+            }
+            catch (EOFException e)
+            {
+                throw new IOException("Camera track is truncated at frame " + frame + " of " + frames + "!", e);
+            }
+
+            this.add(frame * 20.0 / fps);
+        }
+    }
+
+    /**
+     * Add current sample at given time (in ticks). Every whole tick
+     * between previous sample and this one gets linearly interpolated
+     */
+    private void add(double time) throws IOException
+    {
+        if (!this.started)
+        {
+            this.origin = time;
+            this.previousTime = 0;
+            this.started = true;
+
+            System.arraycopy(this.sample, 0, this.previous, 0, this.sample.length);
+            this.write(this.previous, this.previous, 0);
+
+            return;
+        }
+
+        time -= this.origin;
+
+        if (time < this.previousTime)
+        {
+            throw new IOException("Camera track samples aren't in chronological order!");
+        }
+
+        /* Keep yaw continuous, so keyframes wouldn't spin around when
+         * the angle wraps */
+        this.sample[3] = this.previous[3] + CurveMath.wrapDegrees(this.sample[3] - this.previous[3]);
+
+        while (this.tick <= time)
+        {
+            this.write(this.previous, this.sample, (this.tick - this.previousTime) / (time - this.previousTime));
+        }
+
+        this.previousTime = time;
+        System.arraycopy(this.sample, 0, this.previous, 0, this.sample.length);
+    }
+
+    private void write(double[] a, double[] b, double factor)
+    {
+        for (int i = 0; i < CameraExporter.STRIDE; i++)
+        {
+            if (this.present[i])
+            {
+                this.writers[i].add(this.tick, (float) (a[i] + (b[i] - a[i]) * factor));
+            }
+        }
+
+        this.tick++;
+    }
+}
@@ -12,10 +12,9 @@ import mchorse.aperture.camera.data.Position;
 import mchorse.aperture.camera.destination.AbstractDestination;
 import mchorse.aperture.camera.fixtures.AbstractFixture;
 import mchorse.aperture.camera.modifiers.AbstractModifier;
-import mchorse.aperture.events.CameraProfileChangedEvent;
+import mchorse.aperture.utils.BufferUtils;
 import mchorse.mclib.math.functions.Abs;
 import net.minecraft.util.ResourceLocation;
-import net.minecraftforge.common.MinecraftForge;
 
 /**
  * Camera profile class
@@ -31,6 +30,19 @@ public class CameraProfile
      */
     public static final Pattern NUMBERED_SUFFIX = Pattern.compile("_(\\d+)$");
 
+    /**
+     * Version of byte buffer encoding of camera profiles. Increment it 
+     * every time when byte (de)serialization code of profile, fixtures 
+     * or modifiers is changed
+     */
+    public static final byte BYTE_VERSION = 1;
+
+    /**
+     * Listener which gets notified about modified camera profiles. The
+     * mod installs one that posts {@link mchorse.aperture.events.CameraProfileChangedEvent}
+     */
+    public static IProfileListener listener = (profile) -> {};
+
     /**
      * List of profile's camera fixtures
      */
@@ -53,6 +65,13 @@ public class CameraProfile
      */
     public boolean dirty;
 
+    /**
+     * Whether camera profile was received from the server with quantized 
+     * positions (for playback only). Such profile is lossy, so it can't 
+     * be saved, and it gets reloaded in full before it's edited
+     */
+    public boolean quantized;
+
     public CameraProfile(AbstractDestination destination)
     {
         this.destination = destination;
@@ -68,6 +87,35 @@ public class CameraProfile
         return this.modifiers;
     }
 
+    /**
+     * Whether any enabled modifier (global or fixture's) reads the
+     * client's world, so the profile with modifiers may be evaluated
+     * only on the client thread
+     */
+    public boolean isWorldDependent()
+    {
+        for (AbstractModifier modifier : this.getModifiers())
+        {
+            if (modifier.enabled && modifier.isWorldDependent())
+            {
+                return true;
+            }
+        }
+
+        for (AbstractFixture fixture : this.getAll())
+        {
+            for (AbstractModifier modifier : fixture.getModifiers())
+            {
+                if (modifier.enabled && modifier.isWorldDependent())
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     public AbstractDestination getDestination()
     {
         return this.destination;
@@ -100,13 +148,13 @@ public class CameraProfile
     }
 
     /**
-     * Set camera profile dirty and also post an event 
+     * Set camera profile dirty and also notify the listener
      */
     public void setDirty(boolean dirty)
     {
         this.dirty = dirty;
 
-        MinecraftForge.EVENT_BUS.post(new CameraProfileChangedEvent(this));
+        listener.profileChanged(this);
     }
 
     /**
@@ -343,7 +391,10 @@ public class CameraProfile
             fixture.preApplyFixture(progress, position);
         }
 
+        long time = CameraProfiler.start();
+
         fixture.applyFixture(progress, partialTick, previewPartialTick, this, position);
+        CameraProfiler.stop(fixture, time);
 
         if (modifiers)
         {
@@ -352,6 +403,31 @@ public class CameraProfile
         }
     }
 
+    /**
+     * Apply only modifiers (of the fixture which runs at given time, and 
+     * global ones) on passed position, which already has the fixture's 
+     * transformation applied 
+     */
+    public void applyModifiers(long progress, float partialTick, float previewPartialTick, Position position)
+    {
+        long originalProgress = progress;
+
+        for (AbstractFixture fixture : this.fixtures)
+        {
+            long duration = fixture.getDuration();
+
+            if (progress < duration)
+            {
+                fixture.applyModifiers(originalProgress, progress, partialTick, previewPartialTick, this, position);
+                this.applyModifiers(originalProgress, originalProgress, partialTick, previewPartialTick, this, position);
+
+                return;
+            }
+
+            progress -= duration;
+        }
+    }
+
     /**
      * Apply global modifiers
      */
@@ -361,7 +437,10 @@ public class CameraProfile
         {
             if (modifier.enabled)
             {
+                long time = CameraProfiler.start();
+
                 modifier.modify(ticks, offset, null, partialTick, previewPartialTick, profile, pos);
+                CameraProfiler.stop(modifier, time);
             }
         }
     }
@@ -371,7 +450,14 @@ public class CameraProfile
      */
     public void fromByteBuf(ByteBuf buffer)
     {
-        for (int i = 0, c = buffer.readInt(); i < c; i++)
+        byte version = buffer.readByte();
+
+        if (version != BYTE_VERSION)
+        {
+            throw new IllegalStateException("Camera profile's byte version " + version + " isn't supported (expected " + BYTE_VERSION + ")!");
+        }
+
+        for (int i = 0, c = BufferUtils.readVarInt(buffer); i < c; i++)
         {
             AbstractFixture fixture = FixtureRegistry.fromByteBuf(buffer);
 
@@ -381,7 +467,7 @@ public class CameraProfile
             }
         }
 
-        for (int i = 0, c = buffer.readInt(); i < c; i++)
+        for (int i = 0, c = BufferUtils.readVarInt(buffer); i < c; i++)
         {
             AbstractModifier modifier = ModifierRegistry.fromByteBuf(buffer);
 
@@ -397,14 +483,25 @@ public class CameraProfile
      */
     public void toByteBuf(ByteBuf buffer)
     {
-        buffer.writeInt(this.fixtures.size());
+        this.toByteBuf(buffer, false);
+    }
+
+    /**
+     * Write camera profile to a byte buffer. Quantization reduces the 
+     * size of path fixtures at the cost of precision, so it should be 
+     * used only for profiles which aren't going to be saved back
+     */
+    public void toByteBuf(ByteBuf buffer, boolean quantize)
+    {
+        buffer.writeByte(BYTE_VERSION);
+        BufferUtils.writeVarInt(buffer, this.fixtures.size());
 
         for (AbstractFixture fixture : this.fixtures)
         {
-            FixtureRegistry.toByteBuf(fixture, buffer);
+            FixtureRegistry.toByteBuf(fixture, buffer, quantize);
         }
 
-        buffer.writeInt(this.getModifiers().size());
+        BufferUtils.writeVarInt(buffer, this.getModifiers().size());
 
         for (AbstractModifier modifier : this.getModifiers())
         {
@@ -431,21 +528,27 @@ public class CameraProfile
     @Override
     public CameraProfile clone()
     {
-        /* Increment filename */
-        ResourceLocation path = this.destination.toResourceLocation();
-        String filename = path.getResourcePath();
-        Matcher matcher = NUMBERED_SUFFIX.matcher(filename);
+        AbstractDestination dest = null;
 
-        if (matcher.find())
-        {
-            filename = filename.substring(0, matcher.start()) + "_" + (Integer.parseInt(matcher.group(1)) + 1);
-        }
-        else
+        /* Increment filename */
+        if (this.destination != null)
         {
-            filename = filename + "_1";
+            ResourceLocation path = this.destination.toResourceLocation();
+            String filename = path.getResourcePath();
+            Matcher matcher = NUMBERED_SUFFIX.matcher(filename);
+
+            if (matcher.find())
+            {
+                filename = filename.substring(0, matcher.start()) + "_" + (Integer.parseInt(matcher.group(1)) + 1);
+            }
+            else
+            {
+                filename = filename + "_1";
+            }
+
+            dest = AbstractDestination.fromResourceLocation(new ResourceLocation(path.getResourceDomain(), filename));
         }
 
-        AbstractDestination dest = AbstractDestination.fromResourceLocation(new ResourceLocation(path.getResourceDomain(), filename));
         CameraProfile profile = new CameraProfile(dest);
 
         /* Copy fixtures */
@@ -459,6 +562,8 @@ public class CameraProfile
             profile.modifiers.add(modifier.clone());
         }
 
+        profile.quantized = this.quantized;
+
         return profile;
     }
 
@@ -0,0 +1,232 @@
+package mchorse.aperture.camera;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Camera profiler
+ *
+ * Measures per frame how much time is spent on camera stuff on the
+ * render thread: applying camera profile during playback (broken down
+ * by fixtures and modifiers), rendering camera profile's preview and
+ * prefetching chunks, as well as overall frame time percentiles.
+ *
+ * When it's disabled, instrumented code only reads a boolean flag, so
+ * it costs nothing. Only the thread which renders frames is measured
+ * (camera profiles are also evaluated on the server and worker threads).
+ */
+public class CameraProfiler
+{
+    /**
+     * How many frame times are kept for percentiles
+     */
+    public static final int FRAMES = 256;
+
+    /**
+     * Smoothing factor of stages' average times
+     */
+    public static final double SMOOTHING = 0.05;
+
+    public static boolean enabled;
+
+    private static Thread thread;
+    private static boolean applying;
+
+    private static Map<Object, Stage> stages = new HashMap<Object, Stage>();
+    private static List<Stage> sorted = new ArrayList<Stage>();
+
+    private static long[] frames = new long[FRAMES];
+    private static int frameCount;
+    private static long lastFrame;
+
+    /**
+     * Start measuring a section (like preview rendering). Returns the
+     * start time, or 0 if the section shouldn't be measured
+     */
+    public static long begin()
+    {
+        return enabled && Thread.currentThread() == thread ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Finish measuring a section
+     */
+    public static void end(String name, long start)
+    {
+        if (start != 0)
+        {
+            getStage(name, name).add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Start measuring camera profile's application (fixtures and
+     * modifiers get measured only within it)
+     */
+    public static long beginApply()
+    {
+        long start = begin();
+
+        applying = start != 0;
+
+        return start;
+    }
+
+    public static void endApply(long start)
+    {
+        applying = false;
+        end("apply", start);
+    }
+
+    /**
+     * Start measuring a fixture or a modifier. Returns 0 if it shouldn't
+     * be measured
+     */
+    public static long start()
+    {
+        return enabled && applying && Thread.currentThread() == thread ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Finish measuring a fixture or a modifier (by its class)
+     */
+    public static void stop(Object object, long start)
+    {
+        if (start != 0)
+        {
+            Class<?> clazz = object.getClass();
+
+            getStage(clazz, "  " + clazz.getSimpleName()).add(System.nanoTime() - start);
+        }
+    }
+
+    private static Stage getStage(Object key, String name)
+    {
+        Stage stage = stages.get(key);
+
+        if (stage == null)
+        {
+            stage = new Stage(name);
+            stages.put(key, stage);
+            sorted.add(stage);
+            Collections.sort(sorted, (a, b) -> a.name.compareTo(b.name));
+        }
+
+        return stage;
+    }
+
+    /**
+     * Begin a new frame. Must be invoked on the render thread at the
+     * start of every frame
+     */
+    public static void frame()
+    {
+        long now = System.nanoTime();
+
+        thread = Thread.currentThread();
+
+        if (lastFrame != 0)
+        {
+            frames[frameCount++ % FRAMES] = now - lastFrame;
+        }
+
+        lastFrame = now;
+
+        for (Stage stage : sorted)
+        {
+            stage.frame();
+        }
+    }
+
+    /**
+     * Forget everything measured
+     */
+    public static void reset()
+    {
+        stages.clear();
+        sorted.clear();
+        frameCount = 0;
+        lastFrame = 0;
+    }
+
+    /**
+     * Get frame time percentiles (in milliseconds) of the last frames
+     */
+    public static double[] getPercentiles(double... percentiles)
+    {
+        int count = Math.min(frameCount, FRAMES);
+        long[] copy = Arrays.copyOf(frames, count);
+        double[] result = new double[percentiles.length];
+
+        Arrays.sort(copy);
+
+        for (int i = 0; i < percentiles.length && count > 0; i++)
+        {
+            result[i] = copy[Math.min(count - 1, (int) (percentiles[i] * count))] / 1000000.0;
+        }
+
+        return result;
+    }
+
+    /**
+     * Create lines of text which report measured times
+     */
+    public static List<String> report()
+    {
+        List<String> lines = new ArrayList<String>();
+        double[] percentiles = getPercentiles(0.5, 0.95, 0.99);
+
+        lines.add(String.format("Frame p50 %.2f ms, p95 %.2f ms, p99 %.2f ms", percentiles[0], percentiles[1], percentiles[2]));
+
+        for (Stage stage : sorted)
+        {
+            if (stage.average >= 0.0005 || stage.last > 0)
+            {
+                lines.add(String.format("%s %.3f ms (last %.3f ms)", stage.name, stage.average, stage.last));
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Measured stage
+     */
+    public static class Stage
+    {
+        public final String name;
+
+        /**
+         * Time spent in this stage during current frame (in nanoseconds)
+         */
+        public long current;
+
+        /**
+         * Time spent in last frame, and average time per frame (in
+         * milliseconds)
+         */
+        public double last;
+        public double average;
+
+        public Stage(String name)
+        {
+            this.name = name;
+        }
+
+        public void add(long nanos)
+        {
+            this.current += nanos;
+        }
+
+        public void frame()
+        {
+            this.last = this.current / 1000000.0;
+            this.average += (this.last - this.average) * SMOOTHING;
+            this.current = 0;
+        }
+    }
+}
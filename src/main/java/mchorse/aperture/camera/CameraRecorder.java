@@ -0,0 +1,198 @@
+package mchorse.aperture.camera;
+
+import java.io.IOException;
+
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
+
+/**
+ * Camera recorder
+ *
+ * Records camera's motion (position, angle, roll and FOV) into a new
+ * keyframe fixture. Samples are captured every frame (so there are
+ * usually several samples per tick) into a preallocated ring buffer of
+ * primitives, and the buffer is drained every tick into
+ * {@link CameraImporter}, which resamples them to whole ticks and
+ * reduces keyframes on the fly.
+ *
+ * That way capturing doesn't allocate anything, and the only memory
+ * which grows during recording is the keyframes which couldn't be
+ * reduced, so several minutes of hand-flown camera could be recorded
+ * without GC pauses.
+ */
+public class CameraRecorder
+{
+    /**
+     * Size of a sample in the ring buffer (time and camera's state)
+     */
+    public static final int SAMPLE = CameraExporter.STRIDE + 1;
+
+    /**
+     * Default capacity of the ring buffer (in samples)
+     */
+    public static final int CAPACITY = 1024;
+
+    private final double[] buffer;
+    private final int capacity;
+    private final double[] sample = new double[CameraExporter.STRIDE];
+
+    /* Ring buffer state */
+    private int head;
+    private int size;
+
+    private CameraImporter importer;
+    private long start;
+    private double last;
+    private long frames;
+
+    public CameraRecorder()
+    {
+        this(CAPACITY);
+    }
+
+    public CameraRecorder(int capacity)
+    {
+        this.capacity = capacity;
+        this.buffer = new double[capacity * SAMPLE];
+    }
+
+    public boolean isRecording()
+    {
+        return this.importer != null;
+    }
+
+    /**
+     * Amount of captured frames
+     */
+    public long getFrames()
+    {
+        return this.frames;
+    }
+
+    /**
+     * Time of the last captured frame (in ticks)
+     */
+    public double getTime()
+    {
+        return this.frames == 0 ? 0 : this.last;
+    }
+
+    /**
+     * Start recording with given position (in blocks) and angle (in
+     * degrees) reduction tolerances
+     */
+    public void start(float position, float angle)
+    {
+        this.importer = new CameraImporter();
+        this.importer.positionTolerance = position;
+        this.importer.angleTolerance = angle;
+        this.importer.begin();
+
+        this.head = this.size = 0;
+        this.start = System.nanoTime();
+        this.last = 0;
+        this.frames = 0;
+    }
+
+    /**
+     * Capture given position at current time
+     */
+    public void record(Position position)
+    {
+        double time = (System.nanoTime() - this.start) / 50000000D;
+
+        this.record(time, position.point.x, position.point.y, position.point.z, position.angle.yaw, position.angle.pitch, position.angle.roll, position.angle.fov);
+    }
+
+    /**
+     * Capture camera's state at given time (in ticks). Frames which
+     * aren't after previous frame are skipped
+     */
+    public void record(double time, double x, double y, double z, float yaw, float pitch, float roll, float fov)
+    {
+        if (!this.isRecording() || (this.frames > 0 && time <= this.last))
+        {
+            return;
+        }
+
+        if (this.size == this.capacity)
+        {
+            this.drain();
+        }
+
+        int offset = ((this.head + this.size) % this.capacity) * SAMPLE;
+
+        this.buffer[offset] = time;
+        this.buffer[offset + 1] = x;
+        this.buffer[offset + 2] = y;
+        this.buffer[offset + 3] = z;
+        this.buffer[offset + 4] = yaw;
+        this.buffer[offset + 5] = pitch;
+        this.buffer[offset + 6] = roll;
+        this.buffer[offset + 7] = fov;
+
+        this.size++;
+        this.frames++;
+        this.last = time;
+    }
+
+    /**
+     * Feed captured frames into keyframes
+     */
+    public void drain()
+    {
+        if (!this.isRecording())
+        {
+            return;
+        }
+
+        while (this.size > 0)
+        {
+            int offset = this.head * SAMPLE;
+
+            System.arraycopy(this.buffer, offset + 1, this.sample, 0, CameraExporter.STRIDE);
+
+            try
+            {
+                this.importer.add(this.buffer[offset], this.sample);
+            }
+            catch (IOException e)
+            {
+                /* Can't happen, frames are always in chronological order */
+                throw new IllegalStateException(e);
+            }
+
+            this.head = (this.head + 1) % this.capacity;
+            this.size--;
+        }
+    }
+
+    /**
+     * Stop recording, and return recorded keyframe fixture (or null,
+     * if nothing was recorded)
+     */
+    public KeyframeFixture stop()
+    {
+        if (!this.isRecording())
+        {
+            return null;
+        }
+
+        this.drain();
+
+        KeyframeFixture fixture = null;
+
+        try
+        {
+            fixture = this.importer.end();
+        }
+        catch (IOException e)
+        {
+            /* Nothing was recorded */
+        }
+
+        this.importer = null;
+
+        return fixture;
+    }
+}
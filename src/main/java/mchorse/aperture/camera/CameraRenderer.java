@@ -43,12 +43,23 @@ public class CameraRenderer
      */
     public static final ResourceLocation TEXTURE = new ResourceLocation(Aperture.MODID, "textures/gui/fixture.png");
 
+    /**
+     * Color of the previewed path
+     */
+    public static final Color PREVIEW_COLOR = new Color(1F, 1F, 1F);
+
     protected Minecraft mc = Minecraft.getMinecraft();
 
     public SmoothCamera smooth = new SmoothCamera();
     public Filter roll = new Filter();
     public Filter fov = new Filter();
 
+    /**
+     * Path fixture which is previewed on top of current profile (i.e.
+     * simplified path before it gets applied)
+     */
+    public PathFixture preview;
+
     protected double playerX;
     protected double playerY;
     protected double playerZ;
@@ -211,6 +222,7 @@ public class CameraRenderer
 
         EntityPlayer player = runner.outside.active ? runner.outside.camera : this.mc.thePlayer;
         float ticks = event.getPartialTicks();
+        long time = CameraProfiler.begin();
 
         this.playerX = player.prevPosX + (player.posX - player.prevPosX) * ticks;
         this.playerY = player.prevPosY + (player.posY - player.prevPosY) * ticks;
@@ -242,9 +254,16 @@ public class CameraRenderer
             this.drawFixture(0.0F, color, fixture, this.prev, this.next);
         }
 
+        if (this.preview != null)
+        {
+            this.drawFixture(0.0F, PREVIEW_COLOR, this.preview, this.prev, this.next);
+        }
+
         GlStateManager.disableBlend();
         GlStateManager.popAttrib();
         GL11.glLineWidth(2);
+
+        CameraProfiler.end("preview", time);
     }
 
     /**
@@ -5,6 +5,11 @@ import mchorse.aperture.ClientProxy;
 import mchorse.aperture.camera.data.Angle;
 import mchorse.aperture.camera.data.Point;
 import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.client.ChunkPrefetcher;
+import mchorse.aperture.events.CameraProfileChangedEvent;
+import mchorse.aperture.metrics.Metrics;
+import mchorse.aperture.network.Dispatcher;
+import mchorse.aperture.network.common.PacketCameraTeleport;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.network.NetworkPlayerInfo;
 import net.minecraft.entity.Entity;
@@ -91,6 +96,46 @@ public class CameraRunner
      */
     public CameraOutside outside = new CameraOutside();
 
+    /**
+     * Compiles render chunks ahead of the camera 
+     */
+    public ChunkPrefetcher prefetcher = new ChunkPrefetcher();
+
+    /**
+     * Time (in milliseconds) since when the runner holds the frame, 
+     * waiting for render chunks of the next camera pose to compile (or 
+     * -1 if it doesn't wait)
+     */
+    private long waitingSince = -1;
+
+    /**
+     * How many render chunks of the next camera pose aren't compiled yet
+     */
+    public int pendingChunks;
+
+    /**
+     * Frame-locked clock: tick from which frames are counted, how many
+     * frames were rendered since then, and the tick of the last frame
+     * (to notice when ticks are changed from the outside)
+     */
+    private long frameStart;
+    private long frames;
+    private long frameTick;
+
+    /**
+     * Index of currently rendered frame (relative to the frame start), 
+     * and pipeline which computes poses of upcoming frames
+     */
+    private long frame;
+    private PosePipeline pipeline;
+
+    /**
+     * Ticks since the last teleport packet, and where the player was 
+     * teleported to
+     */
+    private int teleportTicks;
+    private Point teleported = new Point(0, 0, 0);
+
     /* Used by camera renderer */
     public float yaw = 0.0F;
     public float pitch = 0.0F;
@@ -158,7 +203,7 @@ public class CameraRunner
             this.lastFov = this.mc.gameSettings.fovSetting;
             this.lastRoll = ClientProxy.control.roll;
             this.gameMode = this.getGameMode(this.mc.thePlayer);
-            this.position.set(this.mc.thePlayer);
+            this.position.set(new PlayerCamera(this.mc.thePlayer));
 
             if (Aperture.proxy.config.camera_spectator && !Aperture.proxy.config.camera_outside && this.gameMode != GameType.SPECTATOR)
             {
@@ -170,7 +215,7 @@ public class CameraRunner
             this.attachOutside();
         }
 
-        this.position.set(this.mc.thePlayer);
+        this.position.set(new PlayerCamera(this.mc.thePlayer));
 
         this.isRunning = true;
         this.duration = this.profile.getDuration();
@@ -179,6 +224,15 @@ public class CameraRunner
         this.firstTick = true;
         this.firstTickZero = Aperture.proxy.config.camera_first_tick_zero;
         this.firstTickZeroStart = false;
+
+        this.frameStart = this.frameTick = start;
+        this.frames = 0;
+
+        this.prefetcher.reset();
+        this.teleportTicks = 0;
+        this.teleported.set(Double.NaN, Double.NaN, Double.NaN);
+        this.waitingSince = -1;
+        this.pendingChunks = 0;
     }
 
     /**
@@ -212,6 +266,7 @@ public class CameraRunner
 
         this.isRunning = false;
         this.profile = null;
+        this.stopPipeline();
 
         ClientProxy.control.resetRoll();
     }
@@ -275,6 +330,7 @@ public class CameraRunner
             this.firstTick = false;
         }
 
+        float partial = this.isFrameLocked() ? this.advanceFrame() : event.renderTickTime;
         long progress = Math.min(this.ticks, this.duration);
 
         if (progress >= this.duration)
@@ -295,14 +351,32 @@ public class CameraRunner
 
             if (Aperture.proxy.config.camera_debug_ticks)
             {
-                Aperture.LOGGER.info("Camera render frame: " + event.renderTickTime + " " + this.ticks);
+                Aperture.LOGGER.info("Camera render frame: " + partial + " " + this.ticks);
             }
 
             double prevX = this.position.point.x;
             double prevY = this.position.point.y;
             double prevZ = this.position.point.z;
 
-            this.profile.applyProfile(progress, event.renderTickTime, this.position);
+            /* While waiting for the chunks, the frame is held at the next 
+             * camera pose, so playback continues seamlessly afterwards 
+             * (frame-locked clock simply doesn't advance) */
+            if (this.isWaiting() && !this.isFrameLocked())
+            {
+                partial = 1.0F;
+            }
+
+            long time = CameraProfiler.beginApply();
+            long start = Metrics.start();
+
+            this.applyPose(progress, partial);
+            Metrics.stop(Metrics.FRAME, start);
+            CameraProfiler.endApply(time);
+
+            time = CameraProfiler.begin();
+            this.prefetcher.update(this.profile, progress);
+            this.prefetcher.compile();
+            CameraProfiler.end("prefetch", time);
 
             EntityPlayer player = this.mc.thePlayer;
             Point point = this.position.point;
@@ -341,7 +415,7 @@ public class CameraRunner
                 }
             }
 
-            if (!this.mc.isSingleplayer() && !this.outside.active)
+            if (!this.mc.isSingleplayer() && !this.outside.active && !ClientProxy.teleport)
             {
                 double dx = point.x - prevX;
                 double dy = point.y - prevY;
@@ -349,16 +423,7 @@ public class CameraRunner
 
                 if (dx * dx + dy * dy + dz * dz >= 10 * 10)
                 {
-                    /* Make it compatible with Essentials plugin, which replaced the native /tp command */
-                    if (Aperture.proxy.config.minecrafttp_teleport)
-                    {
-                        this.mc.thePlayer.sendChatMessage("/minecraft:tp " + point.x + " " + point.y + " " + point.z + " " + angle.yaw + " " + angle.pitch);
-                    }
-                    if (Aperture.proxy.config.tp_teleport)
-                    {
-                        this.mc.thePlayer.sendChatMessage("/tp " + point.x + " " + point.y + " " + point.z + " " + angle.yaw + " " + angle.pitch);
-                    }
-
+                    this.teleportCommand(point, angle);
                 }
             }
 
@@ -396,6 +461,160 @@ public class CameraRunner
         camera.rotationYawHead = camera.prevRotationYawHead = angle.yaw;
     }
 
+    /**
+     * Whether the playback is driven by rendered frames instead of game 
+     * ticks
+     */
+    public boolean isFrameLocked()
+    {
+        return Aperture.proxy.config.camera_frame_lock_fps > 0;
+    }
+
+    /**
+     * Frame-locked clock. Every rendered frame advances camera's time by 
+     * exactly 1/fps of a second, no matter how fast the game ticks or 
+     * renders, so every run produces identical frames. Sets the ticks 
+     * and returns partial tick of current frame
+     */
+    private float advanceFrame()
+    {
+        if (this.ticks != this.frameTick)
+        {
+            /* Ticks were changed from the outside (i.e. scrubbing) */
+            this.frameStart = this.ticks;
+            this.frames = 0;
+        }
+
+        /* Integer math, so frame timings don't drift */
+        int fps = Aperture.proxy.config.camera_frame_lock_fps;
+        long time = this.frames * 20;
+        long tick = time / fps;
+
+        this.ticks = this.frameTick = this.frameStart + tick;
+        this.frame = this.frames;
+
+        /* Render gate is checked only when next frame enters next tick */
+        if ((time + 20) / fps == tick || !this.holdFrame())
+        {
+            this.frames++;
+        }
+
+        return (float) (time % fps) / fps;
+    }
+
+    /**
+     * Apply camera profile at given time. During frame-locked playback, 
+     * fixture's pose might be already computed by the pose pipeline, so 
+     * only modifiers have to be applied
+     */
+    private void applyPose(long progress, float partial)
+    {
+        int size = Aperture.proxy.config.camera_pipeline_frames;
+
+        if (!this.isFrameLocked() || size <= 0)
+        {
+            this.stopPipeline();
+            this.profile.applyProfile(progress, partial, this.position);
+
+            return;
+        }
+
+        int fps = Aperture.proxy.config.camera_frame_lock_fps;
+
+        if (this.pipeline == null || !this.pipeline.matches(this.profile, this.frameStart, fps, size))
+        {
+            this.stopPipeline();
+            this.pipeline = new PosePipeline(this.profile, this.frameStart, fps, size);
+        }
+
+        if (this.pipeline.get(this.frame, this.position))
+        {
+            this.profile.applyModifiers(progress, partial, partial, this.position);
+        }
+        else
+        {
+            this.profile.applyProfile(progress, partial, this.position);
+        }
+    }
+
+    private void stopPipeline()
+    {
+        if (this.pipeline != null)
+        {
+            if (Aperture.proxy.config.camera_debug_ticks)
+            {
+                Aperture.LOGGER.info("Camera pose pipeline: " + this.pipeline.hits + " hits, " + this.pipeline.misses + " misses");
+            }
+
+            this.pipeline.stop();
+            this.pipeline = null;
+        }
+    }
+
+    /**
+     * Poses computed ahead (and prefetcher's copy of the profile) are 
+     * outdated once the profile is edited 
+     */
+    @SubscribeEvent
+    public void onCameraProfileChanged(CameraProfileChangedEvent event)
+    {
+        this.prefetcher.invalidate(event.profile);
+
+        if (event.profile == this.profile)
+        {
+            this.stopPipeline();
+        }
+    }
+
+    /**
+     * Whether the runner holds the frame waiting for render chunks
+     */
+    public boolean isWaiting()
+    {
+        return this.waitingSince >= 0;
+    }
+
+    /**
+     * Render gate for recordings. Checks whether all render chunks, which 
+     * are visible from the next camera pose, are compiled, and if they 
+     * aren't, the runner should hold the frame (until they get compiled, 
+     * or until the timeout runs out)
+     */
+    private boolean holdFrame()
+    {
+        if (!Aperture.proxy.config.camera_render_gate || this.profile == null)
+        {
+            return false;
+        }
+
+        this.pendingChunks = this.prefetcher.getPending(this.profile, this.ticks + 1);
+
+        if (this.pendingChunks == 0)
+        {
+            this.waitingSince = -1;
+
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+
+        if (this.waitingSince < 0)
+        {
+            this.waitingSince = now;
+        }
+        else if (now - this.waitingSince >= Aperture.proxy.config.camera_render_gate_timeout)
+        {
+            Aperture.LOGGER.warn("Camera render gate timed out at tick " + this.ticks + " with " + this.pendingChunks + " render chunks left to compile");
+
+            this.waitingSince = -1;
+            this.pendingChunks = 0;
+
+            return false;
+        }
+
+        return true;
+    }
+
     /**
      * This is going to count ticks (used for camera synchronization)
      */
@@ -409,10 +628,88 @@ public class CameraRunner
                 Aperture.LOGGER.info("Camera frame: " + this.ticks);
             }
 
-            if (this.firstTickZero && this.firstTickZeroStart || !this.firstTickZero)
+            if (this.isFrameLocked())
+            {
+                /* Ticks are advanced by rendered frames */
+            }
+            else if ((this.firstTickZero && this.firstTickZeroStart || !this.firstTickZero) && !this.holdFrame())
             {
                 this.ticks++;
             }
+
+            this.sendTeleport();
+        }
+    }
+
+    /**
+     * Send camera's position to the server at a fixed rate, so the real 
+     * player would be moved along with the camera (and chunks around 
+     * the camera would be sent to the client)
+     */
+    private void sendTeleport()
+    {
+        if (!ClientProxy.teleport || this.mc.isSingleplayer() || this.outside.active)
+        {
+            return;
+        }
+
+        if (++this.teleportTicks < Aperture.proxy.config.camera_teleport_interval)
+        {
+            return;
+        }
+
+        Point point = this.position.point;
+        Angle angle = this.position.angle;
+        double dx = point.x - this.teleported.x;
+        double dy = point.y - this.teleported.y;
+        double dz = point.z - this.teleported.z;
+
+        /* Differences are NaN before the first teleport */
+        if (dx * dx + dy * dy + dz * dz < 1)
+        {
+            return;
+        }
+
+        this.teleportTicks = 0;
+        this.teleported.set(point.x, point.y, point.z);
+
+        Dispatcher.sendToServer(new PacketCameraTeleport(point.x, point.y, point.z, angle.yaw, angle.pitch));
+        Metrics.add(Metrics.TELEPORTS, 1);
+    }
+
+    /**
+     * Server refused the last teleport packet, because it was too far 
+     * from the player. Player is moved with a teleport command instead, 
+     * and packets continue from there
+     */
+    public void rejectTeleport()
+    {
+        if (!this.isRunning || this.outside.active)
+        {
+            return;
+        }
+
+        this.teleportTicks = 0;
+        this.teleported.set(this.position.point.x, this.position.point.y, this.position.point.z);
+        this.teleportCommand(this.position.point, this.position.angle);
+    }
+
+    /**
+     * Teleport the player with a chat command
+     */
+    private void teleportCommand(Point point, Angle angle)
+    {
+        /* Make it compatible with Essentials plugin, which replaced the native /tp command */
+        if (Aperture.proxy.config.minecrafttp_teleport)
+        {
+            this.mc.thePlayer.sendChatMessage("/minecraft:tp " + point.x + " " + point.y + " " + point.z + " " + angle.yaw + " " + angle.pitch);
+            Metrics.add(Metrics.TELEPORT_COMMANDS, 1);
+        }
+
+        if (Aperture.proxy.config.tp_teleport)
+        {
+            this.mc.thePlayer.sendChatMessage("/tp " + point.x + " " + point.y + " " + point.z + " " + angle.yaw + " " + angle.pitch);
+            Metrics.add(Metrics.TELEPORT_COMMANDS, 1);
         }
     }
 }
\ No newline at end of file
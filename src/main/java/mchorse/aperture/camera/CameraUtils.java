@@ -1,25 +1,47 @@
 package mchorse.aperture.camera;
 
-import java.io.DataInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.StringWriter;
-import java.util.Scanner;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.io.Charsets;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.google.gson.stream.JsonWriter;
 
-import mchorse.aperture.camera.fixtures.AbstractFixture;
-import mchorse.aperture.camera.json.AbstractFixtureAdapter;
-import mchorse.aperture.camera.json.AbstractModifierAdapter;
-import mchorse.aperture.camera.modifiers.AbstractModifier;
+import mchorse.aperture.Aperture;
+import mchorse.aperture.camera.json.CameraAdapterFactory;
+import mchorse.aperture.camera.storage.BinaryProfileFormat;
+import mchorse.aperture.camera.storage.FileProfileStore;
+import mchorse.aperture.camera.storage.ProfileDigest;
+import mchorse.aperture.camera.storage.ProfileHeader;
+import mchorse.aperture.camera.storage.ProfileIndex;
+import mchorse.aperture.camera.storage.ProfileJournal;
 import mchorse.aperture.capabilities.camera.Camera;
 import mchorse.aperture.capabilities.camera.ICamera;
+import mchorse.aperture.metrics.Metrics;
 import mchorse.aperture.network.Dispatcher;
 import mchorse.aperture.network.common.PacketCameraProfile;
+import mchorse.aperture.network.common.PacketCameraProfileHash;
 import mchorse.aperture.network.common.PacketCameraState;
 import mchorse.aperture.utils.L10n;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -33,26 +55,160 @@ import net.minecraftforge.common.DimensionManager;
  */
 public class CameraUtils
 {
+    /**
+     * Extension of JSON camera profiles
+     */
+    public static final String JSON_EXTENSION = ".json";
+
+    /**
+     * Cached compact camera JSON builder
+     */
+    private static final Gson GSON = createJSONBuilder(false);
+
+    /**
+     * Cached pretty camera JSON builder
+     */
+    private static final Gson PRETTY_GSON = createJSONBuilder(true);
+
+    /**
+     * Cached server's profile store and world save folder it belongs to 
+     */
+    private static FileProfileStore serverStore;
+    private static File serverRoot;
+
+    /**
+     * Cached server's profile index
+     */
+    private static ProfileIndex serverIndex;
+
+    /**
+     * Cached content hashes of server's camera profiles
+     */
+    private static final ProfileDigest SERVER_DIGEST = new ProfileDigest();
+
+    /**
+     * Get server's camera profile store (located in current world save's 
+     * folder). It's cached as long as the world save stays the same
+     */
+    public static FileProfileStore getServerStore()
+    {
+        File root = DimensionManager.getCurrentSaveRootDirectory();
+
+        if (serverStore == null || !root.equals(serverRoot))
+        {
+            serverRoot = root;
+            serverStore = new FileProfileStore(new File(root, "aperture/cameras"));
+            SERVER_DIGEST.clear();
+        }
+
+        return serverStore;
+    }
+
+    /**
+     * Get server's camera profile index (for the current server's profile 
+     * store)
+     */
+    public static ProfileIndex getServerIndex()
+    {
+        FileProfileStore store = getServerStore();
+
+        if (serverIndex == null || serverIndex.getStore() != store)
+        {
+            closeServerIndex();
+            serverIndex = new ProfileIndex(store);
+        }
+
+        return serverIndex;
+    }
+
+    /**
+     * Close server's camera profile index (when the server stops)
+     */
+    public static void closeServerIndex()
+    {
+        if (serverIndex != null)
+        {
+            serverIndex.close();
+            serverIndex = null;
+        }
+    }
+
+    /**
+     * Get camera profiles folder (located in current world save's folder)
+     */
+    public static File cameraFolder()
+    {
+        return getServerStore().getFolder();
+    }
+
     /**
      * Get path to camera profile file (located in current world save's folder)
      */
     public static String cameraFile(String filename)
     {
-        File file = new File(DimensionManager.getCurrentSaveRootDirectory() + "/aperture/cameras");
+        return getServerStore().getFile(filename).getAbsolutePath();
+    }
+
+    /**
+     * Get camera profile's file in given folder. Binary file is preferred 
+     * if it exists, otherwise JSON file is returned
+     */
+    public static File profileFile(File folder, String filename)
+    {
+        File binary = new File(folder, filename + BinaryProfileFormat.EXTENSION);
 
-        if (!file.exists())
+        return binary.isFile() ? binary : new File(folder, filename + JSON_EXTENSION);
+    }
+
+    /**
+     * Get a list of camera profile names (in either format) in given 
+     * folder
+     */
+    public static List<String> listProfiles(File folder)
+    {
+        Set<String> names = new TreeSet<String>();
+        File[] files = folder == null ? null : folder.listFiles();
+
+        if (files != null)
         {
-            file.mkdirs();
+            for (File file : files)
+            {
+                String name = file.getName();
+
+                if (!file.isFile())
+                {
+                    continue;
+                }
+
+                if (name.endsWith(JSON_EXTENSION))
+                {
+                    names.add(name.substring(0, name.length() - JSON_EXTENSION.length()));
+                }
+                else if (name.endsWith(BinaryProfileFormat.EXTENSION))
+                {
+                    names.add(name.substring(0, name.length() - BinaryProfileFormat.EXTENSION.length()));
+                }
+            }
         }
 
-        return file.getAbsolutePath() + "/" + filename + ".json";
+        return new ArrayList<String>(names);
     }
 
     /**
      * Get a camera JSON builder. This will include custom serializers for some
      * of the camera fixture classes. Also custom serializers.
+     * 
+     * Gson instances are thread-safe, so they're created only once.
      */
     public static Gson cameraJSONBuilder(boolean pretty)
+    {
+        return pretty ? PRETTY_GSON : GSON;
+    }
+
+    /**
+     * Create a camera JSON builder
+     */
+    private static Gson createJSONBuilder(boolean pretty)
     {
         GsonBuilder builder = new GsonBuilder();
 
@@ -63,9 +219,8 @@ public class CameraUtils
 
         builder.excludeFieldsWithoutExposeAnnotation();
 
-        /* Serializer and deserializer */
-        builder.registerTypeAdapter(AbstractFixture.class, new AbstractFixtureAdapter());
-        builder.registerTypeAdapter(AbstractModifier.class, new AbstractModifierAdapter());
+        /* Streaming serializers and deserializers */
+        builder.registerTypeAdapterFactory(new CameraAdapterFactory());
 
         return builder.create();
     }
@@ -73,27 +228,183 @@ public class CameraUtils
     /**
      * Read CameraProfile instance from given file
      */
-    public static String readCameraProfile(String filename) throws Exception
+    public static CameraProfile readCameraProfile(String filename) throws Exception
     {
-        String path = cameraFile(filename);
-        DataInputStream stream = new DataInputStream(new FileInputStream(path));
-        Scanner scanner = new Scanner(stream, "UTF-8");
-        String content = scanner.useDelimiter("\\A").next();
+        return getServerStore().read(filename);
+    }
 
-        scanner.close();
+    /**
+     * Write CameraProfile instance to given file
+     */
+    public static void writeCameraProfile(String filename, CameraProfile profile) throws IOException
+    {
+        getServerStore().write(filename, profile);
+    }
+
+    /**
+     * Read camera profile from given file. The format is detected by 
+     * file's contents, so JSON profiles can be loaded (imported) even 
+     * when binary format is enabled, and vice versa. Edits which were 
+     * journaled after the snapshot are replayed on top of it
+     */
+    public static CameraProfile readProfile(File file) throws IOException
+    {
+        long time = Metrics.start();
+        CameraProfile profile = BinaryProfileFormat.isBinary(file) ? BinaryProfileFormat.read(file) : readJSON(file);
+
+        ProfileJournal.replay(file, profile);
+        Metrics.stop(Metrics.DISK_READ, time);
+
+        if (Aperture.proxy.config.camera_journal)
+        {
+            ProfileJournal.track(file, profile);
+        }
 
-        return content;
+        return profile;
     }
 
     /**
-     * Write CameraProfile instance to given file
+     * Read header of a camera profile file (of any format). If the 
+     * profile has journaled edits, it's read fully, since the header 
+     * of the snapshot might be outdated
      */
-    public static void writeCameraProfile(String filename, String profile) throws IOException
+    public static ProfileHeader readProfileHeader(File file) throws IOException
     {
-        PrintWriter printer = new PrintWriter(cameraFile(filename));
+        if (ProfileJournal.journalFile(file).isFile())
+        {
+            return ProfileHeader.fromProfile(readProfile(file));
+        }
+
+        if (BinaryProfileFormat.isBinary(file))
+        {
+            return BinaryProfileFormat.readHeader(file);
+        }
+
+        return ProfileHeader.fromJSON(new BufferedReader(new InputStreamReader(new FileInputStream(file), Charsets.UTF_8)));
+    }
+
+    /**
+     * Read camera profile from given JSON file. It's parsed directly 
+     * from the file stream
+     */
+    public static CameraProfile readJSON(File file) throws IOException
+    {
+        return readJSON(new BufferedReader(new InputStreamReader(new FileInputStream(file), Charsets.UTF_8)));
+    }
 
-        printer.print(profile);
-        printer.close();
+    /**
+     * Read camera profile from given JSON reader. The reader gets closed 
+     * afterwards
+     */
+    public static CameraProfile readJSON(Reader reader) throws IOException
+    {
+        try
+        {
+            return GSON.fromJson(reader, CameraProfile.class);
+        }
+        catch (JsonParseException e)
+        {
+            throw new IOException("Camera profile couldn't be parsed!", e);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Write camera profile to given JSON file. It's serialized directly 
+     * into the file stream
+     */
+    public static void writeJSON(CameraProfile profile, File file) throws IOException
+    {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), Charsets.UTF_8));
+
+        try
+        {
+            writeJSON(profile, writer);
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    /**
+     * Write camera profile to given folder in the format which is 
+     * specified in the config. The file in the other format gets removed, 
+     * so it wouldn't shadow the new one.
+     * 
+     * If journaling is enabled, only the changes since the last save are 
+     * appended to profile's journal. Otherwise, or when the journal needs 
+     * compaction, full snapshot is written to a temporary file first and 
+     * then moved over the old one, so a crash wouldn't leave a truncated 
+     * profile.
+     */
+    public static void writeProfile(File folder, String filename, CameraProfile profile) throws IOException
+    {
+        boolean binaryFormat = Aperture.proxy.config.camera_binary_format;
+        File binary = new File(folder, filename + BinaryProfileFormat.EXTENSION);
+        File json = new File(folder, filename + JSON_EXTENSION);
+        File target = binaryFormat ? binary : json;
+        File temporary = new File(folder, target.getName() + ".tmp");
+        long time = Metrics.start();
+
+        if (Aperture.proxy.config.camera_journal && target.isFile() && ProfileJournal.append(target, profile))
+        {
+            Metrics.stop(Metrics.DISK_WRITE, time);
+
+            return;
+        }
+
+        if (binaryFormat)
+        {
+            BinaryProfileFormat.write(profile, temporary);
+        }
+        else
+        {
+            writeJSON(profile, temporary);
+        }
+
+        /* Replaced snapshot invalidates the old journal, so it's safe
+         * to remove it only afterwards */
+        replaceFile(temporary, target);
+        ProfileJournal.discard(target);
+        ProfileJournal.discard(binaryFormat ? json : binary);
+        (binaryFormat ? json : binary).delete();
+        Metrics.stop(Metrics.DISK_WRITE, time);
+
+        if (Aperture.proxy.config.camera_journal)
+        {
+            ProfileJournal.track(target, profile);
+        }
+    }
+
+    /**
+     * Replace given file with a temporary file. The move is atomic where 
+     * the file system supports it
+     */
+    public static void replaceFile(File temporary, File target) throws IOException
+    {
+        FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.WRITE);
+
+        try
+        {
+            channel.force(true);
+        }
+        finally
+        {
+            channel.close();
+        }
+
+        try
+        {
+            Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     /* Commands */
@@ -101,25 +412,33 @@ public class CameraUtils
     /**
      * Send a camera profile that was read from given file to player.
      *
-     * This method also checks if player has same named camera profile, and if
-     * it's expired (server has newer version), send him new one.
+     * Only the content hash of the profile is sent, and the client 
+     * requests the whole profile (see {@link #sendFullProfileToPlayer(String, EntityPlayerMP, boolean)}) 
+     * only if it doesn't have it in its cache. If player already has 
+     * the same version of the profile, nothing is sent at all, unless 
+     * it's forced.
      */
     public static void sendProfileToPlayer(String filename, EntityPlayerMP player, boolean play, boolean force)
     {
         try
         {
-            if (!force && playerHasProfile(player, filename, play))
+            boolean quantize = isQuantized(play);
+            String hash = SERVER_DIGEST.get(getServerStore(), filename, quantize);
+
+            if (!force && playerHasProfile(player, filename, hash, play))
             {
                 return;
             }
 
-            CameraProfile profile = cameraJSONBuilder(true).fromJson(readCameraProfile(filename), CameraProfile.class);
             ICamera recording = Camera.get(player);
 
             recording.setCurrentProfile(filename);
-            recording.setCurrentProfileTimestamp(System.currentTimeMillis());
+            recording.setCurrentProfileHash(hash);
 
-            Dispatcher.sendTo(new PacketCameraProfile(filename, profile, play), player);
+            PacketCameraProfileHash packet = new PacketCameraProfileHash(filename, hash, play);
+
+            packet.quantized = quantize;
+            Dispatcher.sendTo(packet, player);
         }
         catch (Exception e)
         {
@@ -129,17 +448,52 @@ public class CameraUtils
     }
 
     /**
-     * Checks whether player has older camera profile
+     * Send whole camera profile to player (when client doesn't have it 
+     * in its cache)
      */
-    private static boolean playerHasProfile(EntityPlayerMP player, String filename, boolean play)
+    public static void sendFullProfileToPlayer(String filename, EntityPlayerMP player, boolean play)
     {
-        ICamera recording = Camera.get(player);
-        File profile = new File(cameraFile(filename));
+        try
+        {
+            boolean quantize = isQuantized(play);
+            CameraProfile profile = readCameraProfile(filename);
+            PacketCameraProfile packet = new PacketCameraProfile(filename, profile, play);
+            ICamera recording = Camera.get(player);
+
+            packet.quantize = quantize;
+            packet.hash = ProfileDigest.hash(profile, quantize);
+
+            recording.setCurrentProfile(filename);
+            recording.setCurrentProfileHash(packet.hash);
+
+            Dispatcher.sendTo(packet, player);
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            L10n.error(player, "profile.cant_load", filename);
+        }
+    }
 
-        boolean hasSame = recording.currentProfile().equals(filename);
-        boolean isNewer = recording.currentProfileTimestamp() >= profile.lastModified();
+    /**
+     * Quantize only profiles which are sent for playback, since edited 
+     * profiles are going to be sent back for saving (client doesn't 
+     * save quantized profiles, and reloads them before editing)
+     */
+    private static boolean isQuantized(boolean play)
+    {
+        return play && Aperture.proxy.config.camera_network_quantize;
+    }
 
-        if (hasSame && isNewer)
+    /**
+     * Checks whether player already has the same version of camera 
+     * profile
+     */
+    private static boolean playerHasProfile(EntityPlayerMP player, String filename, String hash, boolean play)
+    {
+        ICamera recording = Camera.get(player);
+
+        if (recording.currentProfile().equals(filename) && hash.equals(recording.currentProfileHash()))
         {
             if (play)
             {
@@ -160,10 +514,11 @@ public class CameraUtils
      * Save given camera profile to file. Inform user about the problem, if the
      * camera profile couldn't be saved.
      */
-    public static boolean saveCameraProfile(String filename, String profile, EntityPlayerMP player)
+    public static boolean saveCameraProfile(String filename, CameraProfile profile, EntityPlayerMP player)
     {
         try
         {
+            SERVER_DIGEST.remove(filename);
             writeCameraProfile(filename, profile);
         }
         catch (IOException e)
@@ -185,16 +540,31 @@ public class CameraUtils
      */
     public static String toJSON(CameraProfile profile)
     {
-        Gson gson = cameraJSONBuilder(true);
-
         StringWriter writer = new StringWriter();
+
+        try
+        {
+            writeJSON(profile, writer);
+        }
+        catch (IOException e)
+        {
+            /* StringWriter doesn't throw */
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Write camera profile as pretty JSON into given writer
+     */
+    private static void writeJSON(CameraProfile profile, Writer writer) throws IOException
+    {
         JsonWriter jsonWriter = new JsonWriter(writer);
 
         /* Set 4 space indentation instead of shitty 2 space indentation */
         jsonWriter.setIndent("    ");
-        gson.toJson(profile, CameraProfile.class, jsonWriter);
-
-        return writer.toString();
+        PRETTY_GSON.toJson(profile, CameraProfile.class, jsonWriter);
+        jsonWriter.flush();
     }
 
     /**
@@ -202,10 +572,28 @@ public class CameraUtils
      */
     public static boolean renameProfile(String from, String to)
     {
-        File fromFile = new File(cameraFile(from));
-        File toFile = new File(cameraFile(to));
+        SERVER_DIGEST.remove(from);
+
+        return getServerStore().rename(from, to);
+    }
+
+    /**
+     * Rename camera profile in given folder (keeping its format)
+     */
+    public static boolean renameProfile(File folder, String from, String to)
+    {
+        File fromFile = profileFile(folder, from);
+        String name = fromFile.getName();
+        File toFile = new File(folder, to + name.substring(name.lastIndexOf('.')));
+
+        if (fromFile.renameTo(toFile))
+        {
+            ProfileJournal.rename(fromFile, toFile);
+
+            return true;
+        }
 
-        return fromFile.renameTo(toFile);
+        return false;
     }
 
     /**
@@ -213,8 +601,25 @@ public class CameraUtils
      */
     public static boolean removeProfile(String profile)
     {
-        File file = new File(cameraFile(profile));
+        SERVER_DIGEST.remove(profile);
+
+        return getServerStore().remove(profile);
+    }
+
+    /**
+     * Remove camera profile in both formats from given folder
+     */
+    public static boolean removeProfile(File folder, String profile)
+    {
+        File binaryFile = new File(folder, profile + BinaryProfileFormat.EXTENSION);
+        File jsonFile = new File(folder, profile + JSON_EXTENSION);
+
+        ProfileJournal.discard(binaryFile);
+        ProfileJournal.discard(jsonFile);
+
+        boolean binary = binaryFile.delete();
+        boolean json = jsonFile.delete();
 
-        return file.delete();
+        return binary || json;
     }
 }
\ No newline at end of file
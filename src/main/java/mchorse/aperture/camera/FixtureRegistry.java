@@ -8,6 +8,7 @@ import com.google.common.collect.HashBiMap;
 
 import io.netty.buffer.ByteBuf;
 import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.utils.BufferUtils;
 import mchorse.aperture.utils.Color;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -65,13 +66,22 @@ public class FixtureRegistry
      * Write a camera fixture to byte buffer 
      */
     public static void toByteBuf(AbstractFixture fixture, ByteBuf buffer)
+    {
+        toByteBuf(fixture, buffer, false);
+    }
+
+    /**
+     * Write a camera fixture to byte buffer, optionally quantizing 
+     * fixture's positions 
+     */
+    public static void toByteBuf(AbstractFixture fixture, ByteBuf buffer, boolean quantize)
     {
         byte type = CLASS_TO_ID.get(fixture.getClass());
 
         buffer.writeByte(type);
-        buffer.writeLong(fixture.getDuration());
+        BufferUtils.writeVarLong(buffer, fixture.getDuration());
 
-        fixture.toByteBuf(buffer);
+        fixture.toByteBuf(buffer, quantize);
     }
 
     /**
@@ -80,7 +90,7 @@ public class FixtureRegistry
     public static AbstractFixture fromByteBuf(ByteBuf buffer)
     {
         byte type = buffer.readByte();
-        long duration = buffer.readLong();
+        long duration = BufferUtils.readVarLong(buffer);
 
         try
         {
@@ -0,0 +1,13 @@
+package mchorse.aperture.camera;
+
+/**
+ * Camera profile listener
+ *
+ * Adapter which gets notified when a camera profile gets modified. The
+ * mod installs one which posts a Forge event, while headless tools and
+ * tests can leave the default one, which does nothing.
+ */
+public interface IProfileListener
+{
+    public void profileChanged(CameraProfile profile);
+}
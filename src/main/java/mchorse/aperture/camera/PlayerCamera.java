@@ -0,0 +1,77 @@
+package mchorse.aperture.camera;
+
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.core.ICameraEntity;
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Player camera
+ *
+ * Adapts a player to camera data's {@link ICameraEntity}, so positions
+ * could be taken from the player, or applied to it. Roll is taken from
+ * camera control, and field of view from game settings.
+ */
+@SideOnly(Side.CLIENT)
+public class PlayerCamera implements ICameraEntity
+{
+    public final EntityPlayer player;
+
+    public PlayerCamera(EntityPlayer player)
+    {
+        this.player = player;
+    }
+
+    @Override
+    public double getX()
+    {
+        return this.player.posX;
+    }
+
+    @Override
+    public double getY()
+    {
+        return this.player.posY;
+    }
+
+    @Override
+    public double getZ()
+    {
+        return this.player.posZ;
+    }
+
+    @Override
+    public float getYaw()
+    {
+        return this.player.rotationYaw;
+    }
+
+    @Override
+    public float getPitch()
+    {
+        return this.player.rotationPitch;
+    }
+
+    @Override
+    public float getRoll()
+    {
+        return ClientProxy.control.roll;
+    }
+
+    @Override
+    public float getFov()
+    {
+        return Minecraft.getMinecraft().gameSettings.fovSetting;
+    }
+
+    @Override
+    public void setPosition(double x, double y, double z, float yaw, float pitch)
+    {
+        this.player.setPositionAndRotation(x, y, z, yaw, pitch);
+        this.player.setLocationAndAngles(x, y, z, yaw, pitch);
+        this.player.motionX = this.player.motionY = this.player.motionZ = 0;
+        this.player.rotationYawHead = this.player.prevRotationYawHead = yaw;
+    }
+}
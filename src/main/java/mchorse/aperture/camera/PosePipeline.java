@@ -0,0 +1,180 @@
+package mchorse.aperture.camera;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.fixtures.CircularFixture;
+import mchorse.aperture.camera.fixtures.IdleFixture;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
+import mchorse.aperture.camera.fixtures.PathFixture;
+
+/**
+ * Pose pipeline
+ *
+ * During frame-locked playback, camera time of every upcoming frame is
+ * known in advance, so poses of pure fixtures (path, circular, idle and
+ * keyframe fixtures which have all channels) can be computed ahead on a
+ * worker thread. Computed poses are stored in a small ring buffer, and
+ * the render thread only has to apply modifiers on them.
+ *
+ * The worker evaluates its own copy of the profile, since fixtures (i.e.
+ * path fixture's speed cache) aren't thread safe. Frames which fall on
+ * other fixtures (null fixture, for example, applies neighbour's
+ * modifiers) are computed on the render thread as usual.
+ */
+public class PosePipeline
+{
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private final CameraProfile profile;
+    private final CameraProfile source;
+    private final long start;
+    private final int fps;
+
+    private final Slot[] slots;
+
+    /**
+     * Index of the next frame the worker will compute (written only by
+     * the worker), and index of the next frame the render thread needs
+     */
+    private final AtomicLong produced = new AtomicLong();
+    private volatile long consumed;
+    private volatile boolean running = true;
+
+    private final Thread thread;
+
+    /* Statistics */
+    public int hits;
+    public int misses;
+
+    public PosePipeline(CameraProfile profile, long start, int fps, int size)
+    {
+        this.source = profile;
+        this.profile = profile.clone();
+        this.start = start;
+        this.fps = fps;
+        this.slots = new Slot[size];
+
+        for (int i = 0; i < size; i++)
+        {
+            this.slots[i] = new Slot();
+        }
+
+        this.thread = new Thread(this::run, "Aperture pose pipeline #" + THREADS.incrementAndGet());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Whether this pipeline computes frames of given profile with given
+     * clock settings
+     */
+    public boolean matches(CameraProfile profile, long start, int fps, int size)
+    {
+        return this.source == profile && this.start == start && this.fps == fps && this.slots.length == size;
+    }
+
+    /**
+     * Whether given fixture's pose doesn't depend on anything but time
+     */
+    public static boolean isPure(AbstractFixture fixture)
+    {
+        if (fixture instanceof KeyframeFixture)
+        {
+            KeyframeFixture keyframe = (KeyframeFixture) fixture;
+
+            return !keyframe.x.isEmpty() && !keyframe.y.isEmpty() && !keyframe.z.isEmpty() && !keyframe.yaw.isEmpty() && !keyframe.pitch.isEmpty() && !keyframe.roll.isEmpty() && !keyframe.fov.isEmpty();
+        }
+
+        return fixture instanceof PathFixture || fixture instanceof CircularFixture || fixture instanceof IdleFixture;
+    }
+
+    /**
+     * Copy fixture pose of given frame into the position. Returns false
+     * if it wasn't computed (yet), so the caller has to compute it
+     */
+    public boolean get(long frame, Position position)
+    {
+        boolean hit = false;
+
+        if (frame >= this.consumed && frame < this.produced.get())
+        {
+            Slot slot = this.slots[(int) (frame % this.slots.length)];
+
+            if (slot.frame == frame && slot.pure)
+            {
+                position.copy(slot.position);
+                hit = true;
+            }
+        }
+
+        if (hit)
+        {
+            this.hits++;
+        }
+        else
+        {
+            this.misses++;
+        }
+
+        this.consumed = frame + 1;
+        LockSupport.unpark(this.thread);
+
+        return hit;
+    }
+
+    public void stop()
+    {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+    }
+
+    /**
+     * Worker's loop. It stays at most the size of the ring buffer ahead
+     * of the render thread (skipping frames if the render thread went
+     * ahead of it)
+     */
+    private void run()
+    {
+        long duration = this.profile.getDuration();
+
+        while (this.running)
+        {
+            long frame = Math.max(this.produced.get(), this.consumed);
+            long time = frame * 20;
+            long tick = this.start + time / this.fps;
+
+            if (frame - this.consumed >= this.slots.length || tick >= duration)
+            {
+                LockSupport.parkNanos(this, 1000000L);
+
+                continue;
+            }
+
+            Slot slot = this.slots[(int) (frame % this.slots.length)];
+
+            slot.pure = isPure(this.profile.atTick(tick));
+
+            if (slot.pure)
+            {
+                this.profile.applyProfile(tick, (float) (time % this.fps) / this.fps, slot.position, false);
+            }
+
+            slot.frame = frame;
+            this.produced.set(frame + 1);
+        }
+    }
+
+    /**
+     * Ring buffer's slot
+     */
+    private static class Slot
+    {
+        public long frame = -1;
+        public boolean pure;
+        public Position position = new Position(0, 0, 0, 0, 0);
+    }
+}
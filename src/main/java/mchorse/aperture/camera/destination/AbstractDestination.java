@@ -2,6 +2,7 @@ package mchorse.aperture.camera.destination;
 
 import mchorse.aperture.ClientProxy;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.storage.ProfileStore;
 import net.minecraft.client.Minecraft;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fml.relauncher.Side;
@@ -69,6 +70,16 @@ public abstract class AbstractDestination
         return super.equals(obj);
     }
 
+    /**
+     * Get profile store where this destination's camera profile is 
+     * stored locally. Returns null if the profile isn't stored locally 
+     * (i.e. it's managed by the server)
+     */
+    public ProfileStore getStore()
+    {
+        return null;
+    }
+
     /**
      * Rename camera profile 
      */
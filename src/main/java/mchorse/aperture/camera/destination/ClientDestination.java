@@ -1,12 +1,9 @@
 package mchorse.aperture.camera.destination;
 
-import java.io.File;
-
-import org.apache.commons.io.FileUtils;
-
 import mchorse.aperture.ClientProxy;
 import mchorse.aperture.camera.CameraProfile;
-import mchorse.aperture.camera.CameraUtils;
+import mchorse.aperture.camera.storage.ProfileLoader;
+import mchorse.aperture.camera.storage.ProfileStore;
 import mchorse.aperture.utils.L10n;
 import net.minecraft.client.Minecraft;
 import net.minecraft.util.ResourceLocation;
@@ -18,6 +15,11 @@ import net.minecraft.util.ResourceLocation;
  */
 public class ClientDestination extends AbstractDestination
 {
+    /**
+     * Whether the profile is being loaded right now 
+     */
+    private boolean loading;
+
     public ClientDestination(String filename)
     {
         super(filename);
@@ -29,13 +31,18 @@ public class ClientDestination extends AbstractDestination
         return super.equals(obj) && obj instanceof ClientDestination;
     }
 
+    @Override
+    public ProfileStore getStore()
+    {
+        return ClientProxy.getClientStore();
+    }
+
     @Override
     public void rename(String name)
     {
-        File from = new File(ClientProxy.getClientCameras(), this.filename + ".json");
-        File to = new File(ClientProxy.getClientCameras(), name + ".json");
+        ProfileStore store = this.getStore();
 
-        if (from.renameTo(to))
+        if (store != null && store.rename(this.filename, name))
         {
             ClientProxy.getCameraEditor().profiles.rename(this, name);
         }
@@ -46,7 +53,7 @@ public class ClientDestination extends AbstractDestination
     {
         try
         {
-            FileUtils.write(new File(ClientProxy.getClientCameras(), this.filename + ".json"), CameraUtils.toJSON(profile));
+            this.getStore().write(this.filename, profile);
 
             L10n.success(Minecraft.getMinecraft().thePlayer, "profile.client_save", this.filename);
         }
@@ -56,31 +63,67 @@ public class ClientDestination extends AbstractDestination
         }
     }
 
+    /**
+     * Profile is read on a background thread, and it gets added to camera 
+     * control on the main thread once it's read
+     */
     @Override
     public void load()
     {
-        try
+        this.load(null);
+    }
+
+    /**
+     * Load the profile and run given callback on the main thread once 
+     * it's loaded (or failed to load)
+     */
+    public void load(Runnable callback)
+    {
+        ProfileStore store = this.getStore();
+
+        if (store == null || this.loading)
         {
-            String json = FileUtils.readFileToString(new File(ClientProxy.getClientCameras(), this.filename + ".json"));
-            CameraProfile newProfile = CameraUtils.cameraJSONBuilder(false).fromJson(json, CameraProfile.class);
+            return;
+        }
 
-            newProfile.setDestination(this);
-            newProfile.dirty = false;
+        Minecraft mc = Minecraft.getMinecraft();
 
-            ClientProxy.control.addProfile(newProfile);
+        this.loading = true;
 
-            L10n.success(Minecraft.getMinecraft().thePlayer, "profile.client_load", this.filename);
-        }
-        catch (Exception e)
+        ProfileLoader.read(store, this.filename).whenCompleteAsync((newProfile, error) ->
         {
-            L10n.error(Minecraft.getMinecraft().thePlayer, "profile.client_cant_load", this.filename);
-        }
+            this.loading = false;
+
+            if (error != null)
+            {
+                L10n.error(mc.thePlayer, "profile.client_cant_load", this.filename);
+            }
+            else
+            {
+                newProfile.setDestination(this);
+                newProfile.dirty = false;
+
+                ClientProxy.control.addProfile(newProfile);
+
+                L10n.success(mc.thePlayer, "profile.client_load", this.filename);
+            }
+
+            if (callback != null)
+            {
+                callback.run();
+            }
+        }, mc::addScheduledTask);
     }
 
     @Override
     public void remove()
     {
-        new File(ClientProxy.getClientCameras(), this.filename + ".json").delete();
+        ProfileStore store = this.getStore();
+
+        if (store != null)
+        {
+            store.remove(this.filename);
+        }
     }
 
     @Override
@@ -1,11 +1,16 @@
 package mchorse.aperture.camera.destination;
 
+import mchorse.aperture.Aperture;
+import mchorse.aperture.ClientProxy;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.storage.ProfileDigest;
 import mchorse.aperture.network.Dispatcher;
 import mchorse.aperture.network.common.PacketCameraProfile;
 import mchorse.aperture.network.common.PacketLoadCameraProfile;
 import mchorse.aperture.network.common.PacketRemoveCameraProfile;
 import mchorse.aperture.network.common.PacketRenameCameraProfile;
+import mchorse.aperture.utils.L10n;
+import net.minecraft.client.Minecraft;
 import net.minecraft.util.ResourceLocation;
 
 /**
@@ -32,10 +37,24 @@ public class ServerDestination extends AbstractDestination
         Dispatcher.sendToServer(new PacketRenameCameraProfile(this.filename, name));
     }
 
+    /**
+     * Saved profile is also put into the cache, since the server will 
+     * consider it as the version client has. Quantized profiles (received
+     * for playback) aren't saved, since they would overwrite the original
+     * with lossy data
+     */
     @Override
     public void save(CameraProfile profile)
     {
+        if (profile.quantized)
+        {
+            L10n.error(Minecraft.getMinecraft().thePlayer, "profile.quantized", this.filename);
+
+            return;
+        }
+
         Dispatcher.sendToServer(new PacketCameraProfile(this.filename, profile));
+        ClientProxy.profileCache.put(ProfileDigest.hash(profile, false), profile, Aperture.proxy.config.camera_cache_size);
     }
 
     @Override
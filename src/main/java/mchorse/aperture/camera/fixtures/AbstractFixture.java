@@ -9,10 +9,12 @@ import com.google.gson.annotations.Expose;
 
 import io.netty.buffer.ByteBuf;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.CameraProfiler;
 import mchorse.aperture.camera.FixtureRegistry;
 import mchorse.aperture.camera.ModifierRegistry;
 import mchorse.aperture.camera.data.Position;
 import mchorse.aperture.camera.modifiers.AbstractModifier;
+import mchorse.aperture.utils.BufferUtils;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
 
@@ -129,7 +131,7 @@ public abstract class AbstractFixture
     {
         this.name = ByteBufUtils.readUTF8String(buffer);
 
-        for (int i = 0, c = buffer.readInt(); i < c; i++)
+        for (int i = 0, c = BufferUtils.readVarInt(buffer); i < c; i++)
         {
             AbstractModifier modifier = ModifierRegistry.fromByteBuf(buffer);
 
@@ -149,7 +151,7 @@ public abstract class AbstractFixture
 
         if (this.modifiers == null)
         {
-            buffer.writeInt(0);
+            BufferUtils.writeVarInt(buffer, 0);
         }
         else
         {
@@ -165,7 +167,7 @@ public abstract class AbstractFixture
                 }
             }
 
-            buffer.writeInt(this.modifiers.size());
+            BufferUtils.writeVarInt(buffer, this.modifiers.size());
 
             for (AbstractModifier modifier : this.modifiers)
             {
@@ -174,6 +176,17 @@ public abstract class AbstractFixture
         }
     }
 
+    /**
+     * Write this fixture to the byte buffer, optionally quantizing 
+     * positions. Only fixtures which store a lot of positions are 
+     * interested in quantization, hence default implementation 
+     * ignores it 
+     */
+    public void toByteBuf(ByteBuf buffer, boolean quantize)
+    {
+        this.toByteBuf(buffer);
+    }
+
     /* Abstract methods */
 
     /**
@@ -214,7 +227,10 @@ public abstract class AbstractFixture
         {
             if (modifier.enabled)
             {
+                long time = CameraProfiler.start();
+
                 modifier.modify(ticks, offset, this, partialTick, previewPartialTick, profile, pos);
+                CameraProfiler.stop(modifier, time);
             }
         }
     }
@@ -4,10 +4,12 @@ import com.google.gson.annotations.Expose;
 
 import io.netty.buffer.ByteBuf;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.PlayerCamera;
+import mchorse.aperture.camera.core.CurveMath;
 import mchorse.aperture.camera.data.Point;
 import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.utils.BufferUtils;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.util.math.MathHelper;
 
 /**
  * Circular camera fixture
@@ -58,7 +60,7 @@ public class CircularFixture extends AbstractFixture
     @Override
     public void fromPlayer(EntityPlayer player)
     {
-        this.start.set(player);
+        this.start.set(new PlayerCamera(player));
         this.pitch = player.rotationPitch;
     }
 
@@ -76,10 +78,10 @@ public class CircularFixture extends AbstractFixture
         double y = this.start.y;
         double z = this.start.z + 0.5 + sin;
 
-        float yaw = (float) (MathHelper.atan2(sin, cos) * (180D / Math.PI)) - 90.0F;
+        float yaw = (float) (CurveMath.atan2(sin, cos) * (180D / Math.PI)) - 90.0F;
 
         pos.point.set(x - 0.5F, y, z - 0.5F);
-        pos.angle.set(MathHelper.wrapDegrees(yaw - 180.0F), this.pitch, 0, 70);
+        pos.angle.set(CurveMath.wrapDegrees(yaw - 180.0F), this.pitch, 0, 70);
     }
 
     @Override
@@ -103,7 +105,7 @@ public class CircularFixture extends AbstractFixture
     {
         super.fromByteBuf(buffer);
 
-        this.start = Point.fromByteBuf(buffer);
+        this.start = Point.fromBytes(BufferUtils.source(buffer));
         this.offset = buffer.readFloat();
         this.distance = buffer.readFloat();
         this.circles = buffer.readFloat();
@@ -115,7 +117,7 @@ public class CircularFixture extends AbstractFixture
     {
         super.toByteBuf(buffer);
 
-        this.start.toByteBuf(buffer);
+        this.start.toBytes(BufferUtils.sink(buffer));
         buffer.writeFloat(this.offset);
         buffer.writeFloat(this.distance);
         buffer.writeFloat(this.circles);
@@ -4,7 +4,9 @@ import com.google.gson.annotations.Expose;
 
 import io.netty.buffer.ByteBuf;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.PlayerCamera;
 import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.utils.BufferUtils;
 import net.minecraft.entity.player.EntityPlayer;
 
 /**
@@ -26,7 +28,7 @@ public class IdleFixture extends AbstractFixture
     @Override
     public void fromPlayer(EntityPlayer player)
     {
-        this.position.set(player);
+        this.position.set(new PlayerCamera(player));
     }
 
     @Override
@@ -54,7 +56,7 @@ public class IdleFixture extends AbstractFixture
     {
         super.fromByteBuf(buffer);
 
-        this.position = Position.fromByteBuf(buffer);
+        this.position = Position.fromBytes(BufferUtils.source(buffer));
     }
 
     @Override
@@ -62,6 +64,6 @@ public class IdleFixture extends AbstractFixture
     {
         super.toByteBuf(buffer);
 
-        this.position.toByteBuf(buffer);
+        this.position.toBytes(BufferUtils.sink(buffer));
     }
 }
\ No newline at end of file
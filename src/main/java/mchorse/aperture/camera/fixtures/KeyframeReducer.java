@@ -0,0 +1,371 @@
+package mchorse.aperture.camera.fixtures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Keyframe reducer
+ *
+ * Replaces keyframes of a channel with as few keyframes as it can find,
+ * so the channel's value stays within given tolerance of the original
+ * one at every tick. Channel is sampled every tick, and then segments
+ * are greedily extended as far as they fit (galloping, then binary
+ * search), using one of three segment types:
+ *
+ * - linear, which has nothing to fit
+ * - bezier, which handles are fitted with least squares (horizontal
+ *   handles are a third of the segment, so the curve is a cubic of
+ *   time, and vertical handles are solved from 2x2 normal equations)
+ * - hermite, which shape depends on neighbour keyframes, so segments
+ *   are checked against a guessed next keyframe
+ *
+ * Every segment is checked with the same interpolation code which is
+ * used during playback. Once the keyframes are picked, the whole curve
+ * is checked again, and segments which miss the tolerance (which is
+ * possible only with hermite) get split at the worst sample.
+ */
+public class KeyframeReducer
+{
+    /**
+     * Channels which span more ticks than that aren't reduced
+     */
+    public static final int MAX_SAMPLES = 1 << 24;
+
+    public final KeyframeInterpolation interp;
+
+    /* Statistics */
+    public int before;
+    public int after;
+
+    private float[] samples;
+    private long start;
+
+    public KeyframeReducer(KeyframeInterpolation interp)
+    {
+        if (!canFit(interp))
+        {
+            throw new IllegalArgumentException("Keyframes can't be fitted with " + interp.key + " interpolation!");
+        }
+
+        this.interp = interp;
+    }
+
+    /**
+     * Whether keyframes can be fitted with given interpolation
+     */
+    public static boolean canFit(KeyframeInterpolation interp)
+    {
+        return interp == KeyframeInterpolation.LINEAR || interp == KeyframeInterpolation.HERMITE || interp == KeyframeInterpolation.BEZIER;
+    }
+
+    /**
+     * Compression ratio (how many keyframes were there for every
+     * keyframe after the reduction)
+     */
+    public double getRatio()
+    {
+        return this.after == 0 ? 1 : (double) this.before / this.after;
+    }
+
+    /**
+     * Reduce all channels of given keyframe fixture, position channels
+     * with position tolerance (in blocks) and angle channels with angle
+     * tolerance (in degrees)
+     */
+    public void reduce(KeyframeFixture fixture, float position, float angle)
+    {
+        for (int i = 0; i < fixture.channels.length; i++)
+        {
+            this.reduce(fixture.channels[i], i < 3 ? position : angle);
+        }
+    }
+
+    /**
+     * Reduce keyframes of given channel within given tolerance
+     */
+    public void reduce(KeyframeChannel channel, float tolerance)
+    {
+        List<Keyframe> keyframes = channel.getKeyframes();
+        int count = keyframes.size();
+
+        this.before += count;
+
+        if (count <= 2 || keyframes.get(count - 1).tick - keyframes.get(0).tick >= MAX_SAMPLES)
+        {
+            this.after += count;
+
+            return;
+        }
+
+        this.start = keyframes.get(0).tick;
+        this.samples = new float[(int) (keyframes.get(count - 1).tick - this.start + 1)];
+
+        for (int i = 0; i < this.samples.length; i++)
+        {
+            this.samples[i] = channel.interpolate(this.start + i);
+        }
+
+        List<Keyframe> keys = this.pick(tolerance);
+
+        while (this.repair(keys, tolerance))
+        {}
+
+        keyframes.clear();
+
+        for (Keyframe key : keys)
+        {
+            channel.append(key.tick, key.value).copy(key);
+        }
+
+        this.after += keys.size();
+        this.samples = null;
+    }
+
+    /**
+     * Greedily pick keyframes, extending every segment as far as it
+     * fits within the tolerance
+     */
+    private List<Keyframe> pick(float tolerance)
+    {
+        List<Keyframe> keys = new ArrayList<Keyframe>();
+        int last = this.samples.length - 1;
+        Keyframe a = this.create(0);
+
+        keys.add(a);
+
+        for (int i = 0; i < last;)
+        {
+            /* Gallop until the segment doesn't fit */
+            int good = i + 1;
+            int probe = i + 2;
+
+            while (probe <= last && this.fits(keys, i, probe, tolerance))
+            {
+                good = probe;
+                probe = i + (probe - i) * 2;
+            }
+
+            /* Binary search between the last fitting and the first
+             * failing (or past the end) sample */
+            int low = good;
+            int high = Math.min(probe, last + 1);
+
+            while (high - low > 1)
+            {
+                int middle = (low + high) >>> 1;
+
+                if (this.fits(keys, i, middle, tolerance))
+                {
+                    low = middle;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            Keyframe b = this.create(low);
+
+            this.link(a, b, low);
+            this.fit(a, b);
+            keys.add(b);
+
+            a = b;
+            i = low;
+        }
+
+        this.relink(keys);
+
+        return keys;
+    }
+
+    /**
+     * Check whether segment from sample i to sample j fits
+     */
+    private boolean fits(List<Keyframe> keys, int i, int j, float tolerance)
+    {
+        Keyframe a = this.create(i);
+        Keyframe b = this.create(j);
+
+        a.copy(keys.get(keys.size() - 1));
+        a.prev = keys.size() > 1 ? keys.get(keys.size() - 2) : a;
+        this.link(a, b, j);
+        this.fit(a, b);
+
+        return this.error(a, b) <= tolerance;
+    }
+
+    /**
+     * Link given segment, and for hermite guess the next keyframe (at
+     * the same distance after b, as a is before it)
+     */
+    private void link(Keyframe a, Keyframe b, int j)
+    {
+        int last = this.samples.length - 1;
+        int next = Math.min(j + (int) (b.tick - a.tick), last);
+
+        a.next = b;
+        b.prev = a;
+        b.next = next == j ? b : this.create(next);
+    }
+
+    private void relink(List<Keyframe> keys)
+    {
+        for (int i = 0; i < keys.size(); i++)
+        {
+            keys.get(i).prev = keys.get(Math.max(i - 1, 0));
+            keys.get(i).next = keys.get(Math.min(i + 1, keys.size() - 1));
+        }
+    }
+
+    /**
+     * Check the whole curve, and split segments which don't fit at
+     * their worst sample. Returns true if any segment was split
+     */
+    private boolean repair(List<Keyframe> keys, float tolerance)
+    {
+        List<Keyframe> repaired = new ArrayList<Keyframe>(keys.size());
+        boolean split = false;
+
+        for (int i = 0; i < keys.size() - 1; i++)
+        {
+            Keyframe a = keys.get(i);
+            Keyframe b = keys.get(i + 1);
+
+            repaired.add(a);
+
+            if (this.error(a, b) > tolerance)
+            {
+                Keyframe c = this.create(this.worst(a, b));
+
+                this.fit(a, c);
+                this.fit(c, b);
+                repaired.add(c);
+                split = true;
+            }
+        }
+
+        repaired.add(keys.get(keys.size() - 1));
+
+        if (split)
+        {
+            keys.clear();
+            keys.addAll(repaired);
+            this.relink(keys);
+        }
+
+        return split;
+    }
+
+    /**
+     * Create a keyframe at given sample
+     */
+    private Keyframe create(int index)
+    {
+        Keyframe frame = new Keyframe(this.start + index, this.samples[index]);
+
+        frame.interp = this.interp;
+
+        return frame;
+    }
+
+    /**
+     * Fit bezier handles of given segment
+     */
+    private void fit(Keyframe a, Keyframe b)
+    {
+        if (this.interp != KeyframeInterpolation.BEZIER)
+        {
+            return;
+        }
+
+        int i = (int) (a.tick - this.start);
+        int j = (int) (b.tick - this.start);
+        double w = j - i;
+        double va = a.value;
+        double vb = b.value;
+
+        /* Normal equations for P1 and P2 (value of control points),
+         * with a little pull towards linear handles, so segments with
+         * less than two samples inside aren't singular */
+        double lambda = 0.000001 * (j - i);
+        double p1 = va + (vb - va) / 3;
+        double p2 = va + (vb - va) * 2 / 3;
+        double s11 = lambda, s12 = 0, s22 = lambda;
+        double r1 = lambda * p1, r2 = lambda * p2;
+
+        for (int k = i + 1; k < j; k++)
+        {
+            double s = (k - i) / w;
+            double t = 1 - s;
+            double b1 = 3 * t * t * s;
+            double b2 = 3 * t * s * s;
+            double r = this.samples[k] - va * t * t * t - vb * s * s * s;
+
+            s11 += b1 * b1;
+            s12 += b1 * b2;
+            s22 += b2 * b2;
+            r1 += b1 * r;
+            r2 += b2 * r;
+        }
+
+        double det = s11 * s22 - s12 * s12;
+
+        if (det != 0)
+        {
+            p1 = (r1 * s22 - r2 * s12) / det;
+            p2 = (s11 * r2 - s12 * r1) / det;
+        }
+
+        a.rx = (float) (w / 3);
+        a.ry = (float) (p1 - va);
+        b.lx = (float) (w / 3);
+        b.ly = (float) (p2 - vb);
+    }
+
+    /**
+     * Maximum error of the segment (the same way channel interpolates
+     * it during playback)
+     */
+    private float error(Keyframe a, Keyframe b)
+    {
+        float error = 0;
+
+        for (long tick = a.tick + 1; tick < b.tick; tick++)
+        {
+            error = Math.max(error, Math.abs(this.value(a, b, tick) - this.samples[(int) (tick - this.start)]));
+        }
+
+        return error;
+    }
+
+    /**
+     * Index of the sample with the biggest error in given segment
+     */
+    private int worst(Keyframe a, Keyframe b)
+    {
+        float error = -1;
+        int worst = (int) (a.tick - this.start) + 1;
+
+        for (long tick = a.tick + 1; tick < b.tick; tick++)
+        {
+            float e = Math.abs(this.value(a, b, tick) - this.samples[(int) (tick - this.start)]);
+
+            if (e > error)
+            {
+                error = e;
+                worst = (int) (tick - this.start);
+            }
+        }
+
+        return worst;
+    }
+
+    private float value(Keyframe a, Keyframe b, long tick)
+    {
+        float ticks = tick;
+
+        return a.interpolate(b, (ticks - a.tick) / (b.tick - a.tick));
+    }
+}
@@ -0,0 +1,110 @@
+package mchorse.aperture.camera.fixtures;
+
+
+/**
+ * Keyframe writer
+ *
+ * Appends chronologically ordered samples to a keyframe channel, and
+ * optionally reduces them on the fly: a sample becomes a (linear)
+ * keyframe only when a straight line from the last keyframe can't pass
+ * within given tolerance of every sample since it (swing door
+ * compression). Only the last sample and the range of allowed slopes
+ * are kept, so any amount of samples can be written in constant memory.
+ */
+public class KeyframeWriter
+{
+    public final KeyframeChannel channel;
+
+    /**
+     * Maximum allowed difference between a sample and the keyframes,
+     * 0 disables reduction
+     */
+    public final float tolerance;
+
+    /* The last written keyframe */
+    private long anchorTick;
+    private float anchorValue;
+    private boolean anchored;
+
+    /* The last sample which isn't written yet */
+    private long lastTick;
+    private float lastValue;
+    private boolean pending;
+
+    /* Slopes (from the anchor) which pass within tolerance of all
+     * samples since the anchor */
+    private double low;
+    private double high;
+
+    private long samples;
+
+    public KeyframeWriter(KeyframeChannel channel, float tolerance)
+    {
+        this.channel = channel;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Amount of samples written so far
+     */
+    public long getSamples()
+    {
+        return this.samples;
+    }
+
+    /**
+     * Write a sample, its tick must be greater than previous sample's
+     */
+    public void add(long tick, float value)
+    {
+        this.samples++;
+
+        if (!this.anchored || this.tolerance <= 0)
+        {
+            this.anchor(tick, value);
+
+            return;
+        }
+
+        double slope = (value - this.anchorValue) / (double) (tick - this.anchorTick);
+
+        if (this.pending && (slope < this.low || slope > this.high))
+        {
+            /* The line to this sample misses one of previous samples, so
+             * the last sample has to become a keyframe */
+            this.anchor(this.lastTick, this.lastValue);
+        }
+
+        double dt = tick - this.anchorTick;
+
+        this.low = Math.max(this.low, (value - this.tolerance - this.anchorValue) / dt);
+        this.high = Math.min(this.high, (value + this.tolerance - this.anchorValue) / dt);
+        this.lastTick = tick;
+        this.lastValue = value;
+        this.pending = true;
+    }
+
+    /**
+     * Write the last sample as a keyframe. Must be called once all
+     * samples are written
+     */
+    public void flush()
+    {
+        if (this.pending)
+        {
+            this.anchor(this.lastTick, this.lastValue);
+        }
+    }
+
+    private void anchor(long tick, float value)
+    {
+        this.channel.append(tick, value);
+
+        this.anchorTick = tick;
+        this.anchorValue = value;
+        this.anchored = true;
+        this.pending = false;
+        this.low = Double.NEGATIVE_INFINITY;
+        this.high = Double.POSITIVE_INFINITY;
+    }
+}
@@ -9,16 +9,17 @@ import com.google.gson.annotations.Expose;
 import io.netty.buffer.ByteBuf;
 import mchorse.aperture.Aperture;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.PlayerCamera;
+import mchorse.aperture.camera.core.CurveMath;
+import mchorse.aperture.camera.core.IByteSource;
+import mchorse.aperture.camera.core.ICameraEntity;
 import mchorse.aperture.camera.data.Angle;
 import mchorse.aperture.camera.data.Point;
 import mchorse.aperture.camera.data.Position;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Easing;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeChannel;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeInterpolation;
+import mchorse.aperture.utils.BufferUtils;
 import mchorse.mclib.utils.Interpolation;
 import mchorse.mclib.utils.Interpolations;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.util.math.MathHelper;
 
 /**
  * Path camera fixture
@@ -166,7 +167,7 @@ public class PathFixture extends AbstractFixture
             float range = (float) frame / this.duration;
             int index = (int) Math.floor(range * (this.points.size() - 1));
 
-            return MathHelper.clamp_int(index, 0, (int) this.duration);
+            return CurveMath.clamp(index, 0, (int) this.duration);
         }
 
         int index = 0;
@@ -184,7 +185,7 @@ public class PathFixture extends AbstractFixture
             index++;
         }
 
-        return MathHelper.clamp_int(index, 0, this.getCount() - 1);
+        return CurveMath.clamp(index, 0, this.getCount() - 1);
     }
 
     /**
@@ -217,7 +218,7 @@ public class PathFixture extends AbstractFixture
     @Override
     public void fromPlayer(EntityPlayer player)
     {
-        this.addPoint(new DurablePosition(player));
+        this.addPoint(new DurablePosition(new PlayerCamera(player)));
     }
 
     @Override
@@ -271,12 +272,12 @@ public class PathFixture extends AbstractFixture
                 x = 0;
             }
 
-            index = MathHelper.clamp_int(index, 0, points - 1);
+            index = CurveMath.clamp(index, 0, points - 1);
         }
         else
         {
             x = (ticks / (float) this.duration) + (1.0F / duration) * previewPartialTick;
-            x = MathHelper.clamp_float(x * length, 0, length);
+            x = CurveMath.clamp(x * length, 0, length);
             index = (int) Math.floor(x);
             x = x - index;
         }
@@ -539,17 +540,36 @@ public class PathFixture extends AbstractFixture
         this.interpolationPos = interpFromInt(buffer.readByte());
         this.interpolationAngle = interpFromInt(buffer.readByte());
 
-        for (int i = 0, c = buffer.readInt(); i < c; i++)
+        int count = BufferUtils.readVarInt(buffer);
+
+        if (count > 0)
         {
-            this.addPoint(DurablePosition.fromByteBuf(buffer));
+            boolean quantized = buffer.readBoolean();
+            Point origin = quantized ? Point.fromBytes(BufferUtils.source(buffer)) : null;
+
+            for (int i = 0; i < count; i++)
+            {
+                this.addPoint(DurablePosition.fromByteBuf(buffer, origin));
+            }
         }
 
         this.useSpeed = buffer.readBoolean();
-        this.speed.fromByteBuf(buffer);
+        this.speed.fromBytes(BufferUtils.source(buffer));
     }
 
     @Override
     public void toByteBuf(ByteBuf buffer)
+    {
+        this.toByteBuf(buffer, false);
+    }
+
+    /**
+     * Write path fixture to the byte buffer. When quantization is 
+     * requested, points are written as fixed point offsets relative 
+     * to the first point (the origin of this fixture) 
+     */
+    @Override
+    public void toByteBuf(ByteBuf buffer, boolean quantize)
     {
         super.toByteBuf(buffer);
 
@@ -557,15 +577,27 @@ public class PathFixture extends AbstractFixture
         buffer.writeByte(this.interpolationPos.ordinal());
         buffer.writeByte(this.interpolationAngle.ordinal());
 
-        buffer.writeInt(this.points.size());
+        BufferUtils.writeVarInt(buffer, this.points.size());
 
-        for (DurablePosition pos : this.points)
+        if (!this.points.isEmpty())
         {
-            pos.toByteBuf(buffer);
+            Point origin = quantize ? this.points.get(0).point : null;
+
+            buffer.writeBoolean(quantize);
+
+            if (quantize)
+            {
+                origin.toBytes(BufferUtils.sink(buffer));
+            }
+
+            for (DurablePosition pos : this.points)
+            {
+                pos.toByteBuf(buffer, origin);
+            }
         }
 
         buffer.writeBoolean(this.useSpeed);
-        this.speed.toByteBuf(buffer);
+        this.speed.toBytes(BufferUtils.sink(buffer));
     }
 
     @Override
@@ -674,17 +706,48 @@ public class PathFixture extends AbstractFixture
      */
     public static class DurablePosition extends Position
     {
+        /**
+         * Position quantization scale (1/1024th of a block)
+         */
+        public static final double POSITION_SCALE = 1024D;
+
+        /**
+         * Angle quantization scale (1/100th of a degree)
+         */
+        public static final float ANGLE_SCALE = 100F;
+
         @Expose
         protected long duration = 1L;
 
-        public static DurablePosition fromByteBuf(ByteBuf buffer)
+        /**
+         * Read durable position from byte buffer. If origin is given, 
+         * then position was quantized relative to the origin  
+         */
+        public static DurablePosition fromByteBuf(ByteBuf buffer, Point origin)
         {
-            return new DurablePosition(buffer.readLong(), Point.fromByteBuf(buffer), Angle.fromByteBuf(buffer));
+            long duration = BufferUtils.readVarLong(buffer);
+
+            if (origin == null)
+            {
+                IByteSource source = BufferUtils.source(buffer);
+
+                return new DurablePosition(duration, Point.fromBytes(source), Angle.fromBytes(source));
+            }
+
+            double x = origin.x + BufferUtils.readSignedVarLong(buffer) / POSITION_SCALE;
+            double y = origin.y + BufferUtils.readSignedVarLong(buffer) / POSITION_SCALE;
+            double z = origin.z + BufferUtils.readSignedVarLong(buffer) / POSITION_SCALE;
+            float yaw = BufferUtils.readSignedVarInt(buffer) / ANGLE_SCALE;
+            float pitch = BufferUtils.readSignedVarInt(buffer) / ANGLE_SCALE;
+            float roll = BufferUtils.readSignedVarInt(buffer) / ANGLE_SCALE;
+            float fov = BufferUtils.readSignedVarInt(buffer) / ANGLE_SCALE;
+
+            return new DurablePosition(duration, new Point(x, y, z), new Angle(yaw, pitch, roll, fov));
         }
 
-        public DurablePosition(EntityPlayer player)
+        public DurablePosition(ICameraEntity entity)
         {
-            super(player);
+            super(entity);
         }
 
         public DurablePosition(Position pos)
@@ -725,12 +788,28 @@ public class PathFixture extends AbstractFixture
             return new DurablePosition(this.duration, this.point.clone(), this.angle.clone());
         }
 
-        @Override
-        public void toByteBuf(ByteBuf buffer)
+        /**
+         * Write durable position to byte buffer. If origin is given, 
+         * then the position is going to be quantized relative to it 
+         */
+        public void toByteBuf(ByteBuf buffer, Point origin)
         {
-            buffer.writeLong(this.duration);
+            BufferUtils.writeVarLong(buffer, this.duration);
+
+            if (origin == null)
+            {
+                super.toBytes(BufferUtils.sink(buffer));
+
+                return;
+            }
 
-            super.toByteBuf(buffer);
+            BufferUtils.writeSignedVarLong(buffer, Math.round((this.point.x - origin.x) * POSITION_SCALE));
+            BufferUtils.writeSignedVarLong(buffer, Math.round((this.point.y - origin.y) * POSITION_SCALE));
+            BufferUtils.writeSignedVarLong(buffer, Math.round((this.point.z - origin.z) * POSITION_SCALE));
+            BufferUtils.writeSignedVarInt(buffer, Math.round(this.angle.yaw * ANGLE_SCALE));
+            BufferUtils.writeSignedVarInt(buffer, Math.round(this.angle.pitch * ANGLE_SCALE));
+            BufferUtils.writeSignedVarInt(buffer, Math.round(this.angle.roll * ANGLE_SCALE));
+            BufferUtils.writeSignedVarInt(buffer, Math.round(this.angle.fov * ANGLE_SCALE));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+package mchorse.aperture.camera.fixtures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mchorse.aperture.camera.data.Angle;
+import mchorse.aperture.camera.data.Point;
+import mchorse.aperture.camera.fixtures.PathFixture.DurablePosition;
+
+/**
+ * Path simplifier
+ *
+ * Removes redundant points of a path fixture using Ramer-Douglas-Peucker
+ * algorithm over position and angle. Points are compared against the
+ * line between the kept points at the same time (not the closest point
+ * on the line), so the camera stays within the position tolerance (in
+ * blocks) and angle tolerance (in degrees) of every removed point at the
+ * moment it would've been passing that point.
+ *
+ * Kept points keep their time, so the total duration and the timing of
+ * the path stay the same. Removed point's duration is added to the kept
+ * point before it, and paths without per point duration are switched to
+ * per point duration (otherwise remaining points would be spread evenly
+ * over the duration).
+ *
+ * Tolerance is checked against the path's points, which is exact for
+ * linear interpolation. Cubic and hermite interpolations pass through
+ * the same points, but bend differently between them.
+ */
+public class PathSimplifier
+{
+    public float position;
+    public float angle;
+
+    public PathSimplifier(float position, float angle)
+    {
+        this.position = position;
+        this.angle = angle;
+    }
+
+    /**
+     * Create a simplified copy of given path fixture
+     */
+    public PathFixture simplify(PathFixture path)
+    {
+        PathFixture fixture = (PathFixture) path.clone();
+        List<DurablePosition> points = fixture.getPoints();
+        int count = points.size();
+
+        if (count <= 2)
+        {
+            return fixture;
+        }
+
+        List<DurablePosition> original = new ArrayList<DurablePosition>(points);
+        long[] ticks = getTicks(path);
+        boolean[] keep = this.mark(original, ticks);
+        int kept = 0;
+
+        for (boolean point : keep)
+        {
+            kept += point ? 1 : 0;
+        }
+
+        if (kept == count)
+        {
+            /* Nothing was removed, so the path stays as it was */
+            return fixture;
+        }
+
+        points.clear();
+
+        for (int i = 0; i < count; i++)
+        {
+            if (!keep[i])
+            {
+                continue;
+            }
+
+            DurablePosition point = original.get(i);
+            int next = i + 1;
+
+            while (next < count && !keep[next])
+            {
+                next++;
+            }
+
+            point.setDuration(next < count ? ticks[next] - ticks[i] : path.getDuration() - ticks[i]);
+            points.add(point);
+        }
+
+        fixture.perPointDuration = true;
+
+        return fixture;
+    }
+
+    /**
+     * Get tick of every point of given path
+     */
+    public static long[] getTicks(PathFixture path)
+    {
+        int count = path.getCount();
+        long[] ticks = new long[count];
+        long tick = 0;
+
+        for (int i = 0; i < count; i++)
+        {
+            if (path.perPointDuration)
+            {
+                ticks[i] = tick;
+                tick += path.getPoint(i).getDuration();
+            }
+            else
+            {
+                ticks[i] = Math.round(i / (double) (count - 1) * path.getDuration());
+            }
+        }
+
+        return ticks;
+    }
+
+    /**
+     * Mark points which should be kept. Segments are processed with a
+     * stack instead of recursion, so paths with many points (i.e.
+     * imported tracks) can't overflow the call stack
+     */
+    public boolean[] mark(List<DurablePosition> points, long[] ticks)
+    {
+        int count = points.size();
+        boolean[] keep = new boolean[count];
+        int[] stack = new int[count * 2];
+        int top = 0;
+
+        keep[0] = keep[count - 1] = true;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+
+        while (top > 0)
+        {
+            int b = stack[--top];
+            int a = stack[--top];
+            double worst = 1;
+            int index = -1;
+
+            for (int i = a + 1; i < b; i++)
+            {
+                double error = this.error(points.get(a), points.get(b), points.get(i), factor(ticks, a, b, i));
+
+                if (error > worst)
+                {
+                    worst = error;
+                    index = i;
+                }
+            }
+
+            if (index != -1)
+            {
+                keep[index] = true;
+                stack[top++] = a;
+                stack[top++] = index;
+                stack[top++] = index;
+                stack[top++] = b;
+            }
+        }
+
+        return keep;
+    }
+
+    /**
+     * Position of point i in time between points a and b
+     */
+    private static double factor(long[] ticks, int a, int b, int i)
+    {
+        long span = ticks[b] - ticks[a];
+
+        if (span <= 0)
+        {
+            return (i - a) / (double) (b - a);
+        }
+
+        return (ticks[i] - ticks[a]) / (double) span;
+    }
+
+    /**
+     * Error of point p (relative to tolerances, so anything above 1
+     * doesn't fit) against the line from a to b at given factor
+     */
+    private double error(DurablePosition a, DurablePosition b, DurablePosition p, double factor)
+    {
+        Point pa = a.point;
+        Point pb = b.point;
+        double dx = pa.x + (pb.x - pa.x) * factor - p.point.x;
+        double dy = pa.y + (pb.y - pa.y) * factor - p.point.y;
+        double dz = pa.z + (pb.z - pa.z) * factor - p.point.z;
+
+        Angle aa = a.angle;
+        Angle ab = b.angle;
+        double angle = Math.abs(aa.yaw + (ab.yaw - aa.yaw) * factor - p.angle.yaw);
+
+        angle = Math.max(angle, Math.abs(aa.pitch + (ab.pitch - aa.pitch) * factor - p.angle.pitch));
+        angle = Math.max(angle, Math.abs(aa.roll + (ab.roll - aa.roll) * factor - p.angle.roll));
+        angle = Math.max(angle, Math.abs(aa.fov + (ab.fov - aa.fov) * factor - p.angle.fov));
+
+        return Math.max(relative(Math.sqrt(dx * dx + dy * dy + dz * dz), this.position), relative(angle, this.angle));
+    }
+
+    private static double relative(double error, float tolerance)
+    {
+        if (tolerance <= 0)
+        {
+            return error > 0 ? Double.POSITIVE_INFINITY : 0;
+        }
+
+        return error / tolerance;
+    }
+}
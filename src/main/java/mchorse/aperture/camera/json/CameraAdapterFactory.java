@@ -0,0 +1,42 @@
+package mchorse.aperture.camera.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.modifiers.AbstractModifier;
+
+/**
+ * Camera adapter factory
+ * 
+ * Provides streaming type adapters for camera fixtures, modifiers and 
+ * keyframe channels. Factory is needed, because adapters need the Gson 
+ * instance they're registered in to (de)serialize nested fields.
+ */
+public class CameraAdapterFactory implements TypeAdapterFactory
+{
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+    {
+        Class<? super T> clazz = type.getRawType();
+
+        if (clazz == AbstractFixture.class)
+        {
+            return (TypeAdapter<T>) new AbstractFixtureAdapter(gson);
+        }
+        else if (clazz == AbstractModifier.class)
+        {
+            return (TypeAdapter<T>) new AbstractModifierAdapter(gson);
+        }
+        else if (clazz == KeyframeChannel.class)
+        {
+            return (TypeAdapter<T>) new KeyframeChannelAdapter();
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,165 @@
+package mchorse.aperture.camera.json;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import mchorse.aperture.camera.fixtures.Easing;
+import mchorse.aperture.camera.fixtures.Keyframe;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeInterpolation;
+
+/**
+ * Keyframe channel adapter
+ *
+ * Hand-written streaming adapter for keyframe channels, since they're
+ * the bulk of keyframe fixtures. It produces the same JSON as reflective
+ * serialization did, i.e. <code>{"keyframes": [{"tick": 0, "value": 0.0,
+ * "interp": "LINEAR", ...}]}</code>, but it doesn't use reflection per
+ * keyframe, and it links keyframes right after reading.
+ */
+public class KeyframeChannelAdapter extends TypeAdapter<KeyframeChannel>
+{
+    @Override
+    public void write(JsonWriter out, KeyframeChannel value) throws IOException
+    {
+        if (value == null)
+        {
+            out.nullValue();
+
+            return;
+        }
+
+        out.beginObject();
+        out.name("keyframes").beginArray();
+
+        for (Keyframe frame : value.getKeyframes())
+        {
+            out.beginObject();
+            out.name("tick").value(frame.tick);
+            out.name("value").value(Float.valueOf(frame.value));
+
+            if (frame.interp != null)
+            {
+                out.name("interp").value(frame.interp.name());
+            }
+
+            if (frame.easing != null)
+            {
+                out.name("easing").value(frame.easing.name());
+            }
+
+            out.name("rx").value(Float.valueOf(frame.rx));
+            out.name("ry").value(Float.valueOf(frame.ry));
+            out.name("lx").value(Float.valueOf(frame.lx));
+            out.name("ly").value(Float.valueOf(frame.ly));
+            out.endObject();
+        }
+
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public KeyframeChannel read(JsonReader in) throws IOException
+    {
+        if (in.peek() == JsonToken.NULL)
+        {
+            in.nextNull();
+
+            return null;
+        }
+
+        KeyframeChannel channel = new KeyframeChannel();
+
+        in.beginObject();
+
+        while (in.hasNext())
+        {
+            if (in.nextName().equals("keyframes") && in.peek() == JsonToken.BEGIN_ARRAY)
+            {
+                in.beginArray();
+
+                while (in.hasNext())
+                {
+                    Keyframe frame = this.readKeyframe(in);
+
+                    if (frame != null)
+                    {
+                        channel.getKeyframes().add(frame);
+                    }
+                }
+
+                in.endArray();
+            }
+            else
+            {
+                in.skipValue();
+            }
+        }
+
+        in.endObject();
+        channel.sort();
+
+        return channel;
+    }
+
+    /**
+     * Read a keyframe. Missing or invalid properties are left with
+     * their default values
+     */
+    private Keyframe readKeyframe(JsonReader in) throws IOException
+    {
+        if (in.peek() != JsonToken.BEGIN_OBJECT)
+        {
+            in.skipValue();
+
+            return null;
+        }
+
+        Keyframe frame = new Keyframe(0, 0);
+
+        in.beginObject();
+
+        while (in.hasNext())
+        {
+            String name = in.nextName();
+
+            if (in.peek() == JsonToken.NULL)
+            {
+                in.nextNull();
+
+                continue;
+            }
+
+            if (name.equals("tick")) frame.tick = in.nextLong();
+            else if (name.equals("value")) frame.value = (float) in.nextDouble();
+            else if (name.equals("interp")) frame.interp = this.readEnum(in, KeyframeInterpolation.class, frame.interp);
+            else if (name.equals("easing")) frame.easing = this.readEnum(in, Easing.class, frame.easing);
+            else if (name.equals("rx")) frame.rx = (float) in.nextDouble();
+            else if (name.equals("ry")) frame.ry = (float) in.nextDouble();
+            else if (name.equals("lx")) frame.lx = (float) in.nextDouble();
+            else if (name.equals("ly")) frame.ly = (float) in.nextDouble();
+            else in.skipValue();
+        }
+
+        in.endObject();
+
+        return frame;
+    }
+
+    private <T extends Enum<T>> T readEnum(JsonReader in, Class<T> clazz, T fallback) throws IOException
+    {
+        try
+        {
+            return Enum.valueOf(clazz, in.nextString());
+        }
+        catch (IllegalArgumentException e)
+        {
+            return fallback;
+        }
+    }
+}
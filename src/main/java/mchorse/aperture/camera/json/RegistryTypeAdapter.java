@@ -0,0 +1,321 @@
+package mchorse.aperture.camera.json;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.Expose;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Registry type adapter
+ *
+ * Base streaming adapter for objects which are stored in JSON along with
+ * their registered "type" key (camera fixtures and modifiers). Instead of
+ * building a {@link JsonObject} tree for every object, it writes and reads
+ * {@link Expose}d fields directly from the stream using cached field
+ * bindings.
+ *
+ * Only keys which don't belong to any exposed field (like path fixture's
+ * interpolations) are collected in a {@link JsonObject} which is passed to
+ * toJSON/fromJSON hooks. If "type" key isn't the first one, preceding
+ * keys are buffered until the type is known.
+ */
+public abstract class RegistryTypeAdapter<T> extends TypeAdapter<T>
+{
+    protected final Gson gson;
+    protected final TypeAdapter<JsonElement> elements;
+
+    /**
+     * Cached exposed field bindings per class. They're cached per adapter
+     * (i.e. per Gson instance), since field adapters are resolved by
+     * adapter's Gson, which could be configured differently than others
+     */
+    private final Map<Class<?>, Map<String, BoundField>> fields = new ConcurrentHashMap<Class<?>, Map<String, BoundField>>();
+
+    public RegistryTypeAdapter(Gson gson)
+    {
+        this.gson = gson;
+        this.elements = gson.getAdapter(JsonElement.class);
+    }
+
+    /* Registry hooks */
+
+    protected abstract String getType(T object);
+
+    protected abstract Class<? extends T> getClass(String type);
+
+    protected abstract void toJSON(T object, JsonObject extra);
+
+    protected abstract void fromJSON(T object, JsonObject extra);
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException
+    {
+        if (value == null)
+        {
+            out.nullValue();
+
+            return;
+        }
+
+        out.beginObject();
+        out.name("type").value(this.getType(value));
+
+        for (BoundField field : this.getFields(value.getClass()).values())
+        {
+            field.write(out, value);
+        }
+
+        JsonObject extra = new JsonObject();
+
+        this.toJSON(value, extra);
+
+        for (Map.Entry<String, JsonElement> entry : extra.entrySet())
+        {
+            out.name(entry.getKey());
+            this.elements.write(out, entry.getValue());
+        }
+
+        out.endObject();
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException
+    {
+        if (in.peek() == JsonToken.NULL)
+        {
+            in.nextNull();
+
+            return null;
+        }
+
+        JsonObject extra = new JsonObject();
+        Map<String, BoundField> fields = null;
+        T object = null;
+        boolean typed = false;
+
+        in.beginObject();
+
+        while (in.hasNext())
+        {
+            String name = in.nextName();
+
+            if (!typed && name.equals("type"))
+            {
+                String type = in.peek() == JsonToken.STRING ? in.nextString() : null;
+
+                if (type == null)
+                {
+                    in.skipValue();
+                }
+
+                typed = true;
+                object = this.create(type);
+
+                if (object != null)
+                {
+                    fields = this.getFields(object.getClass());
+
+                    /* Apply fields which were buffered before the type */
+                    for (BoundField field : fields.values())
+                    {
+                        JsonElement element = extra.remove(field.name);
+
+                        if (element != null && field.deserialize)
+                        {
+                            field.set(object, field.adapter.fromJsonTree(element));
+                        }
+                    }
+                }
+
+                continue;
+            }
+
+            BoundField field = fields == null ? null : fields.get(name);
+
+            if (field != null)
+            {
+                field.read(in, object);
+            }
+            else if (typed && object == null)
+            {
+                in.skipValue();
+            }
+            else
+            {
+                extra.add(name, this.elements.read(in));
+            }
+        }
+
+        in.endObject();
+
+        if (object != null)
+        {
+            this.fromJSON(object, extra);
+        }
+
+        return object;
+    }
+
+    /**
+     * Create an object of given registered type. Objects are constructed
+     * with no-args constructor, or with duration constructor (which is
+     * required for all fixtures)
+     */
+    protected T create(String type) throws IOException
+    {
+        Class<? extends T> clazz = type == null ? null : this.getClass(type);
+
+        if (clazz == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            for (Constructor<?> constructor : clazz.getConstructors())
+            {
+                if (constructor.getParameterTypes().length == 0)
+                {
+                    return clazz.cast(constructor.newInstance());
+                }
+            }
+
+            return clazz.getConstructor(long.class).newInstance(0L);
+        }
+        catch (Exception e)
+        {
+            throw new IOException("Couldn't create an instance of '" + type + "'!", e);
+        }
+    }
+
+    /**
+     * Get (cached) exposed fields of given class
+     */
+    protected Map<String, BoundField> getFields(Class<?> clazz)
+    {
+        Map<String, BoundField> fields = this.fields.get(clazz);
+
+        if (fields == null)
+        {
+            fields = new LinkedHashMap<String, BoundField>();
+
+            for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass())
+            {
+                for (Field field : current.getDeclaredFields())
+                {
+                    int modifiers = field.getModifiers();
+                    Expose expose = field.getAnnotation(Expose.class);
+
+                    if (expose == null || Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || fields.containsKey(field.getName()))
+                    {
+                        continue;
+                    }
+
+                    field.setAccessible(true);
+                    fields.put(field.getName(), new BoundField(field, this.gson.getAdapter(TypeToken.get(field.getGenericType())), expose));
+                }
+            }
+
+            fields = Collections.unmodifiableMap(fields);
+            this.fields.put(clazz, fields);
+        }
+
+        return fields;
+    }
+
+    /**
+     * Bound field
+     *
+     * Exposed field along with its Gson type adapter
+     */
+    protected static class BoundField
+    {
+        public final String name;
+        public final Field field;
+        public final TypeAdapter<Object> adapter;
+        public final boolean serialize;
+        public final boolean deserialize;
+
+        @SuppressWarnings("unchecked")
+        public BoundField(Field field, TypeAdapter<?> adapter, Expose expose)
+        {
+            this.name = field.getName();
+            this.field = field;
+            this.adapter = (TypeAdapter<Object>) adapter;
+            this.serialize = expose.serialize();
+            this.deserialize = expose.deserialize();
+        }
+
+        public void write(JsonWriter out, Object object) throws IOException
+        {
+            if (!this.serialize)
+            {
+                return;
+            }
+
+            Object value = this.get(object);
+
+            if (value != null)
+            {
+                out.name(this.name);
+                this.adapter.write(out, value);
+            }
+        }
+
+        public void read(JsonReader in, Object object) throws IOException
+        {
+            if (!this.deserialize)
+            {
+                in.skipValue();
+
+                return;
+            }
+
+            this.set(object, this.adapter.read(in));
+        }
+
+        public Object get(Object object) throws IOException
+        {
+            try
+            {
+                return this.field.get(object);
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new IOException(e);
+            }
+        }
+
+        public void set(Object object, Object value) throws IOException
+        {
+            /* Same as Gson, don't assign nulls to primitive fields */
+            if (value == null && this.field.getType().isPrimitive())
+            {
+                return;
+            }
+
+            try
+            {
+                this.field.set(object, value);
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -31,6 +31,25 @@ public abstract class AbstractModifier
      */
     public abstract void modify(long ticks, long offset, AbstractFixture fixture, float partialTick, float previewPartialTick, CameraProfile profile, Position pos);
 
+    /**
+     * Whether this modifier's output depends on previously evaluated
+     * frames (and not only on given time), so frames of such modifier
+     * can't be evaluated out of order
+     */
+    public boolean isStateful()
+    {
+        return false;
+    }
+
+    /**
+     * Whether this modifier reads the client's world (i.e. looks up
+     * entities), so it may be applied only on the client thread
+     */
+    public boolean isWorldDependent()
+    {
+        return false;
+    }
+
     @Override
     public abstract AbstractModifier clone();
 
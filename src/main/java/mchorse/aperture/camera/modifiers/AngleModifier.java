@@ -7,6 +7,7 @@ import mchorse.aperture.camera.CameraProfile;
 import mchorse.aperture.camera.data.Angle;
 import mchorse.aperture.camera.data.Position;
 import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.utils.BufferUtils;
 
 /**
  * Angle modifier
@@ -47,7 +48,7 @@ public class AngleModifier extends AbstractModifier
     {
         super.toByteBuf(buffer);
 
-        this.angle.toByteBuf(buffer);
+        this.angle.toBytes(BufferUtils.sink(buffer));
     }
 
     @Override
@@ -55,6 +56,6 @@ public class AngleModifier extends AbstractModifier
     {
         super.fromByteBuf(buffer);
 
-        this.angle = Angle.fromByteBuf(buffer);
+        this.angle = Angle.fromBytes(BufferUtils.source(buffer));
     }
 }
\ No newline at end of file
@@ -54,6 +54,12 @@ public class DragModifier extends ComponentModifier
         if (this.isActive(6)) pos.angle.fov = this.fov = Interpolations.lerp(this.fov, pos.angle.fov, this.factor);
     }
 
+    @Override
+    public boolean isStateful()
+    {
+        return true;
+    }
+
     @Override
     public AbstractModifier clone()
     {
@@ -97,6 +97,12 @@ public abstract class EntityModifier extends AbstractModifier
         return this.entities == null;
     }
 
+    @Override
+    public boolean isWorldDependent()
+    {
+        return true;
+    }
+
     /* Save/load methods */
 
     @Override
@@ -4,11 +4,12 @@ import com.google.gson.annotations.Expose;
 
 import io.netty.buffer.ByteBuf;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.core.CurveMath;
 import mchorse.aperture.camera.data.Point;
 import mchorse.aperture.camera.data.Position;
 import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.utils.BufferUtils;
 import net.minecraft.entity.Entity;
-import net.minecraft.util.math.MathHelper;
 
 /**
  * Look modifier
@@ -102,10 +103,10 @@ public class LookModifier extends EntityModifier
             dZ = pos.point.z - this.position.point.z;
         }
 
-        double horizontalDistance = MathHelper.sqrt_double(dX * dX + dZ * dZ);
+        double horizontalDistance = CurveMath.sqrt(dX * dX + dZ * dZ);
 
-        float yaw = (float) (MathHelper.atan2(dZ, dX) * (180D / Math.PI)) - 90.0F;
-        float pitch = (float) (-(MathHelper.atan2(dY, horizontalDistance) * (180D / Math.PI)));
+        float yaw = (float) (CurveMath.atan2(dZ, dX) * (180D / Math.PI)) - 90.0F;
+        float pitch = (float) (-(CurveMath.atan2(dY, horizontalDistance) * (180D / Math.PI)));
 
         if (this.relative && !this.forward)
         {
@@ -139,7 +140,7 @@ public class LookModifier extends EntityModifier
         buffer.writeBoolean(this.relative);
         buffer.writeBoolean(this.atBlock);
         buffer.writeBoolean(this.forward);
-        this.block.toByteBuf(buffer);
+        this.block.toBytes(BufferUtils.sink(buffer));
     }
 
     @Override
@@ -150,6 +151,6 @@ public class LookModifier extends EntityModifier
         this.relative = buffer.readBoolean();
         this.atBlock = buffer.readBoolean();
         this.forward = buffer.readBoolean();
-        this.block = Point.fromByteBuf(buffer);
+        this.block = Point.fromBytes(BufferUtils.source(buffer));
     }
 }
\ No newline at end of file
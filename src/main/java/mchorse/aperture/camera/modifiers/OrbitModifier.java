@@ -4,12 +4,11 @@ import com.google.gson.annotations.Expose;
 
 import io.netty.buffer.ByteBuf;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.core.CurveMath;
 import mchorse.aperture.camera.data.Position;
 import mchorse.aperture.camera.fixtures.AbstractFixture;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.util.math.MathHelper;
-import net.minecraft.util.math.Vec3d;
 
 /**
  * Orbit modifier
@@ -113,27 +112,26 @@ public class OrbitModifier extends EntityModifier
         /* Calculate look vector */
         final float degToPi = (float) Math.PI / 180;
 
-        float f = MathHelper.cos(-yaw * degToPi - (float) Math.PI);
-        float f1 = MathHelper.sin(-yaw * degToPi - (float) Math.PI);
-        float f2 = -MathHelper.cos(-pitch * degToPi);
-        float f3 = MathHelper.sin(-pitch * degToPi);
-        Vec3d look = new Vec3d(f1 * f2, f3, f * f2);
+        float f = CurveMath.cos(-yaw * degToPi - (float) Math.PI);
+        float f1 = CurveMath.sin(-yaw * degToPi - (float) Math.PI);
+        float f2 = -CurveMath.cos(-pitch * degToPi);
+        float f3 = CurveMath.sin(-pitch * degToPi);
 
         pos.point.set(x, y, z);
 
         /* Add to entity's position orbit offset */
-        x += look.xCoord * distance;
-        y += look.yCoord * distance;
-        z += look.zCoord * distance;
+        x += (double) (f1 * f2) * distance;
+        y += (double) f3 * distance;
+        z += (double) (f * f2) * distance;
 
         /* Look at the origin */
         double dX = pos.point.x - x;
         double dY = pos.point.y - y;
         double dZ = pos.point.z - z;
-        double horizontalDistance = MathHelper.sqrt_double(dX * dX + dZ * dZ);
+        double horizontalDistance = CurveMath.sqrt(dX * dX + dZ * dZ);
 
-        yaw = (float) (MathHelper.atan2(dZ, dX) * (180D / Math.PI)) - 90.0F;
-        pitch = (float) (-(MathHelper.atan2(dY, horizontalDistance) * (180D / Math.PI)));
+        yaw = (float) (CurveMath.atan2(dZ, dX) * (180D / Math.PI)) - 90.0F;
+        pitch = (float) (-(CurveMath.atan2(dY, horizontalDistance) * (180D / Math.PI)));
 
         pos.point.set(x, y, z);
         pos.angle.set(yaw, pitch);
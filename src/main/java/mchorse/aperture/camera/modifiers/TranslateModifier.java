@@ -7,6 +7,7 @@ import mchorse.aperture.camera.CameraProfile;
 import mchorse.aperture.camera.data.Point;
 import mchorse.aperture.camera.data.Position;
 import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.utils.BufferUtils;
 
 /**
  * Translate camera modifier
@@ -46,7 +47,7 @@ public class TranslateModifier extends AbstractModifier
     {
         super.toByteBuf(buffer);
 
-        this.translate.toByteBuf(buffer);
+        this.translate.toBytes(BufferUtils.sink(buffer));
     }
 
     @Override
@@ -54,6 +55,6 @@ public class TranslateModifier extends AbstractModifier
     {
         super.fromByteBuf(buffer);
 
-        this.translate = Point.fromByteBuf(buffer);
+        this.translate = Point.fromBytes(BufferUtils.source(buffer));
     }
 }
\ No newline at end of file
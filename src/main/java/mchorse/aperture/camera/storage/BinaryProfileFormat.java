@@ -0,0 +1,402 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.function.Function;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.FixtureRegistry;
+import mchorse.aperture.camera.ModifierRegistry;
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.modifiers.AbstractModifier;
+import mchorse.aperture.camera.storage.ProfileHeader.FixtureHeader;
+import mchorse.aperture.utils.BufferUtils;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+
+/**
+ * Binary camera profile format
+ *
+ * Stores camera profiles in <code>.aperture</code> files. The file
+ * consists out of a header, a table of contents with offsets of every
+ * fixture, and the payload which reuses compact byte encoding of
+ * fixtures and modifiers (see {@link FixtureRegistry#toByteBuf(AbstractFixture, ByteBuf)}):
+ *
+ * <pre>
+ * int   magic ("APRT")
+ * byte  format version ({@link #VERSION})
+ * byte  profile's byte version ({@link CameraProfile#BYTE_VERSION})
+ * int   fixture count
+ * int   offset of global modifiers
+ * int[] offset and length of every fixture
+ * ...   fixtures
+ * ...   global modifiers
+ * </pre>
+ *
+ * Files are read through memory-mapped {@link FileChannel}, so big
+ * recorded profiles don't need to be copied into the heap before
+ * getting decoded.
+ */
+public class BinaryProfileFormat
+{
+    /**
+     * Extension of binary camera profiles
+     */
+    public static final String EXTENSION = ".aperture";
+
+    /**
+     * Magic number in the beginning of the file ("APRT")
+     */
+    public static final int MAGIC = 0x41505254;
+
+    /**
+     * Version of the file layout (header and table of contents)
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Size of the header without table of contents
+     */
+    public static final int HEADER_SIZE = 14;
+
+    /**
+     * Files smaller than this are read into the heap instead of mapping
+     * them, since mapping small files costs more than simply reading them
+     */
+    public static final int MAP_THRESHOLD = 64 * 1024;
+
+    /**
+     * Check whether given file is a binary camera profile (by checking
+     * its magic number, not its extension)
+     */
+    public static boolean isBinary(File file)
+    {
+        if (!file.isFile() || file.length() < HEADER_SIZE)
+        {
+            return false;
+        }
+
+        RandomAccessFile access = null;
+
+        try
+        {
+            access = new RandomAccessFile(file, "r");
+
+            return access.readInt() == MAGIC;
+        }
+        catch (IOException e)
+        {
+            return false;
+        }
+        finally
+        {
+            close(access);
+        }
+    }
+
+    /**
+     * Check whether given buffer contains a binary camera profile
+     */
+    public static boolean isBinary(ByteBuf buffer)
+    {
+        return buffer.readableBytes() >= HEADER_SIZE && buffer.getInt(buffer.readerIndex()) == MAGIC;
+    }
+
+    /**
+     * Read camera profile from given binary file
+     */
+    public static CameraProfile read(File file) throws IOException
+    {
+        return read(file, BinaryProfileFormat::fromByteBuf);
+    }
+
+    /**
+     * Read only the header of given binary file. Since the file is
+     * mapped, only pages with table of contents and beginnings of
+     * fixtures are actually read from the disk
+     */
+    public static ProfileHeader readHeader(File file) throws IOException
+    {
+        return read(file, BinaryProfileFormat::readHeader);
+    }
+
+    /**
+     * Decode given binary file's contents with given function
+     */
+    private static <T> T read(File file, Function<ByteBuf, T> decoder) throws IOException
+    {
+        RandomAccessFile access = new RandomAccessFile(file, "r");
+
+        try
+        {
+            FileChannel channel = access.getChannel();
+            long size = channel.size();
+
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IOException("Camera profile '" + file.getName() + "' is too big!");
+            }
+
+            if (size < MAP_THRESHOLD)
+            {
+                ByteBuffer heap = ByteBuffer.allocate((int) size);
+
+                while (heap.hasRemaining() && channel.read(heap) >= 0)
+                {}
+
+                heap.flip();
+
+                return decoder.apply(Unpooled.wrappedBuffer(heap));
+            }
+
+            MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, size);
+
+            try
+            {
+                return decoder.apply(Unpooled.wrappedBuffer(mapped));
+            }
+            finally
+            {
+                unmap(mapped);
+            }
+        }
+        finally
+        {
+            access.close();
+        }
+    }
+
+    /**
+     * Write camera profile to given binary file
+     */
+    public static void write(CameraProfile profile, File file) throws IOException
+    {
+        ByteBuf buffer = Unpooled.buffer();
+
+        try
+        {
+            toByteBuf(profile, buffer);
+
+            FileOutputStream stream = new FileOutputStream(file);
+
+            try
+            {
+                FileChannel channel = stream.getChannel();
+                ByteBuffer nio = buffer.nioBuffer();
+
+                while (nio.hasRemaining())
+                {
+                    channel.write(nio);
+                }
+            }
+            finally
+            {
+                stream.close();
+            }
+        }
+        finally
+        {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Decode a camera profile out of binary file's contents
+     */
+    public static CameraProfile fromByteBuf(ByteBuf buffer)
+    {
+        int count = checkHeader(buffer);
+        int modifiers = buffer.readInt();
+        int toc = buffer.readerIndex();
+        CameraProfile profile = new CameraProfile(null);
+
+        for (int i = 0; i < count; i++)
+        {
+            AbstractFixture fixture = readFixture(buffer, toc, i);
+
+            if (fixture != null)
+            {
+                profile.getAll().add(fixture);
+            }
+        }
+
+        buffer.readerIndex(modifiers);
+
+        for (int i = 0, c = BufferUtils.readVarInt(buffer); i < c; i++)
+        {
+            AbstractModifier modifier = ModifierRegistry.fromByteBuf(buffer);
+
+            if (modifier != null)
+            {
+                profile.getModifiers().add(modifier);
+            }
+        }
+
+        return profile;
+    }
+
+    /**
+     * Read only one fixture by its index using table of contents,
+     * without decoding the rest of the fixtures
+     */
+    public static AbstractFixture readFixture(ByteBuf buffer, int index)
+    {
+        buffer.readerIndex(0);
+
+        int count = checkHeader(buffer);
+
+        if (index < 0 || index >= count)
+        {
+            return null;
+        }
+
+        return readFixture(buffer, buffer.readerIndex() + 4, index);
+    }
+
+    /**
+     * Read profile's header out of binary file's contents. Only type,
+     * duration and name of every fixture are decoded
+     */
+    public static ProfileHeader readHeader(ByteBuf buffer)
+    {
+        ProfileHeader header = new ProfileHeader();
+        int count = checkHeader(buffer);
+        int toc = buffer.readerIndex() + 4;
+
+        for (int i = 0; i < count; i++)
+        {
+            ByteBuf fixture = buffer.slice(buffer.getInt(toc + i * 8), buffer.getInt(toc + i * 8 + 4));
+            Class<? extends AbstractFixture> clazz = FixtureRegistry.CLASS_TO_ID.inverse().get(fixture.readByte());
+            long duration = BufferUtils.readVarLong(fixture);
+
+            if (clazz != null)
+            {
+                header.add(new FixtureHeader(FixtureRegistry.NAME_TO_CLASS.inverse().get(clazz), ByteBufUtils.readUTF8String(fixture), duration));
+            }
+        }
+
+        return header;
+    }
+
+    /**
+     * Read fixture from given index in the table of contents
+     */
+    private static AbstractFixture readFixture(ByteBuf buffer, int toc, int index)
+    {
+        int offset = buffer.getInt(toc + index * 8);
+        int length = buffer.getInt(toc + index * 8 + 4);
+
+        return FixtureRegistry.fromByteBuf(buffer.slice(offset, length));
+    }
+
+    /**
+     * Read and verify the header, and return fixture count. Reader index
+     * will be located at modifiers' offset
+     *
+     * Payload is decoded with the current fixture and modifier codecs,
+     * so only files with current versions are accepted. Older files get
+     * rejected with a clear error instead of being misdecoded, until a
+     * decoder of their version is added here
+     */
+    private static int checkHeader(ByteBuf buffer)
+    {
+        if (buffer.readInt() != MAGIC)
+        {
+            throw new IllegalStateException("Given data isn't a binary camera profile!");
+        }
+
+        byte version = buffer.readByte();
+        byte byteVersion = buffer.readByte();
+
+        if (version != VERSION || byteVersion != CameraProfile.BYTE_VERSION)
+        {
+            throw new IllegalStateException("Binary camera profile's version " + version + "/" + byteVersion + " isn't supported (expected " + VERSION + "/" + CameraProfile.BYTE_VERSION + ")!");
+        }
+
+        return buffer.readInt();
+    }
+
+    /**
+     * Encode given camera profile into binary file's contents
+     */
+    public static void toByteBuf(CameraProfile profile, ByteBuf buffer)
+    {
+        int start = buffer.writerIndex();
+        int count = profile.getCount();
+
+        buffer.writeInt(MAGIC);
+        buffer.writeByte(VERSION);
+        buffer.writeByte(CameraProfile.BYTE_VERSION);
+        buffer.writeInt(count);
+
+        /* Offsets will be filled once the payload is written */
+        int modifiers = buffer.writerIndex();
+        int toc = modifiers + 4;
+
+        buffer.writeZero(4 + count * 8);
+
+        for (int i = 0; i < count; i++)
+        {
+            int offset = buffer.writerIndex();
+
+            FixtureRegistry.toByteBuf(profile.get(i), buffer);
+
+            buffer.setInt(toc + i * 8, offset - start);
+            buffer.setInt(toc + i * 8 + 4, buffer.writerIndex() - offset);
+        }
+
+        buffer.setInt(modifiers, buffer.writerIndex() - start);
+        BufferUtils.writeVarInt(buffer, profile.getModifiers().size());
+
+        for (AbstractModifier modifier : profile.getModifiers())
+        {
+            ModifierRegistry.toByteBuf(modifier, buffer);
+        }
+    }
+
+    /**
+     * Release memory-mapped buffer right away instead of waiting for GC,
+     * otherwise the file can't be overwritten or removed on Windows
+     */
+    private static void unmap(MappedByteBuffer buffer)
+    {
+        try
+        {
+            Method cleaner = buffer.getClass().getMethod("cleaner");
+
+            cleaner.setAccessible(true);
+
+            Object instance = cleaner.invoke(buffer);
+
+            if (instance != null)
+            {
+                instance.getClass().getMethod("clean").invoke(instance);
+            }
+        }
+        catch (Exception e)
+        {
+            /* Not available on this JVM, GC will take care of it */
+        }
+    }
+
+    private static void close(RandomAccessFile access)
+    {
+        if (access != null)
+        {
+            try
+            {
+                access.close();
+            }
+            catch (IOException e)
+            {}
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.CameraUtils;
+
+/**
+ * File profile store
+ * 
+ * Stores profiles in a folder (both JSON and binary, see 
+ * {@link CameraUtils#writeProfile(File, String, CameraProfile)}). The 
+ * folder is created only once, and the list of profiles is cached until 
+ * the folder gets modified.
+ */
+public class FileProfileStore implements ProfileStore
+{
+    private final File folder;
+    private boolean created;
+
+    /**
+     * Cached profile names and folder's modification time when they 
+     * were listed 
+     */
+    private List<String> names;
+    private long listed;
+
+    public FileProfileStore(File folder)
+    {
+        this.folder = folder;
+    }
+
+    /**
+     * Get store's folder without creating it
+     */
+    public File getPath()
+    {
+        return this.folder;
+    }
+
+    /**
+     * Get store's folder, it gets created upon first call 
+     */
+    public File getFolder()
+    {
+        if (!this.created)
+        {
+            this.folder.mkdirs();
+            this.created = true;
+        }
+
+        return this.folder;
+    }
+
+    /**
+     * Get file of given profile
+     */
+    public File getFile(String name)
+    {
+        return CameraUtils.profileFile(this.getFolder(), name);
+    }
+
+    @Override
+    public synchronized List<String> list()
+    {
+        long modified = this.getFolder().lastModified();
+
+        if (this.names == null || this.listed != modified)
+        {
+            this.names = CameraUtils.listProfiles(this.folder);
+            this.listed = modified;
+        }
+
+        return new ArrayList<String>(this.names);
+    }
+
+    @Override
+    public boolean exists(String name)
+    {
+        return this.getFile(name).isFile();
+    }
+
+    @Override
+    public CameraProfile read(String name) throws IOException
+    {
+        return CameraUtils.readProfile(this.getFile(name));
+    }
+
+    @Override
+    public ProfileHeader readHeader(String name) throws IOException
+    {
+        return CameraUtils.readProfileHeader(this.getFile(name));
+    }
+
+    @Override
+    public void write(String name, CameraProfile profile) throws IOException
+    {
+        CameraUtils.writeProfile(this.getFolder(), name, profile);
+        this.invalidate();
+    }
+
+    @Override
+    public boolean rename(String from, String to)
+    {
+        this.invalidate();
+
+        return CameraUtils.renameProfile(this.getFolder(), from, to);
+    }
+
+    @Override
+    public boolean remove(String name)
+    {
+        this.invalidate();
+
+        return CameraUtils.removeProfile(this.getFolder(), name);
+    }
+
+    @Override
+    public long lastModified(String name)
+    {
+        return ProfileJournal.lastModified(this.getFile(name));
+    }
+
+    /**
+     * Drop cached list of profiles (folder's modification time might 
+     * have too coarse resolution to notice own changes)
+     */
+    private synchronized void invalidate()
+    {
+        this.names = null;
+    }
+}
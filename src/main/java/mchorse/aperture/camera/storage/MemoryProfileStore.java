@@ -0,0 +1,110 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import mchorse.aperture.camera.CameraProfile;
+
+/**
+ * Memory profile store
+ * 
+ * Keeps profiles in the memory, which is useful for tests and 
+ * benchmarks. Profiles are stored byte encoded (in binary format), so 
+ * stored profiles aren't affected by changes to the written or read 
+ * instances.
+ */
+public class MemoryProfileStore implements ProfileStore
+{
+    private final Map<String, byte[]> profiles = new TreeMap<String, byte[]>();
+    private final Map<String, Long> modified = new TreeMap<String, Long>();
+
+    @Override
+    public synchronized List<String> list()
+    {
+        return new ArrayList<String>(this.profiles.keySet());
+    }
+
+    @Override
+    public synchronized boolean exists(String name)
+    {
+        return this.profiles.containsKey(name);
+    }
+
+    @Override
+    public CameraProfile read(String name) throws IOException
+    {
+        return BinaryProfileFormat.fromByteBuf(Unpooled.wrappedBuffer(this.getBytes(name)));
+    }
+
+    @Override
+    public ProfileHeader readHeader(String name) throws IOException
+    {
+        return BinaryProfileFormat.readHeader(Unpooled.wrappedBuffer(this.getBytes(name)));
+    }
+
+    private synchronized byte[] getBytes(String name) throws IOException
+    {
+        byte[] bytes = this.profiles.get(name);
+
+        if (bytes == null)
+        {
+            throw new IOException("Camera profile '" + name + "' doesn't exist!");
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public void write(String name, CameraProfile profile) throws IOException
+    {
+        ByteBuf buffer = Unpooled.buffer();
+
+        BinaryProfileFormat.toByteBuf(profile, buffer);
+
+        byte[] bytes = new byte[buffer.readableBytes()];
+
+        buffer.readBytes(bytes);
+        buffer.release();
+
+        synchronized (this)
+        {
+            this.profiles.put(name, bytes);
+            this.modified.put(name, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public synchronized boolean rename(String from, String to)
+    {
+        if (!this.profiles.containsKey(from) || this.profiles.containsKey(to))
+        {
+            return false;
+        }
+
+        this.profiles.put(to, this.profiles.remove(from));
+        this.modified.put(to, this.modified.remove(from));
+
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(String name)
+    {
+        this.modified.remove(name);
+
+        return this.profiles.remove(name) != null;
+    }
+
+    @Override
+    public synchronized long lastModified(String name)
+    {
+        Long time = this.modified.get(name);
+
+        return time == null ? 0 : time;
+    }
+}
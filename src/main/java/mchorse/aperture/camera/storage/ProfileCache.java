@@ -0,0 +1,124 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.CameraUtils;
+import mchorse.aperture.metrics.Metrics;
+
+/**
+ * Profile cache
+ *
+ * Bounded on-disk cache of camera profiles received from servers, keyed
+ * by their content hash (see {@link ProfileDigest}). Profiles are stored
+ * in binary format, and once there are too many of them, least recently
+ * used ones (by modification time, which gets updated on every hit) are
+ * removed.
+ */
+public class ProfileCache
+{
+    private final File folder;
+
+    public ProfileCache(File folder)
+    {
+        this.folder = folder;
+    }
+
+    private File getFile(String hash)
+    {
+        return new File(this.folder, hash + BinaryProfileFormat.EXTENSION);
+    }
+
+    /**
+     * Get cached profile by its hash, or null if it isn't cached
+     */
+    public CameraProfile get(String hash)
+    {
+        if (!ProfileDigest.isHash(hash))
+        {
+            return null;
+        }
+
+        File file = this.getFile(hash);
+
+        if (!file.isFile())
+        {
+            Metrics.add(Metrics.CACHE_MISSES, 1);
+
+            return null;
+        }
+
+        try
+        {
+            CameraProfile profile = BinaryProfileFormat.read(file);
+
+            file.setLastModified(System.currentTimeMillis());
+            Metrics.add(Metrics.CACHE_HITS, 1);
+
+            return profile;
+        }
+        catch (Exception e)
+        {
+            /* Broken cache entry, it will be received again */
+            file.delete();
+        }
+
+        Metrics.add(Metrics.CACHE_MISSES, 1);
+
+        return null;
+    }
+
+    /**
+     * Put a profile into the cache, and remove least recently used
+     * profiles if there are more than given limit
+     */
+    public void put(String hash, CameraProfile profile, int limit)
+    {
+        if (!ProfileDigest.isHash(hash) || limit <= 0)
+        {
+            return;
+        }
+
+        File file = this.getFile(hash);
+        File temporary = new File(file.getPath() + ".tmp");
+
+        try
+        {
+            this.folder.mkdirs();
+            BinaryProfileFormat.write(profile, temporary);
+            CameraUtils.replaceFile(temporary, file);
+        }
+        catch (Exception e)
+        {
+            temporary.delete();
+            e.printStackTrace();
+
+            return;
+        }
+
+        this.trim(limit);
+    }
+
+    /**
+     * Remove least recently used profiles, so there would be no more
+     * than given amount of cached profiles
+     */
+    private void trim(int limit)
+    {
+        File[] files = this.folder.listFiles((dir, name) -> name.endsWith(BinaryProfileFormat.EXTENSION));
+
+        if (files == null || files.length <= limit)
+        {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+
+        for (int i = 0, c = files.length - limit; i < c; i++)
+        {
+            files[i].delete();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import mchorse.aperture.camera.CameraProfile;
+
+/**
+ * Profile digest
+ *
+ * Computes content hashes of camera profiles. The hash is computed out
+ * of profile's byte encoding (the same one which is sent over the
+ * network), so it identifies exactly what the client would receive.
+ *
+ * Instances cache hashes of stored profiles until they get modified, so
+ * the server doesn't have to read a profile just to find out that the
+ * client already has it.
+ */
+public class ProfileDigest
+{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Cached hashes mapped by profile's name (and quantization)
+     */
+    private final Map<String, Entry> hashes = new ConcurrentHashMap<String, Entry>();
+
+    /**
+     * Compute SHA-1 hash of given profile's byte encoding
+     */
+    public static String hash(CameraProfile profile, boolean quantize)
+    {
+        ByteBuf buffer = Unpooled.buffer();
+
+        try
+        {
+            profile.toByteBuf(buffer, quantize);
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+
+            digest.update(buffer.nioBuffer());
+
+            return toHex(digest.digest());
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            /* Every JVM is required to support SHA-1 */
+            throw new IllegalStateException(e);
+        }
+        finally
+        {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Check whether given string looks like a hash produced by this class
+     * (it's used as a file name, so it better be)
+     */
+    public static boolean isHash(String hash)
+    {
+        return hash != null && hash.matches("^[0-9a-f]{40}$");
+    }
+
+    private static String toHex(byte[] bytes)
+    {
+        char[] chars = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++)
+        {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Get hash of a stored profile. The profile is read only if it was
+     * modified since its hash was computed
+     */
+    public String get(ProfileStore store, String name, boolean quantize) throws IOException
+    {
+        String key = quantize ? name + "#quantized" : name;
+        long modified = store.lastModified(name);
+        Entry entry = this.hashes.get(key);
+
+        if (entry == null || entry.modified != modified || modified == 0)
+        {
+            entry = new Entry(hash(store.read(name), quantize), modified);
+
+            this.hashes.put(key, entry);
+        }
+
+        return entry.hash;
+    }
+
+    /**
+     * Forget cached hashes of given profile (modification time might 
+     * have too coarse resolution to notice own changes)
+     */
+    public void remove(String name)
+    {
+        this.hashes.remove(name);
+        this.hashes.remove(name + "#quantized");
+    }
+
+    /**
+     * Forget all cached hashes
+     */
+    public void clear()
+    {
+        this.hashes.clear();
+    }
+
+    private static class Entry
+    {
+        public final String hash;
+        public final long modified;
+
+        public Entry(String hash, long modified)
+        {
+            this.hash = hash;
+            this.modified = modified;
+        }
+    }
+}
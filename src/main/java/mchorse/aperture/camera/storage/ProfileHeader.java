@@ -0,0 +1,150 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.FixtureRegistry;
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+
+/**
+ * Profile header
+ *
+ * Lightweight summary of a stored camera profile (duration, and type,
+ * name and duration of every fixture) which can be read without
+ * decoding whole profile. Binary profiles read only first bytes of
+ * every fixture using the table of contents, while JSON profiles are
+ * streamed skipping everything except a few keys.
+ */
+public class ProfileHeader extends ProfileInfo
+{
+    public List<FixtureHeader> entries = new ArrayList<FixtureHeader>();
+
+    /**
+     * Create a header out of already loaded profile
+     */
+    public static ProfileHeader fromProfile(CameraProfile profile)
+    {
+        ProfileHeader header = new ProfileHeader();
+
+        for (AbstractFixture fixture : profile.getAll())
+        {
+            header.add(new FixtureHeader(FixtureRegistry.NAME_TO_CLASS.inverse().get(fixture.getClass()), fixture.getName(), fixture.getDuration()));
+        }
+
+        return header;
+    }
+
+    /**
+     * Read a header out of JSON profile. The reader gets closed
+     * afterwards
+     */
+    public static ProfileHeader fromJSON(Reader reader) throws IOException
+    {
+        ProfileHeader header = new ProfileHeader();
+        JsonReader in = new JsonReader(reader);
+
+        in.setLenient(true);
+
+        try
+        {
+            in.beginObject();
+
+            while (in.hasNext())
+            {
+                if (in.nextName().equals("fixtures") && in.peek() == JsonToken.BEGIN_ARRAY)
+                {
+                    in.beginArray();
+
+                    while (in.hasNext())
+                    {
+                        FixtureHeader fixture = readFixture(in);
+
+                        if (fixture != null)
+                        {
+                            header.add(fixture);
+                        }
+                    }
+
+                    in.endArray();
+                }
+                else
+                {
+                    in.skipValue();
+                }
+            }
+        }
+        catch (IllegalStateException e)
+        {
+            throw new IOException("Camera profile's header couldn't be parsed!", e);
+        }
+        finally
+        {
+            in.close();
+        }
+
+        return header;
+    }
+
+    /**
+     * Read only type, name and duration of a JSON fixture. Fixtures of
+     * unknown types are skipped, like they are during full parsing
+     */
+    private static FixtureHeader readFixture(JsonReader in) throws IOException
+    {
+        if (in.peek() != JsonToken.BEGIN_OBJECT)
+        {
+            in.skipValue();
+
+            return null;
+        }
+
+        FixtureHeader fixture = new FixtureHeader(null, "", 0);
+
+        in.beginObject();
+
+        while (in.hasNext())
+        {
+            String name = in.nextName();
+            JsonToken token = in.peek();
+
+            if (name.equals("type") && token == JsonToken.STRING) fixture.type = in.nextString();
+            else if (name.equals("name") && token == JsonToken.STRING) fixture.name = in.nextString();
+            else if (name.equals("duration") && token == JsonToken.NUMBER) fixture.duration = in.nextLong();
+            else in.skipValue();
+        }
+
+        in.endObject();
+
+        return FixtureRegistry.NAME_TO_CLASS.containsKey(fixture.type) ? fixture : null;
+    }
+
+    public void add(FixtureHeader fixture)
+    {
+        this.entries.add(fixture);
+        this.duration += fixture.duration;
+        this.fixtures++;
+    }
+
+    /**
+     * Fixture header
+     */
+    public static class FixtureHeader
+    {
+        public String type;
+        public String name;
+        public long duration;
+
+        public FixtureHeader(String type, String name, long duration)
+        {
+            this.type = type;
+            this.name = name;
+            this.duration = duration;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.camera.CameraUtils;
+import mchorse.aperture.network.Dispatcher;
+import mchorse.aperture.network.common.PacketCameraProfileUpdate;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+
+/**
+ * Profile index
+ * 
+ * Server-side cache of profiles' metadata in a file profile store. The 
+ * index is built upon the first request, and then it's kept up to date 
+ * by watching the store's folder with a {@link WatchService} (which is 
+ * polled on server tick, see {@link ProfileIndexHandler}), so list 
+ * requests are answered from the memory.
+ * 
+ * Players which have the camera editor opened are subscribed to the 
+ * index, and they're sent incremental updates about added, changed, 
+ * removed and renamed profiles.
+ */
+public class ProfileIndex
+{
+    private final FileProfileStore store;
+    private final Map<String, ProfileInfo> profiles = new TreeMap<String, ProfileInfo>();
+    private final Set<EntityPlayerMP> subscribers = new HashSet<EntityPlayerMP>();
+
+    private WatchService watcher;
+    private boolean loaded;
+
+    /**
+     * Get profile's name out of a file name in the store's folder. 
+     * Returns null if given file isn't a part of a profile
+     */
+    public static String profileName(String filename)
+    {
+        if (filename.endsWith(ProfileJournal.EXTENSION))
+        {
+            filename = filename.substring(0, filename.length() - ProfileJournal.EXTENSION.length());
+        }
+
+        if (filename.endsWith(CameraUtils.JSON_EXTENSION))
+        {
+            return filename.substring(0, filename.length() - CameraUtils.JSON_EXTENSION.length());
+        }
+        else if (filename.endsWith(BinaryProfileFormat.EXTENSION))
+        {
+            return filename.substring(0, filename.length() - BinaryProfileFormat.EXTENSION.length());
+        }
+
+        return null;
+    }
+
+    public ProfileIndex(FileProfileStore store)
+    {
+        this.store = store;
+    }
+
+    public FileProfileStore getStore()
+    {
+        return this.store;
+    }
+
+    /**
+     * Get metadata of all profiles
+     */
+    public synchronized List<ProfileInfo> list()
+    {
+        this.load();
+
+        return new ArrayList<ProfileInfo>(this.profiles.values());
+    }
+
+    /**
+     * Get names of all profiles
+     */
+    public synchronized List<String> names()
+    {
+        this.load();
+
+        return new ArrayList<String>(this.profiles.keySet());
+    }
+
+    /**
+     * Build the index and start watching the folder
+     */
+    private void load()
+    {
+        if (this.loaded)
+        {
+            return;
+        }
+
+        this.loaded = true;
+
+        try
+        {
+            this.watcher = FileSystems.getDefault().newWatchService();
+            this.store.getFolder().toPath().register(this.watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        catch (IOException e)
+        {
+            Aperture.LOGGER.warn("Couldn't watch camera profiles folder, it will be rescanned instead");
+            this.close();
+        }
+
+        this.rescan();
+    }
+
+    /**
+     * Process pending changes of the folder. It doesn't do anything, if 
+     * the index wasn't requested yet
+     */
+    public synchronized void poll()
+    {
+        if (!this.loaded)
+        {
+            return;
+        }
+
+        if (this.watcher == null)
+        {
+            this.rescan();
+
+            return;
+        }
+
+        Set<String> changed = new LinkedHashSet<String>();
+        boolean overflow = false;
+        WatchKey key;
+
+        while ((key = this.watcher.poll()) != null)
+        {
+            for (WatchEvent<?> event : key.pollEvents())
+            {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+                {
+                    overflow = true;
+
+                    continue;
+                }
+
+                String name = profileName(event.context().toString());
+
+                if (name != null)
+                {
+                    changed.add(name);
+                }
+            }
+
+            key.reset();
+        }
+
+        if (overflow)
+        {
+            this.rescan();
+        }
+        else
+        {
+            for (String name : changed)
+            {
+                this.update(name);
+            }
+        }
+    }
+
+    /**
+     * Compare the index against the store's listing
+     */
+    private void rescan()
+    {
+        Set<String> names = new HashSet<String>(this.store.list());
+
+        for (String name : new ArrayList<String>(this.profiles.keySet()))
+        {
+            if (!names.contains(name))
+            {
+                this.update(name);
+            }
+        }
+
+        for (String name : names)
+        {
+            this.update(name);
+        }
+    }
+
+    /**
+     * Update metadata of given profile, and inform subscribers if it 
+     * was changed
+     */
+    public synchronized void update(String name)
+    {
+        ProfileInfo old = this.profiles.get(name);
+        ProfileInfo info = this.read(name, old);
+
+        if (info == null)
+        {
+            if (this.profiles.remove(name) != null)
+            {
+                this.send(PacketCameraProfileUpdate.remove(name));
+            }
+        }
+        else if (!info.equals(old))
+        {
+            this.profiles.put(name, info);
+            this.send(PacketCameraProfileUpdate.update(info));
+        }
+    }
+
+    /**
+     * Move metadata of a renamed profile, and inform subscribers
+     */
+    public synchronized void rename(String from, String to)
+    {
+        ProfileInfo info = this.profiles.remove(from);
+
+        if (info == null)
+        {
+            this.update(to);
+
+            return;
+        }
+
+        info.name = to;
+        this.profiles.put(to, info);
+        this.send(PacketCameraProfileUpdate.rename(from, to));
+    }
+
+    /**
+     * Read metadata of a profile. Profile's header gets read only if its 
+     * file was changed since the last time
+     */
+    private ProfileInfo read(String name, ProfileInfo old)
+    {
+        File file = this.store.getFile(name);
+
+        if (!file.isFile())
+        {
+            return null;
+        }
+
+        long size = file.length() + ProfileJournal.journalFile(file).length();
+        long modified = this.store.lastModified(name);
+
+        if (old != null && old.size == size && old.modified == modified)
+        {
+            return old;
+        }
+
+        ProfileHeader header = null;
+
+        try
+        {
+            header = this.store.readHeader(name);
+        }
+        catch (Exception e)
+        {
+            /* Broken profile is still listed, so it could be removed */
+        }
+
+        return new ProfileInfo(name, header, size, modified);
+    }
+
+    /* Subscriptions */
+
+    public synchronized void subscribe(EntityPlayerMP player)
+    {
+        this.subscribers.add(player);
+    }
+
+    public synchronized void unsubscribe(EntityPlayerMP player)
+    {
+        this.subscribers.remove(player);
+    }
+
+    private void send(IMessage message)
+    {
+        for (EntityPlayerMP player : this.subscribers)
+        {
+            Dispatcher.sendTo(message, player);
+        }
+    }
+
+    /**
+     * Stop watching the folder
+     */
+    public synchronized void close()
+    {
+        if (this.watcher != null)
+        {
+            try
+            {
+                this.watcher.close();
+            }
+            catch (IOException e)
+            {}
+
+            this.watcher = null;
+        }
+    }
+}
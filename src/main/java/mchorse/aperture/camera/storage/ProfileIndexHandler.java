@@ -0,0 +1,44 @@
+package mchorse.aperture.camera.storage;
+
+import mchorse.aperture.camera.CameraUtils;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
+
+/**
+ * Profile index handler
+ * 
+ * Polls server's profile index for folder changes once in a while, and 
+ * unsubscribes players which logged out.
+ */
+public class ProfileIndexHandler
+{
+    /**
+     * How often (in ticks) the profile index is polled
+     */
+    public static final int POLL_INTERVAL = 20;
+
+    private int ticks;
+
+    @SubscribeEvent
+    public void onServerTick(ServerTickEvent event)
+    {
+        if (event.phase == Phase.END && ++this.ticks >= POLL_INTERVAL)
+        {
+            this.ticks = 0;
+
+            CameraUtils.getServerIndex().poll();
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlayerLogOut(PlayerLoggedOutEvent event)
+    {
+        if (event.player instanceof EntityPlayerMP)
+        {
+            CameraUtils.getServerIndex().unsubscribe((EntityPlayerMP) event.player);
+        }
+    }
+}
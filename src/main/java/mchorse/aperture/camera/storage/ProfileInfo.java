@@ -0,0 +1,78 @@
+package mchorse.aperture.camera.storage;
+
+import io.netty.buffer.ByteBuf;
+import mchorse.aperture.utils.BufferUtils;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+
+/**
+ * Profile info
+ * 
+ * Metadata of a stored camera profile, which is shown in the profiles 
+ * manager without loading the profile.
+ */
+public class ProfileInfo
+{
+    public String name;
+    public long duration;
+    public int fixtures;
+    public long size;
+    public long modified;
+
+    public ProfileInfo()
+    {}
+
+    public ProfileInfo(String name)
+    {
+        this.name = name;
+    }
+
+    public ProfileInfo(String name, ProfileInfo header, long size, long modified)
+    {
+        this.name = name;
+        this.size = size;
+        this.modified = modified;
+
+        if (header != null)
+        {
+            this.duration = header.duration;
+            this.fixtures = header.fixtures;
+        }
+    }
+
+    public void fromByteBuf(ByteBuf buffer)
+    {
+        this.name = ByteBufUtils.readUTF8String(buffer);
+        this.duration = BufferUtils.readVarLong(buffer);
+        this.fixtures = BufferUtils.readVarInt(buffer);
+        this.size = BufferUtils.readVarLong(buffer);
+        this.modified = buffer.readLong();
+    }
+
+    public void toByteBuf(ByteBuf buffer)
+    {
+        ByteBufUtils.writeUTF8String(buffer, this.name);
+        BufferUtils.writeVarLong(buffer, this.duration);
+        BufferUtils.writeVarInt(buffer, this.fixtures);
+        BufferUtils.writeVarLong(buffer, this.size);
+        buffer.writeLong(this.modified);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (obj instanceof ProfileInfo)
+        {
+            ProfileInfo info = (ProfileInfo) obj;
+
+            return this.name.equals(info.name) && this.duration == info.duration && this.fixtures == info.fixtures && this.size == info.size && this.modified == info.modified;
+        }
+
+        return super.equals(obj);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.name.hashCode();
+    }
+}
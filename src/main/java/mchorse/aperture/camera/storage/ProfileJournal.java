@@ -0,0 +1,483 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.FixtureRegistry;
+import mchorse.aperture.camera.ModifierRegistry;
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.modifiers.AbstractModifier;
+import mchorse.aperture.utils.BufferUtils;
+
+/**
+ * Profile journal
+ *
+ * Append-only journal of edits which were made to a camera profile since
+ * its last full snapshot was written. Every save compares byte encoded
+ * fixtures with the ones that were saved last time, and appends only
+ * changed fixtures, so frequent saves of big profiles write only what
+ * was changed. Once the journal grows too big, the profile gets
+ * compacted back into a full snapshot.
+ *
+ * Journal is stored next to the snapshot (<code>name.json.journal</code>)
+ * and it's bound to the snapshot's size and modification time, so a
+ * journal of a snapshot that was replaced by other means is ignored.
+ * Every record has a length and a checksum, so a record which was torn
+ * by a crash is dropped during replay.
+ */
+public class ProfileJournal
+{
+    /**
+     * Extension which is appended to snapshot's file name
+     */
+    public static final String EXTENSION = ".journal";
+
+    /**
+     * Magic number in the beginning of the journal ("APJL")
+     */
+    public static final int MAGIC = 0x41504A4C;
+
+    /**
+     * Version of the journal layout
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Size of journal's header
+     */
+    public static final int HEADER_SIZE = 21;
+
+    /**
+     * Minimum journal size after which the profile gets compacted
+     */
+    public static final long COMPACT_SIZE = 64 * 1024;
+
+    /* Journal operations */
+
+    public static final byte SET_FIXTURE = 0;
+    public static final byte TRUNCATE = 1;
+    public static final byte SET_MODIFIERS = 2;
+
+    /**
+     * Journals of profiles which were loaded or saved during this
+     * session, mapped by snapshot's path
+     */
+    private static final Map<String, ProfileJournal> JOURNALS = new ConcurrentHashMap<String, ProfileJournal>();
+
+    private final File snapshot;
+    private final File file;
+
+    private long snapshotLength;
+    private long snapshotModified;
+    private long size;
+
+    /**
+     * Byte encoded fixtures and global modifiers as they were saved
+     * (snapshot + journal)
+     */
+    private List<byte[]> fixtures = new ArrayList<byte[]>();
+    private byte[] modifiers = new byte[0];
+
+    /**
+     * Get journal file of given snapshot
+     */
+    public static File journalFile(File snapshot)
+    {
+        return new File(snapshot.getPath() + EXTENSION);
+    }
+
+    /**
+     * Start tracking given profile which was just written as a full
+     * snapshot (or loaded from it). Any existing journal file of this
+     * snapshot must be already replayed or removed
+     */
+    public static void track(File snapshot, CameraProfile profile)
+    {
+        ProfileJournal journal = new ProfileJournal(snapshot);
+
+        journal.size = journal.file.length();
+        journal.capture(profile);
+        JOURNALS.put(snapshot.getAbsolutePath(), journal);
+    }
+
+    /**
+     * Append changes between last saved state and given profile to the
+     * snapshot's journal. Returns false, if a full snapshot has to be
+     * written instead (profile wasn't tracked, snapshot was changed by
+     * something else, or journal needs compaction)
+     */
+    public static boolean append(File snapshot, CameraProfile profile) throws IOException
+    {
+        ProfileJournal journal = JOURNALS.get(snapshot.getAbsolutePath());
+
+        if (journal == null)
+        {
+            return false;
+        }
+
+        synchronized (journal)
+        {
+            return journal.appendChanges(profile);
+        }
+    }
+
+    /**
+     * Replay snapshot's journal (if there is any) onto given profile
+     * which was loaded from the snapshot
+     */
+    public static void replay(File snapshot, CameraProfile profile) throws IOException
+    {
+        File file = journalFile(snapshot);
+
+        if (file.isFile())
+        {
+            replay(snapshot, file, profile);
+        }
+    }
+
+    /**
+     * Remove snapshot's journal and stop tracking it
+     */
+    public static void discard(File snapshot)
+    {
+        JOURNALS.remove(snapshot.getAbsolutePath());
+        journalFile(snapshot).delete();
+    }
+
+    /**
+     * Move snapshot's journal along with the renamed snapshot
+     */
+    public static void rename(File from, File to)
+    {
+        JOURNALS.remove(from.getAbsolutePath());
+        journalFile(from).renameTo(journalFile(to));
+    }
+
+    /**
+     * Get last modification time of snapshot along with its journal
+     */
+    public static long lastModified(File snapshot)
+    {
+        return Math.max(snapshot.lastModified(), journalFile(snapshot).lastModified());
+    }
+
+    private static void replay(File snapshot, File file, CameraProfile profile) throws IOException
+    {
+        RandomAccessFile access = new RandomAccessFile(file, "rw");
+
+        try
+        {
+            FileChannel channel = access.getChannel();
+            ByteBuffer nio = ByteBuffer.allocate((int) channel.size());
+
+            while (nio.hasRemaining() && channel.read(nio) >= 0)
+            {}
+
+            nio.flip();
+
+            ByteBuf buffer = Unpooled.wrappedBuffer(nio);
+
+            if (buffer.readableBytes() < HEADER_SIZE || buffer.readInt() != MAGIC || buffer.readByte() != VERSION || buffer.readLong() != snapshot.length() || buffer.readLong() != snapshot.lastModified())
+            {
+                /* Journal of another snapshot, it's useless */
+                access.close();
+                file.delete();
+
+                return;
+            }
+
+            int valid = buffer.readerIndex();
+
+            while (buffer.readableBytes() >= 8)
+            {
+                int length = buffer.readInt();
+                int checksum = buffer.readInt();
+
+                if (length < 0 || length > buffer.readableBytes() || checksum(buffer, buffer.readerIndex(), length) != checksum)
+                {
+                    break;
+                }
+
+                apply(profile, buffer.readSlice(length));
+                valid = buffer.readerIndex();
+            }
+
+            /* Cut off a torn record, so the next records wouldn't get
+             * appended after garbage */
+            if (valid < channel.size())
+            {
+                channel.truncate(valid);
+            }
+        }
+        finally
+        {
+            access.close();
+        }
+    }
+
+    /**
+     * Apply a journal record onto the profile
+     */
+    private static void apply(CameraProfile profile, ByteBuf record)
+    {
+        byte op = record.readByte();
+        List<AbstractFixture> fixtures = profile.getAll();
+
+        if (op == SET_FIXTURE)
+        {
+            int index = BufferUtils.readVarInt(record);
+            AbstractFixture fixture = FixtureRegistry.fromByteBuf(record);
+
+            if (fixture == null || index > fixtures.size())
+            {
+                return;
+            }
+
+            if (index == fixtures.size())
+            {
+                fixtures.add(fixture);
+            }
+            else
+            {
+                fixtures.set(index, fixture);
+            }
+        }
+        else if (op == TRUNCATE)
+        {
+            int count = BufferUtils.readVarInt(record);
+
+            while (fixtures.size() > count)
+            {
+                fixtures.remove(fixtures.size() - 1);
+            }
+        }
+        else if (op == SET_MODIFIERS)
+        {
+            profile.getModifiers().clear();
+            readModifiers(profile.getModifiers(), record);
+        }
+    }
+
+    private static int checksum(ByteBuf buffer, int index, int length)
+    {
+        CRC32 crc = new CRC32();
+        byte[] bytes = new byte[length];
+
+        buffer.getBytes(index, bytes);
+        crc.update(bytes);
+
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(AbstractFixture fixture)
+    {
+        ByteBuf buffer = Unpooled.buffer();
+
+        FixtureRegistry.toByteBuf(fixture, buffer);
+
+        return toBytes(buffer);
+    }
+
+    private static byte[] encode(List<AbstractModifier> modifiers)
+    {
+        ByteBuf buffer = Unpooled.buffer();
+
+        BufferUtils.writeVarInt(buffer, modifiers.size());
+
+        for (AbstractModifier modifier : modifiers)
+        {
+            ModifierRegistry.toByteBuf(modifier, buffer);
+        }
+
+        return toBytes(buffer);
+    }
+
+    private static void readModifiers(List<AbstractModifier> modifiers, ByteBuf buffer)
+    {
+        for (int i = 0, c = BufferUtils.readVarInt(buffer); i < c; i++)
+        {
+            AbstractModifier modifier = ModifierRegistry.fromByteBuf(buffer);
+
+            if (modifier != null)
+            {
+                modifiers.add(modifier);
+            }
+        }
+    }
+
+    private static byte[] toBytes(ByteBuf buffer)
+    {
+        byte[] bytes = new byte[buffer.readableBytes()];
+
+        buffer.readBytes(bytes);
+        buffer.release();
+
+        return bytes;
+    }
+
+    private ProfileJournal(File snapshot)
+    {
+        this.snapshot = snapshot;
+        this.file = journalFile(snapshot);
+        this.snapshotLength = snapshot.length();
+        this.snapshotModified = snapshot.lastModified();
+    }
+
+    /**
+     * Remember current state of the profile
+     */
+    private void capture(CameraProfile profile)
+    {
+        this.fixtures.clear();
+
+        for (AbstractFixture fixture : profile.getAll())
+        {
+            this.fixtures.add(encode(fixture));
+        }
+
+        this.modifiers = encode(profile.getModifiers());
+    }
+
+    private boolean appendChanges(CameraProfile profile) throws IOException
+    {
+        if (this.snapshot.length() != this.snapshotLength || this.snapshot.lastModified() != this.snapshotModified)
+        {
+            return false;
+        }
+
+        List<byte[]> fixtures = new ArrayList<byte[]>();
+        ByteBuf records = Unpooled.buffer();
+
+        try
+        {
+            for (int i = 0, c = profile.getCount(); i < c; i++)
+            {
+                byte[] bytes = encode(profile.get(i));
+
+                fixtures.add(bytes);
+
+                if (i >= this.fixtures.size() || !Arrays.equals(bytes, this.fixtures.get(i)))
+                {
+                    ByteBuf record = Unpooled.buffer();
+
+                    record.writeByte(SET_FIXTURE);
+                    BufferUtils.writeVarInt(record, i);
+                    record.writeBytes(bytes);
+                    this.writeRecord(records, record);
+                }
+            }
+
+            if (fixtures.size() < this.fixtures.size())
+            {
+                ByteBuf record = Unpooled.buffer();
+
+                record.writeByte(TRUNCATE);
+                BufferUtils.writeVarInt(record, fixtures.size());
+                this.writeRecord(records, record);
+            }
+
+            byte[] modifiers = encode(profile.getModifiers());
+
+            if (!Arrays.equals(modifiers, this.modifiers))
+            {
+                ByteBuf record = Unpooled.buffer();
+
+                record.writeByte(SET_MODIFIERS);
+                record.writeBytes(modifiers);
+                this.writeRecord(records, record);
+            }
+
+            if (records.readableBytes() == 0)
+            {
+                return true;
+            }
+
+            long size = Math.max(this.size, HEADER_SIZE) + records.readableBytes();
+
+            if (size > Math.max(COMPACT_SIZE, this.snapshotLength))
+            {
+                /* The journal would be bigger than the snapshot, time to
+                 * compact it */
+                return false;
+            }
+
+            this.write(records);
+            this.size = size;
+            this.fixtures = fixtures;
+            this.modifiers = modifiers;
+
+            return true;
+        }
+        finally
+        {
+            records.release();
+        }
+    }
+
+    /**
+     * Wrap a record with its length and checksum
+     */
+    private void writeRecord(ByteBuf records, ByteBuf record)
+    {
+        int length = record.readableBytes();
+
+        records.writeInt(length);
+        records.writeInt(checksum(record, record.readerIndex(), length));
+        records.writeBytes(record);
+        record.release();
+    }
+
+    /**
+     * Append records to the journal file and make sure they reached the
+     * disk
+     */
+    private void write(ByteBuf records) throws IOException
+    {
+        boolean header = this.file.length() < HEADER_SIZE;
+        FileOutputStream stream = new FileOutputStream(this.file, !header);
+
+        try
+        {
+            FileChannel channel = stream.getChannel();
+
+            if (header)
+            {
+                ByteBuf buffer = Unpooled.buffer(HEADER_SIZE);
+
+                buffer.writeInt(MAGIC);
+                buffer.writeByte(VERSION);
+                buffer.writeLong(this.snapshotLength);
+                buffer.writeLong(this.snapshotModified);
+
+                channel.write(buffer.nioBuffer());
+                buffer.release();
+            }
+
+            ByteBuffer nio = records.nioBuffer();
+
+            while (nio.hasRemaining())
+            {
+                channel.write(nio);
+            }
+
+            channel.force(false);
+        }
+        finally
+        {
+            stream.close();
+        }
+    }
+}
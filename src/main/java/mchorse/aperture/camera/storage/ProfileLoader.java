@@ -0,0 +1,90 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import mchorse.aperture.camera.CameraProfile;
+
+/**
+ * Profile loader
+ *
+ * Reads profiles and their headers from profile stores on a pool of
+ * background threads, so big profiles don't freeze the game. Returned
+ * futures are completed on a loader thread, so results which touch
+ * game's state must be handed over to the main thread (i.e.
+ * <code>whenCompleteAsync(callback, mc::addScheduledTask)</code>).
+ */
+public class ProfileLoader
+{
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), (runnable) ->
+    {
+        Thread thread = new Thread(runnable, "Aperture profile loader #" + THREADS.incrementAndGet());
+
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    /**
+     * Read a profile in the background
+     */
+    public static CompletableFuture<CameraProfile> read(ProfileStore store, String name)
+    {
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                return store.read(name);
+            }
+            catch (IOException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    /**
+     * Read a profile and process it with given function in the
+     * background (i.e. to precompute something out of a profile which
+     * is used only on the main thread)
+     */
+    public static <T> CompletableFuture<T> read(ProfileStore store, String name, Function<CameraProfile, T> function)
+    {
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                return function.apply(store.read(name));
+            }
+            catch (IOException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    /**
+     * Read profile's header in the background
+     */
+    public static CompletableFuture<ProfileHeader> readHeader(ProfileStore store, String name)
+    {
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                return store.readHeader(name);
+            }
+            catch (IOException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+}
@@ -0,0 +1,57 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.IOException;
+import java.util.List;
+
+import mchorse.aperture.camera.CameraProfile;
+
+/**
+ * Profile store
+ * 
+ * Abstracts away where camera profiles are physically stored. Profiles 
+ * are referenced by their names (without extension).
+ */
+public interface ProfileStore
+{
+    /**
+     * Get names of all profiles in this store
+     */
+    public List<String> list();
+
+    /**
+     * Whether profile with given name exists
+     */
+    public boolean exists(String name);
+
+    /**
+     * Read a profile. Returned profile doesn't have a destination
+     */
+    public CameraProfile read(String name) throws IOException;
+
+    /**
+     * Read only profile's header (duration and fixtures' types, names 
+     * and durations), which is much cheaper than reading whole profile
+     */
+    public ProfileHeader readHeader(String name) throws IOException;
+
+    /**
+     * Write a profile
+     */
+    public void write(String name, CameraProfile profile) throws IOException;
+
+    /**
+     * Rename a profile
+     */
+    public boolean rename(String from, String to);
+
+    /**
+     * Remove a profile
+     */
+    public boolean remove(String name);
+
+    /**
+     * Get last modification time of a profile (or 0 if it doesn't 
+     * exist) 
+     */
+    public long lastModified(String name);
+}
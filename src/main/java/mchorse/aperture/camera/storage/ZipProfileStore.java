@@ -0,0 +1,200 @@
+package mchorse.aperture.camera.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.IOUtils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.CameraUtils;
+
+/**
+ * Zip profile store
+ *
+ * Read-only store of profiles bundled in a zip archive, which is handy
+ * for distributing a bunch of cutscenes at once. The archive is opened
+ * only once, and all of the profile entries (JSON and binary, in any
+ * folder of the archive) are read into the memory (entries aren't
+ * modified afterwards, so the store can be read from any thread).
+ */
+public class ZipProfileStore implements ProfileStore
+{
+    private final File file;
+
+    /**
+     * Contents of profile entries mapped by profile's name
+     */
+    private final Map<String, byte[]> entries = new TreeMap<String, byte[]>();
+    private final Map<String, Long> modified = new TreeMap<String, Long>();
+
+    /**
+     * Pack given profiles of a store into a zip archive (in binary format)
+     */
+    public static void pack(ProfileStore store, List<String> names, File file) throws IOException
+    {
+        ZipOutputStream stream = new ZipOutputStream(new FileOutputStream(file));
+
+        try
+        {
+            for (String name : names)
+            {
+                ByteBuf buffer = Unpooled.buffer();
+
+                BinaryProfileFormat.toByteBuf(store.read(name), buffer);
+                stream.putNextEntry(new ZipEntry(name + BinaryProfileFormat.EXTENSION));
+                buffer.readBytes(stream, buffer.readableBytes());
+                stream.closeEntry();
+                buffer.release();
+            }
+        }
+        finally
+        {
+            stream.close();
+        }
+    }
+
+    /**
+     * Open given archive and read all of its profile entries. Archives
+     * which can't be read fail right away instead of looking empty
+     */
+    public static ZipProfileStore open(File file) throws IOException
+    {
+        ZipProfileStore store = new ZipProfileStore(file);
+        ZipFile zip = new ZipFile(file);
+
+        try
+        {
+            Enumeration<? extends ZipEntry> it = zip.entries();
+
+            while (it.hasMoreElements())
+            {
+                ZipEntry entry = it.nextElement();
+                String name = entry.getName();
+                String extension = name.endsWith(CameraUtils.JSON_EXTENSION) ? CameraUtils.JSON_EXTENSION : (name.endsWith(BinaryProfileFormat.EXTENSION) ? BinaryProfileFormat.EXTENSION : null);
+
+                if (entry.isDirectory() || extension == null)
+                {
+                    continue;
+                }
+
+                name = name.substring(name.lastIndexOf('/') + 1, name.length() - extension.length());
+
+                InputStream stream = zip.getInputStream(entry);
+
+                try
+                {
+                    store.entries.put(name, IOUtils.toByteArray(stream));
+                    store.modified.put(name, entry.getTime());
+                }
+                finally
+                {
+                    stream.close();
+                }
+            }
+        }
+        finally
+        {
+            zip.close();
+        }
+
+        return store;
+    }
+
+    private ZipProfileStore(File file)
+    {
+        this.file = file;
+    }
+
+    @Override
+    public List<String> list()
+    {
+        return new ArrayList<String>(this.entries.keySet());
+    }
+
+    @Override
+    public boolean exists(String name)
+    {
+        return this.entries.containsKey(name);
+    }
+
+    @Override
+    public CameraProfile read(String name) throws IOException
+    {
+        byte[] bytes = this.getBytes(name);
+        ByteBuf buffer = Unpooled.wrappedBuffer(bytes);
+
+        if (BinaryProfileFormat.isBinary(buffer))
+        {
+            return BinaryProfileFormat.fromByteBuf(buffer);
+        }
+
+        return CameraUtils.readJSON(new InputStreamReader(new ByteArrayInputStream(bytes), Charsets.UTF_8));
+    }
+
+    @Override
+    public ProfileHeader readHeader(String name) throws IOException
+    {
+        byte[] bytes = this.getBytes(name);
+        ByteBuf buffer = Unpooled.wrappedBuffer(bytes);
+
+        if (BinaryProfileFormat.isBinary(buffer))
+        {
+            return BinaryProfileFormat.readHeader(buffer);
+        }
+
+        return ProfileHeader.fromJSON(new InputStreamReader(new ByteArrayInputStream(bytes), Charsets.UTF_8));
+    }
+
+    private byte[] getBytes(String name) throws IOException
+    {
+        byte[] bytes = this.entries.get(name);
+
+        if (bytes == null)
+        {
+            throw new IOException("Camera profile '" + name + "' isn't in the archive '" + this.file.getName() + "'!");
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public void write(String name, CameraProfile profile) throws IOException
+    {
+        throw new IOException("Camera profile archive '" + this.file.getName() + "' is read-only!");
+    }
+
+    @Override
+    public boolean rename(String from, String to)
+    {
+        return false;
+    }
+
+    @Override
+    public boolean remove(String name)
+    {
+        return false;
+    }
+
+    @Override
+    public long lastModified(String name)
+    {
+        Long time = this.modified.get(name);
+
+        return time == null ? 0 : time;
+    }
+}
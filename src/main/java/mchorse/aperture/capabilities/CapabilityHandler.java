@@ -5,6 +5,9 @@ import mchorse.aperture.camera.CameraUtils;
 import mchorse.aperture.capabilities.camera.Camera;
 import mchorse.aperture.capabilities.camera.CameraProvider;
 import mchorse.aperture.capabilities.camera.ICamera;
+import mchorse.aperture.network.Dispatcher;
+import mchorse.aperture.network.common.PacketCameraTeleport;
+import mchorse.aperture.network.server.ServerHandlerCameraTeleport;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.util.ResourceLocation;
@@ -43,11 +46,16 @@ public class CapabilityHandler
         EntityPlayer player = event.player;
         ICamera camera = Camera.get(player);
 
+        /* Let the client know that it can use teleport packets (only
+         * players which may use /tp can use them) */
+        if (ServerHandlerCameraTeleport.canTeleport((EntityPlayerMP) player))
+        {
+            Dispatcher.sendTo(new PacketCameraTeleport(), (EntityPlayerMP) player);
+        }
+
         if (camera != null && camera.hasProfile())
         {
             CameraUtils.sendProfileToPlayer(camera.currentProfile(), (EntityPlayerMP) player, false, true);
-
-            camera.setCurrentProfileTimestamp(System.currentTimeMillis());
         }
     }
 }
\ No newline at end of file
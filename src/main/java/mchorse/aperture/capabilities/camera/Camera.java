@@ -21,9 +21,9 @@ public class Camera implements ICamera
     }
 
     @Override
-    public long currentProfileTimestamp()
+    public String currentProfileHash()
     {
-        return this.camera.timestamp;
+        return this.camera.hash;
     }
 
     @Override
@@ -39,32 +39,32 @@ public class Camera implements ICamera
     }
 
     @Override
-    public void setCurrentProfileTimestamp(long timestamp)
+    public void setCurrentProfileHash(String hash)
     {
-        this.camera.timestamp = timestamp;
+        this.camera.hash = hash;
     }
 
     /**
      * Item information class
      *
      * Instance of this class is responsible for storing information about a
-     * file item like camera profile or recording with timestamp of when
-     * it was changed.
+     * file item like camera profile or recording with content hash of 
+     * the version which was sent to the client.
      */
     public static class ItemInfo
     {
         public String filename;
-        public long timestamp;
+        public String hash;
 
         public ItemInfo()
         {
-            this("", -1);
+            this("", "");
         }
 
-        public ItemInfo(String filename, long timestamp)
+        public ItemInfo(String filename, String hash)
         {
             this.filename = filename;
-            this.timestamp = timestamp;
+            this.hash = hash;
         }
     }
 }
\ No newline at end of file
@@ -9,12 +9,10 @@ import net.minecraftforge.common.capabilities.Capability.IStorage;
 /**
  * Recording capability storage
  *
- * This storage saves only current camera profile's name, because the other
- * fields like the timestamp of camera profile or recording information does
- * needed only during runtime.
- *
- * Basically, when client joins, he doesn't have any of that information except
- * latest camera profile he had in previous session, so we just don't store it.
+ * This storage saves current camera profile's name along with content hash
+ * of the version which was sent to the client. Clients keep received
+ * profiles in a cache keyed by their hash, so when client joins, the
+ * profile doesn't have to be sent again if it wasn't changed.
  */
 public class CameraStorage implements IStorage<ICamera>
 {
@@ -24,6 +22,7 @@ public class CameraStorage implements IStorage<ICamera>
         NBTTagCompound tag = new NBTTagCompound();
 
         tag.setString("Profile", instance.currentProfile());
+        tag.setString("Hash", instance.currentProfileHash());
 
         return tag;
     }
@@ -36,6 +35,7 @@ public class CameraStorage implements IStorage<ICamera>
             NBTTagCompound tag = (NBTTagCompound) nbt;
 
             instance.setCurrentProfile(tag.getString("Profile"));
+            instance.setCurrentProfileHash(tag.getString("Hash"));
         }
     }
 }
\ No newline at end of file
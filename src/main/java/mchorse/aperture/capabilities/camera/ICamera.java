@@ -17,9 +17,9 @@ public interface ICamera
     public String currentProfile();
 
     /**
-     * Get timestamp of current camera profile
+     * Get content hash of current camera profile (which the client has)
      */
-    public long currentProfileTimestamp();
+    public String currentProfileHash();
 
     /**
      * Does this capability has a camera profile?
@@ -32,7 +32,7 @@ public interface ICamera
     public void setCurrentProfile(String filename);
 
     /**
-     * Set current's camera profile timestamp
+     * Set current's camera profile content hash
      */
-    public void setCurrentProfileTimestamp(long timestamp);
+    public void setCurrentProfileHash(String hash);
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+package mchorse.aperture.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.utils.ChunkUtils;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ViewFrustum;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraft.client.renderer.chunk.CompiledChunk;
+import net.minecraft.client.renderer.chunk.RenderChunk;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Chunk prefetcher
+ *
+ * During camera playback, samples camera profile a few ticks ahead and
+ * compiles render chunks which the camera is going to look at, before
+ * the camera actually gets there. Otherwise, vanilla compiles only
+ * chunks which are currently visible, so fast camera moves result in
+ * terrain popping in.
+ *
+ * Every tick, the queue of never compiled render chunks which intersect
+ * sampled view cones is rebuilt (nearest samples first), and every frame
+ * chunks are compiled from the queue until the time budget runs out.
+ * It's also used by the runner's render gate to find out whether the
+ * next camera pose is ready to be rendered.
+ *
+ * Profile is sampled on its own copy (made when the prefetcher is
+ * reset, given another profile or the profile was edited), since 
+ * sampling ticks ahead would otherwise overwrite fixtures' caches (i.e.
+ * path's speed cache) of the profile which is being played.
+ */
+@SideOnly(Side.CLIENT)
+public class ChunkPrefetcher
+{
+    /**
+     * How often (in ticks) camera profile is sampled ahead
+     */
+    public static final int STEP = 5;
+
+    /**
+     * Radius of render chunk's bounding sphere
+     */
+    public static final double RADIUS = 8 * Math.sqrt(3);
+
+    private Minecraft mc = Minecraft.getMinecraft();
+    private Position position = new Position(0, 0, 0, 0, 0);
+    private long lastTick = -1;
+
+    /**
+     * Profile which is being prefetched, and its copy which is sampled
+     */
+    private CameraProfile source;
+    private CameraProfile profile;
+
+    /**
+     * Render chunks which will be compiled, and the index of the next one
+     */
+    private List<RenderChunk> queue = new ArrayList<RenderChunk>();
+    private int index;
+
+    /**
+     * Render chunks which have to be compiled before the camera can 
+     * move on (they're compiled before the queued ones)
+     */
+    private List<RenderChunk> urgent = new ArrayList<RenderChunk>();
+
+    public void reset()
+    {
+        this.lastTick = -1;
+        this.source = this.profile = null;
+        this.queue.clear();
+        this.urgent.clear();
+        this.index = 0;
+    }
+
+    /**
+     * Drop the copy of given profile, so the next sample is taken from 
+     * its current state (called when the profile was edited)
+     */
+    public void invalidate(CameraProfile profile)
+    {
+        if (profile == this.source)
+        {
+            this.lastTick = -1;
+            this.source = this.profile = null;
+        }
+    }
+
+    /**
+     * Rebuild the queue of chunks which are going to be visible within
+     * configured amount of ticks (only once per tick)
+     */
+    public void update(CameraProfile profile, long tick)
+    {
+        int ahead = Aperture.proxy.config.camera_prefetch_ticks;
+
+        if (ahead <= 0 || tick == this.lastTick || this.mc.theWorld == null)
+        {
+            return;
+        }
+
+        ViewFrustum frustum = ChunkUtils.getFrustum(this.mc.renderGlobal);
+
+        this.queue.clear();
+        this.index = 0;
+        this.lastTick = tick;
+
+        if (frustum == null)
+        {
+            return;
+        }
+
+        Set<RenderChunk> found = Collections.newSetFromMap(new IdentityHashMap<RenderChunk, Boolean>());
+        long duration = profile.getDuration();
+
+        for (long t = tick; t <= tick + ahead && t < duration; t += STEP)
+        {
+            this.collect(frustum, profile, t, found, this.queue);
+        }
+    }
+
+    /**
+     * Find render chunks which are visible from the camera at given tick, 
+     * but weren't compiled yet. Returns amount of such chunks, and they 
+     * will be compiled first
+     */
+    public int getPending(CameraProfile profile, long tick)
+    {
+        ViewFrustum frustum = ChunkUtils.getFrustum(this.mc.renderGlobal);
+
+        this.urgent.clear();
+
+        if (frustum != null && this.mc.theWorld != null && tick < profile.getDuration())
+        {
+            this.collect(frustum, profile, tick, Collections.newSetFromMap(new IdentityHashMap<RenderChunk, Boolean>()), this.urgent);
+        }
+
+        return this.urgent.size();
+    }
+
+    /**
+     * Collect not compiled render chunks which are visible from the 
+     * camera at given tick 
+     */
+    private void collect(ViewFrustum frustum, CameraProfile profile, long tick, Set<RenderChunk> found, List<RenderChunk> chunks)
+    {
+        double far = this.mc.gameSettings.renderDistanceChunks * 16;
+        double aspect = this.mc.displayHeight == 0 ? 1 : (double) this.mc.displayWidth / this.mc.displayHeight;
+
+        if (this.source != profile)
+        {
+            this.source = profile;
+            this.profile = profile.clone();
+        }
+
+        /* Modifiers aren't applied, since some of them keep state
+         * between frames */
+        this.profile.applyProfile(tick, 0, this.position, false);
+
+        double yaw = Math.toRadians(this.position.angle.yaw);
+        double pitch = Math.toRadians(this.position.angle.pitch);
+        double lx = -Math.sin(yaw) * Math.cos(pitch);
+        double ly = -Math.sin(pitch);
+        double lz = Math.cos(yaw) * Math.cos(pitch);
+
+        /* Half of the diagonal field of view */
+        double fov = Math.atan(Math.tan(Math.toRadians(this.position.angle.fov) / 2) * Math.sqrt(1 + aspect * aspect));
+
+        for (RenderChunk chunk : frustum.renderChunks)
+        {
+            if (chunk.getCompiledChunk() != CompiledChunk.DUMMY || found.contains(chunk))
+            {
+                continue;
+            }
+
+            if (this.isVisible(chunk.getPosition(), lx, ly, lz, fov, far))
+            {
+                found.add(chunk);
+                chunks.add(chunk);
+            }
+        }
+    }
+
+    /**
+     * Check whether render chunk's bounding sphere intersects the view
+     * cone of sampled position
+     */
+    private boolean isVisible(BlockPos pos, double lx, double ly, double lz, double fov, double far)
+    {
+        double dx = pos.getX() + 8 - this.position.point.x;
+        double dy = pos.getY() + 8 - this.position.point.y;
+        double dz = pos.getZ() + 8 - this.position.point.z;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        if (distance <= RADIUS)
+        {
+            return true;
+        }
+
+        if (distance > far + RADIUS)
+        {
+            return false;
+        }
+
+        double cos = (dx * lx + dy * ly + dz * lz) / distance;
+
+        if (Math.acos(Math.max(-1, Math.min(1, cos))) > fov + Math.asin(RADIUS / distance))
+        {
+            return false;
+        }
+
+        /* There is nothing to compile in chunks which weren't received yet */
+        return !this.mc.theWorld.getChunkFromBlockCoords(pos).isEmpty();
+    }
+
+    /**
+     * Compile queued chunks until the time budget for this frame runs
+     * out
+     */
+    public void compile()
+    {
+        if (this.urgent.isEmpty() && this.index >= this.queue.size())
+        {
+            return;
+        }
+
+        ChunkRenderDispatcher dispatcher = ChunkUtils.getDispatcher(this.mc.renderGlobal);
+
+        if (dispatcher == null)
+        {
+            return;
+        }
+
+        long deadline = System.nanoTime() + (long) (Aperture.proxy.config.camera_prefetch_budget * 1000000);
+
+        while (!this.urgent.isEmpty() && System.nanoTime() < deadline)
+        {
+            this.compile(dispatcher, this.urgent.remove(this.urgent.size() - 1));
+        }
+
+        while (this.index < this.queue.size() && System.nanoTime() < deadline)
+        {
+            this.compile(dispatcher, this.queue.get(this.index++));
+        }
+    }
+
+    private void compile(ChunkRenderDispatcher dispatcher, RenderChunk chunk)
+    {
+        /* Could be compiled by vanilla in the meantime */
+        if (chunk.getCompiledChunk() == CompiledChunk.DUMMY)
+        {
+            dispatcher.updateChunkNow(chunk);
+        }
+    }
+}
@@ -186,6 +186,7 @@ public class KeyboardHandler
     {
         ClientProxy.control.reset();
         ClientProxy.server = false;
+        ClientProxy.teleport = false;
 
         if (Loader.isModLoaded("replaymod"))
         {
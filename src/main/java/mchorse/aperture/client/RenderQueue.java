@@ -0,0 +1,393 @@
+package mchorse.aperture.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.CameraRunner;
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.destination.AbstractDestination;
+import mchorse.aperture.camera.destination.ClientDestination;
+import mchorse.aperture.camera.destination.ServerDestination;
+import mchorse.aperture.events.CameraProfileChangedEvent;
+import mchorse.aperture.network.Dispatcher;
+import mchorse.aperture.network.common.PacketCameraTeleport;
+import mchorse.aperture.utils.L10n;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ClientTickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.RenderTickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Render queue
+ *
+ * Plays an ordered list of render jobs (camera profiles with tick
+ * ranges) back to back, so a series of cutscenes can be recorded
+ * without supervision (Minema gets toggled by the runner for every job,
+ * if it's enabled).
+ *
+ * Before every job, the profile gets loaded, and the player is placed
+ * at the first camera pose until render chunks around it are compiled
+ * (warm-up). While the job runs, frame times are measured, and they're
+ * reported once it's done.
+ */
+@SideOnly(Side.CLIENT)
+public class RenderQueue
+{
+    /**
+     * How long (in ticks) the queue waits for a profile to be loaded
+     */
+    public static final int LOAD_TIMEOUT = 600;
+
+    private Minecraft mc = Minecraft.getMinecraft();
+
+    public List<Job> jobs = new ArrayList<Job>();
+
+    private State state = State.IDLE;
+    private int index;
+    private int timer;
+    private long lastFrame;
+
+    private CameraProfile profile;
+    private Position position = new Position(0, 0, 0, 0, 0);
+    private ChunkPrefetcher prefetcher = new ChunkPrefetcher();
+
+    public boolean isRunning()
+    {
+        return this.state != State.IDLE;
+    }
+
+    /**
+     * Get currently processed job
+     */
+    public Job getCurrent()
+    {
+        return this.isRunning() && this.index < this.jobs.size() ? this.jobs.get(this.index) : null;
+    }
+
+    public void add(Job job)
+    {
+        this.jobs.add(job);
+    }
+
+    /**
+     * Start processing jobs from the first one
+     */
+    public void start()
+    {
+        if (this.isRunning() || this.jobs.isEmpty())
+        {
+            return;
+        }
+
+        for (Job job : this.jobs)
+        {
+            job.reset();
+        }
+
+        MinecraftForge.EVENT_BUS.register(this);
+
+        this.index = -1;
+        this.next();
+    }
+
+    /**
+     * Stop processing jobs (current job is marked as failed)
+     */
+    public void stop()
+    {
+        if (!this.isRunning())
+        {
+            return;
+        }
+
+        Job job = this.getCurrent();
+
+        if (job != null)
+        {
+            job.status = Status.FAILED;
+        }
+
+        if (this.state == State.RUNNING)
+        {
+            ClientProxy.runner.stop();
+        }
+
+        this.finish();
+    }
+
+    private void finish()
+    {
+        MinecraftForge.EVENT_BUS.unregister(this);
+
+        this.state = State.IDLE;
+        this.profile = null;
+        this.prefetcher.reset();
+    }
+
+    /**
+     * Move on to the next job, and start loading its profile
+     */
+    private void next()
+    {
+        this.index++;
+
+        if (this.index >= this.jobs.size())
+        {
+            this.finish();
+
+            if (this.mc.thePlayer != null)
+            {
+                L10n.info(this.mc.thePlayer, "queue.done", this.jobs.size());
+            }
+
+            return;
+        }
+
+        Job job = this.jobs.get(this.index);
+
+        this.state = State.LOADING;
+        this.timer = 0;
+        this.profile = null;
+
+        job.status = Status.LOADING;
+
+        /* Already loaded profiles are used as they are (including unsaved
+         * changes) */
+        if (ClientProxy.control.getProfile(job.destination) == null)
+        {
+            job.destination.load();
+        }
+    }
+
+    /**
+     * Prefetcher's copy of the profile is outdated once it is edited
+     */
+    @SubscribeEvent
+    public void onCameraProfileChanged(CameraProfileChangedEvent event)
+    {
+        this.prefetcher.invalidate(event.profile);
+    }
+
+    @SubscribeEvent
+    public void onClientTick(ClientTickEvent event)
+    {
+        if (event.phase != Phase.END)
+        {
+            return;
+        }
+
+        if (this.mc.thePlayer == null)
+        {
+            this.stop();
+
+            return;
+        }
+
+        Job job = this.getCurrent();
+
+        if (job == null)
+        {
+            this.finish();
+
+            return;
+        }
+
+        this.timer++;
+
+        if (this.state == State.LOADING)
+        {
+            this.profile = ClientProxy.control.getProfile(job.destination);
+
+            if (this.profile != null && this.profile.getCount() == 0)
+            {
+                L10n.error(this.mc.thePlayer, "queue.empty", job.getName());
+
+                job.status = Status.FAILED;
+                this.next();
+            }
+            else if (this.profile != null)
+            {
+                this.state = State.WARMUP;
+                this.timer = 0;
+                job.status = Status.WARMUP;
+
+                /* Copy, so the played profile's fixture caches stay intact */
+                this.profile.clone().applyProfile(job.start, 0, this.position, false);
+                this.prefetcher.reset();
+
+                if (!this.mc.isSingleplayer() && ClientProxy.teleport)
+                {
+                    Dispatcher.sendToServer(new PacketCameraTeleport(this.position.point.x, this.position.point.y, this.position.point.z, this.position.angle.yaw, this.position.angle.pitch));
+                }
+            }
+            else if (this.timer >= LOAD_TIMEOUT)
+            {
+                L10n.error(this.mc.thePlayer, "queue.cant_load", job.getName());
+
+                job.status = Status.FAILED;
+                this.next();
+            }
+        }
+        else if (this.state == State.WARMUP)
+        {
+            this.warmUp(job);
+        }
+        else if (this.state == State.RUNNING)
+        {
+            CameraRunner runner = ClientProxy.runner;
+
+            if (runner.isRunning() && job.end >= 0 && runner.ticks >= job.end)
+            {
+                runner.stop();
+            }
+
+            if (!runner.isRunning())
+            {
+                job.status = Status.DONE;
+
+                L10n.info(this.mc.thePlayer, "queue.job_done", job.getName(), job.frames, String.format("%.2f", job.getAverage()), String.format("%.2f", job.min / 1000000.0), String.format("%.2f", job.max / 1000000.0));
+
+                this.next();
+            }
+        }
+    }
+
+    /**
+     * Keep the player at the first camera pose until render chunks
+     * visible from there are compiled (or warm-up times out), and then
+     * start the job
+     */
+    private void warmUp(Job job)
+    {
+        ClientProxy.runner.setCameraPosition(this.mc.thePlayer, this.position.point.x, this.position.point.y, this.position.point.z, this.position.angle);
+        this.mc.thePlayer.motionX = this.mc.thePlayer.motionY = this.mc.thePlayer.motionZ = 0;
+
+        int pending = this.prefetcher.getPending(this.profile, job.start);
+        boolean ready = this.timer >= Aperture.proxy.config.camera_queue_warmup && pending == 0;
+
+        if (ready || this.timer * 50 >= Aperture.proxy.config.camera_render_gate_timeout)
+        {
+            this.state = State.RUNNING;
+            this.lastFrame = 0;
+            job.status = Status.RUNNING;
+
+            ClientProxy.runner.start(this.profile, job.start);
+        }
+    }
+
+    @SubscribeEvent
+    public void onRenderTick(RenderTickEvent event)
+    {
+        if (event.phase != Phase.START)
+        {
+            return;
+        }
+
+        if (this.state == State.WARMUP)
+        {
+            this.prefetcher.compile();
+        }
+        else if (this.state == State.RUNNING && ClientProxy.runner.isRunning())
+        {
+            long now = System.nanoTime();
+
+            if (this.lastFrame != 0)
+            {
+                this.getCurrent().addFrame(now - this.lastFrame);
+            }
+
+            this.lastFrame = now;
+        }
+    }
+
+    /**
+     * Create a destination out of command's argument. Destinations can
+     * be prefixed with "client:" or "server:", otherwise it depends on
+     * whether it's a multiplayer game
+     */
+    public static AbstractDestination parseDestination(String string)
+    {
+        if (string.startsWith("client:"))
+        {
+            return new ClientDestination(string.substring(7));
+        }
+        else if (string.startsWith("server:"))
+        {
+            return new ServerDestination(string.substring(7));
+        }
+
+        return AbstractDestination.create(string);
+    }
+
+    private static enum State
+    {
+        IDLE, LOADING, WARMUP, RUNNING;
+    }
+
+    public static enum Status
+    {
+        QUEUED, LOADING, WARMUP, RUNNING, DONE, FAILED;
+    }
+
+    /**
+     * Render job
+     *
+     * Camera profile with a range of ticks which should be played (end
+     * tick is -1 if the profile should be played until the end), and
+     * frame time statistics of the last run.
+     */
+    public static class Job
+    {
+        public AbstractDestination destination;
+        public long start;
+        public long end;
+
+        public Status status = Status.QUEUED;
+        public int frames;
+        public long total;
+        public long min;
+        public long max;
+
+        public Job(AbstractDestination destination, long start, long end)
+        {
+            this.destination = destination;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getName()
+        {
+            return this.destination.toResourceLocation().toString();
+        }
+
+        public void reset()
+        {
+            this.status = Status.QUEUED;
+            this.frames = 0;
+            this.total = this.min = this.max = 0;
+        }
+
+        public void addFrame(long nanos)
+        {
+            this.min = this.frames == 0 ? nanos : Math.min(this.min, nanos);
+            this.max = Math.max(this.max, nanos);
+            this.total += nanos;
+            this.frames++;
+        }
+
+        /**
+         * Average frame time in milliseconds
+         */
+        public double getAverage()
+        {
+            return this.frames == 0 ? 0 : this.total / 1000000.0 / this.frames;
+        }
+    }
+}
@@ -3,10 +3,14 @@ package mchorse.aperture.client;
 import java.util.List;
 
 import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.CameraProfiler;
 import mchorse.aperture.client.gui.GuiCameraEditor;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.I18n;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.RenderTickEvent;
 
 /**
  * Rendering handler
@@ -43,6 +47,16 @@ public class RenderingHandler
             event.setCanceled(true);
         }
 
+        if (ClientProxy.runner.isRunning() && ClientProxy.runner.isWaiting())
+        {
+            event.getRight().add(I18n.format("aperture.misc.render_gate", ClientProxy.runner.pendingChunks));
+        }
+
+        if (CameraProfiler.enabled)
+        {
+            event.getLeft().addAll(CameraProfiler.report());
+        }
+
         if (!Minecraft.getMinecraft().gameSettings.showDebugInfo)
         {
             return;
@@ -55,4 +69,16 @@ public class RenderingHandler
             list.add("Camera ticks " + ClientProxy.runner.ticks);
         }
     }
+
+    /**
+     * Begin a new frame of camera profiler
+     */
+    @SubscribeEvent
+    public void onRenderTick(RenderTickEvent event)
+    {
+        if (CameraProfiler.enabled && event.phase == Phase.START)
+        {
+            CameraProfiler.frame();
+        }
+    }
 }
\ No newline at end of file
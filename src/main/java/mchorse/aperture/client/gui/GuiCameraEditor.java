@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import mchorse.aperture.camera.PlayerCamera;
 import mchorse.aperture.camera.fixtures.IdleFixture;
 import mchorse.aperture.camera.fixtures.PathFixture;
 import mchorse.aperture.client.gui.panels.GuiPathFixturePanel;
@@ -18,16 +19,20 @@ import com.google.gson.JsonParser;
 import mchorse.aperture.Aperture;
 import mchorse.aperture.ClientProxy;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.CameraRecorder;
 import mchorse.aperture.camera.CameraRunner;
 import mchorse.aperture.camera.data.Angle;
 import mchorse.aperture.camera.data.Point;
 import mchorse.aperture.camera.data.Position;
 import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
 import mchorse.aperture.client.gui.GuiPlaybackScrub.IScrubListener;
 import mchorse.aperture.client.gui.config.GuiCameraConfig;
 import mchorse.aperture.client.gui.config.GuiConfigCameraOptions;
 import mchorse.aperture.client.gui.panels.GuiAbstractFixturePanel;
 import mchorse.aperture.events.CameraEditorEvent;
+import mchorse.aperture.network.Dispatcher;
+import mchorse.aperture.network.common.PacketUnsubscribeCameraProfiles;
 import mchorse.mclib.client.gui.framework.GuiBase;
 import mchorse.mclib.client.gui.framework.GuiTooltip.TooltipDirection;
 import mchorse.mclib.client.gui.framework.elements.GuiButtonElement;
@@ -148,6 +153,12 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
      */
     public Position position = new Position(0, 0, 0, 0, 0);
 
+    /**
+     * Camera motion recorder
+     */
+    public CameraRecorder recorder = new CameraRecorder();
+    private Position recordPosition = new Position(0, 0, 0, 0, 0);
+
     /**
      * Map of created fixture panels
      */
@@ -198,6 +209,7 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
     public GuiButtonElement<GuiTextureButton> openConfig;
     public GuiButtonElement<GuiTextureButton> openModifiers;
     public GuiButtonElement<GuiTextureButton> openProfiles;
+    public GuiButtonElement<GuiTextureButton> openQueue;
 
     public GuiButtonElement<GuiTextureButton> add;
     public GuiButtonElement<GuiTextureButton> dupe;
@@ -212,6 +224,8 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
     public GuiFixturesPopup popup;
     public GuiPlaybackScrub scrub;
     public GuiProfilesManager profiles;
+    public GuiRenderQueue queue;
+    public GuiCameraProfiler profiler;
     public GuiConfigCameraOptions cameraOptions;
     public GuiModifiersManager modifiers;
     public GuiDelegateElement<GuiAbstractFixturePanel> panel;
@@ -237,6 +251,8 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
         this.cameraOptions = new GuiConfigCameraOptions(mc, this);
         this.modifiers = new GuiModifiersManager(mc, this);
         this.config = new GuiCameraConfig(mc, this);
+        this.queue = new GuiRenderQueue(mc, this);
+        this.profiler = new GuiCameraProfiler(mc);
 
         /* Setup elements */
         this.toNextFixture = GuiButtonElement.icon(mc, EDITOR_TEXTURE, 64, 0, 64, 16, (b) -> this.jumpToNextFixture()).tooltip(I18n.format("aperture.gui.tooltips.jump_next_fixture"), TooltipDirection.BOTTOM);
@@ -263,6 +279,7 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
         this.openProfiles = GuiButtonElement.icon(mc, EDITOR_TEXTURE, 96, 0, 96, 16, (b) -> this.hidePopups(this.profiles)).tooltip(I18n.format("aperture.gui.tooltips.profiles"), TooltipDirection.BOTTOM);
         this.openConfig = GuiButtonElement.icon(mc, EDITOR_TEXTURE, 208, 0, 208, 16, (b) -> this.hidePopups(this.config)).tooltip(I18n.format("aperture.gui.tooltips.config"), TooltipDirection.BOTTOM);
         this.openModifiers = GuiButtonElement.icon(mc, EDITOR_TEXTURE, 80, 32, 80, 48, (b) -> this.hidePopups(this.modifiers)).tooltip(I18n.format("aperture.gui.tooltips.modifiers"), TooltipDirection.BOTTOM);
+        this.openQueue = GuiButtonElement.icon(mc, EDITOR_TEXTURE, 96, 32, 96, 48, (b) -> this.hidePopups(this.queue)).tooltip(I18n.format("aperture.gui.tooltips.queue"), TooltipDirection.BOTTOM);
         this.save = GuiButtonElement.icon(mc, EDITOR_TEXTURE, 0, 0, 0, 0, (b) -> this.saveProfile()).tooltip(I18n.format("aperture.gui.tooltips.save"), TooltipDirection.BOTTOM);
 
         this.add = GuiButtonElement.icon(mc, EDITOR_TEXTURE, 224, 0, 224, 16, (b) -> this.hideReplacingPopups(this.popup, false)).tooltip(I18n.format("aperture.gui.tooltips.add"), TooltipDirection.BOTTOM);
@@ -288,6 +305,7 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
         this.openConfig.resizer().relative(this.openProfiles.resizer()).set(-20, 0, 16, 16);
         this.openModifiers.resizer().relative(this.openConfig.resizer()).set(-20, 0, 16, 16);
         this.save.resizer().relative(this.openModifiers.resizer()).set(-20, 0, 16, 16);
+        this.openQueue.resizer().relative(this.save.resizer()).set(-20, 0, 16, 16);
 
         this.add.resizer().relative(this.save.resizer()).set(-100, 0, 16, 16);
         this.dupe.resizer().relative(this.add.resizer()).set(20, 0, 16, 16);
@@ -309,12 +327,14 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
         this.config.resizer().relative(this.panel.resizer()).set(0, -20, 160, 0).x(1, -180 + 10).h(1, 20);
         this.profiles.resizer().relative(this.panel.resizer()).set(0, -20, 160, 0).x(1, -160 + 10).h(1, 20);
         this.modifiers.resizer().relative(this.panel.resizer()).set(0, -20, 220, 0).x(1, -260 + 10).h(1, 20);
+        this.queue.resizer().relative(this.panel.resizer()).set(0, -20, 200, 0).x(1, -280 + 10).h(1, 20);
+        this.profiler.resizer().relative(this.panel.resizer()).set(0, 0, 0, 0).w(1, 0).h(1, 0);
 
         /* Adding everything */
         this.hidden.add(this.toNextFixture, this.nextFrame, this.plause, this.prevFrame, this.toPrevFixture);
         this.hidden.add(this.creation, this.cut, this.moveForward, this.moveDuration, this.copyPosition, this.moveBackward);
-        this.hidden.add(this.add, this.dupe, this.replace, this.remove, this.save, this.openConfig, this.openModifiers);
-        this.hidden.add(this.scrub, this.panel, this.popup, this.config, this.modifiers);
+        this.hidden.add(this.add, this.dupe, this.replace, this.remove, this.save, this.openConfig, this.openModifiers, this.openQueue);
+        this.hidden.add(this.scrub, this.panel, this.profiler, this.popup, this.config, this.modifiers, this.queue);
 
         this.cameraProfileWasChanged(this.profile);
         this.updatePlauseButton();
@@ -359,6 +379,7 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
     public void pickCameraFixture(AbstractFixture fixture, long duration)
     {
         this.setFlight(false);
+        ClientProxy.renderer.preview = null;
 
         if (fixture == null)
         {
@@ -539,10 +560,17 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
     }
 
     /**
-     * Camera profile was selected from the profile manager 
+     * Camera profile was selected from the profile manager. Quantized 
+     * profiles (received for playback) are lossy, so full version is 
+     * requested, and it replaces the quantized one once it's received 
      */
     public void selectProfile(CameraProfile profile)
     {
+        if (profile != null && profile.quantized && profile.getDestination() != null)
+        {
+            profile.getDestination().load();
+        }
+
         boolean same = profile == this.profile;
         ClientProxy.control.currentProfile = profile;
 
@@ -626,6 +654,50 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
         this.aspectRatio = aspect;
     }
 
+    /**
+     * Start or stop recording camera's motion. Once recording is 
+     * stopped, recorded keyframe fixture gets added to the profile
+     */
+    public void setRecording(boolean recording)
+    {
+        if (recording && !this.recorder.isRecording() && this.profile != null)
+        {
+            this.recorder.start(Aperture.proxy.config.camera_recorder_tolerance, Aperture.proxy.config.camera_recorder_angle_tolerance);
+        }
+        else if (!recording && this.recorder.isRecording())
+        {
+            KeyframeFixture fixture = this.recorder.stop();
+
+            if (fixture != null && this.profile != null)
+            {
+                this.createFixture(fixture);
+            }
+        }
+
+        this.cameraOptions.update();
+    }
+
+    /**
+     * Capture current camera's state into the recorder 
+     */
+    private void recordCamera(float partialTicks)
+    {
+        if (this.flight.enabled)
+        {
+            this.recorder.record(this.position);
+
+            return;
+        }
+
+        EntityPlayer camera = this.getCamera();
+        Position pos = this.recordPosition;
+
+        pos.point.set(camera.prevPosX + (camera.posX - camera.prevPosX) * partialTicks, camera.prevPosY + (camera.posY - camera.prevPosY) * partialTicks, camera.prevPosZ + (camera.posZ - camera.prevPosZ) * partialTicks);
+        pos.angle.set(camera.prevRotationYaw + (camera.rotationYaw - camera.prevRotationYaw) * partialTicks, camera.prevRotationPitch + (camera.rotationPitch - camera.prevRotationPitch) * partialTicks, ClientProxy.control.roll, this.mc.gameSettings.fovSetting);
+
+        this.recorder.record(pos);
+    }
+
     public void addPathPoint()
     {
         if (this.panel.delegate != null && this.panel.delegate.fixture instanceof PathFixture)
@@ -668,7 +740,7 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
     public void updateCameraEditor(EntityPlayer player)
     {
         this.updateOverlay();
-        this.position.set(player);
+        this.position.set(new PlayerCamera(player));
         this.selectProfile(ClientProxy.control.currentProfile);
         this.profiles.init();
 
@@ -749,10 +821,10 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
 
         EntityPlayer player = Minecraft.getMinecraft().thePlayer;
 
-        this.position.set(player);
+        this.position.set(new PlayerCamera(player));
         this.profile.applyProfile(tick, ticks, this.lastPartialTick, this.position);
 
-        this.position.apply(this.getCamera());
+        this.position.apply(new PlayerCamera(this.getCamera()));
         ClientProxy.control.setRollAndFOV(this.position.angle.roll, this.position.angle.fov);
     }
 
@@ -801,7 +873,7 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
      */
     public Position getPosition()
     {
-        Position position = new Position(this.getCamera());
+        Position position = new Position(new PlayerCamera(this.getCamera()));
 
         if (this.panel.delegate != null && !this.panel.delegate.fixture.getModifiers().isEmpty())
         {
@@ -865,6 +937,7 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
         this.profiles.setVisible(false);
         this.config.setVisible(false);
         this.modifiers.setVisible(false);
+        this.queue.setVisible(false);
         this.popup.setVisible(false);
 
         exception.setVisible(!was);
@@ -983,6 +1056,12 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
             this.flight.vertical = !this.flight.vertical;
         }
 
+        if (keyCode == Keyboard.KEY_K)
+        {
+            /* Toggle recording */
+            this.setRecording(!this.recorder.isRecording());
+        }
+
         if (this.flight.enabled)
         {
             return;
@@ -1067,6 +1146,15 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
         }
     }
 
+    @Override
+    public void updateScreen()
+    {
+        super.updateScreen();
+
+        /* Feed recorded frames into keyframes once per tick */
+        this.recorder.drain();
+    }
+
     @Override
     protected void closeScreen()
     {
@@ -1075,6 +1163,8 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
         ClientProxy.control.roll = this.lastRoll;
         GuiIngameForge.renderHotbar = true;
         GuiIngameForge.renderCrosshairs = true;
+        ClientProxy.renderer.preview = null;
+        this.setRecording(false);
 
         if (!this.runner.isRunning())
         {
@@ -1086,6 +1176,12 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
             this.mc.thePlayer.sendChatMessage("/gamemode " + this.lastGameMode.getID());
         }
 
+        if (!ClientProxy.server)
+        {
+            /* Stop receiving updates of server's profile list */
+            Dispatcher.sendToServer(new PacketUnsubscribeCameraProfiles());
+        }
+
         super.closeScreen();
     }
 
@@ -1144,7 +1240,7 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
         if (this.flight.enabled)
         {
             this.flight.animate(this.position);
-            this.position.apply(this.getCamera());
+            this.position.apply(new PlayerCamera(this.getCamera()));
             ClientProxy.control.roll = this.position.angle.roll;
             this.mc.gameSettings.fovSetting = this.position.angle.fov;
 
@@ -1154,6 +1250,11 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
             }
         }
 
+        if (this.recorder.isRecording())
+        {
+            this.recordCamera(partialTicks);
+        }
+
         if (this.profile != null)
         {
             if (Aperture.proxy.config.camera_editor_overlay && this.overlayLocation != null)
@@ -1220,6 +1321,8 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
                 this.fontRendererObj.drawStringWithShadow(I18n.format("aperture.gui.editor.f1"), 5, this.height - 12, 0xffffff);
             }
 
+            this.drawRecording();
+
             return;
         }
 
@@ -1244,6 +1347,11 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
                 Gui.drawRect(width - 60, 0, width - 40, 20, 0xaa000000);
             }
 
+            if (this.queue.isVisible())
+            {
+                Gui.drawRect(width - 100, 0, width - 80, 20, 0xaa000000);
+            }
+
             if (this.popup.isVisible())
             {
                 if (this.replacing)
@@ -1334,6 +1442,27 @@ public class GuiCameraEditor extends GuiBase implements IScrubListener
                 i--;
             }
         }
+
+        this.drawRecording();
+    }
+
+    /**
+     * Draw recording indicator
+     */
+    private void drawRecording()
+    {
+        if (!this.recorder.isRecording())
+        {
+            return;
+        }
+
+        String label = I18n.format("aperture.gui.editor.recording", String.format("%.1f", this.recorder.getTime() / 20), this.recorder.getFrames());
+        int width = this.fontRendererObj.getStringWidth(label);
+        int x = this.width - width - 10;
+        int y = this.height - 55;
+
+        Gui.drawRect(x - 2, y - 3, x + width + 2, y + 10, 0xbbaa0000);
+        this.fontRendererObj.drawStringWithShadow(label, x, y, 0xffffff);
     }
 
     /**
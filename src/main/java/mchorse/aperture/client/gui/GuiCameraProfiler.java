@@ -0,0 +1,57 @@
+package mchorse.aperture.client.gui;
+
+import java.util.List;
+
+import mchorse.aperture.camera.CameraProfiler;
+import mchorse.mclib.client.gui.framework.GuiTooltip;
+import mchorse.mclib.client.gui.framework.elements.GuiElement;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Gui;
+import net.minecraft.client.resources.I18n;
+
+/**
+ * Camera profiler GUI
+ *
+ * Displays camera profiler's report (time spent per frame on applying
+ * camera profile, its fixtures and modifiers, rendering the preview,
+ * and frame time percentiles) in the corner of camera editor, since the
+ * HUD isn't rendered in camera editor.
+ */
+public class GuiCameraProfiler extends GuiElement
+{
+    private String title = I18n.format("aperture.gui.profiler.title");
+
+    public GuiCameraProfiler(Minecraft mc)
+    {
+        super(mc);
+    }
+
+    @Override
+    public void draw(GuiTooltip tooltip, int mouseX, int mouseY, float partialTicks)
+    {
+        if (!CameraProfiler.enabled)
+        {
+            return;
+        }
+
+        List<String> lines = CameraProfiler.report();
+        int w = this.font.getStringWidth(this.title);
+
+        for (String line : lines)
+        {
+            w = Math.max(w, this.font.getStringWidth(line));
+        }
+
+        int x = this.area.getX(1) - w - 8;
+        int y = this.area.y;
+
+        Gui.drawRect(x, y, x + w + 8, y + 16 + lines.size() * 10, 0xaa000000);
+        this.font.drawStringWithShadow(this.title, x + 4, y + 4, 0xffffff);
+
+        for (String line : lines)
+        {
+            y += 10;
+            this.font.drawStringWithShadow(line, x + 4, y + 6, 0xcccccc);
+        }
+    }
+}
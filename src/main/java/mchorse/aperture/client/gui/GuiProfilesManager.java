@@ -8,10 +8,18 @@ import java.util.function.Consumer;
 import mchorse.aperture.ClientProxy;
 import mchorse.aperture.camera.CameraAPI;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.FixtureRegistry;
+import mchorse.aperture.camera.FixtureRegistry.FixtureInfo;
 import mchorse.aperture.camera.destination.AbstractDestination;
 import mchorse.aperture.camera.destination.ClientDestination;
 import mchorse.aperture.camera.destination.ServerDestination;
+import mchorse.aperture.camera.storage.ProfileHeader;
+import mchorse.aperture.camera.storage.ProfileHeader.FixtureHeader;
+import mchorse.aperture.camera.storage.ProfileInfo;
+import mchorse.aperture.camera.storage.ProfileLoader;
+import mchorse.aperture.camera.storage.ProfileStore;
 import mchorse.aperture.network.Dispatcher;
+import mchorse.aperture.network.common.PacketCameraProfileUpdate;
 import mchorse.aperture.network.common.PacketRequestCameraProfiles;
 import mchorse.mclib.client.gui.framework.GuiTooltip;
 import mchorse.mclib.client.gui.framework.GuiTooltip.TooltipDirection;
@@ -250,6 +258,58 @@ public class GuiProfilesManager extends GuiElement
         }
     }
 
+    /**
+     * Apply an incremental update of server's profile list (callback 
+     * from the network handlers)
+     */
+    public void updateServerProfile(PacketCameraProfileUpdate message)
+    {
+        CameraProfileEntry entry = this.getServerEntry(message.name);
+
+        if (message.action == PacketCameraProfileUpdate.UPDATE)
+        {
+            if (entry == null)
+            {
+                entry = this.createEntry(new ServerDestination(message.name));
+                this.profiles.add(entry);
+            }
+
+            entry.info = message.info;
+        }
+        else if (message.action == PacketCameraProfileUpdate.REMOVE && entry != null)
+        {
+            /* Loaded profiles are kept, so they could be saved back */
+            if (entry.profile == null)
+            {
+                this.profiles.elements.remove(entry);
+            }
+
+            entry.info = null;
+        }
+        else if (message.action == PacketCameraProfileUpdate.RENAME && entry != null && entry.profile == null)
+        {
+            entry.destination.setFilename(message.to);
+        }
+
+        this.profiles.filter("", true);
+    }
+
+    /**
+     * Find an entry of server's profile by its filename
+     */
+    private CameraProfileEntry getServerEntry(String filename)
+    {
+        for (CameraProfileEntry entry : this.profiles.elements)
+        {
+            if (entry.destination instanceof ServerDestination && entry.destination.getFilename().equals(filename))
+            {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
     private void pickEntry(CameraProfileEntry entry)
     {
         if (entry.profile == null)
@@ -275,7 +335,10 @@ public class GuiProfilesManager extends GuiElement
         {
             for (String filename : CameraAPI.getClientProfiles())
             {
-                this.profiles.add(this.createEntry(new ClientDestination(filename)));
+                CameraProfileEntry entry = this.createEntry(new ClientDestination(filename));
+
+                this.profiles.add(entry);
+                this.loadHeader(entry);
             }
 
             this.profiles.filter("", true);
@@ -287,6 +350,20 @@ public class GuiProfilesManager extends GuiElement
         }
     }
 
+    /**
+     * Read header of client's camera profile in the background, it will 
+     * be shown in the list once it's read 
+     */
+    public void loadHeader(CameraProfileEntry entry)
+    {
+        ProfileStore store = entry.destination.getStore();
+
+        if (store != null)
+        {
+            ProfileLoader.readHeader(store, entry.destination.getFilename()).thenAcceptAsync((header) -> entry.info = header, this.mc::addScheduledTask);
+        }
+    }
+
     public CameraProfileEntry createEntry(AbstractDestination dest)
     {
         CameraProfile profile = ClientProxy.control.getProfile(dest);
@@ -315,6 +392,12 @@ public class GuiProfilesManager extends GuiElement
         public AbstractDestination destination;
         public CameraProfile profile;
 
+        /**
+         * Metadata of server's camera profile (if it was provided), or 
+         * header of client's camera profile (once it's read) 
+         */
+        public ProfileInfo info;
+
         public CameraProfileEntry(AbstractDestination destination, CameraProfile profile)
         {
             this.destination = destination;
@@ -456,6 +539,41 @@ public class GuiProfilesManager extends GuiElement
             GlStateManager.disableAlpha();
 
             this.font.drawStringWithShadow(element.destination.getFilename(), x + 4 + 16, y + 6, hasProfile ? (hover ? 16777120 : 0xffffff) : 0x888888);
+
+            if (element.info != null)
+            {
+                String duration = String.format("%.1fs", element.info.duration / 20F);
+
+                this.font.drawStringWithShadow(duration, x + this.scroll.w - 4 - this.font.getStringWidth(duration), y + 6, 0x888888);
+            }
+
+            if (element.info instanceof ProfileHeader && element.info.duration > 0)
+            {
+                this.drawFixtures((ProfileHeader) element.info, x + 20, y + this.scroll.scrollItemSize - 3, this.scroll.w - 24);
+            }
+        }
+
+        /**
+         * Draw a strip of fixtures' colors proportional to their 
+         * durations (from profile's header)
+         */
+        private void drawFixtures(ProfileHeader header, int x, int y, int w)
+        {
+            long tick = 0;
+
+            for (FixtureHeader fixture : header.entries)
+            {
+                FixtureInfo info = FixtureRegistry.CLIENT.get(FixtureRegistry.NAME_TO_CLASS.get(fixture.type));
+                int left = x + (int) (tick * w / header.duration);
+                int right = x + (int) ((tick + fixture.duration) * w / header.duration);
+
+                tick += fixture.duration;
+
+                if (info != null && right > left)
+                {
+                    Gui.drawRect(left, y, right, y + 1, 0xaa000000 + info.color.getHex());
+                }
+            }
         }
     }
 }
\ No newline at end of file
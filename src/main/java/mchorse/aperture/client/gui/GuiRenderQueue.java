@@ -0,0 +1,157 @@
+package mchorse.aperture.client.gui;
+
+import java.util.function.Consumer;
+
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.client.RenderQueue.Job;
+import mchorse.aperture.client.RenderQueue.Status;
+import mchorse.mclib.client.gui.framework.GuiTooltip;
+import mchorse.mclib.client.gui.framework.GuiTooltip.TooltipDirection;
+import mchorse.mclib.client.gui.framework.elements.GuiButtonElement;
+import mchorse.mclib.client.gui.framework.elements.GuiElement;
+import mchorse.mclib.client.gui.framework.elements.list.GuiListElement;
+import mchorse.mclib.client.gui.widgets.buttons.GuiTextureButton;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Gui;
+import net.minecraft.client.resources.I18n;
+
+/**
+ * Render queue GUI
+ *
+ * This GUI is responsible for managing the jobs of the render queue,
+ * i.e. adding current camera profile (from the first tick or from the
+ * cursor) to the queue, removing jobs, starting the queue and displaying
+ * frame time statistics of finished jobs.
+ */
+public class GuiRenderQueue extends GuiElement
+{
+    public GuiCameraEditor editor;
+
+    public GuiRenderJobsList jobs;
+    public GuiButtonElement<GuiTextureButton> add;
+    public GuiButtonElement<GuiTextureButton> remove;
+    public GuiButtonElement<GuiTextureButton> start;
+
+    private String title = I18n.format("aperture.gui.queue.title");
+
+    public GuiRenderQueue(Minecraft mc, GuiCameraEditor editor)
+    {
+        super(mc);
+
+        this.editor = editor;
+        this.createChildren();
+
+        this.jobs = new GuiRenderJobsList(mc, (job) -> {});
+        this.add = GuiButtonElement.icon(mc, GuiCameraEditor.EDITOR_TEXTURE, 224, 0, 224, 16, (b) -> this.add()).tooltip(I18n.format("aperture.gui.queue.add_tooltip"), TooltipDirection.BOTTOM);
+        this.remove = GuiButtonElement.icon(mc, GuiCameraEditor.EDITOR_TEXTURE, 240, 0, 240, 16, (b) -> this.remove()).tooltip(I18n.format("aperture.gui.queue.remove_tooltip"), TooltipDirection.BOTTOM);
+        this.start = GuiButtonElement.icon(mc, GuiCameraEditor.EDITOR_TEXTURE, 0, 0, 0, 16, (b) -> this.start()).tooltip(I18n.format("aperture.gui.queue.start_tooltip"), TooltipDirection.BOTTOM);
+
+        this.jobs.resizer().parent(this.area).set(5, 25, 0, 0).w(1, -10).h(1, -35);
+        this.remove.resizer().parent(this.area).set(0, 2, 16, 16).x(1, -18);
+        this.add.resizer().relative(this.remove.resizer()).set(-20, 0, 16, 16);
+        this.start.resizer().relative(this.add.resizer()).set(-20, 0, 16, 16);
+
+        this.jobs.scroll.scrollItemSize = 24;
+        this.children.add(this.jobs, this.add, this.remove, this.start);
+    }
+
+    /**
+     * Add current camera profile to the queue. If the cursor isn't at
+     * the beginning, the job starts from the cursor
+     */
+    private void add()
+    {
+        CameraProfile profile = this.editor.getProfile();
+
+        if (profile == null || ClientProxy.renderQueue.isRunning())
+        {
+            return;
+        }
+
+        Job job = new Job(profile.getDestination(), this.editor.scrub.value, -1);
+
+        ClientProxy.renderQueue.add(job);
+        this.jobs.update();
+        this.jobs.setCurrent(job);
+    }
+
+    private void remove()
+    {
+        Job job = this.jobs.getCurrent();
+
+        if (job != null && !ClientProxy.renderQueue.isRunning())
+        {
+            ClientProxy.renderQueue.jobs.remove(job);
+            this.jobs.current = -1;
+            this.jobs.update();
+        }
+    }
+
+    /**
+     * Start the queue, closing the camera editor, so it wouldn't get in
+     * the way
+     */
+    private void start()
+    {
+        if (!ClientProxy.renderQueue.jobs.isEmpty())
+        {
+            this.mc.displayGuiScreen(null);
+            ClientProxy.renderQueue.start();
+        }
+    }
+
+    @Override
+    public void draw(GuiTooltip tooltip, int mouseX, int mouseY, float partialTicks)
+    {
+        Gui.drawRect(this.area.x, this.area.y, this.area.getX(1), this.area.getY(1), 0xaa000000);
+        Gui.drawRect(this.area.x, this.area.y, this.area.getX(1), this.area.y + 20, 0x88000000);
+
+        this.font.drawStringWithShadow(this.title, this.area.x + 6, this.area.y + 7, 0xffffff);
+
+        super.draw(tooltip, mouseX, mouseY, partialTicks);
+    }
+
+    /**
+     * List of render queue's jobs
+     */
+    public static class GuiRenderJobsList extends GuiListElement<Job>
+    {
+        public GuiRenderJobsList(Minecraft mc, Consumer<Job> callback)
+        {
+            super(mc, callback);
+
+            this.list = ClientProxy.renderQueue.jobs;
+        }
+
+        /**
+         * Jobs are played in the order they were added
+         */
+        @Override
+        public void sort()
+        {}
+
+        @Override
+        public void drawElement(Job element, int i, int x, int y, boolean hover)
+        {
+            if (this.current == i)
+            {
+                Gui.drawRect(x, y, x + this.scroll.w, y + this.scroll.scrollItemSize, 0x880088ff);
+            }
+
+            String range = element.start + " - " + (element.end < 0 ? "..." : element.end);
+
+            this.font.drawStringWithShadow(element.getName(), x + 4, y + 3, hover ? 16777120 : 0xffffff);
+            this.font.drawStringWithShadow(range, x + this.scroll.w - 4 - this.font.getStringWidth(range), y + 3, 0x888888);
+
+            String status = I18n.format("aperture.gui.queue.status." + element.status.name().toLowerCase());
+
+            if (element.status == Status.DONE)
+            {
+                status = I18n.format("aperture.gui.queue.stats", element.frames, String.format("%.2f", element.getAverage()), String.format("%.2f", element.max / 1000000.0));
+            }
+
+            this.font.drawStringWithShadow(status, x + 4, y + 13, element.status == Status.FAILED ? 0xff4444 : 0x888888);
+        }
+    }
+}
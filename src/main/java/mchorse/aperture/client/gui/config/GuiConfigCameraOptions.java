@@ -35,9 +35,11 @@ public class GuiConfigCameraOptions extends GuiAbstractConfigOptions
     public GuiButtonElement<GuiCheckBox> minecrafttpTeleport;
     public GuiButtonElement<GuiCheckBox> tpTeleport;
     public GuiButtonElement<GuiCheckBox> ruleOfThirds;
+    public GuiButtonElement<GuiCheckBox> profiler;
     public GuiButtonElement<GuiCheckBox> letterBox;
     public GuiTextElement aspectRatio;
     public GuiButtonElement<GuiCheckBox> repeat;
+    public GuiButtonElement<GuiCheckBox> record;
     public GuiButtonElement<GuiCheckBox> overlay;
     public GuiButtonElement<GuiButton> pickOverlay;
     public GuiTexturePicker overlayPicker;
@@ -127,6 +129,14 @@ public class GuiConfigCameraOptions extends GuiAbstractConfigOptions
             this.editor.ruleOfThirds = b.button.isChecked();
         });
 
+        this.profiler = GuiButtonElement.checkbox(mc, I18n.format("aperture.gui.config.profiler"), Aperture.proxy.config.camera_profiler, (b) ->
+        {
+            Property prop = Aperture.proxy.forge.getCategory("camera").get("camera_profiler");
+
+            prop.set(b.button.isChecked());
+            this.saveConfig();
+        });
+
         this.letterBox = GuiButtonElement.checkbox(mc, I18n.format("aperture.gui.config.letter_box"), Aperture.proxy.config.tp_teleport, (b) ->
         {
             this.editor.letterBox = b.button.isChecked();
@@ -147,6 +157,11 @@ public class GuiConfigCameraOptions extends GuiAbstractConfigOptions
             this.editor.repeat = b.button.isChecked();
         });
 
+        this.record = GuiButtonElement.checkbox(mc, I18n.format("aperture.gui.config.record"), this.editor.recorder.isRecording(), (b) ->
+        {
+            this.editor.setRecording(b.button.isChecked());
+        });
+
         this.overlay = GuiButtonElement.checkbox(mc, I18n.format("aperture.gui.config.overlay"), Aperture.proxy.config.tp_teleport, (b) ->
         {
             Property prop = Aperture.proxy.forge.getCategory("overlay").get("camera_editor_overlay");
@@ -187,7 +202,7 @@ public class GuiConfigCameraOptions extends GuiAbstractConfigOptions
             this.children.add(this.minema);
         }
 
-        this.children.add(this.outside, this.spectator, this.renderPath, this.sync, this.flight, this.displayPosition, this.ruleOfThirds, this.letterBox, this.aspectRatio, this.repeat, this.overlay, this.pickOverlay);
+        this.children.add(this.outside, this.spectator, this.renderPath, this.sync, this.flight, this.displayPosition, this.ruleOfThirds, this.letterBox, this.aspectRatio, this.repeat, this.record, this.profiler, this.overlay, this.pickOverlay);
 
         /* Show tp buttons if in multiplayer */
         if (!mc.isSingleplayer())
@@ -242,8 +257,10 @@ public class GuiConfigCameraOptions extends GuiAbstractConfigOptions
         this.tpTeleport.button.setIsChecked(Aperture.proxy.config.tp_teleport);
         this.ruleOfThirds.button.setIsChecked(this.editor.ruleOfThirds);
         this.letterBox.button.setIsChecked(this.editor.letterBox);
+        this.profiler.button.setIsChecked(Aperture.proxy.config.camera_profiler);
         this.aspectRatio.setText(Aperture.proxy.config.aspect_ratio);
         this.overlay.button.setIsChecked(Aperture.proxy.config.camera_editor_overlay);
+        this.record.button.setIsChecked(this.editor.recorder.isRecording());
     }
 
     @Override
@@ -1,8 +1,10 @@
 package mchorse.aperture.client.gui.panels;
 
 import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
 import mchorse.aperture.camera.fixtures.KeyframeFixture;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeInterpolation;
+import mchorse.aperture.camera.fixtures.KeyframeReducer;
 import mchorse.aperture.client.gui.GuiCameraEditor;
 import mchorse.aperture.client.gui.panels.keyframe.AllKeyframeChannel;
 import mchorse.aperture.client.gui.utils.GuiFixtureKeyframesDopeSheetEditor;
@@ -10,6 +12,8 @@ import mchorse.aperture.client.gui.utils.GuiFixtureKeyframesGraphEditor;
 import mchorse.mclib.client.gui.framework.GuiTooltip;
 import mchorse.mclib.client.gui.framework.elements.GuiButtonElement;
 import mchorse.mclib.client.gui.framework.elements.GuiElements;
+import mchorse.mclib.client.gui.framework.elements.GuiTrackpadElement;
+import mchorse.mclib.client.gui.widgets.buttons.GuiCirculate;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiButton;
 import net.minecraft.client.resources.I18n;
@@ -30,11 +34,23 @@ public class GuiKeyframeFixturePanel extends GuiAbstractFixturePanel<KeyframeFix
     public GuiFixtureKeyframesGraphEditor<GuiKeyframeFixturePanel> graph;
     public GuiFixtureKeyframesDopeSheetEditor dope;
 
+    /* Keyframe reduction */
+    public GuiTrackpadElement tolerance;
+    public GuiTrackpadElement angleTolerance;
+    public GuiButtonElement<GuiCirculate> fit;
+    public GuiButtonElement<GuiButton> reduce;
+
     public AllKeyframeChannel allChannel = new AllKeyframeChannel();
     public String[] titles = new String[8];
     public int[] colors = new int[] {0xff1392, 0xe51933, 0x19e533, 0x3319e5, 0x19cce5, 0xcc19e5, 0xe5cc19, 0xbfbfbf};
 
     private String title = "";
+    private String reduced = "";
+
+    /**
+     * Interpolations which are used to fit keyframes during reduction
+     */
+    private static final KeyframeInterpolation[] FITS = {KeyframeInterpolation.LINEAR, KeyframeInterpolation.HERMITE, KeyframeInterpolation.BEZIER};
 
     public GuiKeyframeFixturePanel(Minecraft mc, GuiCameraEditor editor)
     {
@@ -83,7 +99,51 @@ public class GuiKeyframeFixturePanel extends GuiAbstractFixturePanel<KeyframeFix
         this.graph.resizer().parent(this.area).set(-10, 0, 0, 0).y(0.5F, 0).w(1, 20).h(0.5F, 0);
         this.dope.resizer().parent(this.area).set(-10, 0, 0, 0).y(0.5F, 0).w(1, 20).h(0.5F, 0);
 
-        this.children.add(this.graph, this.dope, this.buttons);
+        this.tolerance = new GuiTrackpadElement(mc, I18n.format("aperture.gui.panels.tolerance"), (value) -> {});
+        this.tolerance.trackpad.amplitude = 0.01F;
+        this.tolerance.trackpad.min = 0;
+        this.tolerance.setValue(0.05F);
+        this.angleTolerance = new GuiTrackpadElement(mc, I18n.format("aperture.gui.panels.angle_tolerance"), (value) -> {});
+        this.angleTolerance.trackpad.amplitude = 0.1F;
+        this.angleTolerance.trackpad.min = 0;
+        this.angleTolerance.setValue(0.5F);
+        this.fit = new GuiButtonElement<GuiCirculate>(mc, new GuiCirculate(0, 0, 0, 100, 20), (b) -> {});
+
+        for (KeyframeInterpolation interp : FITS)
+        {
+            this.fit.button.addLabel(I18n.format("aperture.gui.panels.interps." + interp.key));
+        }
+
+        this.reduce = GuiButtonElement.button(mc, I18n.format("aperture.gui.panels.reduce"), (b) -> this.reduceKeyframes());
+
+        this.tolerance.resizer().parent(this.area).set(0, 10, 100, 20).x(1, -205);
+        this.angleTolerance.resizer().parent(this.area).set(0, 10, 100, 20).x(1, -100);
+        this.fit.resizer().parent(this.area).set(0, 35, 100, 20).x(1, -205);
+        this.reduce.resizer().parent(this.area).set(0, 35, 100, 20).x(1, -100);
+
+        this.children.add(this.graph, this.dope, this.buttons, this.tolerance, this.angleTolerance, this.fit, this.reduce);
+    }
+
+    /**
+     * Replace fixture's keyframes with as few keyframes as fit within
+     * the tolerances (in blocks for position and in degrees for angles)
+     */
+    private void reduceKeyframes()
+    {
+        KeyframeReducer reducer = new KeyframeReducer(FITS[this.fit.button.getValue()]);
+
+        reducer.reduce(this.fixture, (float) this.tolerance.trackpad.value, (float) this.angleTolerance.trackpad.value);
+
+        this.reduced = I18n.format("aperture.gui.panels.reduced", reducer.before, reducer.after, String.format("%.1f", reducer.getRatio()));
+        this.allChannel.setFixture(this.fixture);
+        this.dope.setFixture(this.fixture);
+
+        if (this.graph.graph.channel != null)
+        {
+            this.graph.setChannel(this.graph.graph.channel);
+        }
+
+        this.editor.updateProfile();
     }
 
     @Override
@@ -100,6 +160,7 @@ public class GuiKeyframeFixturePanel extends GuiAbstractFixturePanel<KeyframeFix
 
         if (!same)
         {
+            this.reduced = "";
             this.dope.setFixture(fixture);
             this.selectChannel(this.allChannel);
         }
@@ -169,6 +230,11 @@ public class GuiKeyframeFixturePanel extends GuiAbstractFixturePanel<KeyframeFix
         /* Draw title of the channel */
         this.font.drawStringWithShadow(this.title, this.area.getX(1) - this.font.getStringWidth(this.title), this.graph.area.y - this.font.FONT_HEIGHT - 5, 0xffffff);
 
+        if (!this.reduced.isEmpty())
+        {
+            this.font.drawStringWithShadow(this.reduced, this.reduce.area.getX(1) - this.font.getStringWidth(this.reduced), this.reduce.area.getY(1) + 5, 0xaaaaaa);
+        }
+
         super.draw(tooltip, mouseX, mouseY, partialTicks);
     }
 }
\ No newline at end of file
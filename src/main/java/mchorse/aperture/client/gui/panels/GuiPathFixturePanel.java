@@ -1,12 +1,14 @@
 package mchorse.aperture.client.gui.panels;
 
+import mchorse.aperture.ClientProxy;
 import mchorse.aperture.camera.data.Position;
 import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.fixtures.Easing;
 import mchorse.aperture.camera.fixtures.KeyframeFixture;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Easing;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeInterpolation;
-import mchorse.aperture.camera.fixtures.PathFixture;
+import mchorse.aperture.camera.fixtures.KeyframeInterpolation;
 import mchorse.aperture.camera.fixtures.PathFixture.DurablePosition;
+import mchorse.aperture.camera.fixtures.PathFixture;
+import mchorse.aperture.camera.fixtures.PathSimplifier;
 import mchorse.aperture.client.gui.GuiCameraEditor;
 import mchorse.aperture.client.gui.panels.modules.GuiAngleModule;
 import mchorse.aperture.client.gui.panels.modules.GuiInterpModule;
@@ -16,6 +18,7 @@ import mchorse.aperture.client.gui.panels.modules.GuiPointsModule.IPointPicker;
 import mchorse.aperture.client.gui.utils.GuiFixtureKeyframesGraphEditor;
 import mchorse.mclib.client.gui.framework.GuiTooltip;
 import mchorse.mclib.client.gui.framework.elements.GuiButtonElement;
+import mchorse.mclib.client.gui.framework.elements.GuiTrackpadElement;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiButton;
 import net.minecraft.client.resources.I18n;
@@ -40,8 +43,16 @@ public class GuiPathFixturePanel extends GuiAbstractFixturePanel<PathFixture> im
     public GuiButtonElement<GuiButton> toKeyframe;
     public GuiFixtureKeyframesGraphEditor<GuiPathFixturePanel> speed;
 
+    /* Path simplification */
+    public GuiTrackpadElement tolerance;
+    public GuiTrackpadElement angleTolerance;
+    public GuiButtonElement<GuiButton> simplify;
+
     public DurablePosition position;
 
+    private boolean previewing;
+    private String simplified = "";
+
     public GuiPathFixturePanel(Minecraft mc, GuiCameraEditor editor)
     {
         super(mc, editor);
@@ -66,17 +77,68 @@ public class GuiPathFixturePanel extends GuiAbstractFixturePanel<PathFixture> im
         this.speed.graph.setParent(this);
         this.speed.graph.setColor(0x0088ff);
 
+        this.tolerance = new GuiTrackpadElement(mc, I18n.format("aperture.gui.panels.tolerance"), (value) -> this.updatePreview(true));
+        this.tolerance.trackpad.amplitude = 0.01F;
+        this.tolerance.trackpad.min = 0;
+        this.angleTolerance = new GuiTrackpadElement(mc, I18n.format("aperture.gui.panels.angle_tolerance"), (value) -> this.updatePreview(true));
+        this.angleTolerance.trackpad.amplitude = 0.1F;
+        this.angleTolerance.trackpad.min = 0;
+        this.simplify = GuiButtonElement.button(mc, I18n.format("aperture.gui.panels.simplify"), (b) -> this.simplify());
+
         this.point.resizer().parent(this.area).set(0, 10, 80, 80).x(1, -80);
         this.interp.resizer().parent(this.area).set(0, 60, 100, 45);
         this.points.resizer().parent(this.area).set(140, 0, 90, 20).y(1, -20).w(1, -280);
         this.toKeyframe.resizer().relative(this.interp.resizer()).set(0, 50, 100, 20);
+        this.tolerance.resizer().relative(this.toKeyframe.resizer()).set(0, 25, 100, 20);
+        this.angleTolerance.resizer().relative(this.tolerance.resizer()).set(0, 25, 100, 20);
+        this.simplify.resizer().relative(this.angleTolerance.resizer()).set(0, 25, 100, 20);
 
         this.perPointDuration.resizer().relative(this.name.resizer()).set(0, -16, this.perPointDuration.button.width, 11);
         this.useSpeed.resizer().relative(this.perPointDuration.resizer()).set(this.perPointDuration.button.width + 10, 0, this.useSpeed.button.width, 11);
 
         this.speed.resizer().parent(this.area).set(-10, 0, 0, 0).y(0.5F, 0).w(1, 20).h(0.5F, -30);
 
-        this.children.add(this.point, this.angle, this.perPointDuration, this.useSpeed, this.toKeyframe, this.speed, this.points, this.interp);
+        this.children.add(this.point, this.angle, this.perPointDuration, this.useSpeed, this.toKeyframe, this.tolerance, this.angleTolerance, this.simplify, this.speed, this.points, this.interp);
+    }
+
+    /**
+     * Update the preview of simplified path, which is rendered over the
+     * current path until it gets applied
+     */
+    private void updatePreview(boolean previewing)
+    {
+        this.previewing = previewing;
+
+        if (!previewing)
+        {
+            ClientProxy.renderer.preview = null;
+            this.simplified = "";
+
+            return;
+        }
+
+        PathFixture preview = new PathSimplifier((float) this.tolerance.trackpad.value, (float) this.angleTolerance.trackpad.value).simplify(this.fixture);
+
+        ClientProxy.renderer.preview = preview;
+        this.simplified = I18n.format("aperture.gui.panels.simplified", this.fixture.getCount(), preview.getCount());
+    }
+
+    /**
+     * Replace path's points with simplified ones
+     */
+    private void simplify()
+    {
+        PathFixture preview = new PathSimplifier((float) this.tolerance.trackpad.value, (float) this.angleTolerance.trackpad.value).simplify(this.fixture);
+
+        this.fixture.getPoints().clear();
+        this.fixture.getPoints().addAll(preview.getPoints());
+        this.fixture.perPointDuration = preview.perPointDuration;
+
+        this.updatePreview(false);
+        this.points.index = 0;
+        this.position = this.fixture.getPoint(0);
+        this.select(this.fixture, -1);
+        this.editor.updateProfile();
     }
 
     private void toKeyframe()
@@ -197,6 +259,11 @@ public class GuiPathFixturePanel extends GuiAbstractFixturePanel<PathFixture> im
         this.perPointDuration.button.setIsChecked(fixture.perPointDuration);
         this.useSpeed.button.setIsChecked(fixture.useSpeed);
 
+        if (!same || this.previewing)
+        {
+            this.updatePreview(this.previewing && same);
+        }
+
         if (!same)
         {
             this.speed.graph.setDuration(fixture.getDuration());
@@ -233,6 +300,11 @@ public class GuiPathFixturePanel extends GuiAbstractFixturePanel<PathFixture> im
             this.position.set(position);
 
             super.editFixture(position);
+
+            if (this.previewing)
+            {
+                this.updatePreview(true);
+            }
         }
     }
 
@@ -250,6 +322,11 @@ public class GuiPathFixturePanel extends GuiAbstractFixturePanel<PathFixture> im
 
         this.speed.graph.setDuration((int) value);
         this.editor.updateValues();
+
+        if (this.previewing)
+        {
+            this.updatePreview(true);
+        }
     }
 
     @Override
@@ -259,5 +336,10 @@ public class GuiPathFixturePanel extends GuiAbstractFixturePanel<PathFixture> im
 
         this.editor.drawCenteredString(this.font, I18n.format("aperture.gui.panels.position"), this.point.area.x + this.point.area.w / 2, this.point.area.y - 14, 0xffffffff);
         this.editor.drawCenteredString(this.font, I18n.format("aperture.gui.panels.angle"), this.angle.area.x + this.angle.area.w / 2, this.angle.area.y - 14, 0xffffffff);
+
+        if (!this.simplified.isEmpty())
+        {
+            this.font.drawStringWithShadow(this.simplified, this.simplify.area.x, this.simplify.area.getY(1) + 5, 0xaaaaaa);
+        }
     }
 }
\ No newline at end of file
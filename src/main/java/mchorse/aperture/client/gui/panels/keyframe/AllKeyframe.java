@@ -3,9 +3,9 @@ package mchorse.aperture.client.gui.panels.keyframe;
 import java.util.ArrayList;
 import java.util.List;
 
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Easing;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeInterpolation;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Keyframe;
+import mchorse.aperture.camera.fixtures.Easing;
+import mchorse.aperture.camera.fixtures.Keyframe;
+import mchorse.aperture.camera.fixtures.KeyframeInterpolation;
 
 /**
  * All channel keyframe
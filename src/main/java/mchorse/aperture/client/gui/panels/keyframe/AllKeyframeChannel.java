@@ -1,8 +1,8 @@
 package mchorse.aperture.client.gui.panels.keyframe;
 
+import mchorse.aperture.camera.fixtures.Keyframe;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
 import mchorse.aperture.camera.fixtures.KeyframeFixture;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Keyframe;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeChannel;
 
 public class AllKeyframeChannel extends KeyframeChannel
 {
@@ -1,7 +1,7 @@
 package mchorse.aperture.client.gui.panels.keyframe;
 
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Keyframe;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.Keyframe;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
 
 /**
  * Keyframe cell
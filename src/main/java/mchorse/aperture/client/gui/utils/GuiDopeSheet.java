@@ -4,15 +4,16 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 
+import mchorse.aperture.camera.PlayerCamera;
 import mchorse.aperture.client.gui.GuiCameraEditor;
 import net.minecraft.client.gui.GuiScreen;
 import org.lwjgl.opengl.GL11;
 
 import mchorse.aperture.camera.data.Position;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Easing;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Keyframe;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeChannel;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeInterpolation;
+import mchorse.aperture.camera.fixtures.Easing;
+import mchorse.aperture.camera.fixtures.Keyframe;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeInterpolation;
 import mchorse.aperture.client.gui.panels.keyframe.AllKeyframe;
 import mchorse.aperture.client.gui.panels.keyframe.AllKeyframeChannel;
 import mchorse.aperture.client.gui.panels.keyframe.KeyframeCell;
@@ -158,7 +159,7 @@ public class GuiDopeSheet extends GuiKeyframeElement
             {
                 AllKeyframeChannel all = (AllKeyframeChannel) this.current.channel;
                 AllKeyframe key = (AllKeyframe) frame;
-                Position pos = new Position(Minecraft.getMinecraft().thePlayer);
+                Position pos = new Position(new PlayerCamera(Minecraft.getMinecraft().thePlayer));
                 float value = 0;
 
                 if (Minecraft.getMinecraft().currentScreen instanceof GuiCameraEditor)
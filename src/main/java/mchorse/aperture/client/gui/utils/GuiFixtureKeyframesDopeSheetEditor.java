@@ -2,8 +2,8 @@ package mchorse.aperture.client.gui.utils;
 
 import java.util.List;
 
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
 import mchorse.aperture.camera.fixtures.KeyframeFixture;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeChannel;
 import mchorse.aperture.client.gui.panels.GuiKeyframeFixturePanel;
 import mchorse.aperture.client.gui.utils.GuiDopeSheet.GuiSheet;
 import net.minecraft.client.Minecraft;
@@ -1,7 +1,7 @@
 package mchorse.aperture.client.gui.utils;
 
 import mchorse.aperture.camera.fixtures.AbstractFixture;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
 import mchorse.aperture.client.gui.panels.GuiAbstractFixturePanel;
 import net.minecraft.client.Minecraft;
 
@@ -4,10 +4,10 @@ import java.util.function.Consumer;
 
 import org.lwjgl.opengl.GL11;
 
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Easing;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Keyframe;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeChannel;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.KeyframeInterpolation;
+import mchorse.aperture.camera.fixtures.Easing;
+import mchorse.aperture.camera.fixtures.Keyframe;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeInterpolation;
 import mchorse.aperture.utils.Scale;
 import mchorse.mclib.client.gui.framework.GuiTooltip;
 import mchorse.mclib.client.gui.utils.GuiUtils;
@@ -3,7 +3,7 @@ package mchorse.aperture.client.gui.utils;
 import java.util.function.Consumer;
 
 import mchorse.aperture.camera.fixtures.AbstractFixture;
-import mchorse.aperture.camera.fixtures.KeyframeFixture.Keyframe;
+import mchorse.aperture.camera.fixtures.Keyframe;
 import mchorse.aperture.client.gui.panels.GuiAbstractFixturePanel;
 import mchorse.mclib.client.gui.framework.elements.GuiElement;
 import net.minecraft.client.Minecraft;
@@ -1,8 +1,15 @@
 package mchorse.aperture.commands;
 
 import mchorse.aperture.Aperture;
+import mchorse.aperture.commands.camera.SubCommandCameraBench;
+import mchorse.aperture.commands.camera.SubCommandCameraExport;
+import mchorse.aperture.commands.camera.SubCommandCameraImport;
+import mchorse.aperture.commands.camera.SubCommandCameraPack;
+import mchorse.aperture.commands.camera.SubCommandCameraReduce;
+import mchorse.aperture.commands.camera.SubCommandCameraQueue;
 import mchorse.aperture.commands.camera.SubCommandCameraStart;
 import mchorse.aperture.commands.camera.SubCommandCameraStop;
+import mchorse.aperture.commands.camera.SubCommandCameraUnpack;
 import mchorse.aperture.commands.camera.control.SubCommandCameraDefault;
 import mchorse.aperture.commands.camera.control.SubCommandCameraFOV;
 import mchorse.aperture.commands.camera.control.SubCommandCameraRoll;
@@ -34,6 +41,13 @@ public class CommandCamera extends SubCommandBase
         /* Start/stop */
         this.add(new SubCommandCameraStart());
         this.add(new SubCommandCameraStop());
+        this.add(new SubCommandCameraQueue());
+        this.add(new SubCommandCameraBench());
+        this.add(new SubCommandCameraExport());
+        this.add(new SubCommandCameraImport());
+        this.add(new SubCommandCameraReduce());
+        this.add(new SubCommandCameraPack());
+        this.add(new SubCommandCameraUnpack());
 
         /* Camera control */
         this.add(new SubCommandCameraStep());
@@ -1,7 +1,6 @@
 package mchorse.aperture.commands;
 
-import java.lang.reflect.Field;
-
+import mchorse.aperture.utils.ChunkUtils;
 import mchorse.aperture.utils.L10n;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.RenderGlobal;
@@ -45,38 +44,14 @@ public class CommandLoadChunks extends CommandBase
         }
 
         RenderGlobal render = Minecraft.getMinecraft().renderGlobal;
-        Field frustumField = null;
-        Field chunkyField = null;
-
-        /* Find all fields */
-        for (Field field : render.getClass().getDeclaredFields())
-        {
-            if (chunkyField == null && field.getType().equals(ChunkRenderDispatcher.class))
-            {
-                chunkyField = field;
-                chunkyField.setAccessible(true);
-            }
-
-            if (frustumField == null && field.getType().equals(ViewFrustum.class))
-            {
-                frustumField = field;
-                frustumField.setAccessible(true);
-            }
-
-            if (chunkyField != null && frustumField != null)
-            {
-                break;
-            }
-        }
+        ChunkRenderDispatcher chunks = ChunkUtils.getDispatcher(render);
+        ViewFrustum frustum = ChunkUtils.getFrustum(render);
 
         /* Force chunk loading */
-        if (chunkyField != null && frustumField != null)
+        if (chunks != null && frustum != null)
         {
             try
             {
-                ChunkRenderDispatcher chunks = (ChunkRenderDispatcher) chunkyField.get(render);
-                ViewFrustum frustum = (ViewFrustum) frustumField.get(render);
-
                 for (RenderChunk chunk : frustum.renderChunks)
                 {
                     if (chunk.getCompiledChunk() == CompiledChunk.DUMMY)
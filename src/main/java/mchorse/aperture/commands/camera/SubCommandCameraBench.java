@@ -0,0 +1,202 @@
+package mchorse.aperture.commands.camera;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.CameraBenchmark;
+import mchorse.aperture.camera.CameraBenchmark.Result;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.destination.AbstractDestination;
+import mchorse.aperture.camera.destination.ClientDestination;
+import mchorse.aperture.client.RenderQueue;
+import mchorse.aperture.utils.L10n;
+import net.minecraft.client.Minecraft;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Camera's sub-command /camera bench
+ *
+ * This sub-command is responsible for measuring how fast current (or
+ * given) camera profile gets evaluated, and reporting the slowest
+ * fixtures and modifiers. Benchmark runs in the background, and the
+ * results are reported once it's done.
+ */
+public class SubCommandCameraBench extends CommandBase
+{
+    /**
+     * How many of the slowest fixtures and modifiers are reported
+     */
+    public static final int TOP = 3;
+
+    /**
+     * Maximum amount of frames which can be evaluated on the main
+     * thread (profiles with modifiers which read the world), so the
+     * game wouldn't freeze for longer than a few seconds
+     */
+    public static final long MAX_MAIN_THREAD_FRAMES = 2000000;
+
+    /**
+     * Whether a benchmark is running in the background
+     */
+    private static boolean running;
+
+    @Override
+    public String getCommandName()
+    {
+        return "bench";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender)
+    {
+        return "aperture.commands.camera.bench";
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+    {
+        CameraProfile profile = ClientProxy.control.currentProfile;
+        int resolution = args.length >= 2 ? CommandBase.parseInt(args[1], 1, 20) : 1;
+        int iterations = args.length >= 3 ? CommandBase.parseInt(args[2], 1, 50) : 5;
+
+        if (args.length >= 1 && !args[0].equals("-"))
+        {
+            AbstractDestination destination = RenderQueue.parseDestination(args[0]);
+
+            profile = ClientProxy.control.getProfile(destination);
+
+            if (profile == null)
+            {
+                if (destination instanceof ClientDestination)
+                {
+                    /* Failed loading is reported by the destination */
+                    ((ClientDestination) destination).load(() ->
+                    {
+                        CameraProfile loaded = ClientProxy.control.getProfile(destination);
+
+                        if (loaded != null)
+                        {
+                            this.bench(sender, loaded, resolution, iterations);
+                        }
+                    });
+                }
+                else
+                {
+                    destination.load();
+                    L10n.info(sender, "bench.loading", args[0]);
+                }
+
+                return;
+            }
+        }
+
+        this.bench(sender, profile, resolution, iterations);
+    }
+
+    /**
+     * Run the benchmark on a background thread and report results on
+     * the main thread once it's done. Profiles with modifiers which
+     * read the world are benchmarked right away on the main thread, as
+     * long as they don't take too many frames
+     */
+    private void bench(ICommandSender sender, CameraProfile profile, int resolution, int iterations)
+    {
+        if (profile == null || profile.getCount() == 0)
+        {
+            L10n.error(sender, "bench.empty");
+
+            return;
+        }
+
+        if (running)
+        {
+            L10n.error(sender, "bench.running");
+
+            return;
+        }
+
+        CameraBenchmark bench = new CameraBenchmark(profile, resolution, iterations);
+        String name = profile.getDestination() == null ? "-" : profile.getDestination().toResourceLocation().toString();
+
+        if (profile.isWorldDependent())
+        {
+            long frames = bench.getTotalFrames();
+
+            if (frames > MAX_MAIN_THREAD_FRAMES)
+            {
+                L10n.error(sender, "bench.too_long", name, frames, MAX_MAIN_THREAD_FRAMES);
+
+                return;
+            }
+
+            this.report(sender, name, bench.run());
+
+            return;
+        }
+
+        Minecraft mc = Minecraft.getMinecraft();
+
+        running = true;
+        L10n.info(sender, "bench.started", name);
+
+        CompletableFuture.supplyAsync(bench::run, (runnable) ->
+        {
+            Thread thread = new Thread(runnable, "Aperture benchmark");
+
+            thread.setDaemon(true);
+            thread.start();
+        }).whenCompleteAsync((result, error) ->
+        {
+            running = false;
+
+            if (error != null)
+            {
+                Aperture.LOGGER.error("Failed to benchmark camera profile " + name, error);
+                L10n.error(sender, "bench.failed", name);
+            }
+            else
+            {
+                this.report(sender, name, result);
+            }
+        }, mc::addScheduledTask);
+    }
+
+    private void report(ICommandSender sender, String name, CameraBenchmark bench)
+    {
+        L10n.info(sender, "bench.header", name, bench.withoutModifiers.frames / bench.iterations, bench.iterations);
+        this.report(sender, "bench.without_modifiers", bench.withoutModifiers);
+        this.report(sender, "bench.with_modifiers", bench.withModifiers);
+        this.reportSlowest(sender, "bench.fixtures", bench.fixtures);
+        this.reportSlowest(sender, "bench.modifiers", bench.modifiers);
+    }
+
+    private void report(ICommandSender sender, String key, Result result)
+    {
+        double bytes = result.getBytesPerFrame();
+
+        L10n.info(sender, key, String.format("%.1f", result.getNanosPerFrame()), bytes < 0 ? "?" : String.format("%.1f", bytes));
+    }
+
+    private void reportSlowest(ICommandSender sender, String key, List<Result> results)
+    {
+        if (results.isEmpty())
+        {
+            return;
+        }
+
+        L10n.info(sender, key);
+
+        for (int i = 0; i < Math.min(TOP, results.size()); i++)
+        {
+            Result result = results.get(i);
+            double bytes = result.getBytesPerFrame();
+
+            L10n.info(sender, "bench.entry", result.name, String.format("%.1f", result.getNanosPerFrame()), bytes < 0 ? "?" : String.format("%.1f", bytes));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package mchorse.aperture.commands.camera;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.CameraExporter;
+import mchorse.aperture.camera.CameraExporter.Format;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.destination.AbstractDestination;
+import mchorse.aperture.camera.destination.ClientDestination;
+import mchorse.aperture.client.RenderQueue;
+import mchorse.aperture.utils.L10n;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Camera's sub-command /camera export
+ *
+ * This sub-command is responsible for exporting camera track of current
+ * (or given) camera profile at given frame rate into a CSV, JSON or
+ * binary file in config/aperture/exports folder.
+ */
+public class SubCommandCameraExport extends CommandBase
+{
+    @Override
+    public String getCommandName()
+    {
+        return "export";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender)
+    {
+        return "aperture.commands.camera.export";
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+    {
+        CameraProfile profile = ClientProxy.control.currentProfile;
+        int fps = args.length >= 2 ? CommandBase.parseInt(args[1], 1, 1000) : 30;
+        Format format = args.length >= 3 ? Format.fromName(args[2]) : Format.CSV;
+        boolean modifiers = args.length >= 4 ? CommandBase.parseBoolean(args[3]) : true;
+
+        if (format == null)
+        {
+            L10n.error(sender, "export.format", args[2]);
+
+            return;
+        }
+
+        if (args.length >= 1 && !args[0].equals("-"))
+        {
+            AbstractDestination destination = RenderQueue.parseDestination(args[0]);
+
+            profile = ClientProxy.control.getProfile(destination);
+
+            if (profile == null)
+            {
+                if (destination instanceof ClientDestination)
+                {
+                    /* Failed loading is reported by the destination */
+                    ((ClientDestination) destination).load(() ->
+                    {
+                        CameraProfile loaded = ClientProxy.control.getProfile(destination);
+
+                        if (loaded != null)
+                        {
+                            this.export(sender, loaded, fps, format, modifiers);
+                        }
+                    });
+                }
+                else
+                {
+                    destination.load();
+                    L10n.info(sender, "export.loading", args[0]);
+                }
+
+                return;
+            }
+        }
+
+        this.export(sender, profile, fps, format, modifiers);
+    }
+
+    private void export(ICommandSender sender, CameraProfile profile, int fps, Format format, boolean modifiers)
+    {
+        if (profile == null || profile.getCount() == 0)
+        {
+            L10n.error(sender, "export.empty");
+
+            return;
+        }
+
+        String name = profile.getDestination() == null ? "profile" : profile.getDestination().getFilename().replace('/', '_');
+        File file = new File(new File(ClientProxy.config, "exports"), name + "_" + fps + "." + format.extension);
+        CameraExporter exporter = new CameraExporter(profile, fps);
+
+        exporter.modifiers = modifiers;
+        file.getParentFile().mkdirs();
+
+        long time = System.nanoTime();
+
+        try (OutputStream stream = new FileOutputStream(file))
+        {
+            exporter.write(stream, format);
+        }
+        catch (IOException e)
+        {
+            Aperture.LOGGER.error("Failed to export camera profile " + name, e);
+            L10n.error(sender, "export.failed", file.getName());
+
+            return;
+        }
+
+        L10n.success(sender, "export.done", exporter.getFrames(), file.getName(), String.format("%.1f", (System.nanoTime() - time) / 1000000.0));
+    }
+
+    @Override
+    public List<String> getTabCompletionOptions(MinecraftServer server, ICommandSender sender, String[] args, BlockPos pos)
+    {
+        if (args.length == 3)
+        {
+            return getListOfStringsMatchingLastWord(args, "csv", "json", "bin");
+        }
+
+        if (args.length == 4)
+        {
+            return getListOfStringsMatchingLastWord(args, "true", "false");
+        }
+
+        return Collections.<String> emptyList();
+    }
+}
@@ -0,0 +1,107 @@
+package mchorse.aperture.commands.camera;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.CameraExporter.Format;
+import mchorse.aperture.camera.CameraImporter;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
+import mchorse.aperture.utils.L10n;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Camera's sub-command /camera import
+ *
+ * This sub-command is responsible for importing a camera track (CSV or
+ * binary file in config/aperture/imports folder) as a keyframe fixture
+ * at the end of current camera profile.
+ */
+public class SubCommandCameraImport extends CommandBase
+{
+    @Override
+    public String getCommandName()
+    {
+        return "import";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender)
+    {
+        return "aperture.commands.camera.import";
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length < 1)
+        {
+            throw new WrongUsageException(this.getCommandUsage(sender));
+        }
+
+        CameraProfile profile = ClientProxy.control.currentProfile;
+
+        if (profile == null)
+        {
+            L10n.error(sender, "profile.no_current");
+
+            return;
+        }
+
+        File file = new File(new File(ClientProxy.config, "imports"), args[0]);
+        Format format = Format.fromName(args[0].substring(args[0].lastIndexOf('.') + 1));
+
+        if (!file.isFile())
+        {
+            L10n.error(sender, "import.missing", args[0]);
+
+            return;
+        }
+
+        if (format != Format.CSV && format != Format.BINARY)
+        {
+            L10n.error(sender, "import.format", args[0]);
+
+            return;
+        }
+
+        CameraImporter importer = new CameraImporter();
+
+        importer.positionTolerance = args.length >= 2 ? (float) CommandBase.parseDouble(args[1], 0) : 0;
+        importer.angleTolerance = args.length >= 3 ? (float) CommandBase.parseDouble(args[2], 0) : importer.positionTolerance;
+        importer.fps = args.length >= 4 ? CommandBase.parseInt(args[3], 1, 1000) : 30;
+
+        KeyframeFixture fixture;
+
+        try (InputStream stream = new FileInputStream(file))
+        {
+            fixture = importer.read(stream, format);
+        }
+        catch (IOException e)
+        {
+            Aperture.LOGGER.error("Failed to import camera track " + file, e);
+            L10n.error(sender, "import.failed", args[0], e.getMessage());
+
+            return;
+        }
+
+        int keyframes = 0;
+
+        for (KeyframeChannel channel : fixture.channels)
+        {
+            keyframes += channel.getKeyframes().size();
+        }
+
+        profile.add(fixture);
+        L10n.success(sender, "import.done", importer.getSamples(), keyframes, file.getName());
+    }
+}
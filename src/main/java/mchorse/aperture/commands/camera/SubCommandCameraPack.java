@@ -0,0 +1,118 @@
+package mchorse.aperture.commands.camera;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.storage.ProfileStore;
+import mchorse.aperture.camera.storage.ZipProfileStore;
+import mchorse.aperture.utils.L10n;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Camera's sub-command /camera pack
+ *
+ * This sub-command is responsible for packing client camera profiles 
+ * (all of them, or given ones) into a zip bundle in 
+ * config/aperture/bundles folder, so a bunch of cutscenes could be 
+ * shared as one file.
+ */
+public class SubCommandCameraPack extends CommandBase
+{
+    @Override
+    public String getCommandName()
+    {
+        return "pack";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender)
+    {
+        return "aperture.commands.camera.pack";
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length < 1)
+        {
+            throw new WrongUsageException(this.getCommandUsage(sender));
+        }
+
+        ProfileStore store = ClientProxy.getClientStore();
+
+        if (store == null)
+        {
+            L10n.error(sender, "bundle.no_store");
+
+            return;
+        }
+
+        List<String> names = args.length >= 2 ? Arrays.asList(args).subList(1, args.length) : store.list();
+
+        if (names.isEmpty())
+        {
+            L10n.error(sender, "bundle.empty");
+
+            return;
+        }
+
+        for (String name : names)
+        {
+            if (!store.exists(name))
+            {
+                L10n.error(sender, "bundle.no_profile", name);
+
+                return;
+            }
+        }
+
+        File file = getBundle(args[0]);
+
+        file.getParentFile().mkdirs();
+
+        try
+        {
+            ZipProfileStore.pack(store, names, file);
+        }
+        catch (IOException e)
+        {
+            Aperture.LOGGER.error("Failed to pack camera profiles into " + file, e);
+            L10n.error(sender, "bundle.pack_failed", file.getName(), e.getMessage());
+
+            return;
+        }
+
+        L10n.success(sender, "bundle.packed", names.size(), file.getName());
+    }
+
+    /**
+     * Get bundle's file in config/aperture/bundles folder by its name
+     */
+    public static File getBundle(String name)
+    {
+        return new File(new File(ClientProxy.config, "bundles"), name.endsWith(".zip") ? name : name + ".zip");
+    }
+
+    @Override
+    public List<String> getTabCompletionOptions(MinecraftServer server, ICommandSender sender, String[] args, BlockPos pos)
+    {
+        ProfileStore store = ClientProxy.getClientStore();
+
+        if (args.length >= 2 && store != null)
+        {
+            return getListOfStringsMatchingLastWord(args, store.list());
+        }
+
+        return Collections.<String> emptyList();
+    }
+}
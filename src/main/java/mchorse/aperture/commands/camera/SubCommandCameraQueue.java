@@ -0,0 +1,112 @@
+package mchorse.aperture.commands.camera;
+
+import java.util.List;
+
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.client.RenderQueue;
+import mchorse.aperture.client.RenderQueue.Job;
+import mchorse.aperture.utils.L10n;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Camera's sub-command /camera queue
+ *
+ * This sub-command is responsible for managing the render queue, i.e.
+ * adding camera profiles (with tick ranges) to it, and starting or
+ * stopping it.
+ */
+public class SubCommandCameraQueue extends CommandBase
+{
+    @Override
+    public String getCommandName()
+    {
+        return "queue";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender)
+    {
+        return "aperture.commands.camera.queue";
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length < 1)
+        {
+            throw new WrongUsageException(this.getCommandUsage(sender));
+        }
+
+        RenderQueue queue = ClientProxy.renderQueue;
+        String action = args[0];
+
+        if (action.equals("add") && args.length >= 2)
+        {
+            long start = args.length >= 3 ? CommandBase.parseLong(args[2], 0, Long.MAX_VALUE) : 0;
+            long end = args.length >= 4 ? CommandBase.parseLong(args[3], start, Long.MAX_VALUE) : -1;
+
+            queue.add(new Job(RenderQueue.parseDestination(args[1]), start, end));
+            L10n.info(sender, "queue.added", args[1], queue.jobs.size());
+        }
+        else if (action.equals("remove") && args.length >= 2)
+        {
+            int index = CommandBase.parseInt(args[1], 0, queue.jobs.size() - 1);
+
+            if (queue.isRunning())
+            {
+                L10n.error(sender, "queue.running");
+            }
+            else
+            {
+                queue.jobs.remove(index);
+            }
+        }
+        else if (action.equals("clear"))
+        {
+            queue.stop();
+            queue.jobs.clear();
+        }
+        else if (action.equals("list"))
+        {
+            if (queue.jobs.isEmpty())
+            {
+                L10n.info(sender, "queue.empty_list");
+            }
+
+            for (int i = 0; i < queue.jobs.size(); i++)
+            {
+                Job job = queue.jobs.get(i);
+
+                L10n.info(sender, "queue.job", i, job.getName(), job.start, job.end < 0 ? "-" : job.end, job.status.name().toLowerCase());
+            }
+        }
+        else if (action.equals("start"))
+        {
+            queue.start();
+        }
+        else if (action.equals("stop"))
+        {
+            queue.stop();
+        }
+        else
+        {
+            throw new WrongUsageException(this.getCommandUsage(sender));
+        }
+    }
+
+    @Override
+    public List<String> getTabCompletionOptions(MinecraftServer server, ICommandSender sender, String[] args, BlockPos pos)
+    {
+        if (args.length == 1)
+        {
+            return getListOfStringsMatchingLastWord(args, "add", "remove", "clear", "list", "start", "stop");
+        }
+
+        return super.getTabCompletionOptions(server, sender, args, pos);
+    }
+}
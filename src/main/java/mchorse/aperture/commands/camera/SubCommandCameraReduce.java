@@ -0,0 +1,118 @@
+package mchorse.aperture.commands.camera;
+
+import java.util.Collections;
+import java.util.List;
+
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
+import mchorse.aperture.camera.fixtures.KeyframeInterpolation;
+import mchorse.aperture.camera.fixtures.KeyframeReducer;
+import mchorse.aperture.utils.L10n;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Camera's sub-command /camera reduce
+ *
+ * This sub-command is responsible for reducing keyframes of a keyframe
+ * fixture in current camera profile to as few keyframes as stay within
+ * given tolerance of the original curves.
+ */
+public class SubCommandCameraReduce extends CommandBase
+{
+    @Override
+    public String getCommandName()
+    {
+        return "reduce";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender)
+    {
+        return "aperture.commands.camera.reduce";
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length < 2)
+        {
+            throw new WrongUsageException(this.getCommandUsage(sender));
+        }
+
+        CameraProfile profile = ClientProxy.control.currentProfile;
+
+        if (profile == null)
+        {
+            L10n.error(sender, "profile.no_current");
+
+            return;
+        }
+
+        int index = CommandBase.parseInt(args[0]);
+
+        if (!profile.has(index))
+        {
+            L10n.error(sender, "profile.not_exists", args[0]);
+
+            return;
+        }
+
+        AbstractFixture fixture = profile.get(index);
+
+        if (!(fixture instanceof KeyframeFixture))
+        {
+            L10n.error(sender, "reduce.not_keyframe", args[0]);
+
+            return;
+        }
+
+        float tolerance = (float) CommandBase.parseDouble(args[1], 0);
+        float angle = args.length >= 3 ? (float) CommandBase.parseDouble(args[2], 0) : tolerance;
+        KeyframeInterpolation interp = KeyframeInterpolation.BEZIER;
+
+        if (args.length >= 4)
+        {
+            interp = null;
+
+            for (KeyframeInterpolation value : KeyframeInterpolation.values())
+            {
+                if (value.key.equals(args[3]) && KeyframeReducer.canFit(value))
+                {
+                    interp = value;
+                }
+            }
+
+            if (interp == null)
+            {
+                L10n.error(sender, "reduce.interp", args[3]);
+
+                return;
+            }
+        }
+
+        KeyframeReducer reducer = new KeyframeReducer(interp);
+
+        reducer.reduce((KeyframeFixture) fixture, tolerance, angle);
+        profile.dirty();
+
+        L10n.success(sender, "reduce.done", reducer.before, reducer.after, String.format("%.1f", reducer.getRatio()));
+    }
+
+    @Override
+    public List<String> getTabCompletionOptions(MinecraftServer server, ICommandSender sender, String[] args, BlockPos pos)
+    {
+        if (args.length == 4)
+        {
+            return getListOfStringsMatchingLastWord(args, "linear", "hermite", "bezier");
+        }
+
+        return Collections.<String> emptyList();
+    }
+}
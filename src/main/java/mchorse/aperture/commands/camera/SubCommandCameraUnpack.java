@@ -0,0 +1,109 @@
+package mchorse.aperture.commands.camera;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.storage.ProfileStore;
+import mchorse.aperture.camera.storage.ZipProfileStore;
+import mchorse.aperture.utils.L10n;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Camera's sub-command /camera unpack
+ *
+ * This sub-command is responsible for copying camera profiles out of a 
+ * zip bundle in config/aperture/bundles folder into client camera 
+ * profiles. The bundle is opened only once for all of its profiles.
+ */
+public class SubCommandCameraUnpack extends CommandBase
+{
+    @Override
+    public String getCommandName()
+    {
+        return "unpack";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender)
+    {
+        return "aperture.commands.camera.unpack";
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length < 1)
+        {
+            throw new WrongUsageException(this.getCommandUsage(sender));
+        }
+
+        ProfileStore store = ClientProxy.getClientStore();
+
+        if (store == null)
+        {
+            L10n.error(sender, "bundle.no_store");
+
+            return;
+        }
+
+        File file = SubCommandCameraPack.getBundle(args[0]);
+        boolean overwrite = args.length >= 2 ? CommandBase.parseBoolean(args[1]) : false;
+
+        if (!file.isFile())
+        {
+            L10n.error(sender, "bundle.missing", file.getName());
+
+            return;
+        }
+
+        int unpacked = 0;
+        int skipped = 0;
+
+        try
+        {
+            ZipProfileStore bundle = ZipProfileStore.open(file);
+
+            for (String name : bundle.list())
+            {
+                if (!overwrite && store.exists(name))
+                {
+                    skipped++;
+
+                    continue;
+                }
+
+                store.write(name, bundle.read(name));
+                unpacked++;
+            }
+        }
+        catch (IOException e)
+        {
+            Aperture.LOGGER.error("Failed to unpack camera profiles from " + file, e);
+            L10n.error(sender, "bundle.unpack_failed", file.getName(), e.getMessage());
+
+            return;
+        }
+
+        L10n.success(sender, "bundle.unpacked", unpacked, file.getName(), skipped);
+    }
+
+    @Override
+    public List<String> getTabCompletionOptions(MinecraftServer server, ICommandSender sender, String[] args, BlockPos pos)
+    {
+        if (args.length == 2)
+        {
+            return getListOfStringsMatchingLastWord(args, "true", "false");
+        }
+
+        return Collections.<String> emptyList();
+    }
+}
@@ -1,6 +1,7 @@
 package mchorse.aperture.config;
 
 import mchorse.aperture.Aperture;
+import mchorse.aperture.camera.data.Angle;
 import net.minecraftforge.common.config.Configuration;
 import net.minecraftforge.fml.client.event.ConfigChangedEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -150,6 +151,98 @@ public class ApertureConfig
      */
     public boolean camera_auto_save;
 
+    /**
+     * Quantize path points of camera profiles sent for playback 
+     */
+    public boolean camera_network_quantize;
+
+    /**
+     * Save camera profiles in binary format instead of JSON
+     */
+    public boolean camera_binary_format;
+
+    /**
+     * Append changes of camera profiles to a journal instead of 
+     * rewriting the whole profile on every save
+     */
+    public boolean camera_journal;
+
+    /**
+     * How many camera profiles received from servers are kept in the 
+     * client's cache
+     */
+    public int camera_cache_size;
+
+    /**
+     * How many ticks ahead render chunks are compiled during playback
+     */
+    public int camera_prefetch_ticks;
+
+    /**
+     * How many milliseconds per frame can be spent on compiling render 
+     * chunks ahead of the camera
+     */
+    public float camera_prefetch_budget;
+
+    /**
+     * Hold camera playback until render chunks of the next camera pose 
+     * are compiled (for recording)
+     */
+    public boolean camera_render_gate;
+
+    /**
+     * For how long (in milliseconds) the render gate can hold a frame
+     */
+    public int camera_render_gate_timeout;
+
+    /**
+     * How many ticks ahead chunks along server camera profile's path are
+     * force loaded on the server
+     */
+    public int camera_chunk_tickets;
+
+    /**
+     * Frame rate of frame-locked playback clock (0 disables it)
+     */
+    public int camera_frame_lock_fps;
+
+    /**
+     * How many frames ahead fixture poses are computed on a worker thread
+     */
+    public int camera_pipeline_frames;
+
+    /**
+     * Minimum duration (in ticks) of render queue's warm-up
+     */
+    public int camera_queue_warmup;
+
+    /**
+     * How often (in ticks) camera's position is sent to the server
+     */
+    public int camera_teleport_interval;
+
+    /**
+     * How far (in blocks) players can be teleported by a camera at once
+     */
+    public int camera_teleport_distance;
+
+    /**
+     * Whether camera performance HUD is enabled
+     */
+    public boolean camera_profiler;
+
+    /**
+     * Whether runtime and network metrics are exposed over JMX
+     */
+    public boolean camera_metrics;
+
+    /**
+     * Position (in blocks) and angle (in degrees) tolerance of keyframes
+     * recorded in camera editor
+     */
+    public float camera_recorder_tolerance;
+    public float camera_recorder_angle_tolerance;
+
     /* Non conifg option stuff */
 
     /**
@@ -189,6 +282,24 @@ public class ApertureConfig
         this.camera_first_tick_zero = this.getBoolean("camera_first_tick_zero", camera, false, "When camera runner starts, start the actual playback when partial tick is exactly zero");
         this.camera_profile_render = this.getBoolean("camera_profile_render", camera, true, "Render camera profile in the world?");
         this.camera_auto_save = this.getBoolean("camera_auto_save", camera, true, "Save all camera profiles upon exiting the world");
+        this.camera_network_quantize = this.getBoolean("camera_network_quantize", camera, false, "Quantize path points (to 1/1024th of a block and 1/100th of a degree) of camera profiles which are sent from the server for playback, making them smaller");
+        this.camera_binary_format = this.getBoolean("camera_binary_format", camera, false, "Save camera profiles in compact binary format (.aperture files) instead of JSON. JSON profiles can be still loaded in both cases");
+        this.camera_journal = this.getBoolean("camera_journal", camera, false, "Append only the changes of camera profiles to a journal file on save, instead of rewriting whole profile every time. The journal gets merged back into the profile once it gets too big");
+        this.camera_cache_size = this.getInt("camera_cache_size", camera, 32, 0, 1024, "How many camera profiles received from servers are kept in the cache, so they don't have to be sent again (0 disables the cache)");
+        this.camera_prefetch_ticks = this.getInt("camera_prefetch_ticks", camera, 40, 0, 200, "How many ticks ahead of the camera render chunks are compiled during playback, so the terrain doesn't pop in during fast camera moves (0 disables prefetching)");
+        this.camera_prefetch_budget = this.getFloat("camera_prefetch_budget", camera, 4.0F, 0.5F, 50.0F, "How many milliseconds per frame can be spent on compiling render chunks ahead of the camera");
+        this.camera_render_gate = this.getBoolean("camera_render_gate", camera, false, "Hold camera playback on the current frame until all render chunks visible from the next camera position are compiled, so recordings don't have missing chunks");
+        this.camera_render_gate_timeout = this.getInt("camera_render_gate_timeout", camera, 10000, 100, 120000, "For how long (in milliseconds) camera playback can be held waiting for render chunks, before it moves on anyway");
+        this.camera_chunk_tickets = this.getInt("camera_chunk_tickets", camera, 100, 0, 1200, "How many ticks ahead of the camera chunks along the path of server camera profiles are force loaded on the server during playback (0 disables chunk loading)");
+        this.camera_frame_lock_fps = this.getInt("camera_frame_lock_fps", camera, 0, 0, 1000, "When above zero, every rendered frame advances camera playback by exactly 1/fps of a second, independently of game ticks, so offline recordings have identical frame timings on every run (0 uses game ticks)");
+        this.camera_pipeline_frames = this.getInt("camera_pipeline_frames", camera, 0, 0, 512, "How many frames ahead poses of pure fixtures (path, keyframe, circular and idle) are computed on a worker thread during frame-locked playback, so the render thread only applies modifiers (0 disables the pipeline)");
+        this.camera_queue_warmup = this.getInt("camera_queue_warmup", camera, 40, 0, 1200, "For how many ticks (at least) render queue keeps the camera at the first position of every job before playing it, so chunks around it would be loaded and compiled");
+        this.camera_teleport_interval = this.getInt("camera_teleport_interval", camera, 2, 1, 100, "How often (in ticks) camera's position is sent to the server during multiplayer playback, when the server has Aperture installed (otherwise /tp commands are used)");
+        this.camera_teleport_distance = this.getInt("camera_teleport_distance", camera, 1024, 16, 100000, "How far (in blocks) the server lets camera playback teleport players at once");
+        this.camera_profiler = this.getBoolean("camera_profiler", camera, false, "Measure how much time per frame is spent on applying camera profile (per fixture and modifier), rendering its preview and prefetching chunks, and show it along with frame time percentiles on the HUD and in camera editor");
+        this.camera_metrics = this.getBoolean("camera_metrics", camera, false, "Record camera runtime and network statistics (profiles sent and received, their sizes, encoding and disk I/O time, cache hits, frame evaluation latency and teleports) and expose them as JMX MBeans under mchorse.aperture domain");
+        this.camera_recorder_tolerance = this.getFloat("camera_recorder_tolerance", camera, 0.01F, 0, 10, "How far (in blocks) keyframes recorded in camera editor may deviate from the recorded camera position (0 records a keyframe every tick)");
+        this.camera_recorder_angle_tolerance = this.getFloat("camera_recorder_angle_tolerance", camera, 0.1F, 0, 45, "How far (in degrees) keyframes recorded in camera editor may deviate from the recorded camera angle, roll and FOV (0 records a keyframe every tick)");
         this.minecrafttp_teleport = this.getBoolean("minecrafttp_teleport", camera, true, "When start the camera playback in multiplayer, teleport you with /minecraft:tp command (For Essentials)");
         this.tp_teleport = this.getBoolean("tp_teleport", camera, true, "When start the camera playback in multiplayer, teleport you with /tp command (For Vanilla or Forge)");
         this.aspect_ratio = this.getString("aspect_ratio", camera, "16:9", "Aspect ratio for camera editor's letter box");
@@ -216,6 +327,7 @@ public class ApertureConfig
 
         /* Smooth camera */
         this.camera_smooth_clamp = this.config.getBoolean("camera_smooth_clamp", "smooth", true, "Clip smooth camera's pitch between -90 and 90 degrees range?", "aperture.config.smooth.camera_smooth_clamp");
+        Angle.clampPitch = this.camera_smooth_clamp;
 
         Aperture.proxy.onConfigChange(this);
 
@@ -0,0 +1,168 @@
+package mchorse.aperture.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram
+ *
+ * Lock-free histogram of non-negative values (like durations in
+ * nanoseconds or sizes in bytes). Values below 16 get their own
+ * buckets, and every power of two above is split into 8 buckets, so
+ * it takes fixed amount of memory while percentiles stay within 1/8th
+ * of the real value.
+ */
+public class Histogram implements HistogramMBean
+{
+    /**
+     * How many bits of a value (after the highest one) select a bucket
+     * within a power of two
+     */
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR = SUB_BUCKETS * 2;
+    private static final int BUCKETS = LINEAR + (63 - SUB_BITS - 1) * SUB_BUCKETS;
+
+    private final String unit;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram(String unit)
+    {
+        this.unit = unit;
+    }
+
+    /**
+     * Get index of the bucket which holds given value
+     */
+    public static int getBucket(long value)
+    {
+        if (value < LINEAR)
+        {
+            return (int) Math.max(value, 0);
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+        return LINEAR + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Get the lowest value which falls into given bucket
+     */
+    public static long getLowest(int bucket)
+    {
+        if (bucket < LINEAR)
+        {
+            return bucket;
+        }
+
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + SUB_BITS + 1;
+        int sub = (bucket - LINEAR) % SUB_BUCKETS;
+
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    public void record(long value)
+    {
+        value = Math.max(value, 0);
+
+        this.buckets.incrementAndGet(getBucket(value));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(value);
+        this.max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Get approximate value below which given fraction (0..1) of
+     * recorded values fall. It returns the middle of found bucket
+     */
+    public long getPercentile(double percentile)
+    {
+        long count = this.count.get();
+
+        if (count == 0)
+        {
+            return 0;
+        }
+
+        long threshold = (long) Math.ceil(percentile * count);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += this.buckets.get(i);
+
+            if (seen >= threshold && seen > 0)
+            {
+                long low = getLowest(i);
+                long high = i + 1 < BUCKETS ? getLowest(i + 1) - 1 : Long.MAX_VALUE;
+
+                return Math.min(low + (high - low) / 2, this.max.get());
+            }
+        }
+
+        return this.max.get();
+    }
+
+    @Override
+    public String getUnit()
+    {
+        return this.unit;
+    }
+
+    @Override
+    public long getCount()
+    {
+        return this.count.get();
+    }
+
+    @Override
+    public double getMean()
+    {
+        long count = this.count.get();
+
+        return count == 0 ? 0 : (double) this.sum.get() / count;
+    }
+
+    @Override
+    public long getMax()
+    {
+        return this.max.get();
+    }
+
+    @Override
+    public long getPercentile50()
+    {
+        return this.getPercentile(0.5);
+    }
+
+    @Override
+    public long getPercentile95()
+    {
+        return this.getPercentile(0.95);
+    }
+
+    @Override
+    public long getPercentile99()
+    {
+        return this.getPercentile(0.99);
+    }
+
+    @Override
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            this.buckets.set(i, 0);
+        }
+
+        this.count.set(0);
+        this.sum.set(0);
+        this.max.set(0);
+    }
+}
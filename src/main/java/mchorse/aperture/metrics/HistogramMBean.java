@@ -0,0 +1,26 @@
+package mchorse.aperture.metrics;
+
+/**
+ * Histogram MBean interface
+ *
+ * Attributes of a histogram which are exposed over JMX. Percentiles are
+ * approximate (within 1/8th of the value).
+ */
+public interface HistogramMBean
+{
+    public String getUnit();
+
+    public long getCount();
+
+    public double getMean();
+
+    public long getMax();
+
+    public long getPercentile50();
+
+    public long getPercentile95();
+
+    public long getPercentile99();
+
+    public void reset();
+}
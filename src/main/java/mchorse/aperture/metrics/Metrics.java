@@ -0,0 +1,219 @@
+package mchorse.aperture.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import mchorse.aperture.Aperture;
+
+/**
+ * Metrics
+ *
+ * Counters and histograms of camera runtime and network statistics
+ * (profiles sent and received, their encoding time and sizes, disk I/O
+ * time, profile cache hits, playback frame evaluation latency and
+ * teleports), which get registered as MBeans, so they could be graphed
+ * by JVM monitoring tools (JConsole, VisualVM, JMX exporters, etc.).
+ *
+ * When metrics are disabled, nothing gets recorded, and instrumented
+ * code only reads a boolean flag.
+ */
+public class Metrics implements MetricsMBean
+{
+    public static final String DOMAIN = "mchorse.aperture";
+
+    public static final Metrics INSTANCE = new Metrics();
+
+    /* Counters */
+    public static final AtomicLong PROFILES_SENT = new AtomicLong();
+    public static final AtomicLong PROFILES_RECEIVED = new AtomicLong();
+    public static final AtomicLong BYTES_SENT = new AtomicLong();
+    public static final AtomicLong BYTES_RECEIVED = new AtomicLong();
+    public static final AtomicLong CACHE_HITS = new AtomicLong();
+    public static final AtomicLong CACHE_MISSES = new AtomicLong();
+    public static final AtomicLong TELEPORTS = new AtomicLong();
+    public static final AtomicLong TELEPORT_COMMANDS = new AtomicLong();
+
+    /* Histograms */
+    public static final Histogram ENCODE = new Histogram("ns");
+    public static final Histogram DECODE = new Histogram("ns");
+    public static final Histogram PROFILE_SIZE = new Histogram("bytes");
+    public static final Histogram DISK_READ = new Histogram("ns");
+    public static final Histogram DISK_WRITE = new Histogram("ns");
+    public static final Histogram FRAME = new Histogram("ns");
+
+    /**
+     * Histograms by their MBean names
+     */
+    public static final Map<String, Histogram> HISTOGRAMS = new LinkedHashMap<String, Histogram>();
+
+    public static boolean enabled;
+
+    static
+    {
+        HISTOGRAMS.put("packetEncode", ENCODE);
+        HISTOGRAMS.put("packetDecode", DECODE);
+        HISTOGRAMS.put("profileSize", PROFILE_SIZE);
+        HISTOGRAMS.put("diskRead", DISK_READ);
+        HISTOGRAMS.put("diskWrite", DISK_WRITE);
+        HISTOGRAMS.put("frameEvaluation", FRAME);
+    }
+
+    /**
+     * Enable or disable recording of metrics, registering or
+     * unregistering MBeans accordingly
+     */
+    public static synchronized void setEnabled(boolean enabled)
+    {
+        if (enabled == Metrics.enabled)
+        {
+            return;
+        }
+
+        Metrics.enabled = enabled;
+
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Map<ObjectName, Object> beans = new LinkedHashMap<ObjectName, Object>();
+
+            beans.put(new ObjectName(DOMAIN + ":type=Metrics"), INSTANCE);
+
+            for (Map.Entry<String, Histogram> entry : HISTOGRAMS.entrySet())
+            {
+                beans.put(new ObjectName(DOMAIN + ":type=Histogram,name=" + entry.getKey()), entry.getValue());
+            }
+
+            for (Map.Entry<ObjectName, Object> entry : beans.entrySet())
+            {
+                boolean registered = server.isRegistered(entry.getKey());
+
+                if (enabled && !registered)
+                {
+                    server.registerMBean(entry.getValue(), entry.getKey());
+                }
+                else if (!enabled && registered)
+                {
+                    server.unregisterMBean(entry.getKey());
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            Aperture.LOGGER.error("Failed to " + (enabled ? "register" : "unregister") + " Aperture's MBeans", e);
+        }
+    }
+
+    /**
+     * Start measuring a duration. Returns 0 if metrics are disabled
+     */
+    public static long start()
+    {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Finish measuring a duration, and record it into given histogram
+     */
+    public static void stop(Histogram histogram, long start)
+    {
+        if (start != 0)
+        {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    public static void add(AtomicLong counter, long value)
+    {
+        if (enabled)
+        {
+            counter.addAndGet(value);
+        }
+    }
+
+    public static void record(Histogram histogram, long value)
+    {
+        if (enabled)
+        {
+            histogram.record(value);
+        }
+    }
+
+    @Override
+    public long getProfilesSent()
+    {
+        return PROFILES_SENT.get();
+    }
+
+    @Override
+    public long getProfilesReceived()
+    {
+        return PROFILES_RECEIVED.get();
+    }
+
+    @Override
+    public long getBytesSent()
+    {
+        return BYTES_SENT.get();
+    }
+
+    @Override
+    public long getBytesReceived()
+    {
+        return BYTES_RECEIVED.get();
+    }
+
+    @Override
+    public long getCacheHits()
+    {
+        return CACHE_HITS.get();
+    }
+
+    @Override
+    public long getCacheMisses()
+    {
+        return CACHE_MISSES.get();
+    }
+
+    @Override
+    public double getCacheHitRate()
+    {
+        long hits = CACHE_HITS.get();
+        long total = hits + CACHE_MISSES.get();
+
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public long getTeleports()
+    {
+        return TELEPORTS.get();
+    }
+
+    @Override
+    public long getTeleportCommands()
+    {
+        return TELEPORT_COMMANDS.get();
+    }
+
+    /**
+     * Reset all counters and histograms
+     */
+    @Override
+    public void reset()
+    {
+        for (AtomicLong counter : new AtomicLong[] {PROFILES_SENT, PROFILES_RECEIVED, BYTES_SENT, BYTES_RECEIVED, CACHE_HITS, CACHE_MISSES, TELEPORTS, TELEPORT_COMMANDS})
+        {
+            counter.set(0);
+        }
+
+        for (Histogram histogram : HISTOGRAMS.values())
+        {
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package mchorse.aperture.metrics;
+
+/**
+ * Metrics MBean interface
+ *
+ * Counters of camera runtime and network statistics which are exposed
+ * over JMX.
+ */
+public interface MetricsMBean
+{
+    public long getProfilesSent();
+
+    public long getProfilesReceived();
+
+    public long getBytesSent();
+
+    public long getBytesReceived();
+
+    public long getCacheHits();
+
+    public long getCacheMisses();
+
+    public double getCacheHitRate();
+
+    public long getTeleports();
+
+    public long getTeleportCommands();
+
+    public void reset();
+}
@@ -3,25 +3,36 @@ package mchorse.aperture.network;
 import mchorse.aperture.Aperture;
 import mchorse.aperture.network.client.ClientHandlerAperture;
 import mchorse.aperture.network.client.ClientHandlerCameraProfile;
+import mchorse.aperture.network.client.ClientHandlerCameraProfileHash;
 import mchorse.aperture.network.client.ClientHandlerCameraProfileList;
+import mchorse.aperture.network.client.ClientHandlerCameraProfileUpdate;
 import mchorse.aperture.network.client.ClientHandlerCameraState;
+import mchorse.aperture.network.client.ClientHandlerCameraTeleport;
+import mchorse.aperture.network.client.ClientHandlerCameraTeleportRejected;
 import mchorse.aperture.network.client.ClientHandlerRenameCameraProfile;
 import mchorse.aperture.network.client.ClientHandlerRemoveCameraProfile;
 import mchorse.aperture.network.common.PacketAperture;
 import mchorse.aperture.network.common.PacketCameraProfile;
+import mchorse.aperture.network.common.PacketCameraProfileHash;
 import mchorse.aperture.network.common.PacketCameraProfileList;
+import mchorse.aperture.network.common.PacketCameraProfileUpdate;
 import mchorse.aperture.network.common.PacketCameraReset;
 import mchorse.aperture.network.common.PacketCameraState;
+import mchorse.aperture.network.common.PacketCameraTeleport;
+import mchorse.aperture.network.common.PacketCameraTeleportRejected;
 import mchorse.aperture.network.common.PacketLoadCameraProfile;
 import mchorse.aperture.network.common.PacketRemoveCameraProfile;
 import mchorse.aperture.network.common.PacketRenameCameraProfile;
 import mchorse.aperture.network.common.PacketRequestCameraProfiles;
+import mchorse.aperture.network.common.PacketUnsubscribeCameraProfiles;
 import mchorse.aperture.network.server.ServerHandlerCameraProfile;
 import mchorse.aperture.network.server.ServerHandlerCameraReset;
+import mchorse.aperture.network.server.ServerHandlerCameraTeleport;
 import mchorse.aperture.network.server.ServerHandlerLoadCameraProfile;
 import mchorse.aperture.network.server.ServerHandlerRemoveCameraProfile;
 import mchorse.aperture.network.server.ServerHandlerRenameCameraProfile;
 import mchorse.aperture.network.server.ServerHandlerRequestCameraProfiles;
+import mchorse.aperture.network.server.ServerHandlerUnsubscribeCameraProfiles;
 import mchorse.mclib.network.AbstractDispatcher;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -44,11 +55,17 @@ public class Dispatcher
 
             this.register(PacketCameraProfile.class, ClientHandlerCameraProfile.class, Side.CLIENT);
             this.register(PacketCameraProfile.class, ServerHandlerCameraProfile.class, Side.SERVER);
+            this.register(PacketCameraProfileHash.class, ClientHandlerCameraProfileHash.class, Side.CLIENT);
             this.register(PacketCameraReset.class, ServerHandlerCameraReset.class, Side.SERVER);
             this.register(PacketCameraState.class, ClientHandlerCameraState.class, Side.CLIENT);
+            this.register(PacketCameraTeleport.class, ClientHandlerCameraTeleport.class, Side.CLIENT);
+            this.register(PacketCameraTeleport.class, ServerHandlerCameraTeleport.class, Side.SERVER);
+            this.register(PacketCameraTeleportRejected.class, ClientHandlerCameraTeleportRejected.class, Side.CLIENT);
             this.register(PacketLoadCameraProfile.class, ServerHandlerLoadCameraProfile.class, Side.SERVER);
             this.register(PacketRequestCameraProfiles.class, ServerHandlerRequestCameraProfiles.class, Side.SERVER);
             this.register(PacketCameraProfileList.class, ClientHandlerCameraProfileList.class, Side.CLIENT);
+            this.register(PacketCameraProfileUpdate.class, ClientHandlerCameraProfileUpdate.class, Side.CLIENT);
+            this.register(PacketUnsubscribeCameraProfiles.class, ServerHandlerUnsubscribeCameraProfiles.class, Side.SERVER);
 
             this.register(PacketRenameCameraProfile.class, ClientHandlerRenameCameraProfile.class, Side.CLIENT);
             this.register(PacketRenameCameraProfile.class, ServerHandlerRenameCameraProfile.class, Side.SERVER);
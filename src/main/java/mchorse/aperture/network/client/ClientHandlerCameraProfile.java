@@ -1,5 +1,6 @@
 package mchorse.aperture.network.client;
 
+import mchorse.aperture.Aperture;
 import mchorse.aperture.ClientProxy;
 import mchorse.aperture.camera.CameraProfile;
 import mchorse.aperture.camera.destination.ServerDestination;
@@ -26,21 +27,34 @@ public class ClientHandlerCameraProfile extends ClientMessageHandler<PacketCamer
     @SideOnly(Side.CLIENT)
     public void run(EntityPlayerSP player, PacketCameraProfile message)
     {
-        CameraProfile profile = message.profile;
+        if (!message.hash.isEmpty())
+        {
+            ClientProxy.profileCache.put(message.hash, message.profile, Aperture.proxy.config.camera_cache_size);
+        }
+
+        load(player, message.filename, message.profile, message.play);
+    }
 
-        profile.setDestination(new ServerDestination(message.filename));
+    /**
+     * Load given server's camera profile (received or taken from the 
+     * cache) and start it, if needed
+     */
+    @SideOnly(Side.CLIENT)
+    public static void load(EntityPlayerSP player, String filename, CameraProfile profile, boolean play)
+    {
+        profile.setDestination(new ServerDestination(filename));
         profile.dirty = false;
 
         ClientProxy.control.addProfile(profile);
 
-        if (message.play)
+        if (play)
         {
             ClientProxy.runner.start(ClientProxy.control.currentProfile);
         }
 
         if (ClientProxy.runner.getGameMode(player) != GameType.ADVENTURE)
         {
-            L10n.success(player, "profile.load", message.filename);
+            L10n.success(player, "profile.load", filename);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package mchorse.aperture.network.client;
+
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.network.Dispatcher;
+import mchorse.aperture.network.common.PacketCameraProfileHash;
+import mchorse.aperture.network.common.PacketLoadCameraProfile;
+import mchorse.mclib.network.ClientMessageHandler;
+import net.minecraft.client.entity.EntityPlayerSP;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Client handler camera profile hash
+ *
+ * Loads camera profile from the cache, or asks the server to send the 
+ * whole profile, if it isn't cached.
+ */
+public class ClientHandlerCameraProfileHash extends ClientMessageHandler<PacketCameraProfileHash>
+{
+    @Override
+    @SideOnly(Side.CLIENT)
+    public void run(EntityPlayerSP player, PacketCameraProfileHash message)
+    {
+        CameraProfile profile = ClientProxy.profileCache.get(message.hash);
+
+        if (profile == null)
+        {
+            Dispatcher.sendToServer(new PacketLoadCameraProfile(message.filename, true, message.play, true));
+        }
+        else
+        {
+            profile.quantized = message.quantized;
+            ClientHandlerCameraProfile.load(player, message.filename, profile, message.play);
+        }
+    }
+}
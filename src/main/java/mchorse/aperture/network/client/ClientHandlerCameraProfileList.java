@@ -6,6 +6,7 @@ import mchorse.aperture.camera.CameraProfile;
 import mchorse.aperture.camera.destination.AbstractDestination;
 import mchorse.aperture.camera.destination.ClientDestination;
 import mchorse.aperture.camera.destination.ServerDestination;
+import mchorse.aperture.camera.storage.ProfileInfo;
 import mchorse.aperture.client.gui.GuiCameraEditor;
 import mchorse.aperture.client.gui.GuiProfilesManager;
 import mchorse.aperture.client.gui.GuiProfilesManager.CameraProfileEntry;
@@ -31,12 +32,18 @@ public class ClientHandlerCameraProfileList extends ClientMessageHandler<PacketC
 
             for (String filename : CameraAPI.getClientProfiles())
             {
-                manager.profiles.add(manager.createEntry(new ClientDestination(filename)));
+                CameraProfileEntry entry = manager.createEntry(new ClientDestination(filename));
+
+                manager.profiles.add(entry);
+                manager.loadHeader(entry);
             }
 
-            for (String profile : message.cameras)
+            for (ProfileInfo info : message.profiles)
             {
-                manager.profiles.add(manager.createEntry(new ServerDestination(profile)));
+                CameraProfileEntry entry = manager.createEntry(new ServerDestination(info.name));
+
+                entry.info = info;
+                manager.profiles.add(entry);
             }
 
             if (!ClientProxy.control.logged)
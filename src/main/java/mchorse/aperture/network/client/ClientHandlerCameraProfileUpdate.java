@@ -0,0 +1,25 @@
+package mchorse.aperture.network.client;
+
+import mchorse.aperture.client.gui.GuiCameraEditor;
+import mchorse.aperture.network.common.PacketCameraProfileUpdate;
+import mchorse.mclib.network.ClientMessageHandler;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.entity.EntityPlayerSP;
+import net.minecraft.client.gui.GuiScreen;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+public class ClientHandlerCameraProfileUpdate extends ClientMessageHandler<PacketCameraProfileUpdate>
+{
+    @Override
+    @SideOnly(Side.CLIENT)
+    public void run(EntityPlayerSP player, PacketCameraProfileUpdate message)
+    {
+        GuiScreen current = Minecraft.getMinecraft().currentScreen;
+
+        if (current instanceof GuiCameraEditor)
+        {
+            ((GuiCameraEditor) current).profiles.updateServerProfile(message);
+        }
+    }
+}
@@ -24,10 +24,13 @@ public class ClientHandlerCameraState extends ClientMessageHandler<PacketCameraS
         {
             if (!message.filename.isEmpty())
             {
-                new ClientDestination(message.filename).load();
+                /* Client profiles are loaded in the background */
+                new ClientDestination(message.filename).load(() -> ClientProxy.runner.start(ClientProxy.control.currentProfile));
+            }
+            else
+            {
+                ClientProxy.runner.start(ClientProxy.control.currentProfile);
             }
-
-            ClientProxy.runner.start(ClientProxy.control.currentProfile);
         }
         else
         {
@@ -0,0 +1,23 @@
+package mchorse.aperture.network.client;
+
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.network.common.PacketCameraTeleport;
+import mchorse.mclib.network.ClientMessageHandler;
+import net.minecraft.client.entity.EntityPlayerSP;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Client handler camera teleport
+ *
+ * Server lets the client know that it accepts teleport packets
+ */
+public class ClientHandlerCameraTeleport extends ClientMessageHandler<PacketCameraTeleport>
+{
+    @Override
+    @SideOnly(Side.CLIENT)
+    public void run(EntityPlayerSP player, PacketCameraTeleport message)
+    {
+        ClientProxy.teleport = true;
+    }
+}
@@ -0,0 +1,24 @@
+package mchorse.aperture.network.client;
+
+import mchorse.aperture.ClientProxy;
+import mchorse.aperture.network.common.PacketCameraTeleportRejected;
+import mchorse.mclib.network.ClientMessageHandler;
+import net.minecraft.client.entity.EntityPlayerSP;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Client handler camera teleport rejected
+ *
+ * Server didn't move the player to the camera, so the runner has to 
+ * catch up with a teleport command
+ */
+public class ClientHandlerCameraTeleportRejected extends ClientMessageHandler<PacketCameraTeleportRejected>
+{
+    @Override
+    @SideOnly(Side.CLIENT)
+    public void run(EntityPlayerSP player, PacketCameraTeleportRejected message)
+    {
+        ClientProxy.runner.rejectTeleport();
+    }
+}
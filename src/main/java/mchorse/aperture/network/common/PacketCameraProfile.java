@@ -2,6 +2,7 @@ package mchorse.aperture.network.common;
 
 import io.netty.buffer.ByteBuf;
 import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.metrics.Metrics;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
@@ -11,6 +12,18 @@ public class PacketCameraProfile implements IMessage
     public String filename;
     public CameraProfile profile;
 
+    /**
+     * Content hash of the profile, under which client caches it (empty 
+     * when the profile is sent by the client)
+     */
+    public String hash = "";
+
+    /**
+     * Whether positions are quantized (the received profile is marked 
+     * as {@link CameraProfile#quantized})
+     */
+    public boolean quantize;
+
     public PacketCameraProfile()
     {}
 
@@ -29,17 +42,44 @@ public class PacketCameraProfile implements IMessage
     @Override
     public void fromBytes(ByteBuf buf)
     {
+        long time = Metrics.start();
+        int index = buf.readerIndex();
+
         this.play = buf.readBoolean();
         this.filename = ByteBufUtils.readUTF8String(buf);
+        this.hash = ByteBufUtils.readUTF8String(buf);
+        this.quantize = buf.readBoolean();
         this.profile = new CameraProfile(null);
         this.profile.fromByteBuf(buf);
+        this.profile.quantized = this.quantize;
+
+        if (time != 0)
+        {
+            Metrics.stop(Metrics.DECODE, time);
+            Metrics.record(Metrics.PROFILE_SIZE, buf.readerIndex() - index);
+            Metrics.add(Metrics.PROFILES_RECEIVED, 1);
+            Metrics.add(Metrics.BYTES_RECEIVED, buf.readerIndex() - index);
+        }
     }
 
     @Override
     public void toBytes(ByteBuf buf)
     {
+        long time = Metrics.start();
+        int index = buf.writerIndex();
+
         buf.writeBoolean(this.play);
         ByteBufUtils.writeUTF8String(buf, this.filename);
-        this.profile.toByteBuf(buf);
+        ByteBufUtils.writeUTF8String(buf, this.hash);
+        buf.writeBoolean(this.quantize);
+        this.profile.toByteBuf(buf, this.quantize);
+
+        if (time != 0)
+        {
+            Metrics.stop(Metrics.ENCODE, time);
+            Metrics.record(Metrics.PROFILE_SIZE, buf.writerIndex() - index);
+            Metrics.add(Metrics.PROFILES_SENT, 1);
+            Metrics.add(Metrics.BYTES_SENT, buf.writerIndex() - index);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package mchorse.aperture.network.common;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+
+/**
+ * Camera profile hash packet
+ * 
+ * Sent by the server instead of whole camera profile. Client loads the 
+ * profile from its cache by this hash, and requests the whole profile 
+ * only if it isn't cached.
+ */
+public class PacketCameraProfileHash implements IMessage
+{
+    public String filename;
+    public String hash;
+    public boolean play;
+
+    /**
+     * Whether the hash belongs to quantized version of the profile
+     */
+    public boolean quantized;
+
+    public PacketCameraProfileHash()
+    {}
+
+    public PacketCameraProfileHash(String filename, String hash, boolean play)
+    {
+        this.filename = filename;
+        this.hash = hash;
+        this.play = play;
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {
+        this.filename = ByteBufUtils.readUTF8String(buf);
+        this.hash = ByteBufUtils.readUTF8String(buf);
+        this.play = buf.readBoolean();
+        this.quantized = buf.readBoolean();
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {
+        ByteBufUtils.writeUTF8String(buf, this.filename);
+        ByteBufUtils.writeUTF8String(buf, this.hash);
+        buf.writeBoolean(this.play);
+        buf.writeBoolean(this.quantized);
+    }
+}
@@ -4,40 +4,53 @@ import java.util.ArrayList;
 import java.util.List;
 
 import io.netty.buffer.ByteBuf;
-import net.minecraftforge.fml.common.network.ByteBufUtils;
+import mchorse.aperture.camera.storage.ProfileInfo;
+import mchorse.aperture.utils.BufferUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
 public class PacketCameraProfileList implements IMessage
 {
     public List<String> cameras;
+    public List<ProfileInfo> profiles;
 
     public PacketCameraProfileList()
     {
         this.cameras = new ArrayList<String>();
+        this.profiles = new ArrayList<ProfileInfo>();
     }
 
-    public PacketCameraProfileList(List<String> cameras)
+    public PacketCameraProfileList(List<ProfileInfo> profiles)
     {
-        this.cameras = cameras;
+        this();
+
+        for (ProfileInfo info : profiles)
+        {
+            this.cameras.add(info.name);
+            this.profiles.add(info);
+        }
     }
 
     @Override
     public void fromBytes(ByteBuf buf)
     {
-        for (int i = 0, c = buf.readInt(); i < c; i++)
+        for (int i = 0, c = BufferUtils.readVarInt(buf); i < c; i++)
         {
-            this.cameras.add(ByteBufUtils.readUTF8String(buf));
+            ProfileInfo info = new ProfileInfo();
+
+            info.fromByteBuf(buf);
+            this.cameras.add(info.name);
+            this.profiles.add(info);
         }
     }
 
     @Override
     public void toBytes(ByteBuf buf)
     {
-        buf.writeInt(this.cameras.size());
+        BufferUtils.writeVarInt(buf, this.profiles.size());
 
-        for (String str : this.cameras)
+        for (ProfileInfo info : this.profiles)
         {
-            ByteBufUtils.writeUTF8String(buf, str);
+            info.toByteBuf(buf);
         }
     }
-}
\ No newline at end of file
+}
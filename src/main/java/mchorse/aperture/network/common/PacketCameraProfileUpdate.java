@@ -0,0 +1,91 @@
+package mchorse.aperture.network.common;
+
+import io.netty.buffer.ByteBuf;
+import mchorse.aperture.camera.storage.ProfileInfo;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+
+/**
+ * Incremental update of server's camera profile list, which is sent to 
+ * players that have the camera editor opened
+ */
+public class PacketCameraProfileUpdate implements IMessage
+{
+    public static final byte UPDATE = 0;
+    public static final byte REMOVE = 1;
+    public static final byte RENAME = 2;
+
+    public byte action;
+    public String name = "";
+    public String to = "";
+    public ProfileInfo info;
+
+    public static PacketCameraProfileUpdate update(ProfileInfo info)
+    {
+        PacketCameraProfileUpdate packet = new PacketCameraProfileUpdate();
+
+        packet.action = UPDATE;
+        packet.name = info.name;
+        packet.info = info;
+
+        return packet;
+    }
+
+    public static PacketCameraProfileUpdate remove(String name)
+    {
+        PacketCameraProfileUpdate packet = new PacketCameraProfileUpdate();
+
+        packet.action = REMOVE;
+        packet.name = name;
+
+        return packet;
+    }
+
+    public static PacketCameraProfileUpdate rename(String from, String to)
+    {
+        PacketCameraProfileUpdate packet = new PacketCameraProfileUpdate();
+
+        packet.action = RENAME;
+        packet.name = from;
+        packet.to = to;
+
+        return packet;
+    }
+
+    public PacketCameraProfileUpdate()
+    {}
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {
+        this.action = buf.readByte();
+
+        if (this.action == UPDATE)
+        {
+            this.info = new ProfileInfo();
+            this.info.fromByteBuf(buf);
+            this.name = this.info.name;
+        }
+        else
+        {
+            this.name = ByteBufUtils.readUTF8String(buf);
+            this.to = ByteBufUtils.readUTF8String(buf);
+        }
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {
+        buf.writeByte(this.action);
+
+        if (this.action == UPDATE)
+        {
+            this.info.toByteBuf(buf);
+        }
+        else
+        {
+            ByteBufUtils.writeUTF8String(buf, this.name);
+            ByteBufUtils.writeUTF8String(buf, this.to);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package mchorse.aperture.network.common;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+
+/**
+ * Camera teleport packet
+ *
+ * Sent by the client during playback to move the real player along 
+ * with the camera. Server sends an empty one upon login, so the client 
+ * would know that it can use these packets instead of /tp commands.
+ */
+public class PacketCameraTeleport implements IMessage
+{
+    public double x;
+    public double y;
+    public double z;
+    public float yaw;
+    public float pitch;
+
+    public PacketCameraTeleport()
+    {}
+
+    public PacketCameraTeleport(double x, double y, double z, float yaw, float pitch)
+    {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {
+        this.x = buf.readDouble();
+        this.y = buf.readDouble();
+        this.z = buf.readDouble();
+        this.yaw = buf.readFloat();
+        this.pitch = buf.readFloat();
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {
+        buf.writeDouble(this.x);
+        buf.writeDouble(this.y);
+        buf.writeDouble(this.z);
+        buf.writeFloat(this.yaw);
+        buf.writeFloat(this.pitch);
+    }
+}
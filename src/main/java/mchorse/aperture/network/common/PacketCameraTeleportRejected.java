@@ -0,0 +1,25 @@
+package mchorse.aperture.network.common;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+
+/**
+ * Camera teleport rejected packet
+ *
+ * Sent by the server when a teleport packet was too far from the 
+ * player's current position, so the client could fall back to teleport 
+ * commands instead of assuming that the player was moved.
+ */
+public class PacketCameraTeleportRejected implements IMessage
+{
+    public PacketCameraTeleportRejected()
+    {}
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {}
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {}
+}
@@ -9,13 +9,31 @@ public class PacketLoadCameraProfile implements IMessage
     public String filename;
     public boolean force;
 
+    /**
+     * Whether the profile should be played once it's loaded
+     */
+    public boolean play;
+
+    /**
+     * Whether whole profile should be sent instead of its hash (client 
+     * doesn't have it in the cache)
+     */
+    public boolean full;
+
     public PacketLoadCameraProfile()
     {}
 
     public PacketLoadCameraProfile(String filename, boolean force)
+    {
+        this(filename, force, false, false);
+    }
+
+    public PacketLoadCameraProfile(String filename, boolean force, boolean play, boolean full)
     {
         this.filename = filename;
         this.force = force;
+        this.play = play;
+        this.full = full;
     }
 
     @Override
@@ -23,12 +41,16 @@ public class PacketLoadCameraProfile implements IMessage
     {
         this.filename = ByteBufUtils.readUTF8String(buf);
         this.force = buf.readBoolean();
+        this.play = buf.readBoolean();
+        this.full = buf.readBoolean();
     }
 
     @Override
     public void toBytes(ByteBuf buf)
     {
         ByteBufUtils.writeUTF8String(buf, this.filename);
-        buf.writeBoolean(force);
+        buf.writeBoolean(this.force);
+        buf.writeBoolean(this.play);
+        buf.writeBoolean(this.full);
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package mchorse.aperture.network.common;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+
+/**
+ * Tell the server that the client doesn't need camera profile list 
+ * updates anymore (camera editor was closed)
+ */
+public class PacketUnsubscribeCameraProfiles implements IMessage
+{
+    public PacketUnsubscribeCameraProfiles()
+    {}
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {}
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {}
+}
@@ -1,6 +1,7 @@
 package mchorse.aperture.network.server;
 
 import mchorse.aperture.camera.CameraUtils;
+import mchorse.aperture.camera.storage.ProfileDigest;
 import mchorse.aperture.capabilities.camera.Camera;
 import mchorse.aperture.capabilities.camera.ICamera;
 import mchorse.aperture.network.common.PacketCameraProfile;
@@ -20,12 +21,14 @@ public class ServerHandlerCameraProfile extends ServerMessageHandler<PacketCamer
             return;
         }
 
-        if (CameraUtils.saveCameraProfile(message.filename, CameraUtils.toJSON(message.profile), player))
+        if (CameraUtils.saveCameraProfile(message.filename, message.profile, player))
         {
             ICamera cap = Camera.get(player);
 
+            CameraUtils.getServerIndex().update(message.filename);
+
             cap.setCurrentProfile(message.filename);
-            cap.setCurrentProfileTimestamp(System.currentTimeMillis());
+            cap.setCurrentProfileHash(ProfileDigest.hash(message.profile, false));
 
             L10n.success(player, "profile.save", message.filename);
         }
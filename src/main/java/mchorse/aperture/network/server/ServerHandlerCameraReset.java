@@ -19,6 +19,6 @@ public class ServerHandlerCameraReset extends ServerMessageHandler<PacketCameraR
         ICamera camera = Camera.get(player);
 
         camera.setCurrentProfile("");
-        camera.setCurrentProfileTimestamp(-1);
+        camera.setCurrentProfileHash("");
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package mchorse.aperture.network.server;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.metrics.Metrics;
+import mchorse.aperture.network.Dispatcher;
+import mchorse.aperture.network.common.PacketCameraTeleport;
+import mchorse.aperture.network.common.PacketCameraTeleportRejected;
+import mchorse.mclib.network.ServerMessageHandler;
+import net.minecraft.entity.player.EntityPlayerMP;
+
+/**
+ * Server handler camera teleport
+ *
+ * Moves the player to the camera's position. Only players which are 
+ * allowed to use /tp can be teleported, no further than configured 
+ * distance at once, and no more than once per tick. Teleports which 
+ * can't be done are rejected, so the client could fall back to /tp.
+ */
+public class ServerHandlerCameraTeleport extends ServerMessageHandler<PacketCameraTeleport>
+{
+    /**
+     * World time of every player's last teleport
+     */
+    private Map<EntityPlayerMP, Long> lastTeleport = new WeakHashMap<EntityPlayerMP, Long>();
+
+    @Override
+    public void run(EntityPlayerMP player, PacketCameraTeleport message)
+    {
+        if (!this.isValid(message))
+        {
+            return;
+        }
+
+        long time = player.worldObj.getTotalWorldTime();
+        Long last = this.lastTeleport.get(player);
+        double distance = Aperture.proxy.config.camera_teleport_distance;
+
+        /* Player might've lost the permission since logging in, or the
+         * client sent two packets within a tick (i.e. when the server
+         * lags), so the client has to catch up on its own */
+        if (!canTeleport(player) || (last != null && last.longValue() == time) || player.getDistanceSq(message.x, message.y, message.z) > distance * distance)
+        {
+            Dispatcher.sendTo(new PacketCameraTeleportRejected(), player);
+
+            return;
+        }
+
+        this.lastTeleport.put(player, time);
+        player.connection.setPlayerLocation(message.x, message.y, message.z, message.yaw, message.pitch);
+        Metrics.add(Metrics.TELEPORTS, 1);
+    }
+
+    /**
+     * Whether given player may be teleported with teleport packets
+     */
+    public static boolean canTeleport(EntityPlayerMP player)
+    {
+        return player.canCommandSenderUseCommand(2, "tp");
+    }
+
+    private boolean isValid(PacketCameraTeleport message)
+    {
+        return isFinite(message.x) && isFinite(message.y) && isFinite(message.z) && isFinite(message.yaw) && isFinite(message.pitch);
+    }
+
+    private static boolean isFinite(double value)
+    {
+        return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+}
@@ -10,6 +10,13 @@ public class ServerHandlerLoadCameraProfile extends ServerMessageHandler<PacketL
     @Override
     public void run(EntityPlayerMP player, PacketLoadCameraProfile message)
     {
-        CameraUtils.sendProfileToPlayer(message.filename, player, false, message.force);
+        if (message.full)
+        {
+            CameraUtils.sendFullProfileToPlayer(message.filename, player, message.play);
+        }
+        else
+        {
+            CameraUtils.sendProfileToPlayer(message.filename, player, message.play, message.force);
+        }
     }
 }
\ No newline at end of file
@@ -13,6 +13,8 @@ public class ServerHandlerRemoveCameraProfile extends ServerMessageHandler<Packe
     {
         if (CameraUtils.removeProfile(message.profile))
         {
+            CameraUtils.getServerIndex().update(message.profile);
+
             Dispatcher.sendTo(message, player);
         }
     }
@@ -15,10 +15,11 @@ public class ServerHandlerRenameCameraProfile extends ServerMessageHandler<Packe
     {
         if (CameraUtils.renameProfile(message.from, message.to))
         {
+            CameraUtils.getServerIndex().rename(message.from, message.to);
+
             ICamera cap = Camera.get(player);
 
-            cap.setCurrentProfile(message.from);
-            cap.setCurrentProfileTimestamp(System.currentTimeMillis());
+            cap.setCurrentProfile(message.to);
         }
     }
 }
\ No newline at end of file
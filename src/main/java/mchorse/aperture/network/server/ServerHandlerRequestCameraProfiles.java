@@ -1,6 +1,7 @@
 package mchorse.aperture.network.server;
 
-import mchorse.aperture.camera.CameraAPI;
+import mchorse.aperture.camera.CameraUtils;
+import mchorse.aperture.camera.storage.ProfileIndex;
 import mchorse.aperture.network.Dispatcher;
 import mchorse.aperture.network.common.PacketCameraProfileList;
 import mchorse.aperture.network.common.PacketRequestCameraProfiles;
@@ -12,6 +13,11 @@ public class ServerHandlerRequestCameraProfiles extends ServerMessageHandler<Pac
     @Override
     public void run(EntityPlayerMP player, PacketRequestCameraProfiles message)
     {
-        Dispatcher.sendTo(new PacketCameraProfileList(CameraAPI.getServerProfiles()), player);
+        ProfileIndex index = CameraUtils.getServerIndex();
+
+        /* Player requests the list when the camera editor is opened, so 
+         * he'll be getting updates until it's closed */
+        index.subscribe(player);
+        Dispatcher.sendTo(new PacketCameraProfileList(index.list()), player);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package mchorse.aperture.network.server;
+
+import mchorse.aperture.camera.CameraUtils;
+import mchorse.aperture.network.common.PacketUnsubscribeCameraProfiles;
+import mchorse.mclib.network.ServerMessageHandler;
+import net.minecraft.entity.player.EntityPlayerMP;
+
+public class ServerHandlerUnsubscribeCameraProfiles extends ServerMessageHandler<PacketUnsubscribeCameraProfiles>
+{
+    @Override
+    public void run(EntityPlayerMP player, PacketUnsubscribeCameraProfiles message)
+    {
+        CameraUtils.getServerIndex().unsubscribe(player);
+    }
+}
@@ -0,0 +1,175 @@
+package mchorse.aperture.utils;
+
+import io.netty.buffer.ByteBuf;
+import mchorse.aperture.camera.core.IByteSink;
+import mchorse.aperture.camera.core.IByteSource;
+import mchorse.aperture.camera.core.VarInts;
+
+/**
+ * Buffer utilities
+ *
+ * This class provides variable length encoding of integers (LEB128
+ * style, 7 bits per byte) and zig-zag encoding for signed values,
+ * which are used by the compact camera profile encoding. Small numbers,
+ * like keyframe tick deltas or point durations, take one byte instead
+ * of eight.
+ *
+ * The codec itself lives in {@link VarInts}, this class only adapts it
+ * (and camera data's byte sinks and sources) to netty's byte buffers.
+ */
+public class BufferUtils
+{
+    /**
+     * Adapt byte buffer to a byte sink (camera data is written to it)
+     */
+    public static IByteSink sink(ByteBuf buffer)
+    {
+        return new ByteBufAdapter(buffer);
+    }
+
+    /**
+     * Adapt byte buffer to a byte source (camera data is read from it)
+     */
+    public static IByteSource source(ByteBuf buffer)
+    {
+        return new ByteBufAdapter(buffer);
+    }
+
+    /**
+     * Write an unsigned variable length int
+     */
+    public static void writeVarInt(ByteBuf buffer, int value)
+    {
+        VarInts.writeVarInt(buffer::writeByte, value);
+    }
+
+    /**
+     * Read an unsigned variable length int
+     */
+    public static int readVarInt(ByteBuf buffer)
+    {
+        return VarInts.readVarInt(buffer::readByte);
+    }
+
+    /**
+     * Write an unsigned variable length long
+     */
+    public static void writeVarLong(ByteBuf buffer, long value)
+    {
+        VarInts.writeVarLong(buffer::writeByte, value);
+    }
+
+    /**
+     * Read an unsigned variable length long
+     */
+    public static long readVarLong(ByteBuf buffer)
+    {
+        return VarInts.readVarLong(buffer::readByte);
+    }
+
+    /**
+     * Write a signed variable length int (zig-zag encoded, so small
+     * negative numbers are also short)
+     */
+    public static void writeSignedVarInt(ByteBuf buffer, int value)
+    {
+        writeVarInt(buffer, VarInts.encodeZigZag(value));
+    }
+
+    /**
+     * Read a signed (zig-zag encoded) variable length int
+     */
+    public static int readSignedVarInt(ByteBuf buffer)
+    {
+        return VarInts.decodeZigZag(readVarInt(buffer));
+    }
+
+    /**
+     * Write a signed variable length long (zig-zag encoded)
+     */
+    public static void writeSignedVarLong(ByteBuf buffer, long value)
+    {
+        writeVarLong(buffer, VarInts.encodeZigZag(value));
+    }
+
+    /**
+     * Read a signed (zig-zag encoded) variable length long
+     */
+    public static long readSignedVarLong(ByteBuf buffer)
+    {
+        return VarInts.decodeZigZag(readVarLong(buffer));
+    }
+
+    /**
+     * Byte buffer adapter
+     */
+    private static class ByteBufAdapter implements IByteSink, IByteSource
+    {
+        private final ByteBuf buffer;
+
+        public ByteBufAdapter(ByteBuf buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void writeByte(int value)
+        {
+            this.buffer.writeByte(value);
+        }
+
+        @Override
+        public void writeInt(int value)
+        {
+            this.buffer.writeInt(value);
+        }
+
+        @Override
+        public void writeLong(long value)
+        {
+            this.buffer.writeLong(value);
+        }
+
+        @Override
+        public void writeFloat(float value)
+        {
+            this.buffer.writeFloat(value);
+        }
+
+        @Override
+        public void writeDouble(double value)
+        {
+            this.buffer.writeDouble(value);
+        }
+
+        @Override
+        public byte readByte()
+        {
+            return this.buffer.readByte();
+        }
+
+        @Override
+        public int readInt()
+        {
+            return this.buffer.readInt();
+        }
+
+        @Override
+        public long readLong()
+        {
+            return this.buffer.readLong();
+        }
+
+        @Override
+        public float readFloat()
+        {
+            return this.buffer.readFloat();
+        }
+
+        @Override
+        public double readDouble()
+        {
+            return this.buffer.readDouble();
+        }
+    }
+}
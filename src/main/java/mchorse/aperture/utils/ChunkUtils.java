@@ -0,0 +1,89 @@
+package mchorse.aperture.utils;
+
+import java.lang.reflect.Field;
+
+import net.minecraft.client.renderer.RenderGlobal;
+import net.minecraft.client.renderer.ViewFrustum;
+import net.minecraft.client.renderer.chunk.ChunkRenderDispatcher;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Chunk utilities
+ *
+ * Provides access to {@link RenderGlobal}'s private chunk rendering 
+ * fields. Fields are looked up by their type (so it works regardless of 
+ * obfuscation), and only once.
+ */
+@SideOnly(Side.CLIENT)
+public class ChunkUtils
+{
+    private static Field dispatcherField;
+    private static Field frustumField;
+    private static boolean searched;
+
+    /**
+     * Get render global's chunk render dispatcher, or null if it can't 
+     * be accessed
+     */
+    public static ChunkRenderDispatcher getDispatcher(RenderGlobal render)
+    {
+        return (ChunkRenderDispatcher) get(render, true);
+    }
+
+    /**
+     * Get render global's view frustum, or null if it can't be accessed
+     */
+    public static ViewFrustum getFrustum(RenderGlobal render)
+    {
+        return (ViewFrustum) get(render, false);
+    }
+
+    private static Object get(RenderGlobal render, boolean dispatcher)
+    {
+        findFields();
+
+        Field field = dispatcher ? dispatcherField : frustumField;
+
+        if (render == null || field == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return field.get(render);
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    private static void findFields()
+    {
+        if (searched)
+        {
+            return;
+        }
+
+        for (Field field : RenderGlobal.class.getDeclaredFields())
+        {
+            if (dispatcherField == null && field.getType().equals(ChunkRenderDispatcher.class))
+            {
+                dispatcherField = field;
+                dispatcherField.setAccessible(true);
+            }
+
+            if (frustumField == null && field.getType().equals(ViewFrustum.class))
+            {
+                frustumField = field;
+                frustumField.setAccessible(true);
+            }
+        }
+
+        searched = true;
+    }
+}
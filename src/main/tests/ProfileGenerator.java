@@ -0,0 +1,248 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import mchorse.aperture.Aperture;
+import mchorse.aperture.CommonProxy;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.FixtureRegistry;
+import mchorse.aperture.camera.ModifierRegistry;
+import mchorse.aperture.camera.data.Angle;
+import mchorse.aperture.camera.data.Point;
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.fixtures.CircularFixture;
+import mchorse.aperture.camera.fixtures.IdleFixture;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
+import mchorse.aperture.camera.fixtures.NullFixture;
+import mchorse.aperture.camera.fixtures.PathFixture.DurablePosition;
+import mchorse.aperture.camera.fixtures.PathFixture;
+import mchorse.aperture.camera.modifiers.AbstractModifier;
+import mchorse.aperture.camera.modifiers.AngleModifier;
+import mchorse.aperture.camera.modifiers.DragModifier;
+import mchorse.aperture.camera.modifiers.FollowModifier;
+import mchorse.aperture.camera.modifiers.LookModifier;
+import mchorse.aperture.camera.modifiers.MathModifier;
+import mchorse.aperture.camera.modifiers.OrbitModifier;
+import mchorse.aperture.camera.modifiers.ShakeModifier;
+import mchorse.aperture.camera.modifiers.TranslateModifier;
+import mchorse.aperture.config.ApertureConfig;
+import net.minecraftforge.common.config.Configuration;
+
+/**
+ * Synthetic camera profile generator
+ *
+ * Builds camera profiles with given amount of fixtures (cycling through
+ * all registered fixture types), path points per path fixture,
+ * keyframes per channel of keyframe fixtures and modifiers per fixture
+ * (cycling through all registered modifier types). Values are random,
+ * but reproducible by the seed.
+ */
+public class ProfileGenerator
+{
+    public int fixtures = 1;
+    public int points = 2;
+    public int keyframes = 2;
+    public int modifiers = 0;
+    public int globalModifiers = 0;
+
+    /**
+     * Duration of every fixture (path fixtures and keyframe fixtures
+     * get long enough to fit all of their points and keyframes)
+     */
+    public long duration = 20;
+
+    /**
+     * Fixture types which are generated (all registered by default)
+     */
+    public List<Class<? extends AbstractFixture>> fixtureTypes = new ArrayList<Class<? extends AbstractFixture>>();
+
+    private Random random;
+
+    /**
+     * Set up the environment which is needed to create camera
+     * profiles without the game, i.e. config and registries
+     */
+    public static void setUp()
+    {
+        if (Aperture.proxy == null)
+        {
+            File file = new File(System.getProperty("java.io.tmpdir"), "aperture-tests.cfg");
+
+            file.deleteOnExit();
+
+            Aperture.proxy = new CommonProxy();
+            Aperture.proxy.forge = new Configuration(file);
+            Aperture.proxy.config = new ApertureConfig(Aperture.proxy.forge);
+        }
+
+        FixtureRegistry.register("idle", IdleFixture.class);
+        FixtureRegistry.register("circular", CircularFixture.class);
+        FixtureRegistry.register("keyframe", KeyframeFixture.class);
+        FixtureRegistry.register("null", NullFixture.class);
+        FixtureRegistry.register("path", PathFixture.class);
+
+        ModifierRegistry.register("shake", ShakeModifier.class);
+        ModifierRegistry.register("math", MathModifier.class);
+        ModifierRegistry.register("look", LookModifier.class);
+        ModifierRegistry.register("follow", FollowModifier.class);
+        ModifierRegistry.register("translate", TranslateModifier.class);
+        ModifierRegistry.register("angle", AngleModifier.class);
+        ModifierRegistry.register("orbit", OrbitModifier.class);
+        ModifierRegistry.register("drag", DragModifier.class);
+    }
+
+    public ProfileGenerator fixtures(int fixtures, Class<? extends AbstractFixture>... types)
+    {
+        this.fixtures = fixtures;
+        this.fixtureTypes.clear();
+
+        for (Class<? extends AbstractFixture> type : types)
+        {
+            this.fixtureTypes.add(type);
+        }
+
+        return this;
+    }
+
+    public ProfileGenerator points(int points)
+    {
+        this.points = points;
+
+        return this;
+    }
+
+    public ProfileGenerator keyframes(int keyframes)
+    {
+        this.keyframes = keyframes;
+
+        return this;
+    }
+
+    public ProfileGenerator modifiers(int modifiers, int globalModifiers)
+    {
+        this.modifiers = modifiers;
+        this.globalModifiers = globalModifiers;
+
+        return this;
+    }
+
+    public CameraProfile generate(long seed) throws Exception
+    {
+        List<Class<? extends AbstractFixture>> types = new ArrayList<Class<? extends AbstractFixture>>(this.fixtureTypes);
+        CameraProfile profile = new CameraProfile(null);
+
+        this.random = new Random(seed);
+
+        if (types.isEmpty())
+        {
+            types.addAll(FixtureRegistry.CLASS_TO_ID.keySet());
+        }
+
+        for (int i = 0; i < this.fixtures; i++)
+        {
+            AbstractFixture fixture = this.createFixture(types.get(i % types.size()));
+
+            for (int j = 0; j < this.modifiers; j++)
+            {
+                fixture.getModifiers().add(this.createModifier(i + j));
+            }
+
+            profile.add(fixture);
+        }
+
+        for (int i = 0; i < this.globalModifiers; i++)
+        {
+            profile.getModifiers().add(this.createModifier(i));
+        }
+
+        return profile;
+    }
+
+    private AbstractFixture createFixture(Class<? extends AbstractFixture> type) throws Exception
+    {
+        long duration = this.duration;
+
+        if (type == PathFixture.class)
+        {
+            duration = Math.max(duration, this.points);
+        }
+        else if (type == KeyframeFixture.class)
+        {
+            duration = Math.max(duration, this.keyframes);
+        }
+
+        AbstractFixture fixture = FixtureRegistry.fromType(FixtureRegistry.CLASS_TO_ID.get(type), duration);
+
+        if (fixture instanceof PathFixture)
+        {
+            PathFixture path = (PathFixture) fixture;
+
+            for (int i = 0; i < this.points; i++)
+            {
+                path.addPoint(new DurablePosition(this.randomPoint(), this.randomAngle()));
+            }
+        }
+        else if (fixture instanceof KeyframeFixture)
+        {
+            KeyframeFixture keyframe = (KeyframeFixture) fixture;
+
+            for (KeyframeChannel channel : keyframe.channels)
+            {
+                long step = Math.max(duration / Math.max(this.keyframes, 1), 1);
+
+                for (int i = 0; i < this.keyframes; i++)
+                {
+                    channel.insert(i * step, this.random.nextFloat() * 100);
+                }
+            }
+        }
+        else if (fixture instanceof CircularFixture)
+        {
+            CircularFixture circular = (CircularFixture) fixture;
+
+            circular.start = this.randomPoint();
+            circular.distance = 1 + this.random.nextFloat() * 20;
+        }
+        else if (fixture instanceof IdleFixture)
+        {
+            ((IdleFixture) fixture).position.set(new Position(this.randomPoint(), this.randomAngle()));
+        }
+
+        return fixture;
+    }
+
+    /**
+     * Create a modifier of n-th registered type (entity based modifiers
+     * have no target, so they don't need a world)
+     */
+    private AbstractModifier createModifier(int index) throws Exception
+    {
+        List<Byte> ids = new ArrayList<Byte>(ModifierRegistry.CLASS_TO_ID.values());
+        AbstractModifier modifier = ModifierRegistry.fromType(ids.get(index % ids.size()));
+
+        if (modifier instanceof ShakeModifier)
+        {
+            ((ShakeModifier) modifier).shake = this.random.nextFloat() * 10;
+            ((ShakeModifier) modifier).shakeAmount = this.random.nextFloat();
+        }
+        else if (modifier instanceof MathModifier)
+        {
+            ((MathModifier) modifier).rebuildExpression("value + sin(t / 10)");
+        }
+
+        return modifier;
+    }
+
+    private Point randomPoint()
+    {
+        return new Point(this.random.nextDouble() * 1000 - 500, this.random.nextDouble() * 128, this.random.nextDouble() * 1000 - 500);
+    }
+
+    private Angle randomAngle()
+    {
+        return new Angle(this.random.nextFloat() * 360 - 180, this.random.nextFloat() * 180 - 90);
+    }
+}
@@ -0,0 +1,149 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.ByteArrayInputStream;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import mchorse.aperture.camera.CameraExporter;
+import mchorse.aperture.camera.CameraExporter.Format;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.modifiers.LookModifier;
+
+/**
+ * Tests of camera exporter, parallel evaluation must produce the same
+ * frames as sequential playback
+ */
+public class TestCameraExporter
+{
+    @BeforeClass
+    public static void setUp()
+    {
+        ProfileGenerator.setUp();
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws Exception
+    {
+        ProfileGenerator generator = new ProfileGenerator().fixtures(200).points(20).keyframes(20).modifiers(2, 2);
+
+        generator.duration = 60;
+
+        CameraProfile profile = generator.generate(42);
+
+        for (int fps : new int[] {24, 60, 120})
+        {
+            CameraExporter exporter = new CameraExporter(profile, fps).evaluate();
+            CameraProfile copy = profile.clone();
+            Position position = new Position(0, 0, 0, 0, 0);
+
+            assertEquals(exporter.getFrames() * CameraExporter.STRIDE, exporter.samples.length);
+
+            for (int frame = 0; frame < exporter.getFrames(); frame++)
+            {
+                long time = (long) frame * 20;
+                int i = frame * CameraExporter.STRIDE;
+
+                copy.applyProfile(time / fps, (float) (time % fps) / fps, position);
+
+                assertEquals(position.point.x, exporter.samples[i], 0);
+                assertEquals(position.point.y, exporter.samples[i + 1], 0);
+                assertEquals(position.point.z, exporter.samples[i + 2], 0);
+                assertEquals(position.angle.yaw, exporter.samples[i + 3], 0);
+                assertEquals(position.angle.pitch, exporter.samples[i + 4], 0);
+                assertEquals(position.angle.roll, exporter.samples[i + 5], 0);
+                assertEquals(position.angle.fov, exporter.samples[i + 6], 0);
+            }
+        }
+    }
+
+    @Test
+    public void testStreamedMatchesEvaluated() throws Exception
+    {
+        ProfileGenerator generator = new ProfileGenerator().fixtures(200).points(20).keyframes(20);
+
+        generator.duration = 60;
+
+        CameraProfile profile = generator.generate(11);
+        CameraExporter exporter = new CameraExporter(profile, 60);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exporter.modifiers = false;
+        exporter.write(output, Format.BINARY);
+        exporter.evaluate();
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+
+        input.skipBytes(13);
+
+        for (int i = 0; i < exporter.samples.length; i += CameraExporter.STRIDE)
+        {
+            assertEquals(exporter.samples[i], input.readDouble(), 0);
+            assertEquals(exporter.samples[i + 1], input.readDouble(), 0);
+            assertEquals(exporter.samples[i + 2], input.readDouble(), 0);
+
+            for (int j = 3; j < CameraExporter.STRIDE; j++)
+            {
+                assertEquals((float) exporter.samples[i + j], input.readFloat(), 0);
+            }
+        }
+
+        assertEquals(0, input.available());
+    }
+
+    @Test
+    public void testEntityModifiersAreSequential() throws Exception
+    {
+        CameraProfile profile = new ProfileGenerator().fixtures(10).generate(7);
+        CameraExporter exporter = new CameraExporter(profile, 30);
+
+        assertFalse(exporter.isSequential());
+
+        profile.get(3).getModifiers().add(new LookModifier());
+
+        assertTrue(exporter.isSequential());
+
+        exporter.modifiers = false;
+
+        assertFalse(exporter.isSequential());
+    }
+
+    @Test
+    public void testBinaryFormat() throws Exception
+    {
+        CameraProfile profile = new ProfileGenerator().fixtures(10).generate(7);
+        CameraExporter exporter = new CameraExporter(profile, 30);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exporter.write(output, Format.BINARY);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+        int frames = exporter.getFrames();
+
+        assertEquals(CameraExporter.BINARY_MAGIC, input.readInt());
+        assertEquals(CameraExporter.BINARY_VERSION, input.readByte());
+        assertEquals(30, input.readInt());
+        assertEquals(frames, input.readInt());
+        assertEquals(13 + frames * (3 * 8 + 4 * 4), output.size());
+    }
+
+    @Test
+    public void testCSVFormat() throws Exception
+    {
+        CameraProfile profile = new ProfileGenerator().fixtures(3).generate(7);
+        CameraExporter exporter = new CameraExporter(profile, 24);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exporter.write(output, Format.CSV);
+
+        String[] lines = output.toString("UTF-8").split("\n");
+
+        assertEquals(exporter.getFrames() + 1, lines.length);
+        assertEquals(9, lines[1].split(",").length);
+    }
+}
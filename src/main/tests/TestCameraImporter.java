@@ -0,0 +1,111 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import mchorse.aperture.camera.CameraExporter;
+import mchorse.aperture.camera.CameraExporter.Format;
+import mchorse.aperture.camera.CameraImporter;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.fixtures.Keyframe;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
+import mchorse.aperture.camera.fixtures.KeyframeWriter;
+import mchorse.aperture.camera.fixtures.PathFixture;
+
+/**
+ * Tests of streaming camera track import
+ */
+public class TestCameraImporter
+{
+    @BeforeClass
+    public static void setUp()
+    {
+        ProfileGenerator.setUp();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        CameraProfile profile = new ProfileGenerator().fixtures(4, PathFixture.class).points(10).generate(3);
+
+        for (Format format : new Format[] {Format.CSV, Format.BINARY})
+        {
+            /* At 20 FPS every frame is a tick, so keyframes have to
+             * match exported frames */
+            CameraExporter exporter = new CameraExporter(profile, 20).evaluate();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            exporter.write(output, format);
+
+            KeyframeFixture fixture = new CameraImporter().read(new ByteArrayInputStream(output.toByteArray()), format);
+
+            assertEquals(exporter.getFrames(), fixture.x.getKeyframes().size());
+
+            for (int i = 0; i < CameraExporter.STRIDE; i++)
+            {
+                if (i == 3)
+                {
+                    /* Yaw gets unwrapped */
+                    continue;
+                }
+
+                List<Keyframe> keyframes = fixture.channels[i].getKeyframes();
+
+                for (int frame = 0; frame < keyframes.size(); frame++)
+                {
+                    assertEquals(frame, keyframes.get(frame).tick);
+                    assertEquals((float) exporter.samples[frame * CameraExporter.STRIDE + i], keyframes.get(frame).value, 0.0001F);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testResampling() throws Exception
+    {
+        String csv = "time,x\n0,0\n0.1,10\n0.2,20\n0.25,40\n";
+        KeyframeFixture fixture = new CameraImporter().read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), Format.CSV);
+
+        /* 0.25 seconds are 5 ticks, so there are keyframes at ticks 0 - 5 */
+        assertEquals(6, fixture.x.getKeyframes().size());
+        assertEquals(5, fixture.getDuration());
+        assertEquals(5, fixture.x.interpolate(1), 0.0001F);
+        assertEquals(20, fixture.x.interpolate(4), 0.0001F);
+        assertTrue(fixture.y.isEmpty());
+    }
+
+    @Test
+    public void testReductionTolerance()
+    {
+        KeyframeChannel channel = new KeyframeChannel();
+        KeyframeWriter writer = new KeyframeWriter(channel, 0.05F);
+        float[] samples = new float[100000];
+        double velocity = 0;
+        double value = 0;
+
+        for (int i = 0; i < samples.length; i++)
+        {
+            velocity += Math.sin(i * 0.37) * Math.cos(i * 0.011) * 0.01;
+            value += velocity;
+            samples[i] = (float) (value * 0.01 + Math.sin(i / 50.0) * 3);
+
+            writer.add(i, samples[i]);
+        }
+
+        writer.flush();
+
+        for (int i = 0; i < samples.length; i++)
+        {
+            assertEquals(samples[i], channel.interpolate(i), 0.0501F);
+        }
+
+        assertTrue(channel.getKeyframes().size() < samples.length / 10);
+    }
+}
@@ -0,0 +1,90 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import mchorse.aperture.camera.CameraRecorder;
+import mchorse.aperture.camera.core.CurveMath;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
+
+/**
+ * Tests of camera motion recording
+ */
+public class TestCameraRecorder
+{
+    @BeforeClass
+    public static void setUp()
+    {
+        ProfileGenerator.setUp();
+    }
+
+    private static double x(double tick)
+    {
+        return Math.sin(tick / 40) * 5 + tick * 0.1;
+    }
+
+    @Test
+    public void testRecording()
+    {
+        /* Small buffer, so it gets drained in the middle of a tick */
+        CameraRecorder recorder = new CameraRecorder(16);
+        int ticks = 20 * 60 * 3;
+
+        recorder.start(0.01F, 0.1F);
+
+        /* Three minutes at 60 frames per second */
+        for (int frame = 0; frame <= ticks * 3; frame++)
+        {
+            double tick = frame / 3D;
+
+            recorder.record(tick, x(tick), 4, 0, CurveMath.wrapDegrees((float) tick * 2), 0, 0, 70);
+
+            if (frame % 3 == 0)
+            {
+                recorder.drain();
+            }
+        }
+
+        KeyframeFixture fixture = recorder.stop();
+
+        assertTrue(!recorder.isRecording());
+        assertEquals(ticks * 3 + 1, recorder.getFrames());
+        assertTrue(fixture.x.getKeyframes().size() < ticks / 4);
+        assertEquals(2, fixture.y.getKeyframes().size());
+
+        for (int tick = 0; tick <= ticks; tick++)
+        {
+            assertEquals(x(tick), fixture.x.interpolate(tick), 0.011F);
+
+            /* Yaw is continuous, even though it was wrapped */
+            assertEquals(tick * 2, fixture.yaw.interpolate(tick), 0.11F);
+        }
+    }
+
+    @Test
+    public void testSkipsStaleFrames()
+    {
+        CameraRecorder recorder = new CameraRecorder(4);
+
+        recorder.start(0, 0);
+        recorder.record(0, 0, 0, 0, 0, 0, 0, 70);
+        recorder.record(0, 1, 0, 0, 0, 0, 0, 70);
+        recorder.record(1, 1, 0, 0, 0, 0, 0, 70);
+
+        assertEquals(2, recorder.getFrames());
+        assertEquals(2, recorder.stop().x.getKeyframes().size());
+    }
+
+    @Test
+    public void testEmptyRecording()
+    {
+        CameraRecorder recorder = new CameraRecorder();
+
+        recorder.start(0, 0);
+
+        assertNull(recorder.stop());
+        assertNull(recorder.stop());
+    }
+}
@@ -0,0 +1,82 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeInterpolation;
+import mchorse.aperture.camera.fixtures.KeyframeReducer;
+
+/**
+ * Tests of keyframe reduction
+ */
+public class TestKeyframeReducer
+{
+    private static final int SAMPLES = 5000;
+
+    private static float[] samples()
+    {
+        float[] samples = new float[SAMPLES];
+
+        for (int i = 0; i < samples.length; i++)
+        {
+            samples[i] = (float) (Math.sin(i / 50.0) * 3 + Math.sin(i / 7.0) * 0.2 + i * 0.001);
+        }
+
+        return samples;
+    }
+
+    private static KeyframeChannel channel(float[] samples)
+    {
+        KeyframeChannel channel = new KeyframeChannel();
+
+        for (int i = 0; i < samples.length; i++)
+        {
+            channel.append(i, samples[i]);
+        }
+
+        return channel;
+    }
+
+    @Test
+    public void testTolerance()
+    {
+        float[] samples = samples();
+
+        for (KeyframeInterpolation interp : new KeyframeInterpolation[] {KeyframeInterpolation.LINEAR, KeyframeInterpolation.HERMITE, KeyframeInterpolation.BEZIER})
+        {
+            KeyframeChannel channel = channel(samples);
+            KeyframeReducer reducer = new KeyframeReducer(interp);
+
+            reducer.reduce(channel, 0.05F);
+
+            assertEquals(SAMPLES, reducer.before);
+            assertEquals(channel.getKeyframes().size(), reducer.after);
+            assertTrue(interp.key, reducer.getRatio() > 2);
+
+            for (int i = 0; i < samples.length; i++)
+            {
+                assertEquals(interp.key, samples[i], channel.interpolate(i), 0.0501F);
+            }
+        }
+    }
+
+    @Test
+    public void testBezierFitsBetter()
+    {
+        float[] samples = samples();
+        KeyframeReducer linear = new KeyframeReducer(KeyframeInterpolation.LINEAR);
+        KeyframeReducer bezier = new KeyframeReducer(KeyframeInterpolation.BEZIER);
+
+        linear.reduce(channel(samples), 0.05F);
+        bezier.reduce(channel(samples), 0.05F);
+
+        assertTrue(bezier.after < linear.after);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedInterpolation()
+    {
+        new KeyframeReducer(KeyframeInterpolation.CONST);
+    }
+}
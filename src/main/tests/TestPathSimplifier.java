@@ -0,0 +1,87 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import mchorse.aperture.camera.data.Angle;
+import mchorse.aperture.camera.data.Point;
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.fixtures.PathFixture;
+import mchorse.aperture.camera.fixtures.PathFixture.DurablePosition;
+import mchorse.aperture.camera.fixtures.PathFixture.InterpolationType;
+import mchorse.aperture.camera.fixtures.PathSimplifier;
+
+/**
+ * Tests of path point simplification
+ */
+public class TestPathSimplifier
+{
+    private static final int POINTS = 500;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        ProfileGenerator.setUp();
+    }
+
+    private static PathFixture path(boolean perPointDuration)
+    {
+        /* Without per point duration, points are at whole ticks */
+        PathFixture path = new PathFixture((POINTS - 1) * 2);
+
+        path.perPointDuration = perPointDuration;
+        path.interpolationPos = InterpolationType.LINEAR;
+        path.interpolationAngle = InterpolationType.LINEAR;
+
+        for (int i = 0; i < POINTS; i++)
+        {
+            Point point = new Point(i * 0.1, Math.sin(i / 40.0) * 2, Math.floor(i / 100.0) * 3);
+            Angle angle = new Angle((float) (i * 0.5), (float) Math.cos(i / 30.0) * 10, 0, 70);
+
+            path.addPoint(new DurablePosition(1 + i % 3, point, angle));
+        }
+
+        return path;
+    }
+
+    @Test
+    public void testTolerance()
+    {
+        for (boolean perPointDuration : new boolean[] {true, false})
+        {
+            PathFixture path = path(perPointDuration);
+            PathFixture simplified = new PathSimplifier(0.05F, 0.5F).simplify(path);
+            long[] ticks = PathSimplifier.getTicks(path);
+            Position a = new Position(0, 0, 0, 0, 0);
+            Position b = new Position(0, 0, 0, 0, 0);
+
+            assertTrue(simplified.getCount() < POINTS / 4);
+            assertEquals(path.getDuration(), simplified.getDuration());
+
+            for (int i = 0; i < POINTS; i++)
+            {
+                path.applyFixture(ticks[i], 0, null, a);
+                simplified.applyFixture(ticks[i], 0, null, b);
+
+                double dx = a.point.x - b.point.x;
+                double dy = a.point.y - b.point.y;
+                double dz = a.point.z - b.point.z;
+
+                assertEquals(0, Math.sqrt(dx * dx + dy * dy + dz * dz), 0.0501);
+                assertEquals(a.angle.yaw, b.angle.yaw, 0.501F);
+                assertEquals(a.angle.pitch, b.angle.pitch, 0.501F);
+            }
+        }
+    }
+
+    @Test
+    public void testKeepsPath()
+    {
+        PathFixture path = path(false);
+        PathFixture simplified = new PathSimplifier(0, 0).simplify(path);
+
+        assertEquals(POINTS, simplified.getCount());
+        assertEquals(path.perPointDuration, simplified.perPointDuration);
+    }
+}
@@ -0,0 +1,317 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.CameraUtils;
+import mchorse.aperture.camera.data.Position;
+import mchorse.aperture.camera.fixtures.AbstractFixture;
+import mchorse.aperture.camera.fixtures.KeyframeChannel;
+import mchorse.aperture.camera.fixtures.KeyframeFixture;
+import mchorse.aperture.camera.fixtures.PathFixture.DurablePosition;
+import mchorse.aperture.camera.fixtures.PathFixture;
+
+/**
+ * Scaling tests
+ *
+ * Every test runs an operation on inputs of 10^2 to 10^5 elements
+ * (fixtures, path points or keyframes) and checks its results. Time
+ * growth is estimated between 10^3 and 10^5 elements (best of several
+ * runs), as smaller inputs are too noisy.
+ *
+ * Timing depends on the machine and its load, so by default the bound
+ * is generous (times below a millisecond are considered to be noise, and
+ * growth has to stay clearly below quadratic), which fails only on gross
+ * regressions. Run with <code>-Daperture.scaling.report=true</code> to
+ * print the times, and with <code>-Daperture.scaling.strict=true</code>
+ * to fail when time grows close to quadratically (i.e. when checking
+ * for O(n^2) regressions on a quiet machine).
+ */
+public class TestProfileScaling
+{
+    public static final int[] SIZES = {100, 1000, 10000, 100000};
+    public static final int RUNS = 5;
+
+    public static final boolean REPORT = Boolean.getBoolean("aperture.scaling.report");
+    public static final boolean STRICT = Boolean.getBoolean("aperture.scaling.strict");
+
+    /**
+     * Maximum growth exponent (1 is linear, 2 is quadratic), by default
+     * and in strict mode
+     */
+    public static final double MAX_EXPONENT = 1.8;
+    public static final double STRICT_MAX_EXPONENT = 1.5;
+
+    /**
+     * Times below this (in nanoseconds) are considered to be noise, by
+     * default and in strict mode
+     */
+    public static final long MIN_TIME = 1000000;
+    public static final long STRICT_MIN_TIME = 200000;
+
+    /**
+     * How many random ticks are evaluated when scrubbing
+     */
+    public static final int SCRUBS = 1000;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        ProfileGenerator.setUp();
+    }
+
+    @Test
+    public void testKeyframePlayback() throws Exception
+    {
+        this.checkScaling("keyframe playback", (n) ->
+        {
+            CameraProfile profile = new ProfileGenerator().fixtures(1, KeyframeFixture.class).keyframes(n).generate(n);
+
+            return () -> play(profile);
+        });
+    }
+
+    @Test
+    public void testPathPlayback() throws Exception
+    {
+        this.checkScaling("path playback", (n) ->
+        {
+            CameraProfile profile = new ProfileGenerator().fixtures(1, PathFixture.class).points(n).generate(n);
+
+            return () -> play(profile);
+        });
+    }
+
+    @Test
+    public void testModifiersPlayback() throws Exception
+    {
+        this.checkScaling("modifiers playback", (n) ->
+        {
+            ProfileGenerator generator = new ProfileGenerator().fixtures(1, KeyframeFixture.class).keyframes(n).modifiers(8, 8);
+            CameraProfile profile = generator.generate(n);
+
+            return () -> play(profile);
+        });
+    }
+
+    @Test
+    public void testScrubbing() throws Exception
+    {
+        this.checkScaling("scrubbing", (n) ->
+        {
+            CameraProfile profile = new ProfileGenerator().fixtures(n).generate(n);
+            Random random = new Random(n);
+            Position position = new Position(0, 0, 0, 0, 0);
+            long duration = profile.getDuration();
+
+            return () ->
+            {
+                for (int i = 0; i < SCRUBS; i++)
+                {
+                    profile.applyProfile((long) (random.nextDouble() * duration), random.nextFloat(), position);
+                }
+            };
+        });
+    }
+
+    @Test
+    public void testJSONSerialization() throws Exception
+    {
+        this.checkScaling("JSON serialization", (n) ->
+        {
+            CameraProfile profile = new ProfileGenerator().fixtures(n).modifiers(1, 0).generate(n);
+
+            return () ->
+            {
+                CameraProfile read = CameraUtils.readJSON(new StringReader(CameraUtils.toJSON(profile)));
+
+                assertEquals(profile.getCount(), read.getCount());
+            };
+        });
+    }
+
+    @Test
+    public void testByteBufSerialization() throws Exception
+    {
+        this.checkScaling("ByteBuf serialization", (n) ->
+        {
+            CameraProfile profile = new ProfileGenerator().fixtures(n).modifiers(1, 0).generate(n);
+
+            return () ->
+            {
+                ByteBuf buffer = Unpooled.buffer();
+                CameraProfile read = new CameraProfile(null);
+
+                profile.toByteBuf(buffer);
+                read.fromByteBuf(buffer);
+
+                assertEquals(profile.getCount(), read.getCount());
+            };
+        });
+    }
+
+    @Test
+    public void testKeyframeEditing() throws Exception
+    {
+        this.checkScaling("keyframe editing", (n) ->
+        {
+            KeyframeChannel channel = new KeyframeChannel();
+            Random random = new Random(n);
+
+            return () ->
+            {
+                for (int i = 0; i < n; i++)
+                {
+                    channel.insert(i, i);
+                }
+
+                /* Overwriting existing keyframes */
+                for (int i = 0; i < n; i++)
+                {
+                    channel.insert(random.nextInt(n), i);
+                }
+
+                assertEquals(n, channel.getKeyframes().size());
+            };
+        });
+    }
+
+    @Test
+    public void testPathEditing() throws Exception
+    {
+        this.checkScaling("path editing", (n) ->
+        {
+            PathFixture path = new PathFixture(n);
+
+            return () ->
+            {
+                for (int i = 0; i < n; i++)
+                {
+                    path.addPoint(new DurablePosition(i, 0, 0, 0, 0));
+                }
+
+                AbstractFixture clone = path.clone();
+
+                for (int i = n - 1; i >= 0; i--)
+                {
+                    path.removePoint(i);
+                }
+
+                assertEquals(n, ((PathFixture) clone).getCount());
+            };
+        });
+    }
+
+    @Test
+    public void testProfileEditing() throws Exception
+    {
+        this.checkScaling("profile editing", (n) ->
+        {
+            CameraProfile profile = new CameraProfile(null);
+            ProfileGenerator generator = new ProfileGenerator();
+
+            return () ->
+            {
+                for (int i = 0; i < n; i++)
+                {
+                    profile.add(generator.generate(i).get(0), profile.getCount() - 1);
+                }
+
+                CameraProfile clone = profile.clone();
+
+                for (int i = n - 1; i >= 0; i--)
+                {
+                    profile.remove(i);
+                }
+
+                assertEquals(n, clone.getCount());
+            };
+        });
+    }
+
+    /**
+     * Play given profile tick by tick from the beginning till the end
+     */
+    private static void play(CameraProfile profile)
+    {
+        Position position = new Position(0, 0, 0, 0, 0);
+
+        for (long tick = 0, duration = profile.getDuration(); tick < duration; tick++)
+        {
+            profile.applyProfile(tick, 0.5F, position);
+        }
+    }
+
+    /**
+     * Run given scenario on all sizes, and assert that its time doesn't 
+     * grow quadratically
+     */
+    private void checkScaling(String name, IScenario scenario) throws Exception
+    {
+        long[] times = new long[SIZES.length];
+
+        /* Warm up the JIT */
+        for (int i = 0; i < RUNS; i++)
+        {
+            scenario.prepare(SIZES[0]).run();
+        }
+
+        for (int i = 0; i < SIZES.length; i++)
+        {
+            times[i] = Long.MAX_VALUE;
+
+            for (int j = 0; j < RUNS; j++)
+            {
+                IAction action = scenario.prepare(SIZES[i]);
+                long time = System.nanoTime();
+
+                action.run();
+                times[i] = Math.min(times[i], System.nanoTime() - time);
+            }
+        }
+
+        long min = STRICT ? STRICT_MIN_TIME : MIN_TIME;
+        double max = STRICT ? STRICT_MAX_EXPONENT : MAX_EXPONENT;
+
+        int first = 1;
+        int last = SIZES.length - 1;
+        double exponent = Math.log((double) Math.max(times[last], min) / Math.max(times[first], min)) / Math.log((double) SIZES[last] / SIZES[first]);
+
+        StringBuilder report = new StringBuilder(name + ": ");
+
+        for (int i = 0; i < SIZES.length; i++)
+        {
+            report.append(SIZES[i]).append(" -> ").append(String.format("%.2f ms", times[i] / 1000000.0)).append(", ");
+        }
+
+        report.append(String.format("exponent %.2f", exponent));
+
+        if (REPORT)
+        {
+            System.out.println(report);
+        }
+
+        assertTrue(report.toString(), exponent < max);
+    }
+
+    /**
+     * Scenario prepares an action on input of given size (preparation
+     * isn't measured)
+     */
+    private static interface IScenario
+    {
+        public IAction prepare(int n) throws Exception;
+    }
+
+    private static interface IAction
+    {
+        public void run() throws Exception;
+    }
+}
@@ -0,0 +1,85 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import mchorse.aperture.camera.CameraProfile;
+import mchorse.aperture.camera.storage.MemoryProfileStore;
+import mchorse.aperture.camera.storage.ProfileStore;
+import mchorse.aperture.camera.storage.ZipProfileStore;
+
+/**
+ * Tests of in-memory and zip profile stores, profiles packed into a
+ * bundle must be read back the same
+ */
+public class TestProfileStores
+{
+    @BeforeClass
+    public static void setUp()
+    {
+        ProfileGenerator.setUp();
+    }
+
+    @Test
+    public void testPackAndOpen() throws Exception
+    {
+        MemoryProfileStore memory = new MemoryProfileStore();
+        ProfileGenerator generator = new ProfileGenerator().fixtures(20).modifiers(1, 1);
+
+        for (int i = 0; i < 5; i++)
+        {
+            memory.write("cutscene_" + i, generator.generate(i));
+        }
+
+        File file = File.createTempFile("aperture", ".zip");
+
+        try
+        {
+            ZipProfileStore.pack(memory, memory.list(), file);
+
+            ProfileStore bundle = ZipProfileStore.open(file);
+
+            assertEquals(memory.list(), bundle.list());
+
+            for (String name : memory.list())
+            {
+                CameraProfile expected = memory.read(name);
+                CameraProfile actual = bundle.read(name);
+
+                assertEquals(expected.getCount(), actual.getCount());
+                assertEquals(expected.getDuration(), actual.getDuration());
+                assertEquals(expected.getModifiers().size(), actual.getModifiers().size());
+                assertEquals(expected.getCount(), bundle.readHeader(name).entries.size());
+            }
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testBrokenArchive() throws Exception
+    {
+        File file = File.createTempFile("aperture", ".zip");
+
+        try
+        {
+            FileOutputStream stream = new FileOutputStream(file);
+
+            stream.write(Arrays.copyOf("not a zip".getBytes("UTF-8"), 64));
+            stream.close();
+
+            ZipProfileStore.open(file);
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}